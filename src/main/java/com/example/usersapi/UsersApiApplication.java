@@ -1,7 +1,22 @@
 package com.example.usersapi;
 
+import com.example.usersapi.dto.ImportReport;
+import com.example.usersapi.service.UserImportService;
+import com.example.usersapi.synthetic.SyntheticUserFiles;
+import com.example.usersapi.synthetic.SyntheticUserGenerator;
 import org.springframework.boot.SpringApplication;
+import org.springframework.boot.WebApplicationType;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.autoconfigure.data.r2dbc.R2dbcDataAutoConfiguration;
+import org.springframework.boot.autoconfigure.data.r2dbc.R2dbcRepositoriesAutoConfiguration;
+import org.springframework.boot.autoconfigure.r2dbc.R2dbcAutoConfiguration;
+import org.springframework.boot.autoconfigure.r2dbc.R2dbcTransactionManagerAutoConfiguration;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
 
 /**
  * Classe principal da aplicação Spring Boot.
@@ -10,17 +25,99 @@ import org.springframework.boot.autoconfigure.SpringBootApplication;
  * - @Configuration: marca a classe como fonte de definições de bean
  * - @EnableAutoConfiguration: habilita a configuração automática do Spring Boot
  * - @ComponentScan: habilita o escaneamento de componentes no pacote atual e sub-pacotes
+ * 
+ * exclude: o R2DBC está no classpath para a variante reativa (reactive.ReactiveUsersApiApplication);
+ * aqui ele criaria um segundo banco e um segundo gerenciador de transações ao lado do JPA.
  */
-@SpringBootApplication
+@SpringBootApplication(exclude = {
+        R2dbcAutoConfiguration.class,
+        R2dbcDataAutoConfiguration.class,
+        R2dbcRepositoriesAutoConfiguration.class,
+        R2dbcTransactionManagerAutoConfiguration.class
+})
 public class UsersApiApplication {
 
+    /**
+     * Primeiro argumento que executa a importação em lote em vez de subir o servidor.
+     */
+    static final String IMPORT_COMMAND = "import";
+
+    /**
+     * Primeiro argumento que gera um arquivo de usuários sintéticos em vez de subir o servidor.
+     */
+    static final String GENERATE_COMMAND = "generate";
+
     /**
      * Método principal que inicia a aplicação Spring Boot.
      * 
+     * Com "import &lt;arquivo&gt; [importId]" importa o arquivo e encerra, sem servidor web.
+     * Com "generate &lt;arquivo&gt; &lt;quantidade&gt; [semente]" gera o arquivo e encerra, sem Spring.
+     * 
      * @param args argumentos da linha de comando
      */
     public static void main(String[] args) {
+        if (args.length > 0 && IMPORT_COMMAND.equals(args[0])) {
+            System.exit(runImport(Arrays.copyOfRange(args, 1, args.length)));
+        }
+        if (args.length > 0 && GENERATE_COMMAND.equals(args[0])) {
+            System.exit(runGenerate(Arrays.copyOfRange(args, 1, args.length)));
+        }
+        
         // SpringApplication.run() inicia o contexto do Spring e o servidor web embarcado
         SpringApplication.run(UsersApiApplication.class, args);
     }
-}
\ No newline at end of file
+
+    /**
+     * Executa a importação pela linha de comando.
+     * Argumentos iniciados por "--" são repassados ao Spring (ex.: --spring.datasource.url=...).
+     * 
+     * @return código de saída: 0 se concluída, 1 se interrompida, 2 se os argumentos forem inválidos
+     */
+    private static int runImport(String[] args) {
+        List<String> positional = Arrays.stream(args).filter(arg -> !arg.startsWith("--")).toList();
+        if (positional.isEmpty() || positional.size() > 2) {
+            System.err.println("Uso: java -jar users-api.jar import <arquivo.csv|.ndjson> [importId] [--propriedade=valor ...]");
+            return 2;
+        }
+        String[] springArgs = Arrays.stream(args).filter(arg -> arg.startsWith("--")).toArray(String[]::new);
+        
+        // Sem servidor web: só o contexto com banco e serviços
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(UsersApiApplication.class)
+                .web(WebApplicationType.NONE)
+                .run(springArgs)) {
+            ImportReport report = context.getBean(UserImportService.class)
+                    .importFile(Path.of(positional.get(0)), positional.size() > 1 ? positional.get(1) : null);
+            System.out.printf("Importação %s %s: %d inseridos, %d rejeitados (motivos em GET %s ou na tabela user_import_rejection)%n",
+                    report.getImportId(), report.getStatus(), report.getImported(), report.getRejected(),
+                    report.getRejectionsUrl());
+            return "COMPLETED".equals(report.getStatus()) ? 0 : 1;
+        }
+    }
+
+    /**
+     * Gera um arquivo CSV ou NDJSON de usuários sintéticos (formato da importação).
+     * 
+     * @return código de saída: 0 se gerado, 2 se os argumentos forem inválidos
+     */
+    private static int runGenerate(String[] args) {
+        if (args.length < 2 || args.length > 3) {
+            System.err.println("Uso: java -jar users-api.jar generate <arquivo.csv|.ndjson> <quantidade> [semente]");
+            return 2;
+        }
+        long count;
+        long seed;
+        try {
+            count = Long.parseLong(args[1]);
+            seed = args.length > 2 ? Long.parseLong(args[2]) : 42;
+        } catch (NumberFormatException e) {
+            System.err.println("Quantidade e semente devem ser números inteiros");
+            return 2;
+        }
+        
+        long start = System.nanoTime();
+        long written = SyntheticUserFiles.write(new SyntheticUserGenerator(seed), count, Path.of(args[0]));
+        System.out.printf("%d usuários gravados em %s (semente %d) em %d ms%n",
+                written, args[0], seed, (System.nanoTime() - start) / 1_000_000);
+        return 0;
+    }
+}
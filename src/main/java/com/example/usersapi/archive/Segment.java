@@ -0,0 +1,337 @@
+package com.example.usersapi.archive;
+
+import com.example.usersapi.model.User;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.Inflater;
+
+/**
+ * Arquivo de segmento imutável com usuários arquivados, mapeado em memória para leitura.
+ *
+ * Formato (big-endian):
+ * <pre>
+ * cabeçalho    MAGIC (int), VERSION (int)
+ * blocos       até blockSize usuários cada, em ordem de ID, comprimidos com Deflate
+ * índice de ID um registro por bloco (esparso): primeiro ID, posição, tamanho comprimido, tamanho original
+ * índice de email  um registro por usuário: hash do email, ID - ordenado por hash
+ * rodapé       posição do índice de ID, blocos, posição do índice de email, usuários, maior ID, MAGIC
+ * </pre>
+ *
+ * Buscar um ID é uma busca binária no índice esparso (em memória) e a descompressão de um
+ * único bloco (alguns KB); buscar um email é uma busca binária no índice de email direto
+ * no arquivo mapeado e depois a busca pelo ID. Nenhuma das duas faz E/S explícita: o SO
+ * traz as páginas do arquivo conforme são lidas.
+ */
+final class Segment {
+
+    private static final int MAGIC = 0x55534547; // "USEG"
+    private static final int VERSION = 1;
+    private static final int HEADER_BYTES = 8;
+    private static final int FOOTER_BYTES = 8 + 4 + 8 + 4 + 8 + 4;
+    private static final int EMAIL_ENTRY_BYTES = 16;
+    private static final int NULL_AGE = Integer.MIN_VALUE;
+
+    private final long seq;
+    private final Path file;
+    private final MappedByteBuffer buffer;
+    private final long[] firstIds;
+    private final int[] offsets;
+    private final int[] compressedLengths;
+    private final int[] rawLengths;
+    private final int emailIndexOffset;
+    private final int userCount;
+    private final long maxId;
+
+    private Segment(long seq, Path file, MappedByteBuffer buffer) {
+        this.seq = seq;
+        this.file = file;
+        this.buffer = buffer;
+        int footer = buffer.capacity() - FOOTER_BYTES;
+        if (buffer.capacity() < HEADER_BYTES + FOOTER_BYTES
+                || buffer.getInt(0) != MAGIC || buffer.getInt(4) != VERSION
+                || buffer.getInt(footer + FOOTER_BYTES - 4) != MAGIC) {
+            throw new IllegalStateException("Segmento inválido ou incompleto: " + file);
+        }
+        int idIndexOffset = (int) buffer.getLong(footer);
+        int blockCount = buffer.getInt(footer + 8);
+        this.emailIndexOffset = (int) buffer.getLong(footer + 12);
+        this.userCount = buffer.getInt(footer + 20);
+        this.maxId = buffer.getLong(footer + 24);
+
+        // O índice esparso é pequeno (um registro por bloco) e fica no heap
+        this.firstIds = new long[blockCount];
+        this.offsets = new int[blockCount];
+        this.compressedLengths = new int[blockCount];
+        this.rawLengths = new int[blockCount];
+        for (int i = 0, position = idIndexOffset; i < blockCount; i++, position += 20) {
+            firstIds[i] = buffer.getLong(position);
+            offsets[i] = buffer.getInt(position + 8);
+            compressedLengths[i] = buffer.getInt(position + 12);
+            rawLengths[i] = buffer.getInt(position + 16);
+        }
+    }
+
+    /**
+     * Abre um segmento existente (só leitura).
+     */
+    static Segment open(long seq, Path file) {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            // O mapeamento continua válido depois de fechar o canal
+            return new Segment(seq, file, channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Falha ao abrir o segmento " + file, e);
+        }
+    }
+
+    /**
+     * Grava um segmento novo e o abre. O arquivo aparece com o nome final só depois de
+     * completo e sincronizado com o disco (gravado em .tmp e renomeado).
+     *
+     * @param users usuários em ordem crescente de ID
+     */
+    static Segment write(long seq, Path file, List<User> users, int blockSize) {
+        if (users.isEmpty()) {
+            throw new IllegalArgumentException("Segmento sem usuários");
+        }
+        Path temporary = file.resolveSibling(file.getFileName() + ".tmp");
+        try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Channels.newOutputStream(channel)));
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+
+            int blockCount = (users.size() + blockSize - 1) / blockSize;
+            long[] blockFirstIds = new long[blockCount];
+            int[] blockOffsets = new int[blockCount];
+            int[] blockCompressed = new int[blockCount];
+            int[] blockRaw = new int[blockCount];
+            long previousId = Long.MIN_VALUE;
+            for (int block = 0; block < blockCount; block++) {
+                List<User> slice = users.subList(block * blockSize, Math.min((block + 1) * blockSize, users.size()));
+                ByteArrayOutputStream raw = new ByteArrayOutputStream();
+                DataOutputStream records = new DataOutputStream(raw);
+                for (User user : slice) {
+                    if (user.getId() <= previousId) {
+                        throw new IllegalArgumentException("Usuários fora de ordem de ID: " + user.getId());
+                    }
+                    previousId = user.getId();
+                    writeUser(records, user);
+                }
+                byte[] compressed = deflate(raw.toByteArray());
+                blockFirstIds[block] = slice.get(0).getId();
+                blockOffsets[block] = out.size();
+                blockCompressed[block] = compressed.length;
+                blockRaw[block] = raw.size();
+                out.write(compressed);
+            }
+
+            int idIndexOffset = out.size();
+            for (int block = 0; block < blockCount; block++) {
+                out.writeLong(blockFirstIds[block]);
+                out.writeInt(blockOffsets[block]);
+                out.writeInt(blockCompressed[block]);
+                out.writeInt(blockRaw[block]);
+            }
+
+            int emailIndexOffset = out.size();
+            long[][] emails = users.stream()
+                    .map(user -> new long[]{emailHash(user.getEmail()), user.getId()})
+                    .sorted(Comparator.<long[]>comparingLong(entry -> entry[0]).thenComparingLong(entry -> entry[1]))
+                    .toArray(long[][]::new);
+            for (long[] entry : emails) {
+                out.writeLong(entry[0]);
+                out.writeLong(entry[1]);
+            }
+
+            out.writeLong(idIndexOffset);
+            out.writeInt(blockCount);
+            out.writeLong(emailIndexOffset);
+            out.writeInt(users.size());
+            out.writeLong(previousId);
+            out.writeInt(MAGIC);
+            out.flush();
+            channel.force(true);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Falha ao gravar o segmento " + file, e);
+        }
+        try {
+            Files.move(temporary, file, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Falha ao publicar o segmento " + file, e);
+        }
+        return open(seq, file);
+    }
+
+    long seq() {
+        return seq;
+    }
+
+    Path file() {
+        return file;
+    }
+
+    int userCount() {
+        return userCount;
+    }
+
+    /**
+     * Usuário com o ID, ou null se não estiver neste segmento.
+     */
+    User find(long id) {
+        if (firstIds.length == 0 || id < firstIds[0] || id > maxId) {
+            return null;
+        }
+        int block = Arrays.binarySearch(firstIds, id);
+        if (block < 0) {
+            block = -block - 2; // último bloco que começa antes do ID
+        }
+        try (DataInputStream records = new DataInputStream(new ByteArrayInputStream(inflate(block)))) {
+            while (records.available() > 0) {
+                User user = readUser(records);
+                if (user.getId() == id) {
+                    return user;
+                }
+                if (user.getId() > id) {
+                    return null;
+                }
+            }
+            return null;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Segmento corrompido: " + file, e);
+        }
+    }
+
+    /**
+     * Usuário com o email, ou null se não estiver neste segmento.
+     */
+    User findByEmail(String email) {
+        long hash = emailHash(email);
+        int low = 0;
+        int high = userCount;
+        while (low < high) { // primeira entrada com hash >= procurado
+            int middle = (low + high) >>> 1;
+            if (buffer.getLong(emailIndexOffset + middle * EMAIL_ENTRY_BYTES) < hash) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        for (int i = low; i < userCount; i++) {
+            int position = emailIndexOffset + i * EMAIL_ENTRY_BYTES;
+            if (buffer.getLong(position) != hash) {
+                return null;
+            }
+            User user = find(buffer.getLong(position + 8));
+            if (user != null && user.getEmail().equals(email)) {
+                return user;
+            }
+        }
+        return null;
+    }
+
+    private byte[] inflate(int block) {
+        byte[] raw = new byte[rawLengths[block]];
+        Inflater inflater = new Inflater();
+        try {
+            ByteBuffer input = buffer.slice(offsets[block], compressedLengths[block]);
+            inflater.setInput(input);
+            int read = 0;
+            while (read < raw.length && !inflater.finished()) {
+                int inflated = inflater.inflate(raw, read, raw.length - read);
+                if (inflated == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+                    break;
+                }
+                read += inflated;
+            }
+            if (read != raw.length) {
+                throw new IllegalStateException("Bloco " + block + " incompleto em " + file);
+            }
+            return raw;
+        } catch (DataFormatException e) {
+            throw new IllegalStateException("Bloco " + block + " corrompido em " + file, e);
+        } finally {
+            inflater.end();
+        }
+    }
+
+    private static byte[] deflate(byte[] raw) throws IOException {
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream(raw.length / 2);
+        Deflater deflater = new Deflater(Deflater.BEST_COMPRESSION);
+        try (DeflaterOutputStream out = new DeflaterOutputStream(compressed, deflater)) {
+            out.write(raw);
+        } finally {
+            deflater.end();
+        }
+        return compressed.toByteArray();
+    }
+
+    private static void writeUser(DataOutputStream out, User user) throws IOException {
+        out.writeLong(user.getId());
+        out.writeUTF(user.getName());
+        out.writeUTF(user.getEmail());
+        out.writeInt(user.getAge() != null ? user.getAge() : NULL_AGE);
+        out.writeBoolean(user.getPhone() != null);
+        if (user.getPhone() != null) {
+            out.writeUTF(user.getPhone());
+        }
+        out.writeLong(toMicros(user.getCreatedAt()));
+        out.writeLong(toMicros(user.getUpdatedAt()));
+    }
+
+    private static User readUser(DataInputStream in) throws IOException {
+        long id = in.readLong();
+        String name = in.readUTF();
+        String email = in.readUTF();
+        int age = in.readInt();
+        String phone = in.readBoolean() ? in.readUTF() : null;
+        LocalDateTime createdAt = fromMicros(in.readLong());
+        LocalDateTime updatedAt = fromMicros(in.readLong());
+        return new User(id, name, email, age != NULL_AGE ? age : null, phone, createdAt, updatedAt);
+    }
+
+    /**
+     * Datas em microssegundos, a precisão da coluna (o ETag do usuário não muda ao arquivar).
+     */
+    private static long toMicros(LocalDateTime value) {
+        return value.toEpochSecond(ZoneOffset.UTC) * 1_000_000 + value.getNano() / 1_000;
+    }
+
+    private static LocalDateTime fromMicros(long micros) {
+        return LocalDateTime.ofEpochSecond(Math.floorDiv(micros, 1_000_000),
+                (int) Math.floorMod(micros, 1_000_000) * 1_000, ZoneOffset.UTC);
+    }
+
+    /**
+     * FNV-1a de 64 bits: colisões são resolvidas comparando o email do usuário encontrado.
+     */
+    static long emailHash(String email) {
+        long hash = 0xcbf29ce484222325L;
+        for (int i = 0; i < email.length(); i++) {
+            hash ^= email.charAt(i);
+            hash *= 0x100000001b3L;
+        }
+        return hash;
+    }
+}
@@ -0,0 +1,226 @@
+package com.example.usersapi.archive;
+
+import com.example.usersapi.model.User;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/**
+ * Camada fria: usuários inativos tirados da tabela users e guardados em segmentos imutáveis.
+ *
+ * As leituras consultam a tabela primeiro e o arquivo só depois (ver UserService): um
+ * usuário reativado (rehydrate) ou uma cópia antiga deixada por um arquivamento interrompido
+ * nunca encobre a linha da tabela.
+ *
+ * Segmentos não mudam. Um usuário que volta para a tabela ou é removido ganha uma lápide
+ * (tombstone): "ID X está morto em todos os segmentos até o número N". Um arquivamento
+ * posterior do mesmo ID (segmento N + 1 ou maior) volta a valer. As lápides ficam em
+ * tombstones.log (16 bytes por lápide, lidas ao abrir) e são aplicadas só depois do commit
+ * da transação que devolveu o usuário à tabela.
+ *
+ * Sem users.archive.enabled, o arquivo fica vazio (disabled()) e toda busca devolve vazio
+ * sem tocar em disco.
+ */
+@Slf4j
+public class UserArchive {
+
+    private static final Pattern SEGMENT_NAME = Pattern.compile("segment-(\\d{8})\\.useg");
+    private static final String TOMBSTONES = "tombstones.log";
+
+    private final Path directory;
+    private final int blockSize;
+
+    /**
+     * Segmentos do mais novo para o mais antigo; trocado (não alterado) a cada segmento novo.
+     */
+    private volatile List<Segment> segments = List.of();
+
+    /**
+     * ID -> maior número de segmento em que as cópias do ID estão mortas.
+     */
+    private final Map<Long, Long> tombstones = new ConcurrentHashMap<>();
+
+    private UserArchive(Path directory, int blockSize) {
+        this.directory = directory;
+        this.blockSize = blockSize;
+    }
+
+    /**
+     * Arquivo desligado: nenhum usuário, nenhuma gravação.
+     */
+    public static UserArchive disabled() {
+        return new UserArchive(null, 1);
+    }
+
+    /**
+     * Abre (ou cria) o diretório do arquivo, mapeando os segmentos e lendo as lápides.
+     *
+     * @param blockSize usuários por bloco comprimido dos segmentos novos
+     */
+    public static UserArchive open(Path directory, int blockSize) {
+        if (blockSize < 1) {
+            throw new IllegalArgumentException("blockSize deve ser positivo: " + blockSize);
+        }
+        UserArchive archive = new UserArchive(directory, blockSize);
+        try {
+            Files.createDirectories(directory);
+            List<Segment> found = new ArrayList<>();
+            try (Stream<Path> files = Files.list(directory)) {
+                for (Path file : files.toList()) {
+                    Matcher name = SEGMENT_NAME.matcher(file.getFileName().toString());
+                    if (name.matches()) {
+                        found.add(Segment.open(Long.parseLong(name.group(1)), file));
+                    }
+                }
+            }
+            found.sort(Comparator.comparingLong(Segment::seq).reversed());
+            archive.segments = List.copyOf(found);
+
+            Path tombstones = directory.resolve(TOMBSTONES);
+            if (Files.exists(tombstones)) {
+                ByteBuffer entries = ByteBuffer.wrap(Files.readAllBytes(tombstones));
+                while (entries.remaining() >= 16) { // uma gravação interrompida deixa no máximo um registro pela metade
+                    archive.tombstones.merge(entries.getLong(), entries.getLong(), Math::max);
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Falha ao abrir o arquivo de usuários em " + directory, e);
+        }
+        log.info("Arquivo de usuários aberto em {}: {} segmentos, {} usuários, {} lápides",
+                directory, archive.segments.size(), archive.userCount(), archive.tombstones.size());
+        return archive;
+    }
+
+    public boolean isEnabled() {
+        return directory != null;
+    }
+
+    /**
+     * Usuário arquivado com o ID (a cópia mais nova que não tenha lápide).
+     */
+    public Optional<User> find(long id) {
+        for (Segment segment : segments) {
+            User user = segment.find(id);
+            if (user != null) {
+                // A cópia mais nova decide: se ela está morta, as mais antigas também estão
+                return isLive(segment, id) ? Optional.of(user) : Optional.empty();
+            }
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * Usuário arquivado com o email.
+     */
+    public Optional<User> findByEmail(String email) {
+        for (Segment segment : segments) {
+            User user = segment.findByEmail(email);
+            if (user != null && isLive(segment, user.getId())) {
+                return Optional.of(user);
+            }
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * Grava um segmento novo com os usuários e passa a consultá-lo.
+     *
+     * @param users usuários em ordem crescente de ID
+     * @return número do segmento
+     */
+    public synchronized long append(List<User> users) {
+        requireEnabled();
+        long seq = latestSeq() + 1;
+        Segment segment = Segment.write(seq, directory.resolve(String.format("segment-%08d.useg", seq)), users, blockSize);
+        List<Segment> updated = new ArrayList<>(segments.size() + 1);
+        updated.add(segment);
+        updated.addAll(segments);
+        segments = List.copyOf(updated);
+        log.info("Segmento {} gravado com {} usuários ({} KB)", segment.file().getFileName(), users.size(),
+                segment.file().toFile().length() / 1024);
+        return seq;
+    }
+
+    /**
+     * Marca as cópias arquivadas do usuário como mortas (ele voltou para a tabela ou foi removido).
+     *
+     * Dentro de uma transação, a lápide só é gravada depois do commit: num rollback, o usuário
+     * continua existindo apenas no arquivo.
+     */
+    public void forget(long id) {
+        if (!isEnabled()) {
+            return;
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    tombstone(id);
+                }
+            });
+        } else {
+            tombstone(id);
+        }
+    }
+
+    private synchronized void tombstone(long id) {
+        long seq = latestSeq();
+        if (seq == 0) {
+            return;
+        }
+        ByteBuffer entry = ByteBuffer.allocate(16).putLong(id).putLong(seq).flip();
+        try (FileChannel channel = FileChannel.open(directory.resolve(TOMBSTONES),
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND)) {
+            while (entry.hasRemaining()) {
+                channel.write(entry);
+            }
+            channel.force(false);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Falha ao gravar a lápide do usuário " + id, e);
+        }
+        tombstones.merge(id, seq, Math::max);
+    }
+
+    public int segmentCount() {
+        return segments.size();
+    }
+
+    /**
+     * Usuários nos segmentos, incluindo cópias com lápide.
+     */
+    public long userCount() {
+        return segments.stream().mapToLong(Segment::userCount).sum();
+    }
+
+    private boolean isLive(Segment segment, long id) {
+        return tombstones.getOrDefault(id, 0L) < segment.seq();
+    }
+
+    private long latestSeq() {
+        List<Segment> current = segments;
+        return current.isEmpty() ? 0 : current.get(0).seq();
+    }
+
+    private void requireEnabled() {
+        if (!isEnabled()) {
+            throw new IllegalStateException("Arquivo de usuários desligado (users.archive.enabled=false)");
+        }
+    }
+}
@@ -0,0 +1,123 @@
+package com.example.usersapi.archive;
+
+import com.example.usersapi.config.ArchiveProperties;
+import com.example.usersapi.model.User;
+import com.example.usersapi.phone.PhoneIndex;
+import com.example.usersapi.repository.UserCacheInvalidator;
+import com.example.usersapi.repository.UserRepositoryImpl;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Move para o arquivo (UserArchive) os usuários sem alteração há mais de users.archive.inactive-after.
+ *
+ * Cada ciclo percorre a tabela em ordem de ID, users.archive.segment-size usuários por vez:
+ * 1. grava o segmento (completo e sincronizado com o disco)
+ * 2. remove da tabela, em uma transação, as linhas que não mudaram desde a leitura
+ *    (DELETE ... WHERE id = ? AND updated_at = ?)
+ * 3. dá lápide às cópias dos usuários alterados no meio do caminho
+ *
+ * Usuários arquivados saem também do índice de telefones: a busca por telefone só vê a tabela.
+ *
+ * Se o processo cair entre 1 e 2, o usuário fica nos dois lugares; a tabela é lida primeiro,
+ * então nada muda para quem lê, e o próximo ciclo arquiva de novo (num segmento mais novo).
+ *
+ * Criado em config.ArchiveConfig só com users.archive.enabled=true.
+ */
+@Slf4j
+public class UserArchiver {
+
+    private static final String SELECT_SQL = """
+            SELECT id, name, email, age, phone, created_at, updated_at FROM users
+            WHERE updated_at < ? AND id > ?
+            ORDER BY id
+            LIMIT ?""";
+
+    private static final String DELETE_SQL = "DELETE FROM users WHERE id = ? AND updated_at = ?";
+
+    private final ArchiveProperties properties;
+    private final UserArchive archive;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final UserCacheInvalidator userCacheInvalidator;
+    private final PhoneIndex phoneIndex;
+
+    public UserArchiver(ArchiveProperties properties, UserArchive archive, JdbcTemplate jdbcTemplate,
+                        TransactionTemplate transactionTemplate, UserCacheInvalidator userCacheInvalidator,
+                        PhoneIndex phoneIndex) {
+        this.properties = properties;
+        this.archive = archive;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.userCacheInvalidator = userCacheInvalidator;
+        this.phoneIndex = phoneIndex;
+    }
+
+    /**
+     * Ciclo agendado; fixedDelay: dois ciclos nunca rodam ao mesmo tempo.
+     */
+    @Scheduled(fixedDelayString = "${users.archive.interval:PT1H}",
+            initialDelayString = "${users.archive.interval:PT1H}")
+    public void scheduledRun() {
+        try {
+            archiveInactive();
+        } catch (RuntimeException e) {
+            log.error("Falha no arquivamento de usuários inativos: {}", e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Arquiva agora os usuários inativos.
+     *
+     * @return usuários removidos da tabela
+     */
+    public long archiveInactive() {
+        LocalDateTime cutoff = LocalDateTime.now().minus(properties.getInactiveAfter());
+        long archived = 0;
+        long lastId = 0;
+        while (true) {
+            List<User> users = jdbcTemplate.query(SELECT_SQL, UserRepositoryImpl.USER_ROW_MAPPER, cutoff, lastId, properties.getSegmentSize());
+            if (users.isEmpty()) {
+                break;
+            }
+            lastId = users.get(users.size() - 1).getId();
+
+            archive.append(users);
+            List<Long> changed = new ArrayList<>();
+            List<Long> removed = transactionTemplate.execute(status -> {
+                int[] counts = jdbcTemplate.batchUpdate(DELETE_SQL, users.stream()
+                        .map(user -> new Object[]{user.getId(), user.getUpdatedAt()})
+                        .toList());
+                List<Long> ids = new ArrayList<>();
+                for (int i = 0; i < counts.length; i++) {
+                    User user = users.get(i);
+                    if (counts[i] > 0) {
+                        ids.add(user.getId());
+                        phoneIndex.remove(user.getId(), user.getPhone());
+                    } else {
+                        changed.add(user.getId());
+                    }
+                }
+                userCacheInvalidator.usersWritten("archive", ids);
+                return ids;
+            });
+            // Alterados entre a leitura e o DELETE: continuam na tabela, a cópia arquivada não vale
+            changed.forEach(archive::forget);
+            archived += removed.size();
+
+            if (users.size() < properties.getSegmentSize()) {
+                break;
+            }
+        }
+        if (archived > 0) {
+            log.info("{} usuários sem alteração desde {} movidos para o arquivo", archived, cutoff);
+        }
+        return archived;
+    }
+}
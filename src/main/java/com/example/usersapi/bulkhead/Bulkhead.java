@@ -0,0 +1,159 @@
+package com.example.usersapi.bulkhead;
+
+import lombok.Getter;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Compartimento de uma raia de execução: vagas, fila e conexões próprias.
+ *
+ * Uma requisição ocupa uma vaga (maxConcurrent) enquanto executa. Sem vaga livre, espera
+ * na fila da raia até queueTimeout; com a fila cheia (maxQueue), é recusada na hora.
+ * Assim uma raia nunca segura mais que maxConcurrent + maxQueue threads do Tomcat,
+ * e uma rajada de varreduras não deixa as leituras pontuais sem thread.
+ *
+ * Do mesmo modo, a raia usa no máximo maxConnections conexões do pool do Hikari
+ * ao mesmo tempo (ver LanePartitionedDataSource), esperando até connectionTimeout.
+ *
+ * O compartimento da requisição atual fica em um ThreadLocal, lido pelo DataSource.
+ */
+public class Bulkhead {
+
+    private static final ThreadLocal<Bulkhead> CURRENT = new ThreadLocal<>();
+
+    @Getter
+    private final Lane lane;
+    @Getter
+    private final int maxConcurrent;
+    @Getter
+    private final int maxQueue;
+    @Getter
+    private final int maxConnections;
+    private final Duration queueTimeout;
+    private final Duration connectionTimeout;
+
+    private final Semaphore slots;
+    private final Semaphore connections;
+    private final AtomicInteger queued = new AtomicInteger();
+    private final LongAdder accepted = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder connectionsRejected = new LongAdder();
+
+    public Bulkhead(Lane lane, int maxConcurrent, int maxQueue, Duration queueTimeout,
+                    int maxConnections, Duration connectionTimeout) {
+        if (maxConcurrent < 1 || maxQueue < 0 || maxConnections < 1) {
+            throw new IllegalArgumentException("Compartimento inválido para " + lane.getName()
+                    + ": é preciso max-concurrent >= 1, max-queue >= 0 e max-connections >= 1");
+        }
+        this.lane = lane;
+        this.maxConcurrent = maxConcurrent;
+        this.maxQueue = maxQueue;
+        this.maxConnections = maxConnections;
+        this.queueTimeout = queueTimeout;
+        this.connectionTimeout = connectionTimeout;
+        this.slots = new Semaphore(maxConcurrent, true);
+        this.connections = new Semaphore(maxConnections, true);
+    }
+
+    /**
+     * Compartimento da requisição em execução nesta thread, se houver.
+     */
+    public static Optional<Bulkhead> current() {
+        return Optional.ofNullable(CURRENT.get());
+    }
+
+    /**
+     * Ocupa uma vaga, esperando na fila se preciso, e associa o compartimento à thread.
+     *
+     * @return false se a fila estava cheia ou a espera passou de queueTimeout
+     */
+    public boolean enter() {
+        boolean admitted = slots.tryAcquire() || awaitSlot();
+        if (admitted) {
+            accepted.increment();
+            CURRENT.set(this);
+        } else {
+            rejected.increment();
+        }
+        return admitted;
+    }
+
+    /**
+     * Libera a vaga ocupada por enter() e desassocia o compartimento da thread.
+     */
+    public void exit() {
+        CURRENT.remove();
+        slots.release();
+    }
+
+    /**
+     * Reserva uma das conexões da raia, esperando até connectionTimeout.
+     */
+    boolean acquireConnection() {
+        try {
+            if (connections.tryAcquire(connectionTimeout.toNanos(), TimeUnit.NANOSECONDS)) {
+                return true;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        connectionsRejected.increment();
+        return false;
+    }
+
+    void releaseConnection() {
+        connections.release();
+    }
+
+    private boolean awaitSlot() {
+        if (queued.incrementAndGet() > maxQueue) {
+            queued.decrementAndGet();
+            return false;
+        }
+        try {
+            return slots.tryAcquire(queueTimeout.toNanos(), TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        } finally {
+            queued.decrementAndGet();
+        }
+    }
+
+    public String getName() {
+        return lane.getName();
+    }
+
+    public Duration getConnectionTimeout() {
+        return connectionTimeout;
+    }
+
+    public int getActive() {
+        return maxConcurrent - slots.availablePermits();
+    }
+
+    public int getQueued() {
+        return queued.get();
+    }
+
+    public int getConnectionsInUse() {
+        return maxConnections - connections.availablePermits();
+    }
+
+    public long getAccepted() {
+        return accepted.sum();
+    }
+
+    public long getRejected() {
+        return rejected.sum();
+    }
+
+    public long getConnectionsRejected() {
+        return connectionsRejected.sum();
+    }
+}
@@ -0,0 +1,65 @@
+package com.example.usersapi.bulkhead;
+
+import com.example.usersapi.controller.UserController;
+import com.example.usersapi.controller.UserImportController;
+import com.example.usersapi.limiter.OverloadedException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpMethod;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.time.Duration;
+import java.util.Map;
+
+/**
+ * Coloca cada requisição dos controllers de usuários na sua raia de execução.
+ *
+ * A raia vem de users.bulkhead.routes, com a chave "MÉTODO padrão" (ex.: "GET /users").
+ * Rotas não listadas: GET e HEAD vão para point-read, as demais para write.
+ * Sem vaga nem lugar na fila da raia, a requisição é recusada com 503 + Retry-After.
+ */
+@RequiredArgsConstructor
+public class BulkheadInterceptor implements HandlerInterceptor {
+
+    private static final String BULKHEAD = BulkheadInterceptor.class.getName() + ".bulkhead";
+
+    private final Map<Lane, Bulkhead> bulkheads;
+    private final Map<String, Lane> routes;
+    private final Duration retryAfter;
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (!(handler instanceof HandlerMethod method) || !isUserController(method.getBeanType())) {
+            return true;
+        }
+        Bulkhead bulkhead = bulkheads.get(laneOf(request));
+        if (!bulkhead.enter()) {
+            throw new OverloadedException("raia " + bulkhead.getName(), retryAfter);
+        }
+        request.setAttribute(BULKHEAD, bulkhead);
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        if (request.getAttribute(BULKHEAD) instanceof Bulkhead bulkhead) {
+            bulkhead.exit();
+        }
+    }
+
+    Lane laneOf(HttpServletRequest request) {
+        Lane lane = routes.get(request.getMethod() + " " + request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE));
+        if (lane != null) {
+            return lane;
+        }
+        boolean read = HttpMethod.GET.matches(request.getMethod()) || HttpMethod.HEAD.matches(request.getMethod());
+        return read ? Lane.POINT_READ : Lane.WRITE;
+    }
+
+    private static boolean isUserController(Class<?> beanType) {
+        return UserController.class.isAssignableFrom(beanType) || UserImportController.class.isAssignableFrom(beanType);
+    }
+}
@@ -0,0 +1,35 @@
+package com.example.usersapi.bulkhead;
+
+/**
+ * Raia de execução de uma requisição: cada raia tem seu próprio compartimento (Bulkhead).
+ *
+ * Nos arquivos de configuração os valores são escritos em minúsculas com hífen
+ * (point-read, write, scan), como no nome usado nas métricas.
+ */
+public enum Lane {
+
+    /**
+     * Leituras pontuais e baratas (ex.: GET /users/{id}).
+     */
+    POINT_READ("point-read"),
+
+    /**
+     * Escritas (POST, PUT, DELETE): seguram locks e conexões por mais tempo.
+     */
+    WRITE("write"),
+
+    /**
+     * Varreduras e operações em massa (ex.: GET /users, importação).
+     */
+    SCAN("scan");
+
+    private final String name;
+
+    Lane(String name) {
+        this.name = name;
+    }
+
+    public String getName() {
+        return name;
+    }
+}
@@ -0,0 +1,103 @@
+package com.example.usersapi.bulkhead;
+
+import com.example.usersapi.limiter.OverloadedException;
+import org.springframework.jdbc.datasource.ConnectionProxy;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Divide o pool de conexões entre as raias de execução.
+ *
+ * Continua existindo um único pool do Hikari: cada raia só pode ter maxConnections
+ * conexões dele ao mesmo tempo. Com os limites somando no máximo o tamanho do pool,
+ * uma importação ou varredura longa não ocupa as conexões das leituras pontuais.
+ * Chamadas fora de uma raia (tarefas agendadas, inicialização) usam o pool sem limite.
+ *
+ * A conexão devolvida é um proxy que libera a vaga da raia no close(), uma única vez.
+ * Sem vaga dentro de connectionTimeout, getConnection() falha com
+ * SQLTransientConnectionException (como o próprio Hikari com o pool esgotado), tendo
+ * como causa uma OverloadedException: a requisição termina em 503 + Retry-After.
+ */
+public class LanePartitionedDataSource extends DelegatingDataSource {
+
+    private final Duration retryAfter;
+
+    public LanePartitionedDataSource(DataSource targetDataSource, Duration retryAfter) {
+        super(targetDataSource);
+        this.retryAfter = retryAfter;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        Bulkhead bulkhead = Bulkhead.current().orElse(null);
+        if (bulkhead == null) {
+            return super.getConnection();
+        }
+        if (!bulkhead.acquireConnection()) {
+            throw new SQLTransientConnectionException("Conexões da raia " + bulkhead.getName() + " esgotadas ("
+                    + bulkhead.getMaxConnections() + " em uso há mais de " + bulkhead.getConnectionTimeout().toMillis() + " ms)",
+                    new OverloadedException("conexões da raia " + bulkhead.getName(), retryAfter));
+        }
+        try {
+            return partitioned(super.getConnection(), bulkhead);
+        } catch (SQLException | RuntimeException e) {
+            bulkhead.releaseConnection();
+            throw e;
+        }
+    }
+
+    private static Connection partitioned(Connection target, Bulkhead bulkhead) {
+        return (Connection) Proxy.newProxyInstance(ConnectionProxy.class.getClassLoader(),
+                new Class<?>[]{ConnectionProxy.class}, new PartitionedConnection(target, bulkhead));
+    }
+
+    /**
+     * Repassa tudo para a conexão real e devolve a vaga da raia no primeiro close().
+     */
+    private record PartitionedConnection(Connection target, Bulkhead bulkhead, AtomicBoolean released)
+            implements InvocationHandler {
+
+        PartitionedConnection(Connection target, Bulkhead bulkhead) {
+            this(target, bulkhead, new AtomicBoolean());
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "getTargetConnection":
+                    return target;
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "toString":
+                    return "Conexão da raia " + bulkhead.getName() + " [" + target + "]";
+                case "close":
+                    try {
+                        target.close();
+                    } finally {
+                        if (released.compareAndSet(false, true)) {
+                            bulkhead.releaseConnection();
+                        }
+                    }
+                    return null;
+                default:
+                    try {
+                        return method.invoke(target, args);
+                    } catch (InvocationTargetException e) {
+                        throw e.getTargetException();
+                    }
+            }
+        }
+    }
+}
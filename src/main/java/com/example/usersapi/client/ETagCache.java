@@ -0,0 +1,48 @@
+package com.example.usersapi.client;
+
+import com.example.usersapi.dto.UserResponse;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Cache LRU de usuários com o ETag de cada um.
+ *
+ * Não há prazo de validade: toda leitura de um usuário em cache é revalidada com
+ * If-None-Match. O ganho é não trafegar (nem desserializar) o corpo quando nada mudou.
+ */
+final class ETagCache {
+
+    record Entry(String etag, UserResponse user) {
+    }
+
+    private final Map<Long, Entry> entries;
+
+    ETagCache(int maxEntries) {
+        // accessOrder = true: a leitura move a entrada para o fim; a mais antiga sai primeiro
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, Entry> eldest) {
+                return size() > maxEntries;
+            }
+        };
+    }
+
+    synchronized Entry get(long id) {
+        return entries.get(id);
+    }
+
+    synchronized void put(UserResponse user, String etag) {
+        if (etag != null) {
+            entries.put(user.getId(), new Entry(etag, user));
+        }
+    }
+
+    synchronized void remove(long id) {
+        entries.remove(id);
+    }
+
+    synchronized int size() {
+        return entries.size();
+    }
+}
@@ -0,0 +1,85 @@
+package com.example.usersapi.client;
+
+import com.example.usersapi.dto.UserResponse;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * Junta chamadas getUser(id) concorrentes em uma busca em lote (GET /users/batch).
+ *
+ * O primeiro ID abre um lote, que é enviado quando a janela (batchWindow) fecha ou quando
+ * chega a maxBatchSize IDs - o que vier antes. O mesmo ID pedido duas vezes no lote vai
+ * uma só vez. Troca alguns milissegundos de espera por menos requisições e consultas.
+ */
+final class GetBatcher {
+
+    private final Duration window;
+    private final int maxBatchSize;
+    private final Executor executor;
+    private final Function<List<Long>, CompletableFuture<Map<Long, UserResponse>>> fetch;
+
+    /**
+     * Lote aberto (null quando não há); trocado sob o lock do próprio GetBatcher.
+     */
+    private Map<Long, CompletableFuture<Optional<UserResponse>>> open;
+
+    GetBatcher(Duration window, int maxBatchSize, Executor executor,
+               Function<List<Long>, CompletableFuture<Map<Long, UserResponse>>> fetch) {
+        this.window = window;
+        this.maxBatchSize = maxBatchSize;
+        this.executor = executor;
+        this.fetch = fetch;
+    }
+
+    CompletableFuture<Optional<UserResponse>> get(long id) {
+        CompletableFuture<Optional<UserResponse>> future;
+        Map<Long, CompletableFuture<Optional<UserResponse>>> full = null;
+        synchronized (this) {
+            if (open == null) {
+                Map<Long, CompletableFuture<Optional<UserResponse>>> batch = new LinkedHashMap<>();
+                open = batch;
+                CompletableFuture.delayedExecutor(window.toNanos(), TimeUnit.NANOSECONDS, executor)
+                        .execute(() -> flush(batch));
+            }
+            future = open.computeIfAbsent(id, key -> new CompletableFuture<>());
+            if (open.size() >= maxBatchSize) {
+                full = open;
+                open = null;
+            }
+        }
+        if (full != null) {
+            send(full);
+        }
+        // Cópia: um chamador que cancele a sua não afeta os outros que pediram o mesmo ID
+        return future.copy();
+    }
+
+    private void flush(Map<Long, CompletableFuture<Optional<UserResponse>>> batch) {
+        synchronized (this) {
+            if (open != batch) {
+                return; // já enviado por ter enchido
+            }
+            open = null;
+        }
+        send(batch);
+    }
+
+    private void send(Map<Long, CompletableFuture<Optional<UserResponse>>> batch) {
+        fetch.apply(new ArrayList<>(batch.keySet())).whenComplete((users, error) -> batch.forEach((id, future) -> {
+            if (error != null) {
+                future.completeExceptionally(error);
+            } else {
+                future.complete(Optional.ofNullable(users.get(id)));
+            }
+        }));
+    }
+}
@@ -0,0 +1,93 @@
+package com.example.usersapi.client;
+
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.Queue;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Requisição com hedging: se a primeira tentativa não responder em hedgeDelay, uma segunda
+ * é enviada e vale a que responder primeiro; a outra é cancelada.
+ *
+ * Corta a cauda de latência (uma requisição presa atrás de uma pausa de GC ou de uma conexão
+ * ruim) ao custo de poucas requisições a mais: com hedgeDelay perto do p95, só ~5% são
+ * duplicadas. Uma falha de rede ou um 5xx antes do prazo envia o hedge na hora.
+ *
+ * No máximo duas tentativas, e só para leituras (GET): repetir uma escrita não é seguro.
+ */
+final class HedgedExchange {
+
+    private final Supplier<CompletableFuture<HttpResponse<byte[]>>> send;
+    private final Runnable onHedge;
+    private final CompletableFuture<HttpResponse<byte[]>> result = new CompletableFuture<>();
+    private final Queue<CompletableFuture<HttpResponse<byte[]>>> attempts = new ConcurrentLinkedQueue<>();
+    private final AtomicBoolean hedged = new AtomicBoolean();
+    private final AtomicInteger failures = new AtomicInteger();
+
+    private HedgedExchange(Supplier<CompletableFuture<HttpResponse<byte[]>>> send, Runnable onHedge) {
+        this.send = send;
+        this.onHedge = onHedge;
+    }
+
+    /**
+     * @param send envia uma tentativa (chamado uma ou duas vezes)
+     * @param onHedge chamado quando a segunda tentativa é enviada
+     * @return a primeira resposta de sucesso; se as duas falharem, a falha (ou o 5xx) da última
+     */
+    static CompletableFuture<HttpResponse<byte[]>> send(Supplier<CompletableFuture<HttpResponse<byte[]>>> send,
+                                                        Duration hedgeDelay, Executor executor, Runnable onHedge) {
+        HedgedExchange exchange = new HedgedExchange(send, onHedge);
+        exchange.launch();
+        CompletableFuture.delayedExecutor(hedgeDelay.toNanos(), TimeUnit.NANOSECONDS, executor)
+                .execute(exchange::hedge);
+        return exchange.result;
+    }
+
+    private void launch() {
+        CompletableFuture<HttpResponse<byte[]>> attempt = send.get();
+        attempts.add(attempt);
+        attempt.whenComplete(this::onComplete);
+    }
+
+    private void hedge() {
+        if (!result.isDone() && hedged.compareAndSet(false, true)) {
+            onHedge.run();
+            launch();
+        }
+    }
+
+    private void onComplete(HttpResponse<byte[]> response, Throwable error) {
+        if (error == null && response.statusCode() < 500) {
+            if (result.complete(response)) {
+                // Cancelar o futuro do HttpClient aborta a troca ainda em andamento
+                attempts.forEach(attempt -> attempt.cancel(true));
+            }
+            return;
+        }
+        Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+        if (cause instanceof CancellationException) {
+            return;
+        }
+
+        int failed = failures.incrementAndGet();
+        if (hedged.compareAndSet(false, true)) {
+            // Falhou antes do prazo do hedge: não adianta esperar
+            onHedge.run();
+            launch();
+        } else if (failed == 2) {
+            if (cause != null) {
+                result.completeExceptionally(cause);
+            } else {
+                result.complete(response);
+            }
+        }
+    }
+}
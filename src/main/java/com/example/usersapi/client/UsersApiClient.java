@@ -0,0 +1,410 @@
+package com.example.usersapi.client;
+
+import com.example.usersapi.dto.CreateUserRequest;
+import com.example.usersapi.dto.UpdateUserRequest;
+import com.example.usersapi.dto.UserETag;
+import com.example.usersapi.dto.UserResponse;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+/**
+ * Cliente Java da API de usuários (operações em UsersApiOperation, conferidas contra docs/openapi.yaml).
+ *
+ * - Um HttpClient por cliente: HTTP/2 quando o servidor aceita (uma conexão multiplexada),
+ *   senão um pool de conexões HTTP/1.1 keep-alive. Crie um cliente e reaproveite.
+ * - Métodos assíncronos (CompletableFuture) e síncronos; o trabalho roda em virtual threads,
+ *   então bloquear nos métodos síncronos a partir de virtual threads é barato.
+ * - getUser(id) concorrentes viram uma chamada a GET /users/batch (ver GetBatcher).
+ * - Cache de ETags: um usuário já lido é revalidado com If-None-Match; 304 devolve o do cache.
+ * - Hedging nas leituras (ver HedgedExchange).
+ *
+ * Exemplo:
+ * <pre>
+ * try (UsersApiClient client = UsersApiClient.builder("http://localhost:8080").build()) {
+ *     Optional&lt;UserResponse&gt; user = client.getUser(1);
+ * }
+ * </pre>
+ */
+public class UsersApiClient implements AutoCloseable {
+
+    /**
+     * IDs por chamada a GET /users/batch (limite do servidor).
+     */
+    public static final int MAX_BATCH_IDS = 100;
+
+    private static final TypeReference<List<UserResponse>> USER_LIST = new TypeReference<>() {
+    };
+
+    private final URI baseUri;
+    private final Duration requestTimeout;
+    private final Duration hedgeDelay;
+    private final ExecutorService executor;
+    private final HttpClient httpClient;
+    private final ObjectMapper objectMapper;
+    private final ETagCache cache;
+    private final GetBatcher batcher;
+
+    private final LongAdder requests = new LongAdder();
+    private final LongAdder batches = new LongAdder();
+    private final LongAdder hedges = new LongAdder();
+    private final LongAdder notModified = new LongAdder();
+
+    private UsersApiClient(Builder builder) {
+        this.baseUri = URI.create(builder.baseUrl.endsWith("/")
+                ? builder.baseUrl.substring(0, builder.baseUrl.length() - 1) : builder.baseUrl);
+        this.requestTimeout = builder.requestTimeout;
+        this.hedgeDelay = builder.hedgeDelay;
+        this.executor = Executors.newVirtualThreadPerTaskExecutor();
+        this.httpClient = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_2)
+                .connectTimeout(builder.connectTimeout)
+                .executor(executor)
+                .build();
+        this.objectMapper = new ObjectMapper()
+                .registerModule(new JavaTimeModule())
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
+        this.cache = new ETagCache(builder.cacheSize);
+        this.batcher = builder.batchWindow == null ? null
+                : new GetBatcher(builder.batchWindow, builder.maxBatchSize, executor, this::fetchBatch);
+    }
+
+    public static Builder builder(String baseUrl) {
+        return new Builder(baseUrl);
+    }
+
+    // ---------------------------------------------------------------- leituras
+
+    /**
+     * Busca um usuário: revalida o do cache (304) ou entra no próximo lote.
+     *
+     * @return vazio se o usuário não existir
+     */
+    public CompletableFuture<Optional<UserResponse>> getUserAsync(long id) {
+        ETagCache.Entry cached = cache.get(id);
+        if (cached == null && batcher != null) {
+            return batcher.get(id);
+        }
+
+        HttpRequest.Builder request = request(UsersApiOperation.GET_USER.path(id)).GET();
+        if (cached != null) {
+            request.header("If-None-Match", cached.etag());
+        }
+        return read(request.build()).thenApply(response -> switch (response.statusCode()) {
+            case 304 -> {
+                notModified.increment();
+                yield Optional.of(cached.user());
+            }
+            case 404 -> {
+                cache.remove(id);
+                yield Optional.empty();
+            }
+            default -> {
+                UserResponse user = parse(response, UserResponse.class);
+                cache.put(user, response.headers().firstValue("ETag").orElse(null));
+                yield Optional.of(user);
+            }
+        });
+    }
+
+    public Optional<UserResponse> getUser(long id) {
+        return await(getUserAsync(id));
+    }
+
+    /**
+     * Busca vários usuários em chamadas a GET /users/batch (até MAX_BATCH_IDS IDs cada).
+     *
+     * @return usuários encontrados, na ordem dos IDs; IDs inexistentes ficam de fora
+     */
+    public CompletableFuture<List<UserResponse>> getUsersAsync(List<Long> ids) {
+        List<Long> distinct = ids.stream().distinct().toList();
+        List<CompletableFuture<Map<Long, UserResponse>>> chunks = new ArrayList<>();
+        for (int from = 0; from < distinct.size(); from += MAX_BATCH_IDS) {
+            chunks.add(fetchBatch(distinct.subList(from, Math.min(from + MAX_BATCH_IDS, distinct.size()))));
+        }
+        return CompletableFuture.allOf(chunks.toArray(CompletableFuture[]::new)).thenApply(done -> {
+            Map<Long, UserResponse> found = new HashMap<>();
+            chunks.forEach(chunk -> found.putAll(chunk.join()));
+            return distinct.stream().map(found::get).filter(Objects::nonNull).toList();
+        });
+    }
+
+    public List<UserResponse> getUsers(List<Long> ids) {
+        return await(getUsersAsync(ids));
+    }
+
+    private CompletableFuture<Map<Long, UserResponse>> fetchBatch(List<Long> ids) {
+        batches.increment();
+        String query = ids.stream().map(String::valueOf).collect(Collectors.joining(","));
+        HttpRequest request = request(UsersApiOperation.GET_USERS_BY_IDS.path() + "?ids=" + query).GET().build();
+        return read(request).thenApply(response -> {
+            Map<Long, UserResponse> users = new HashMap<>();
+            for (UserResponse user : parse(response, USER_LIST)) {
+                // Mesmo ETag que GET /users/{id} devolveria: a próxima leitura já revalida
+                cache.put(user, UserETag.of(user));
+                users.put(user.getId(), user);
+            }
+            return users;
+        });
+    }
+
+    // ---------------------------------------------------------------- escritas
+
+    public CompletableFuture<UserResponse> createUserAsync(CreateUserRequest body) {
+        HttpRequest request = request(UsersApiOperation.CREATE_USER.path())
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofByteArray(write(body)))
+                .build();
+        return write(request, response -> parse(response, UserResponse.class)).thenApply(this::remember);
+    }
+
+    public UserResponse createUser(CreateUserRequest body) {
+        return await(createUserAsync(body));
+    }
+
+    public CompletableFuture<UserResponse> updateUserAsync(long id, UpdateUserRequest body) {
+        HttpRequest request = request(UsersApiOperation.UPDATE_USER.path(id))
+                .header("Content-Type", "application/json")
+                .PUT(HttpRequest.BodyPublishers.ofByteArray(write(body)))
+                .build();
+        cache.remove(id);
+        return write(request, response -> parse(response, UserResponse.class)).thenApply(this::remember);
+    }
+
+    public UserResponse updateUser(long id, UpdateUserRequest body) {
+        return await(updateUserAsync(id, body));
+    }
+
+    /**
+     * @return false se o usuário não existia
+     */
+    public CompletableFuture<Boolean> deleteUserAsync(long id) {
+        HttpRequest request = request(UsersApiOperation.DELETE_USER.path(id)).DELETE().build();
+        cache.remove(id);
+        return write(request, response -> response.statusCode() != 404);
+    }
+
+    public boolean deleteUser(long id) {
+        return await(deleteUserAsync(id));
+    }
+
+    private UserResponse remember(UserResponse user) {
+        cache.put(user, UserETag.of(user));
+        return user;
+    }
+
+    // ---------------------------------------------------------------- HTTP
+
+    private HttpRequest.Builder request(String path) {
+        return HttpRequest.newBuilder(baseUri.resolve(baseUri.getPath() + path))
+                .timeout(requestTimeout)
+                .header("Accept", "application/json");
+    }
+
+    private CompletableFuture<HttpResponse<byte[]>> send(HttpRequest request) {
+        requests.increment();
+        return httpClient.sendAsync(request, HttpResponse.BodyHandlers.ofByteArray());
+    }
+
+    /**
+     * Leitura (idempotente): com hedging; 304 e 404 são respostas esperadas, não erros.
+     */
+    private CompletableFuture<HttpResponse<byte[]>> read(HttpRequest request) {
+        Supplier<CompletableFuture<HttpResponse<byte[]>>> attempt = () -> send(request);
+        CompletableFuture<HttpResponse<byte[]>> response = hedgeDelay == null ? attempt.get()
+                : HedgedExchange.send(attempt, hedgeDelay, executor, hedges::increment);
+        return response.handle((result, error) -> {
+            if (error != null) {
+                throw failure(request, error);
+            }
+            if (result.statusCode() >= 400 && result.statusCode() != 404) {
+                throw error(result);
+            }
+            return result;
+        });
+    }
+
+    /**
+     * Escrita: uma tentativa só (repetir um POST pode criar o usuário duas vezes).
+     */
+    private <T> CompletableFuture<T> write(HttpRequest request,
+                                           Function<HttpResponse<byte[]>, T> body) {
+        return send(request).handle((response, error) -> {
+            if (error != null) {
+                throw failure(request, error);
+            }
+            if (response.statusCode() >= 400 && !(request.method().equals("DELETE") && response.statusCode() == 404)) {
+                throw error(response);
+            }
+            return body.apply(response);
+        });
+    }
+
+    private UsersApiException error(HttpResponse<byte[]> response) {
+        String message = "HTTP " + response.statusCode();
+        try {
+            JsonNode body = objectMapper.readTree(response.body());
+            if (body != null && body.hasNonNull("message")) {
+                message = body.get("message").asText();
+            }
+        } catch (IOException e) {
+            // corpo de erro que não é JSON (ex.: página de um proxy): fica só o status
+        }
+        return new UsersApiException(response.statusCode(), message);
+    }
+
+    private static RuntimeException failure(HttpRequest request, Throwable error) {
+        Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+        if (cause instanceof UsersApiException || cause instanceof CancellationException) {
+            return (RuntimeException) cause;
+        }
+        return new UsersApiException(request.method() + " " + request.uri() + " falhou: " + cause, cause);
+    }
+
+    private <T> T parse(HttpResponse<byte[]> response, Class<T> type) {
+        try {
+            return objectMapper.readValue(response.body(), type);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private <T> T parse(HttpResponse<byte[]> response, TypeReference<T> type) {
+        try {
+            return objectMapper.readValue(response.body(), type);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private byte[] write(Object body) {
+        try {
+            return objectMapper.writeValueAsBytes(body);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static <T> T await(CompletableFuture<T> future) {
+        try {
+            return future.get();
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            throw new UsersApiException("Falha na chamada à API", e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            future.cancel(true);
+            throw new UsersApiException("Chamada interrompida", e);
+        }
+    }
+
+    public UsersApiClientStats stats() {
+        return new UsersApiClientStats(requests.sum(), batches.sum(), hedges.sum(), notModified.sum(), cache.size());
+    }
+
+    /**
+     * Fecha as conexões e o executor (as chamadas em andamento terminam antes).
+     */
+    @Override
+    public void close() {
+        httpClient.close();
+        executor.close();
+    }
+
+    /**
+     * Configuração do cliente; os padrões servem para chamadas na mesma região.
+     */
+    public static final class Builder {
+
+        private final String baseUrl;
+        private Duration connectTimeout = Duration.ofSeconds(2);
+        private Duration requestTimeout = Duration.ofSeconds(5);
+        private Duration hedgeDelay = Duration.ofMillis(50);
+        private Duration batchWindow = Duration.ofMillis(2);
+        private int maxBatchSize = MAX_BATCH_IDS;
+        private int cacheSize = 10_000;
+
+        private Builder(String baseUrl) {
+            this.baseUrl = baseUrl;
+        }
+
+        public Builder connectTimeout(Duration connectTimeout) {
+            this.connectTimeout = connectTimeout;
+            return this;
+        }
+
+        /**
+         * Prazo de cada tentativa (a resposta inteira).
+         */
+        public Builder requestTimeout(Duration requestTimeout) {
+            this.requestTimeout = requestTimeout;
+            return this;
+        }
+
+        /**
+         * Espera antes de duplicar uma leitura lenta; perto do p95 da API. null desliga o hedging.
+         */
+        public Builder hedgeDelay(Duration hedgeDelay) {
+            this.hedgeDelay = hedgeDelay;
+            return this;
+        }
+
+        /**
+         * Quanto getUser(id) espera por outros IDs para o mesmo lote. null desliga o agrupamento.
+         */
+        public Builder batchWindow(Duration batchWindow) {
+            this.batchWindow = batchWindow;
+            return this;
+        }
+
+        public Builder maxBatchSize(int maxBatchSize) {
+            if (maxBatchSize < 1 || maxBatchSize > MAX_BATCH_IDS) {
+                throw new IllegalArgumentException("maxBatchSize deve estar entre 1 e " + MAX_BATCH_IDS);
+            }
+            this.maxBatchSize = maxBatchSize;
+            return this;
+        }
+
+        /**
+         * Usuários guardados com ETag para revalidação (LRU).
+         */
+        public Builder cacheSize(int cacheSize) {
+            this.cacheSize = cacheSize;
+            return this;
+        }
+
+        public UsersApiClient build() {
+            return new UsersApiClient(this);
+        }
+    }
+}
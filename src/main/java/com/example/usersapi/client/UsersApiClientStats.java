@@ -0,0 +1,13 @@
+package com.example.usersapi.client;
+
+/**
+ * Contadores do cliente desde a criação.
+ *
+ * @param requests requisições HTTP enviadas (incluindo hedges)
+ * @param batches chamadas a /users/batch (cada uma atende vários getUser)
+ * @param hedges requisições duplicadas pelo hedging
+ * @param notModified respostas 304 atendidas pelo cache local
+ * @param cachedUsers usuários no cache de ETags
+ */
+public record UsersApiClientStats(long requests, long batches, long hedges, long notModified, int cachedUsers) {
+}
@@ -0,0 +1,28 @@
+package com.example.usersapi.client;
+
+/**
+ * Resposta de erro da API (status fora de 2xx) ou falha de comunicação (status 0).
+ *
+ * A mensagem é o campo "message" do corpo de erro, quando houver.
+ */
+public class UsersApiException extends RuntimeException {
+
+    private final int status;
+
+    public UsersApiException(int status, String message) {
+        super(message);
+        this.status = status;
+    }
+
+    public UsersApiException(String message, Throwable cause) {
+        super(message, cause);
+        this.status = 0;
+    }
+
+    /**
+     * Status HTTP da resposta; 0 quando não houve resposta (conexão recusada, timeout...).
+     */
+    public int getStatus() {
+        return status;
+    }
+}
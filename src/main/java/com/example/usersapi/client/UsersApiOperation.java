@@ -0,0 +1,45 @@
+package com.example.usersapi.client;
+
+/**
+ * Operações da API usadas pelo cliente, com o método, o path e o operationId de docs/openapi.yaml.
+ *
+ * O teste de contrato (UsersApiClientTest) confere cada uma contra a especificação:
+ * se um path ou operationId mudar no servidor, o cliente quebra no build, não em produção.
+ */
+public enum UsersApiOperation {
+
+    GET_USER("GET", "/users/{id}", "getUserById"),
+    GET_USERS_BY_IDS("GET", "/users/batch", "getUsersByIds"),
+    CREATE_USER("POST", "/users", "createUser"),
+    UPDATE_USER("PUT", "/users/{id}", "updateUser"),
+    DELETE_USER("DELETE", "/users/{id}", "deleteUser");
+
+    private final String method;
+    private final String path;
+    private final String operationId;
+
+    UsersApiOperation(String method, String path, String operationId) {
+        this.method = method;
+        this.path = path;
+        this.operationId = operationId;
+    }
+
+    public String method() {
+        return method;
+    }
+
+    public String path() {
+        return path;
+    }
+
+    public String operationId() {
+        return operationId;
+    }
+
+    /**
+     * Path com o {id} preenchido.
+     */
+    String path(long id) {
+        return path.replace("{id}", Long.toString(id));
+    }
+}
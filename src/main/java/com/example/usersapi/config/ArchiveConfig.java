@@ -0,0 +1,52 @@
+package com.example.usersapi.config;
+
+import com.example.usersapi.archive.UserArchive;
+import com.example.usersapi.archive.UserArchiver;
+import com.example.usersapi.phone.PhoneIndex;
+import com.example.usersapi.repository.UserCacheInvalidator;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Configuração do arquivamento de usuários inativos.
+ *
+ * O UserArchive existe sempre (o UserService depende dele); desligado, é um arquivo vazio
+ * que não toca em disco. O UserArchiver, que tira usuários da tabela, só existe com
+ * users.archive.enabled=true.
+ *
+ * @EnableConfigurationProperties: registra ArchiveProperties como bean
+ */
+@Configuration
+@EnableConfigurationProperties(ArchiveProperties.class)
+public class ArchiveConfig {
+
+    /**
+     * O arquivador lê e remove da tabela do banco principal; com shards os usuários estão em
+     * outros bancos, então as duas opções juntas são recusadas na inicialização.
+     */
+    @Bean
+    public UserArchive userArchive(ArchiveProperties properties,
+                                   @Value("${users.sharding.enabled:false}") boolean sharding) {
+        if (!properties.isEnabled()) {
+            return UserArchive.disabled();
+        }
+        if (sharding) {
+            throw new IllegalStateException("users.archive.enabled não é suportado com users.sharding.enabled");
+        }
+        return UserArchive.open(properties.getDirectory(), properties.getBlockSize());
+    }
+
+    @Bean
+    @ConditionalOnProperty("users.archive.enabled")
+    public UserArchiver userArchiver(ArchiveProperties properties, UserArchive userArchive, JdbcTemplate jdbcTemplate,
+                                     TransactionTemplate transactionTemplate, UserCacheInvalidator userCacheInvalidator,
+                                     PhoneIndex phoneIndex) {
+        return new UserArchiver(properties, userArchive, jdbcTemplate, transactionTemplate, userCacheInvalidator,
+                phoneIndex);
+    }
+}
@@ -0,0 +1,49 @@
+package com.example.usersapi.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+/**
+ * Configurações do arquivamento de usuários inativos (prefixo users.archive no application.yml).
+ *
+ * @ConfigurationProperties: associa as propriedades do application.yml aos campos da classe
+ */
+@Data
+@ConfigurationProperties(prefix = "users.archive")
+public class ArchiveProperties {
+
+    /**
+     * Move usuários inativos para segmentos em disco e consulta esses segmentos nas buscas.
+     * Não funciona junto com users.sharding.
+     */
+    private boolean enabled = false;
+
+    /**
+     * Diretório dos segmentos e das lápides. Precisa durar tanto quanto o banco.
+     */
+    private Path directory = Path.of(System.getProperty("java.io.tmpdir"), "users-archive");
+
+    /**
+     * Tempo sem alteração (updatedAt) para um usuário ser arquivado.
+     */
+    private Duration inactiveAfter = Duration.ofDays(365);
+
+    /**
+     * Intervalo entre os ciclos do arquivamento.
+     */
+    private Duration interval = Duration.ofHours(1);
+
+    /**
+     * Usuários por segmento (um segmento por lote lido da tabela).
+     */
+    private int segmentSize = 50_000;
+
+    /**
+     * Usuários por bloco comprimido: blocos maiores comprimem mais, mas cada busca
+     * descomprime um bloco inteiro.
+     */
+    private int blockSize = 64;
+}
@@ -0,0 +1,68 @@
+package com.example.usersapi.config;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.util.List;
+
+/**
+ * Configuração dos formatos binários negociados pelo header Accept.
+ * 
+ * - application/cbor (CBOR, RFC 8949)
+ * - application/x-jackson-smile (Smile, JSON binário do Jackson)
+ * 
+ * O Spring MVC já registra conversores CBOR/Smile quando as bibliotecas estão no classpath,
+ * mas com um ObjectMapper padrão que escreve LocalDateTime como array [ano, mês, ...].
+ * Aqui eles são substituídos por conversores que partem do builder do Spring Boot
+ * (mesmos módulos e features do JSON) e escrevem datas como epoch em milissegundos.
+ * JSON continua sendo o formato padrão quando o cliente não pede outro.
+ */
+@Configuration
+public class BinaryFormatsConfig implements WebMvcConfigurer {
+
+    public static final MediaType APPLICATION_SMILE = new MediaType("application", "x-jackson-smile");
+
+    private final ObjectProvider<Jackson2ObjectMapperBuilder> builderProvider;
+
+    public BinaryFormatsConfig(ObjectProvider<Jackson2ObjectMapperBuilder> builderProvider) {
+        this.builderProvider = builderProvider;
+    }
+
+    @Override
+    public void extendMessageConverters(List<HttpMessageConverter<?>> converters) {
+        converters.removeIf(converter -> converter instanceof MappingJackson2CborHttpMessageConverter
+                || converter instanceof MappingJackson2SmileHttpMessageConverter);
+        converters.add(new MappingJackson2CborHttpMessageConverter(
+                binaryMapper(builderProvider.getObject(), new CBORFactory())));
+        converters.add(new MappingJackson2SmileHttpMessageConverter(
+                binaryMapper(builderProvider.getObject(), new SmileFactory())));
+    }
+
+    /**
+     * Cria um ObjectMapper binário com datas em epoch.
+     * 
+     * WRITE_DATES_AS_TIMESTAMPS habilitado sinaliza aos serializers customizados
+     * (ex.: SparseUserResponseSerializer) que devem escrever números em vez de texto.
+     * O módulo de epoch é registrado por último para prevalecer sobre o JavaTimeModule.
+     * 
+     * @param builder builder do Spring Boot (ou Jackson2ObjectMapperBuilder.json() fora do Spring)
+     * @param factory CBORFactory ou SmileFactory
+     */
+    public static ObjectMapper binaryMapper(Jackson2ObjectMapperBuilder builder, JsonFactory factory) {
+        ObjectMapper mapper = builder.factory(factory).build();
+        mapper.enable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+        mapper.registerModule(new EpochMillisModule());
+        return mapper;
+    }
+}
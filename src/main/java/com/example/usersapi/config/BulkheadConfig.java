@@ -0,0 +1,144 @@
+package com.example.usersapi.config;
+
+import com.example.usersapi.bulkhead.Bulkhead;
+import com.example.usersapi.bulkhead.BulkheadInterceptor;
+import com.example.usersapi.bulkhead.Lane;
+import com.example.usersapi.bulkhead.LanePartitionedDataSource;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Configuração das raias de execução (bulkheads) dos controllers de usuários.
+ *
+ * Cada raia (point-read, write, scan) tem vagas, fila e conexões próprias: uma importação
+ * ou um GET /users pesado esgota só a sua raia, e GET /users/{id} continua com threads
+ * do Tomcat e conexões do Hikari disponíveis.
+ *
+ * Métricas (em /actuator/metrics), com a tag lane=point-read|write|scan:
+ * - users.bulkhead.requests{outcome=accepted|rejected}: requisições admitidas e recusadas (503)
+ * - users.bulkhead.active e users.bulkhead.queued: requisições executando e esperando vaga
+ * - users.bulkhead.connections: conexões do pool em uso pela raia
+ * - users.bulkhead.connections.rejected: esperas por conexão que passaram do connection-timeout
+ *
+ * @ConditionalOnProperty: desligado com users.bulkhead.enabled=false
+ * @EnableConfigurationProperties: registra BulkheadProperties como bean
+ */
+@Configuration
+@ConditionalOnProperty(value = "users.bulkhead.enabled", matchIfMissing = true)
+@EnableConfigurationProperties(BulkheadProperties.class)
+@Slf4j
+public class BulkheadConfig implements WebMvcConfigurer {
+
+    private final BulkheadProperties properties;
+
+    public BulkheadConfig(BulkheadProperties properties) {
+        this.properties = properties;
+    }
+
+    @Bean
+    public Bulkhead pointReadBulkhead() {
+        return bulkhead(Lane.POINT_READ);
+    }
+
+    @Bean
+    public Bulkhead writeBulkhead() {
+        return bulkhead(Lane.WRITE);
+    }
+
+    @Bean
+    public Bulkhead scanBulkhead() {
+        return bulkhead(Lane.SCAN);
+    }
+
+    /**
+     * Troca o DataSource da aplicação por um que limita as conexões de cada raia.
+     *
+     * static: BeanPostProcessors são criados antes dos outros beans da configuração.
+     * Só o bean "dataSource" é envolvido (com réplicas, o roteador; os pools dos shards
+     * e das réplicas ficam de fora). O Hikari continua acessível por unwrap() para as métricas.
+     */
+    @Bean
+    public static BeanPostProcessor lanePartitionedDataSourcePostProcessor(Environment environment) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (!"dataSource".equals(beanName) || !(bean instanceof DataSource dataSource)) {
+                    return bean;
+                }
+                Duration retryAfter = Binder.get(environment)
+                        .bind("users.bulkhead.retry-after", Duration.class)
+                        .orElse(Duration.ofSeconds(1));
+                return new LanePartitionedDataSource(dataSource, retryAfter);
+            }
+        };
+    }
+
+    @Bean
+    public MeterBinder bulkheadMetrics() {
+        return registry -> {
+            for (Bulkhead bulkhead : bulkheads().values()) {
+                FunctionCounter.builder("users.bulkhead.requests", bulkhead, Bulkhead::getAccepted)
+                        .tags("lane", bulkhead.getName(), "outcome", "accepted")
+                        .description("Requisições admitidas na raia")
+                        .register(registry);
+                FunctionCounter.builder("users.bulkhead.requests", bulkhead, Bulkhead::getRejected)
+                        .tags("lane", bulkhead.getName(), "outcome", "rejected")
+                        .description("Requisições recusadas com 503 por fila cheia ou espera longa")
+                        .register(registry);
+                Gauge.builder("users.bulkhead.active", bulkhead, Bulkhead::getActive)
+                        .tag("lane", bulkhead.getName())
+                        .description("Requisições executando na raia")
+                        .register(registry);
+                Gauge.builder("users.bulkhead.queued", bulkhead, Bulkhead::getQueued)
+                        .tag("lane", bulkhead.getName())
+                        .description("Requisições esperando vaga na raia")
+                        .register(registry);
+                Gauge.builder("users.bulkhead.connections", bulkhead, Bulkhead::getConnectionsInUse)
+                        .tag("lane", bulkhead.getName())
+                        .description("Conexões do pool em uso pela raia")
+                        .register(registry);
+                FunctionCounter.builder("users.bulkhead.connections.rejected", bulkhead, Bulkhead::getConnectionsRejected)
+                        .tag("lane", bulkhead.getName())
+                        .description("Esperas por conexão da raia que passaram do connection-timeout")
+                        .register(registry);
+            }
+        };
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(new BulkheadInterceptor(bulkheads(), properties.getRoutes(), properties.getRetryAfter()));
+    }
+
+    private Map<Lane, Bulkhead> bulkheads() {
+        Map<Lane, Bulkhead> bulkheads = new EnumMap<>(Lane.class);
+        bulkheads.put(Lane.POINT_READ, pointReadBulkhead());
+        bulkheads.put(Lane.WRITE, writeBulkhead());
+        bulkheads.put(Lane.SCAN, scanBulkhead());
+        return bulkheads;
+    }
+
+    private Bulkhead bulkhead(Lane lane) {
+        BulkheadProperties.Compartment compartment = properties.get(lane);
+        log.info("Raia {}: {} vagas, fila de {}, {} conexões", lane.getName(),
+                compartment.getMaxConcurrent(), compartment.getMaxQueue(), compartment.getMaxConnections());
+        return new Bulkhead(lane, compartment.getMaxConcurrent(), compartment.getMaxQueue(),
+                compartment.getQueueTimeout(), compartment.getMaxConnections(), compartment.getConnectionTimeout());
+    }
+}
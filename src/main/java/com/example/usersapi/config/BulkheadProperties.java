@@ -0,0 +1,103 @@
+package com.example.usersapi.config;
+
+import com.example.usersapi.bulkhead.Lane;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Configurações das raias de execução (prefixo users.bulkhead no application.yml).
+ *
+ * @ConfigurationProperties: associa as propriedades do application.yml aos campos da classe
+ */
+@Data
+@ConfigurationProperties(prefix = "users.bulkhead")
+public class BulkheadProperties {
+
+    /**
+     * Habilita as raias nos controllers de usuários e a divisão do pool de conexões.
+     */
+    private boolean enabled = true;
+
+    /**
+     * Valor do header Retry-After das respostas 503 (arredondado para segundos).
+     */
+    private Duration retryAfter = Duration.ofSeconds(1);
+
+    /**
+     * Raia por rota, com a chave "MÉTODO padrão", ex.: "GET /users": scan.
+     * Rotas não listadas: GET/HEAD em point-read, o resto em write.
+     */
+    private Map<String, Lane> routes = new LinkedHashMap<>();
+
+    /**
+     * Leituras pontuais: muitas vagas, espera curta.
+     */
+    private Compartment pointRead = new Compartment(100, 100, Duration.ofMillis(100), 4, Duration.ofMillis(500));
+
+    /**
+     * Escritas.
+     */
+    private Compartment write = new Compartment(30, 30, Duration.ofSeconds(1), 3, Duration.ofSeconds(1));
+
+    /**
+     * Varreduras e importações: poucas vagas, cada uma longa.
+     */
+    private Compartment scan = new Compartment(8, 8, Duration.ofSeconds(2), 3, Duration.ofSeconds(2));
+
+    public Compartment get(Lane lane) {
+        return switch (lane) {
+            case POINT_READ -> pointRead;
+            case WRITE -> write;
+            case SCAN -> scan;
+        };
+    }
+
+    /**
+     * Vagas, fila e conexões de uma raia.
+     */
+    @Data
+    public static class Compartment {
+
+        /**
+         * Requisições executando ao mesmo tempo na raia.
+         */
+        private int maxConcurrent;
+
+        /**
+         * Requisições esperando vaga; além disso, 503 na hora.
+         */
+        private int maxQueue;
+
+        /**
+         * Espera máxima na fila antes do 503.
+         */
+        private Duration queueTimeout;
+
+        /**
+         * Conexões do pool que a raia pode usar ao mesmo tempo.
+         * A soma das raias não deve passar de spring.datasource.hikari.maximum-pool-size.
+         */
+        private int maxConnections;
+
+        /**
+         * Espera máxima por uma das conexões da raia.
+         */
+        private Duration connectionTimeout;
+
+        public Compartment() {
+        }
+
+        public Compartment(int maxConcurrent, int maxQueue, Duration queueTimeout,
+                           int maxConnections, Duration connectionTimeout) {
+            this.maxConcurrent = maxConcurrent;
+            this.maxQueue = maxQueue;
+            this.queueTimeout = queueTimeout;
+            this.maxConnections = maxConnections;
+            this.connectionTimeout = connectionTimeout;
+        }
+    }
+}
@@ -0,0 +1,82 @@
+package com.example.usersapi.config;
+
+import com.example.usersapi.limiter.AdaptiveConcurrencyLimiter;
+import com.example.usersapi.limiter.ConcurrencyLimitInterceptor;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.util.List;
+
+/**
+ * Configuração do limite adaptativo de concorrência do UserController.
+ *
+ * Métricas (em /actuator/metrics), com a tag limiter=read|write:
+ * - users.limiter.requests{outcome=accepted|rejected}: requisições admitidas e recusadas (503)
+ * - users.limiter.inflight: requisições em andamento
+ * - users.limiter.limit: limite atual
+ *
+ * @ConditionalOnProperty: desligado com users.limiter.enabled=false
+ * @EnableConfigurationProperties: registra ConcurrencyLimitProperties como bean
+ */
+@Configuration
+@ConditionalOnProperty(value = "users.limiter.enabled", matchIfMissing = true)
+@EnableConfigurationProperties(ConcurrencyLimitProperties.class)
+public class ConcurrencyLimitConfig implements WebMvcConfigurer {
+
+    private final ConcurrencyLimitProperties properties;
+
+    public ConcurrencyLimitConfig(ConcurrencyLimitProperties properties) {
+        this.properties = properties;
+    }
+
+    @Bean
+    public AdaptiveConcurrencyLimiter readLimiter() {
+        return limiter("read", properties.getRead());
+    }
+
+    @Bean
+    public AdaptiveConcurrencyLimiter writeLimiter() {
+        return limiter("write", properties.getWrite());
+    }
+
+    @Bean
+    public MeterBinder concurrencyLimitMetrics() {
+        return registry -> {
+            for (AdaptiveConcurrencyLimiter limiter : List.of(readLimiter(), writeLimiter())) {
+                FunctionCounter.builder("users.limiter.requests", limiter, AdaptiveConcurrencyLimiter::getAccepted)
+                        .tags("limiter", limiter.getName(), "outcome", "accepted")
+                        .description("Requisições admitidas pelo limite de concorrência")
+                        .register(registry);
+                FunctionCounter.builder("users.limiter.requests", limiter, AdaptiveConcurrencyLimiter::getRejected)
+                        .tags("limiter", limiter.getName(), "outcome", "rejected")
+                        .description("Requisições recusadas com 503 por falta de vaga")
+                        .register(registry);
+                Gauge.builder("users.limiter.inflight", limiter, AdaptiveConcurrencyLimiter::getInflight)
+                        .tag("limiter", limiter.getName())
+                        .description("Requisições em andamento")
+                        .register(registry);
+                Gauge.builder("users.limiter.limit", limiter, AdaptiveConcurrencyLimiter::getLimit)
+                        .tag("limiter", limiter.getName())
+                        .description("Limite atual de requisições simultâneas")
+                        .register(registry);
+            }
+        };
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(new ConcurrencyLimitInterceptor(readLimiter(), writeLimiter(), properties.getRetryAfter()));
+    }
+
+    private AdaptiveConcurrencyLimiter limiter(String name, ConcurrencyLimitProperties.Limit limit) {
+        return new AdaptiveConcurrencyLimiter(name, limit.getInitialLimit(), limit.getMinLimit(),
+                limit.getMaxLimit(), properties.getPriorityShare());
+    }
+}
@@ -0,0 +1,73 @@
+package com.example.usersapi.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Configurações do limite adaptativo de concorrência (prefixo users.limiter no application.yml).
+ *
+ * @ConfigurationProperties: associa as propriedades do application.yml aos campos da classe
+ */
+@Data
+@ConfigurationProperties(prefix = "users.limiter")
+public class ConcurrencyLimitProperties {
+
+    /**
+     * Habilita o limite de requisições simultâneas no UserController.
+     */
+    private boolean enabled = true;
+
+    /**
+     * Valor do header Retry-After das respostas 503 (arredondado para segundos).
+     */
+    private Duration retryAfter = Duration.ofSeconds(1);
+
+    /**
+     * Fração do limite reservada às leituras baratas (GET /users/{id}, servido pelo cache):
+     * as demais requisições são recusadas antes, ao ocupar o restante.
+     */
+    private double priorityShare = 0.2;
+
+    /**
+     * Limites das leituras (GET).
+     */
+    private Limit read = new Limit(100, 10, 400);
+
+    /**
+     * Limites das escritas (POST, PUT, DELETE): cada uma segura locks e conexões por mais tempo.
+     */
+    private Limit write = new Limit(20, 2, 100);
+
+    /**
+     * Faixa em que o limite adaptativo pode variar.
+     */
+    @Data
+    public static class Limit {
+
+        /**
+         * Limite ao iniciar, antes de haver medições de latência.
+         */
+        private int initialLimit;
+
+        /**
+         * Menor limite possível, mesmo com o banco muito lento.
+         */
+        private int minLimit;
+
+        /**
+         * Maior limite possível, mesmo com latência estável.
+         */
+        private int maxLimit;
+
+        public Limit() {
+        }
+
+        public Limit(int initialLimit, int minLimit, int maxLimit) {
+            this.initialLimit = initialLimit;
+            this.minLimit = minLimit;
+            this.maxLimit = maxLimit;
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package com.example.usersapi.config;
+
+import com.example.usersapi.deadline.DeadlineInterceptor;
+import com.example.usersapi.deadline.DeadlineTransactionManager;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.transaction.TransactionManagerCustomizers;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionManager;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+/**
+ * Configuração do prazo das requisições, da requisição HTTP até o timeout JDBC.
+ *
+ * O transactionManager declarado aqui substitui o JpaTransactionManager criado pelo
+ * Spring Boot (que só é criado quando não há outro) e recebe os mesmos customizers
+ * (ex.: spring.transaction.default-timeout).
+ *
+ * @EnableConfigurationProperties: registra DeadlineProperties como bean
+ */
+@Configuration
+@EnableConfigurationProperties(DeadlineProperties.class)
+public class DeadlineConfig implements WebMvcConfigurer {
+
+    private final DeadlineProperties properties;
+    private final ObjectProvider<MeterRegistry> meterRegistry;
+
+    public DeadlineConfig(DeadlineProperties properties, ObjectProvider<MeterRegistry> meterRegistry) {
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Bean
+    public PlatformTransactionManager transactionManager(ObjectProvider<TransactionManagerCustomizers> customizers) {
+        DeadlineTransactionManager transactionManager = new DeadlineTransactionManager();
+        customizers.ifAvailable(customizer -> customizer.customize((TransactionManager) transactionManager));
+        return transactionManager;
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(new DeadlineInterceptor(properties, meterRegistry.getObject()));
+    }
+}
@@ -0,0 +1,33 @@
+package com.example.usersapi.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Configurações do prazo das requisições (prefixo users.deadline no application.yml).
+ *
+ * @ConfigurationProperties: associa as propriedades do application.yml aos campos da classe
+ */
+@Data
+@ConfigurationProperties(prefix = "users.deadline")
+public class DeadlineProperties {
+
+    /**
+     * Prazo das requisições sem header X-Request-Timeout e sem padrão próprio do endpoint.
+     */
+    private Duration defaultTimeout = Duration.ofSeconds(10);
+
+    /**
+     * Maior prazo aceito, mesmo que o cliente peça mais no header.
+     */
+    private Duration maxTimeout = Duration.ofSeconds(30);
+
+    /**
+     * Prazo padrão por endpoint, com a chave "MÉTODO padrão", ex.: "GET /users/{id}".
+     */
+    private Map<String, Duration> endpoints = new LinkedHashMap<>();
+}
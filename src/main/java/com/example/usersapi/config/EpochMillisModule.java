@@ -0,0 +1,55 @@
+package com.example.usersapi.config;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.deser.std.StdDeserializer;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+
+import java.io.IOException;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+
+/**
+ * Módulo Jackson que representa LocalDateTime como epoch em milissegundos.
+ * 
+ * Usado apenas nos formatos binários (CBOR/Smile): um número inteiro ocupa poucos
+ * bytes e é muito mais barato de escrever e ler do que o texto ISO-8601.
+ * Os horários são gravados no fuso da JVM, então a conversão usa o mesmo fuso.
+ * A precisão fica em milissegundos (o JSON mantém as frações completas).
+ */
+public class EpochMillisModule extends SimpleModule {
+
+    public EpochMillisModule() {
+        super("EpochMillisModule");
+        addSerializer(LocalDateTime.class, new StdSerializer<>(LocalDateTime.class) {
+            @Override
+            public void serialize(LocalDateTime value, JsonGenerator gen, SerializerProvider provider) throws IOException {
+                gen.writeNumber(toEpochMillis(value));
+            }
+        });
+        addDeserializer(LocalDateTime.class, new StdDeserializer<>(LocalDateTime.class) {
+            @Override
+            public LocalDateTime deserialize(JsonParser parser, DeserializationContext context) throws IOException {
+                return fromEpochMillis(parser.getLongValue());
+            }
+        });
+    }
+
+    /**
+     * Converte para epoch em milissegundos no fuso da JVM.
+     */
+    public static long toEpochMillis(LocalDateTime value) {
+        return value.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+
+    /**
+     * Converte epoch em milissegundos para LocalDateTime no fuso da JVM.
+     */
+    public static LocalDateTime fromEpochMillis(long epochMillis) {
+        return LocalDateTime.ofInstant(Instant.ofEpochMilli(epochMillis), ZoneId.systemDefault());
+    }
+}
@@ -0,0 +1,107 @@
+package com.example.usersapi.config;
+
+import com.example.usersapi.model.User;
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.hibernate.cache.spi.RegionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+import java.net.URI;
+import java.util.OptionalLong;
+import java.util.UUID;
+
+/**
+ * Configuração do cache de segundo nível do Hibernate (entidade User e consultas marcadas como cacheáveis).
+ *
+ * O Hibernate fala com o cache pela API padrão JCache; a implementação é o Caffeine, local
+ * e com tamanho máximo por região. As regiões são criadas aqui, em código, e o Hibernate
+ * recusa qualquer região não declarada (missing_cache_strategy: fail no application.yml).
+ *
+ * @EnableConfigurationProperties: registra UserCacheProperties como bean
+ */
+@Configuration
+@EnableConfigurationProperties(UserCacheProperties.class)
+public class HibernateCacheConfig {
+
+    /**
+     * Entrega ao Hibernate um CacheManager próprio, com as três regiões usadas.
+     *
+     * Cada contexto Spring recebe um CacheManager com URI única: dois contextos na mesma JVM
+     * (comum nos testes, cada um com seu banco H2) não compartilham entradas.
+     * O Hibernate fecha o CacheManager quando o EntityManagerFactory é encerrado.
+     */
+    @Bean
+    public HibernatePropertiesCustomizer hibernateCacheCustomizer(UserCacheProperties properties) {
+        return hibernateProperties -> {
+            CacheManager cacheManager = Caching.getCachingProvider(CaffeineCachingProvider.class.getName())
+                    .getCacheManager(URI.create("users-api:" + UUID.randomUUID()), getClass().getClassLoader());
+
+            long ttl = properties.getTimeToLive().toNanos();
+            cacheManager.createCache(User.CACHE_REGION, region(properties.getEntityMaxSize(), ttl));
+            cacheManager.createCache(RegionFactory.DEFAULT_QUERY_RESULTS_REGION_UNQUALIFIED_NAME,
+                    region(properties.getQueryMaxSize(), ttl));
+            // Timestamps das tabelas: uma entrada por tabela, sem limite nem expiração,
+            // pois é por eles que o Hibernate sabe se um resultado de consulta ficou velho
+            cacheManager.createCache(RegionFactory.DEFAULT_UPDATE_TIMESTAMPS_REGION_UNQUALIFIED_NAME, region(null, null));
+
+            hibernateProperties.put(ConfigSettings.CACHE_MANAGER, cacheManager);
+        };
+    }
+
+    /**
+     * Publica no Micrometer a taxa de acertos de cada região (users.cache.hit.ratio).
+     * Os contadores brutos por região (hibernate.second.level.cache.requests, ...) já são
+     * publicados pelo Spring Boot a partir das estatísticas do Hibernate.
+     */
+    @Bean
+    public MeterBinder userCacheMetrics(EntityManagerFactory entityManagerFactory) {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        return registry -> {
+            Gauge.builder("users.cache.hit.ratio", statistics, stats -> {
+                        CacheRegionStatistics region = stats.getDomainDataRegionStatistics(User.CACHE_REGION);
+                        return ratio(region.getHitCount(), region.getMissCount());
+                    })
+                    .tag("region", "entity")
+                    .description("Acertos / consultas ao cache de usuários por ID")
+                    .register(registry);
+            Gauge.builder("users.cache.hit.ratio", statistics,
+                            stats -> ratio(stats.getQueryCacheHitCount(), stats.getQueryCacheMissCount()))
+                    .tag("region", "query")
+                    .description("Acertos / consultas ao cache de resultados (findByEmail, findByAge, ...)")
+                    .register(registry);
+        };
+    }
+
+    /**
+     * Região sem cópia dos valores (store-by-value false): o Hibernate já guarda o estado
+     * desmontado e imutável da entidade, então a serialização do padrão JCache seria só custo.
+     */
+    private static CaffeineConfiguration<Object, Object> region(Long maximumSize, Long expireAfterWriteNanos) {
+        CaffeineConfiguration<Object, Object> configuration = new CaffeineConfiguration<>();
+        configuration.setStoreByValue(false);
+        if (maximumSize != null) {
+            configuration.setMaximumSize(OptionalLong.of(maximumSize));
+        }
+        if (expireAfterWriteNanos != null) {
+            configuration.setExpireAfterWrite(OptionalLong.of(expireAfterWriteNanos));
+        }
+        return configuration;
+    }
+
+    private static double ratio(long hits, long misses) {
+        long requests = hits + misses;
+        return requests == 0 ? 0.0 : (double) hits / requests;
+    }
+}
@@ -0,0 +1,76 @@
+package com.example.usersapi.config;
+
+import com.example.usersapi.hotkeys.HeavyHitters;
+import com.example.usersapi.hotkeys.HotKey;
+import com.example.usersapi.hotkeys.HotKeyDimension;
+import com.example.usersapi.hotkeys.HotKeyTracker;
+import com.example.usersapi.hotkeys.HotKeysEndpoint;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Configuração da detecção de chaves mais acessadas (hot keys).
+ *
+ * As chaves ficam em /actuator/hotkeys. As métricas não usam a chave como tag
+ * (seriam séries sem limite); com a tag dimension=id|email|search:
+ * - users.hotkeys.lookups: chaves registradas
+ * - users.hotkeys.rate{rank=1..top-k}: acessos por segundo da chave nessa posição, na última janela completa
+ * - users.hotkeys.top.share: fração dos acessos da última janela que foi para o top-K
+ *
+ * @EnableConfigurationProperties: registra HotKeyProperties como bean
+ */
+@Configuration
+@EnableConfigurationProperties(HotKeyProperties.class)
+public class HotKeyConfig {
+
+    @Bean
+    public HotKeyTracker hotKeyTracker(HotKeyProperties properties) {
+        Map<HotKeyDimension, HeavyHitters> heavyHitters = new EnumMap<>(HotKeyDimension.class);
+        for (HotKeyDimension dimension : HotKeyDimension.values()) {
+            heavyHitters.put(dimension, new HeavyHitters(properties.getTopK(), properties.getDepth(),
+                    properties.getWidth(), properties.getWindow(), System::currentTimeMillis));
+        }
+        return new HotKeyTracker(properties.isEnabled(), heavyHitters);
+    }
+
+    @Bean
+    public HotKeysEndpoint hotKeysEndpoint(HotKeyTracker hotKeyTracker) {
+        return new HotKeysEndpoint(hotKeyTracker);
+    }
+
+    @Bean
+    public MeterBinder hotKeyMetrics(HotKeyTracker hotKeyTracker, HotKeyProperties properties) {
+        return registry -> {
+            for (HotKeyDimension dimension : HotKeyDimension.values()) {
+                HeavyHitters heavyHitters = hotKeyTracker.get(dimension);
+                FunctionCounter.builder("users.hotkeys.lookups", hotKeyTracker, tracker -> tracker.getLookups(dimension))
+                        .tag("dimension", dimension.getName())
+                        .description("Chaves registradas para o top-K")
+                        .register(registry);
+                Gauge.builder("users.hotkeys.top.share", heavyHitters, hitters -> hitters.previous().topShare())
+                        .tag("dimension", dimension.getName())
+                        .description("Fração dos acessos da última janela que foi para o top-K")
+                        .register(registry);
+                for (int rank = 1; rank <= properties.getTopK(); rank++) {
+                    int index = rank - 1;
+                    Gauge.builder("users.hotkeys.rate", heavyHitters, hitters -> rate(hitters.previous().top(), index))
+                            .tags("dimension", dimension.getName(), "rank", String.valueOf(rank))
+                            .description("Acessos por segundo da chave nessa posição do top-K, na última janela")
+                            .register(registry);
+                }
+            }
+        };
+    }
+
+    private static double rate(List<HotKey> top, int index) {
+        return index < top.size() ? top.get(index).rate() : 0;
+    }
+}
@@ -0,0 +1,44 @@
+package com.example.usersapi.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Configurações da detecção de chaves mais acessadas (prefixo users.hotkeys no application.yml).
+ *
+ * Memória por tipo de chave: depth * width * 8 bytes do sketch (64 KB no padrão)
+ * mais até 8 * top-k chaves candidatas, em duas janelas.
+ *
+ * @ConfigurationProperties: associa as propriedades do application.yml aos campos da classe
+ */
+@Data
+@ConfigurationProperties(prefix = "users.hotkeys")
+public class HotKeyProperties {
+
+    /**
+     * Registra as chaves consultadas no UserController.
+     */
+    private boolean enabled = true;
+
+    /**
+     * Quantas chaves mais acessadas são mantidas por tipo (id, email, search).
+     */
+    private int topK = 10;
+
+    /**
+     * Linhas do count-min sketch: mais linhas, menor a chance de superestimar.
+     */
+    private int depth = 4;
+
+    /**
+     * Contadores por linha do sketch: mais contadores, menor o erro.
+     */
+    private int width = 2048;
+
+    /**
+     * Duração de cada janela de contagem (as taxas são por segundo dentro da janela).
+     */
+    private Duration window = Duration.ofMinutes(1);
+}
@@ -0,0 +1,35 @@
+package com.example.usersapi.config;
+
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Configuração da importação em lote de usuários.
+ * 
+ * @EnableConfigurationProperties: registra ImportProperties como bean
+ */
+@Configuration
+@EnableConfigurationProperties(ImportProperties.class)
+public class ImportConfig {
+
+    /**
+     * Pool de threads da validação paralela das linhas importadas.
+     * O Spring chama shutdown() automaticamente ao encerrar o contexto.
+     */
+    @Bean
+    public ExecutorService importExecutor(ImportProperties properties) {
+        AtomicInteger counter = new AtomicInteger();
+        ThreadFactory threadFactory = runnable -> {
+            Thread thread = new Thread(runnable, "user-import-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+        return Executors.newFixedThreadPool(properties.getValidationThreads(), threadFactory);
+    }
+}
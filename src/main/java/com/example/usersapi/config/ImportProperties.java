@@ -0,0 +1,32 @@
+package com.example.usersapi.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Configurações da importação em lote (prefixo users.import no application.yml).
+ * 
+ * @ConfigurationProperties: associa as propriedades do application.yml aos campos da classe
+ */
+@Data
+@ConfigurationProperties(prefix = "users.import")
+public class ImportProperties {
+
+    /**
+     * Linhas por lote: cada lote é validado, inserido (JDBC batch) e confirmado junto.
+     */
+    private int batchSize = 1000;
+
+    /**
+     * Threads que convertem e validam as linhas de um lote em paralelo.
+     */
+    private int validationThreads = 4;
+
+    /**
+     * Tempo sem lote confirmado depois do qual uma importação RUNNING é dada como abandonada
+     * (processo que caiu no meio) e pode ser reservada por outra chamada com o mesmo importId.
+     */
+    private Duration staleAfter = Duration.ofMinutes(5);
+}
@@ -0,0 +1,139 @@
+package com.example.usersapi.config;
+
+import com.example.usersapi.invalidation.InvalidationBus;
+import com.example.usersapi.invalidation.InvalidationListener;
+import com.example.usersapi.invalidation.InvalidationTransport;
+import com.example.usersapi.invalidation.LoopbackTransport;
+import com.example.usersapi.invalidation.UdpTransport;
+import com.example.usersapi.invalidation.UserWriteEventListener;
+import com.example.usersapi.phone.PhoneIndex;
+import com.example.usersapi.phone.PhoneIndexLoader;
+import com.example.usersapi.phone.PhoneIndexRefresher;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.EventType;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.net.InetSocketAddress;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Configuração do barramento de invalidação entre instâncias.
+ *
+ * Quem publica: UserWriteEventListener (gravações do JPA) e UserCacheInvalidator (SQL direto),
+ * sempre depois do commit. Quem ouve: todo bean InvalidationListener - cache de segundo nível
+ * (UserCacheInvalidator), respostas guardadas (StaleReadCache) e índice de telefones
+ * (PhoneIndexRefresher).
+ *
+ * Métricas:
+ * - users.invalidation.published: IDs publicados; users.invalidation.coalesced: os que se
+ *   juntaram a um aviso ainda não enviado do mesmo ID
+ * - users.invalidation.messages{direction=sent|received}, users.invalidation.heartbeats
+ * - users.invalidation.gaps: perdas percebidas (caches locais descartados por inteiro)
+ * - users.invalidation.duplicates: mensagens repetidas ignoradas
+ *
+ * @ConditionalOnProperty: só existe com users.invalidation.enabled=true
+ * @EnableConfigurationProperties: registra InvalidationProperties como bean
+ */
+@Configuration
+@ConditionalOnProperty("users.invalidation.enabled")
+@EnableConfigurationProperties(InvalidationProperties.class)
+public class InvalidationConfig {
+
+    /**
+     * Com shards, as gravações não passam pelo JPA nem pelo UserCacheInvalidator e não
+     * seriam publicadas: as duas opções juntas são recusadas na inicialização.
+     */
+    @Bean
+    public InvalidationTransport invalidationTransport(InvalidationProperties properties,
+                                                       @Value("${users.sharding.enabled:false}") boolean sharding) {
+        if (sharding) {
+            throw new IllegalStateException("users.invalidation.enabled não é suportado com users.sharding.enabled");
+        }
+        return switch (properties.getTransport()) {
+            case LOOPBACK -> new LoopbackTransport(properties.getLoopbackNetwork());
+            case UDP -> new UdpTransport(
+                    new InetSocketAddress(properties.getUdp().getHost(), properties.getUdp().getPort()),
+                    properties.getUdp().getPeers().stream().map(InvalidationConfig::address).toList());
+        };
+    }
+
+    /**
+     * Os listeners são buscados a cada mensagem: vários deles dependem de beans que, por sua
+     * vez, publicam no barramento (UserCacheInvalidator).
+     */
+    @Bean
+    public InvalidationBus invalidationBus(InvalidationProperties properties, InvalidationTransport transport,
+                                           ObjectProvider<InvalidationListener> listeners) {
+        InvalidationBus bus = new InvalidationBus(ThreadLocalRandom.current().nextLong(), transport,
+                () -> listeners.orderedStream().toList(), properties.getHeartbeat());
+        return bus.start(properties.getFlushInterval());
+    }
+
+    /**
+     * Registra o listener direto no Hibernate: o JPA não tem eventos pós-commit.
+     */
+    @Bean
+    public UserWriteEventListener userWriteEventListener(InvalidationBus invalidationBus,
+                                                         EntityManagerFactory entityManagerFactory) {
+        UserWriteEventListener listener = new UserWriteEventListener(invalidationBus);
+        EventListenerRegistry registry = entityManagerFactory.unwrap(SessionFactoryImplementor.class)
+                .getServiceRegistry().getService(EventListenerRegistry.class);
+        registry.appendListeners(EventType.POST_COMMIT_INSERT, listener);
+        registry.appendListeners(EventType.POST_COMMIT_UPDATE, listener);
+        registry.appendListeners(EventType.POST_COMMIT_DELETE, listener);
+        return listener;
+    }
+
+    @Bean
+    public PhoneIndexRefresher phoneIndexRefresher(PhoneIndex phoneIndex, PhoneIndexLoader phoneIndexLoader,
+                                                   JdbcTemplate jdbcTemplate) {
+        return new PhoneIndexRefresher(phoneIndex, phoneIndexLoader, jdbcTemplate);
+    }
+
+    @Bean
+    public MeterBinder invalidationMetrics(InvalidationBus invalidationBus) {
+        return registry -> {
+            FunctionCounter.builder("users.invalidation.published", invalidationBus, InvalidationBus::getPublished)
+                    .description("IDs de usuários gravados publicados para as outras instâncias")
+                    .register(registry);
+            FunctionCounter.builder("users.invalidation.coalesced", invalidationBus, InvalidationBus::getCoalesced)
+                    .description("IDs juntados a um aviso ainda não enviado do mesmo usuário")
+                    .register(registry);
+            FunctionCounter.builder("users.invalidation.messages", invalidationBus, InvalidationBus::getMessagesSent)
+                    .tag("direction", "sent")
+                    .description("Mensagens de invalidação")
+                    .register(registry);
+            FunctionCounter.builder("users.invalidation.messages", invalidationBus, InvalidationBus::getMessagesReceived)
+                    .tag("direction", "received")
+                    .description("Mensagens de invalidação")
+                    .register(registry);
+            FunctionCounter.builder("users.invalidation.heartbeats", invalidationBus, InvalidationBus::getHeartbeatsSent)
+                    .description("Heartbeats enviados (intervalos sem gravações)")
+                    .register(registry);
+            FunctionCounter.builder("users.invalidation.gaps", invalidationBus, InvalidationBus::getGaps)
+                    .description("Perdas de mensagens percebidas; cada uma descarta os caches locais")
+                    .register(registry);
+            FunctionCounter.builder("users.invalidation.duplicates", invalidationBus, InvalidationBus::getDuplicates)
+                    .description("Mensagens repetidas ou atrasadas ignoradas")
+                    .register(registry);
+        };
+    }
+
+    private static InetSocketAddress address(String peer) {
+        int colon = peer.lastIndexOf(':');
+        if (colon < 1) {
+            throw new IllegalArgumentException("users.invalidation.udp.peers deve ter host:porta: " + peer);
+        }
+        return new InetSocketAddress(peer.substring(0, colon), Integer.parseInt(peer.substring(colon + 1)));
+    }
+}
@@ -0,0 +1,67 @@
+package com.example.usersapi.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Configurações do barramento de invalidação entre instâncias (prefixo users.invalidation no application.yml).
+ *
+ * @ConfigurationProperties: associa as propriedades do application.yml aos campos da classe
+ */
+@Data
+@ConfigurationProperties(prefix = "users.invalidation")
+public class InvalidationProperties {
+
+    /**
+     * Avisa as outras instâncias das gravações feitas nesta (e ouve os avisos delas).
+     * Não funciona junto com users.sharding.
+     */
+    private boolean enabled = false;
+
+    private Transport transport = Transport.UDP;
+
+    /**
+     * Janela de agrupamento: as gravações do intervalo saem juntas, um aviso por usuário.
+     */
+    private Duration flushInterval = Duration.ofMillis(20);
+
+    /**
+     * Intervalo máximo sem mensagens; é também o atraso máximo para perceber uma perda.
+     */
+    private Duration heartbeat = Duration.ofSeconds(1);
+
+    /**
+     * Nome da rede do transporte LOOPBACK: instâncias na mesma JVM com o mesmo nome se falam.
+     */
+    private String loopbackNetwork = "users";
+
+    private Udp udp = new Udp();
+
+    public enum Transport {
+        /**
+         * Instâncias na mesma JVM (testes).
+         */
+        LOOPBACK,
+        /**
+         * Datagramas UDP para cada endereço de users.invalidation.udp.peers.
+         */
+        UDP
+    }
+
+    @Data
+    public static class Udp {
+
+        private String host = "127.0.0.1";
+
+        private int port = 7600;
+
+        /**
+         * Outras instâncias, como host:porta.
+         */
+        private List<String> peers = new ArrayList<>();
+    }
+}
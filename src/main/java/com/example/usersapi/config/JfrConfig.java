@@ -0,0 +1,133 @@
+package com.example.usersapi.config;
+
+import com.example.usersapi.jfr.CallEventInterceptor;
+import com.example.usersapi.jfr.HttpRequestEvent;
+import com.example.usersapi.jfr.JfrEndpoint;
+import com.example.usersapi.jfr.JfrRequestInterceptor;
+import com.example.usersapi.jfr.RepositoryCallEvent;
+import com.example.usersapi.jfr.ServiceCallEvent;
+import com.example.usersapi.jfr.SqlEventListener;
+import com.example.usersapi.jfr.SqlStatementEvent;
+import com.example.usersapi.repository.UserRepository;
+import com.example.usersapi.service.UserService;
+import jdk.jfr.FlightRecorder;
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+import org.springframework.aop.Advisor;
+import org.springframework.aop.support.DefaultPointcutAdvisor;
+import org.springframework.aop.support.StaticMethodMatcherPointcut;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Role;
+import org.springframework.core.Ordered;
+import org.springframework.core.env.Environment;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import javax.sql.DataSource;
+import java.lang.reflect.Method;
+
+/**
+ * Configuração dos eventos JFR da aplicação (pacote jfr).
+ *
+ * - HttpRequestEvent: JfrRequestInterceptor nos controllers de usuários
+ * - ServiceCallEvent e RepositoryCallEvent: advisors aplicados ao UserService e ao UserRepository
+ * - SqlStatementEvent: datasource-proxy em volta do DataSource da aplicação
+ * - /actuator/jfr: inicia, para e baixa gravações com o perfil jfr/users-api.jfc
+ *
+ * @ConditionalOnProperty: desligado com users.jfr.enabled=false (nenhum ponto de emissão instalado)
+ * @EnableConfigurationProperties: registra JfrProperties como bean
+ */
+@Configuration
+@ConditionalOnProperty(value = "users.jfr.enabled", matchIfMissing = true)
+@EnableConfigurationProperties(JfrProperties.class)
+public class JfrConfig implements WebMvcConfigurer {
+
+    static {
+        // Registrados já na inicialização: aparecem no JMC e recebem as configurações do .jfc
+        FlightRecorder.register(HttpRequestEvent.class);
+        FlightRecorder.register(ServiceCallEvent.class);
+        FlightRecorder.register(RepositoryCallEvent.class);
+        FlightRecorder.register(SqlStatementEvent.class);
+    }
+
+    /**
+     * @Role(ROLE_INFRASTRUCTURE): advisor considerado pelo mesmo criador de proxies do
+     * @Transactional, sem precisar do AspectJ; Ordered.HIGHEST_PRECEDENCE o deixa por fora
+     * da transação, e o evento inclui o commit.
+     */
+    @Bean
+    @Role(BeanDefinition.ROLE_INFRASTRUCTURE)
+    public static Advisor serviceCallEventAdvisor(Environment environment) {
+        return advisor(UserService.class,
+                new CallEventInterceptor(ServiceCallEvent::new, "UserService", cacheable(environment)));
+    }
+
+    @Bean
+    @Role(BeanDefinition.ROLE_INFRASTRUCTURE)
+    public static Advisor repositoryCallEventAdvisor(Environment environment) {
+        return advisor(UserRepository.class,
+                new CallEventInterceptor(RepositoryCallEvent::new, "UserRepository", cacheable(environment)));
+    }
+
+    /**
+     * Envolve o DataSource da aplicação com o datasource-proxy, que avisa o SqlEventListener
+     * a cada comando. Ordered.HIGHEST_PRECEDENCE: fica por dentro de outros envoltórios
+     * do mesmo bean (ex.: LanePartitionedDataSource das raias). O tipo de retorno precisa
+     * ser a classe: o Spring decide a ordem dos BeanPostProcessors pelo tipo declarado.
+     */
+    @Bean
+    public static SqlEventDataSourcePostProcessor sqlEventDataSourcePostProcessor() {
+        return new SqlEventDataSourcePostProcessor();
+    }
+
+    @Bean
+    public JfrEndpoint jfrEndpoint(JfrProperties properties) {
+        return new JfrEndpoint(properties.getMaxAge(), properties.getMaxSize());
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(new JfrRequestInterceptor());
+    }
+
+    /**
+     * Com os shards, as consultas vão a outros pools (e threads) que não são contados.
+     */
+    private static boolean cacheable(Environment environment) {
+        return !environment.getProperty("users.sharding.enabled", Boolean.class, false);
+    }
+
+    private static Advisor advisor(Class<?> type, CallEventInterceptor interceptor) {
+        DefaultPointcutAdvisor advisor = new DefaultPointcutAdvisor(new StaticMethodMatcherPointcut() {
+            @Override
+            public boolean matches(Method method, Class<?> targetClass) {
+                return type.isAssignableFrom(targetClass) && method.getDeclaringClass() != Object.class;
+            }
+        }, interceptor);
+        advisor.setOrder(Ordered.HIGHEST_PRECEDENCE);
+        return advisor;
+    }
+
+    static class SqlEventDataSourcePostProcessor implements BeanPostProcessor, Ordered {
+
+        @Override
+        public Object postProcessAfterInitialization(Object bean, String beanName) {
+            if (!"dataSource".equals(beanName) || !(bean instanceof DataSource dataSource)) {
+                return bean;
+            }
+            return ProxyDataSourceBuilder.create(dataSource)
+                    .name(beanName)
+                    .listener(new SqlEventListener())
+                    .build();
+        }
+
+        @Override
+        public int getOrder() {
+            return Ordered.HIGHEST_PRECEDENCE;
+        }
+    }
+}
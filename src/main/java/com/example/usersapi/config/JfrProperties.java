@@ -0,0 +1,33 @@
+package com.example.usersapi.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+
+/**
+ * Configurações dos eventos JFR (prefixo users.jfr no application.yml).
+ *
+ * @ConfigurationProperties: associa as propriedades do application.yml aos campos da classe
+ */
+@Data
+@ConfigurationProperties(prefix = "users.jfr")
+public class JfrProperties {
+
+    /**
+     * Instala os pontos de emissão dos eventos (interceptor, advisors, proxy do DataSource).
+     * Ligado, o custo sem gravação em andamento é um isEnabled() por ponto.
+     */
+    private boolean enabled = true;
+
+    /**
+     * Idade máxima dos dados mantidos pelas gravações iniciadas em /actuator/jfr.
+     */
+    private Duration maxAge = Duration.ofMinutes(30);
+
+    /**
+     * Tamanho máximo em disco das gravações iniciadas em /actuator/jfr.
+     */
+    private DataSize maxSize = DataSize.ofMegabytes(250);
+}
@@ -5,6 +5,7 @@ import io.swagger.v3.oas.models.info.Contact;
 import io.swagger.v3.oas.models.info.Info;
 import io.swagger.v3.oas.models.info.License;
 import io.swagger.v3.oas.models.servers.Server;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
@@ -16,9 +17,15 @@ import java.util.List;
  * Esta classe personaliza a documentação da API que será gerada
  * automaticamente pelo SpringDoc OpenAPI.
  * 
+ * No perfil prod o SpringDoc fica desligado e a especificação servida é a estática
+ * (docs/openapi.yaml, em /openapi/openapi.yaml), conferida contra os controllers no build
+ * pelo OpenApiDocumentTest.
+ * 
  * @Configuration: marca a classe como fonte de configurações do Spring
+ * @ConditionalOnProperty: só cria o modelo quando o SpringDoc está habilitado
  */
 @Configuration
+@ConditionalOnProperty(name = "springdoc.api-docs.enabled", matchIfMissing = true)
 public class OpenApiConfig {
 
     /**
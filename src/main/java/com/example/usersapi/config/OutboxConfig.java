@@ -0,0 +1,59 @@
+package com.example.usersapi.config;
+
+import com.example.usersapi.service.OutboxDispatcher;
+import com.example.usersapi.service.OutboxEndpoint;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+import java.net.http.HttpClient;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Configuração da entrega assíncrona de eventos de usuários.
+ * 
+ * - /actuator/outbox: lista, reenvia ou descarta eventos em dead letter (OutboxEndpoint)
+ * 
+ * @EnableScheduling: habilita métodos @Scheduled (usado pelo OutboxDispatcher)
+ * @EnableConfigurationProperties: registra OutboxProperties como bean
+ */
+@Configuration
+@EnableScheduling
+@EnableConfigurationProperties(OutboxProperties.class)
+public class OutboxConfig {
+
+    /**
+     * Cliente HTTP compartilhado para os webhooks.
+     * O HttpClient mantém um pool de conexões reutilizado entre entregas.
+     */
+    @Bean
+    public HttpClient outboxHttpClient(OutboxProperties properties) {
+        return HttpClient.newBuilder()
+                .connectTimeout(properties.getRequestTimeout())
+                .build();
+    }
+
+    /**
+     * Pool de threads que limita quantos usuários têm entregas simultâneas.
+     * O Spring chama shutdown() automaticamente ao encerrar o contexto.
+     */
+    @Bean
+    public ExecutorService outboxExecutor(OutboxProperties properties) {
+        AtomicInteger counter = new AtomicInteger();
+        ThreadFactory threadFactory = runnable -> {
+            Thread thread = new Thread(runnable, "outbox-delivery-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+        return Executors.newFixedThreadPool(properties.getConcurrency(), threadFactory);
+    }
+
+    @Bean
+    public OutboxEndpoint outboxEndpoint(OutboxDispatcher outboxDispatcher) {
+        return new OutboxEndpoint(outboxDispatcher);
+    }
+}
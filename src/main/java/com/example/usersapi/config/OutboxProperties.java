@@ -0,0 +1,64 @@
+package com.example.usersapi.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Configurações do outbox de eventos de usuários (prefixo users.outbox no application.yml).
+ * 
+ * @ConfigurationProperties: associa as propriedades do application.yml aos campos da classe
+ */
+@Data
+@ConfigurationProperties(prefix = "users.outbox")
+public class OutboxProperties {
+
+    /**
+     * Habilita a gravação e a entrega de eventos.
+     */
+    private boolean enabled = false;
+
+    /**
+     * URLs dos webhooks que recebem os eventos (HTTP POST com corpo JSON).
+     */
+    private List<String> webhooks = new ArrayList<>();
+
+    /**
+     * Quantidade máxima de eventos lidos do banco a cada ciclo do dispatcher.
+     */
+    private int batchSize = 100;
+
+    /**
+     * Quantidade máxima de usuários com entregas em andamento ao mesmo tempo.
+     */
+    private int concurrency = 4;
+
+    /**
+     * Intervalo entre ciclos do dispatcher (formato ISO-8601, ex.: PT0.5S).
+     * Lido diretamente pelo @Scheduled do OutboxDispatcher.
+     */
+    private Duration pollInterval = Duration.ofMillis(500);
+
+    /**
+     * Tempo máximo de espera pela resposta de um webhook.
+     */
+    private Duration requestTimeout = Duration.ofSeconds(5);
+
+    /**
+     * Espera antes da primeira nova tentativa; dobra a cada falha.
+     */
+    private Duration initialBackoff = Duration.ofSeconds(1);
+
+    /**
+     * Espera máxima entre tentativas.
+     */
+    private Duration maxBackoff = Duration.ofMinutes(5);
+
+    /**
+     * Tentativas antes de o evento ser marcado como FAILED.
+     */
+    private int maxAttempts = 10;
+}
@@ -0,0 +1,57 @@
+package com.example.usersapi.config;
+
+import com.example.usersapi.phone.PhoneIndex;
+import com.example.usersapi.phone.PhoneIndexLoader;
+import com.example.usersapi.repository.UserCacheInvalidator;
+import com.example.usersapi.sharding.ShardSet;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.List;
+
+/**
+ * Configuração do índice de telefones usado por GET /users/by-phone.
+ *
+ * Com users.sharding.enabled, os usuários estão nos shards: o PhoneIndexLoader lê a tabela
+ * de cada um deles em vez da do banco principal, e a consulta pela coluna phone_digits
+ * (enquanto a carga não termina) é feita em todos os shards pelo ShardedUserRepository.
+ *
+ * Métricas: users.phone.index.entries (números indexados) e users.phone.index.nodes (nós da trie).
+ */
+@Configuration
+public class PhoneIndexConfig {
+
+    @Bean
+    public PhoneIndex phoneIndex() {
+        return PhoneIndex.create();
+    }
+
+    /**
+     * ObjectProvider: o ShardSet só existe com users.sharding.enabled (ver ShardingConfig).
+     */
+    @Bean
+    public PhoneIndexLoader phoneIndexLoader(PhoneIndex phoneIndex, JdbcTemplate jdbcTemplate,
+                                             ObjectProvider<ShardSet> shardSet,
+                                             UserCacheInvalidator userCacheInvalidator) {
+        ShardSet shards = shardSet.getIfAvailable();
+        List<JdbcTemplate> databases = shards == null ? List.of(jdbcTemplate)
+                : shards.shards().stream().map(ShardSet.Shard::getJdbcTemplate).toList();
+        return new PhoneIndexLoader(phoneIndex, databases, userCacheInvalidator);
+    }
+
+    @Bean
+    public MeterBinder phoneIndexMetrics(PhoneIndex phoneIndex) {
+        return registry -> {
+            Gauge.builder("users.phone.index.entries", phoneIndex, PhoneIndex::size)
+                    .description("Pares (telefone normalizado, ID) no índice de telefones")
+                    .register(registry);
+            Gauge.builder("users.phone.index.nodes", phoneIndex, PhoneIndex::nodeCount)
+                    .description("Nós da trie de dígitos do índice de telefones")
+                    .register(registry);
+        };
+    }
+}
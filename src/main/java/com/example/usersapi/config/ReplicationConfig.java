@@ -0,0 +1,86 @@
+package com.example.usersapi.config;
+
+import com.example.usersapi.replication.ReadWriteRoutingDataSource;
+import com.example.usersapi.replication.ReplicaSet;
+import com.example.usersapi.replication.ReplicationLog;
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Configuração das réplicas de leitura.
+ *
+ * Substitui o DataSource criado pelo Spring Boot por um que roteia: transações
+ * @Transactional(readOnly = true) vão para uma réplica em dia, o resto vai ao principal.
+ * JPA, JdbcTemplate, Flyway e data.sql usam esse DataSource sem saber das réplicas.
+ *
+ * @ConditionalOnProperty: só existe com users.replication.enabled=true
+ * @EnableConfigurationProperties: registra ReplicationProperties como bean
+ */
+@Configuration
+@ConditionalOnProperty("users.replication.enabled")
+@EnableConfigurationProperties(ReplicationProperties.class)
+public class ReplicationConfig {
+
+    /**
+     * Banco principal, configurado por spring.datasource como sem as réplicas.
+     */
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        return properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+    }
+
+    /**
+     * Um pool de conexões por réplica, com o mesmo usuário e senha do principal.
+     */
+    @Bean
+    public ReplicaSet replicaSet(ReplicationProperties replication, DataSourceProperties properties) {
+        List<ReplicaSet.Replica> replicas = new ArrayList<>();
+        for (String url : replication.getReplicaUrls()) {
+            String name = "replica-" + (replicas.size() + 1);
+            HikariDataSource dataSource = DataSourceBuilder.create()
+                    .type(HikariDataSource.class)
+                    .driverClassName(properties.determineDriverClassName())
+                    .url(url)
+                    .username(properties.determineUsername())
+                    .password(properties.determinePassword())
+                    .build();
+            dataSource.setPoolName(name);
+            replicas.add(new ReplicaSet.Replica(name, dataSource));
+        }
+        return new ReplicaSet(replicas);
+    }
+
+    @Bean
+    public ReplicationLog replicationLog(@Qualifier("primaryDataSource") DataSource primaryDataSource) {
+        return new ReplicationLog(primaryDataSource);
+    }
+
+    /**
+     * DataSource usado pela aplicação.
+     *
+     * @Primary: é o DataSource injetado em todo lugar (o principal só é usado pelo nome)
+     * LazyConnectionDataSourceProxy: só pede a conexão real no primeiro comando SQL,
+     * quando o Spring já sabe se a transação é somente leitura
+     */
+    @Bean
+    @Primary
+    public DataSource dataSource(@Qualifier("primaryDataSource") DataSource primaryDataSource,
+                                 ReplicaSet replicaSet, ReplicationLog replicationLog) {
+        return new LazyConnectionDataSourceProxy(
+                new ReadWriteRoutingDataSource(primaryDataSource, replicaSet, replicationLog));
+    }
+}
@@ -0,0 +1,46 @@
+package com.example.usersapi.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Configurações das réplicas de leitura (prefixo users.replication no application.yml).
+ *
+ * @ConfigurationProperties: associa as propriedades do application.yml aos campos da classe
+ */
+@Data
+@ConfigurationProperties(prefix = "users.replication")
+public class ReplicationProperties {
+
+    /**
+     * Habilita as réplicas e o roteamento de transações somente leitura para elas.
+     */
+    private boolean enabled = false;
+
+    /**
+     * URLs JDBC das réplicas (bancos H2 vazios; o esquema e os dados são copiados na inicialização).
+     * Usuário e senha são os mesmos do banco principal (spring.datasource).
+     */
+    private List<String> replicaUrls = new ArrayList<>();
+
+    /**
+     * Tabelas replicadas. As demais tabelas existem nas réplicas (cópia inicial), mas não
+     * são mantidas em dia: leituras delas devem usar transações de escrita (vão ao principal).
+     */
+    private List<String> tables = new ArrayList<>(List.of("users"));
+
+    /**
+     * Intervalo entre ciclos de sincronização (formato ISO-8601, ex.: PT0.2S).
+     * Lido diretamente pelo @Scheduled do ReplicaSynchronizer.
+     */
+    private Duration pollInterval = Duration.ofMillis(200);
+
+    /**
+     * Linhas alteradas lidas do principal por consulta durante a sincronização.
+     */
+    private int batchSize = 1000;
+}
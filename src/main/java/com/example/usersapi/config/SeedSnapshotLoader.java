@@ -0,0 +1,94 @@
+package com.example.usersapi.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.flywaydb.core.api.callback.Callback;
+import org.flywaydb.core.api.callback.Context;
+import org.flywaydb.core.api.callback.Event;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * Carrega o snapshot inicial de usuários logo após as migrations do Flyway.
+ *
+ * Substitui o data.sql no perfil prod: em vez de um INSERT por linha interpretado pelo
+ * Spring, um único INSERT ... SELECT FROM CSVREAD faz o H2 ler o CSV em streaming,
+ * o que serve tanto para os 5 usuários de exemplo quanto para snapshots grandes.
+ * Como é um callback do Flyway, roda antes de o servidor web aceitar requisições.
+ *
+ * @ConditionalOnProperty: só existe quando users.seed.snapshot está configurado
+ * Callback: o Spring Boot registra no Flyway todo bean deste tipo
+ */
+@Component
+@ConditionalOnProperty("users.seed.snapshot")
+@Slf4j
+public class SeedSnapshotLoader implements Callback {
+
+    /**
+     * Colunas do CSV (cabeçalho obrigatório): name,email,age,phone.
+     * O H2 converte os nomes do cabeçalho para maiúsculas, como identificadores comuns.
+     * O CSVREAD precisa do nome do arquivo como constante (não aceita parâmetro JDBC).
+     */
+    private static final String LOAD_SQL = """
+            INSERT INTO users (name, email, age, phone, created_at, updated_at)
+            SELECT name, email, CAST(NULLIF(age, '') AS INTEGER), NULLIF(phone, ''), LOCALTIMESTAMP, LOCALTIMESTAMP
+            FROM CSVREAD('%s', NULL, 'charset=UTF-8')""";
+
+    private final String snapshot;
+
+    /**
+     * @param snapshot caminho do CSV (arquivo ou classpath:...)
+     */
+    public SeedSnapshotLoader(@Value("${users.seed.snapshot}") String snapshot) {
+        this.snapshot = snapshot;
+    }
+
+    @Override
+    public boolean supports(Event event, Context context) {
+        return event == Event.AFTER_MIGRATE;
+    }
+
+    @Override
+    public boolean canHandleInTransaction(Event event, Context context) {
+        return true;
+    }
+
+    @Override
+    public void handle(Event event, Context context) {
+        Connection connection = context.getConnection();
+        try {
+            if (hasUsers(connection)) {
+                log.info("Tabela users já possui dados, snapshot {} ignorado", snapshot);
+                return;
+            }
+
+            long start = System.nanoTime();
+            int loaded;
+            try (Statement statement = connection.createStatement()) {
+                loaded = statement.executeUpdate(LOAD_SQL.formatted(snapshot.replace("'", "''")));
+            }
+            log.info("Snapshot {} carregado: {} usuários em {} ms", snapshot, loaded, (System.nanoTime() - start) / 1_000_000);
+        } catch (SQLException e) {
+            throw new IllegalStateException("Falha ao carregar o snapshot de usuários " + snapshot, e);
+        }
+    }
+
+    @Override
+    public String getCallbackName() {
+        return "users-seed-snapshot";
+    }
+
+    private boolean hasUsers(Connection connection) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement("SELECT EXISTS (SELECT 1 FROM users)");
+             ResultSet resultSet = statement.executeQuery()) {
+            resultSet.next();
+            return resultSet.getBoolean(1);
+        }
+    }
+}
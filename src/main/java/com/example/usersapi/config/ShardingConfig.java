@@ -0,0 +1,98 @@
+package com.example.usersapi.config;
+
+import com.example.usersapi.query.UserQueryCompiler;
+import com.example.usersapi.repository.UserRepository;
+import com.example.usersapi.sharding.EmailDirectory;
+import com.example.usersapi.sharding.ShardSet;
+import com.example.usersapi.sharding.ShardedUserRepository;
+import com.example.usersapi.sharding.UserIdGenerator;
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Configuração do particionamento de usuários entre vários bancos.
+ *
+ * O ShardedUserRepository é registrado como UserRepository @Primary: o UserService,
+ * a importação e os controllers passam a usá-lo sem saber dos shards. O banco principal
+ * (spring.datasource) continua com o outbox, as importações e o diretório de emails.
+ *
+ * @ConditionalOnProperty: só existe com users.sharding.enabled=true
+ * @EnableConfigurationProperties: registra ShardingProperties como bean
+ */
+@Configuration
+@ConditionalOnProperty("users.sharding.enabled")
+@EnableConfigurationProperties(ShardingProperties.class)
+public class ShardingConfig {
+
+    /**
+     * Um pool de conexões por shard, com o mesmo usuário e senha do principal.
+     */
+    @Bean
+    public ShardSet shardSet(ShardingProperties sharding, DataSourceProperties properties) {
+        List<ShardSet.Shard> shards = new ArrayList<>();
+        for (String url : sharding.getShardUrls()) {
+            String name = "shard-" + shards.size();
+            HikariDataSource dataSource = DataSourceBuilder.create()
+                    .type(HikariDataSource.class)
+                    .driverClassName(properties.determineDriverClassName())
+                    .url(url)
+                    .username(properties.determineUsername())
+                    .password(properties.determinePassword())
+                    .build();
+            dataSource.setPoolName(name);
+            shards.add(new ShardSet.Shard(shards.size(), name, dataSource));
+        }
+        return new ShardSet(shards);
+    }
+
+    @Bean
+    public EmailDirectory emailDirectory(DataSource dataSource) {
+        return new EmailDirectory(dataSource);
+    }
+
+    @Bean
+    public UserIdGenerator userIdGenerator(ShardingProperties sharding) {
+        return new UserIdGenerator(sharding.getNodeId());
+    }
+
+    /**
+     * Pool de threads das consultas executadas em todos os shards ao mesmo tempo.
+     * O Spring chama shutdown() automaticamente ao encerrar o contexto.
+     */
+    @Bean
+    public ExecutorService shardExecutor(ShardingProperties sharding) {
+        AtomicInteger counter = new AtomicInteger();
+        ThreadFactory threadFactory = runnable -> {
+            Thread thread = new Thread(runnable, "user-shard-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+        return Executors.newFixedThreadPool(sharding.getFanOutThreads(), threadFactory);
+    }
+
+    /**
+     * @Primary: injetado no lugar do repository gerado pelo Spring Data
+     */
+    @Bean
+    @Primary
+    public UserRepository shardedUserRepository(ShardSet shardSet, EmailDirectory emailDirectory,
+                                                UserIdGenerator userIdGenerator, UserQueryCompiler userQueryCompiler,
+                                                @Qualifier("shardExecutor") ExecutorService shardExecutor) {
+        return new ShardedUserRepository(shardSet, emailDirectory, userIdGenerator, userQueryCompiler, shardExecutor);
+    }
+}
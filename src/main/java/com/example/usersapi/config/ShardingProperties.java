@@ -0,0 +1,41 @@
+package com.example.usersapi.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Configurações do particionamento de usuários (prefixo users.sharding no application.yml).
+ *
+ * @ConfigurationProperties: associa as propriedades do application.yml aos campos da classe
+ */
+@Data
+@ConfigurationProperties(prefix = "users.sharding")
+public class ShardingProperties {
+
+    /**
+     * Habilita o particionamento: a tabela users passa a viver nos shards, não no banco principal.
+     * Não deve ser combinado com users.replication (as réplicas copiam só o banco principal).
+     */
+    private boolean enabled = false;
+
+    /**
+     * URLs JDBC dos shards (bancos H2; o esquema de users é criado na inicialização).
+     * Usuário e senha são os mesmos do banco principal (spring.datasource).
+     * A ordem importa: o shard de um usuário é calculado pela posição na lista.
+     */
+    private List<String> shardUrls = new ArrayList<>();
+
+    /**
+     * Identificador desta instância (0 a 1023) no gerador de IDs.
+     * Instâncias diferentes precisam de valores diferentes para nunca gerarem o mesmo ID.
+     */
+    private int nodeId = 0;
+
+    /**
+     * Threads que consultam os shards em paralelo (listagens, buscas e contagens).
+     */
+    private int fanOutThreads = 8;
+}
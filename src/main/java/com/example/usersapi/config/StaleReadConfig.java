@@ -0,0 +1,114 @@
+package com.example.usersapi.config;
+
+import com.example.usersapi.service.UserService;
+import com.example.usersapi.stale.StaleReadCache;
+import com.example.usersapi.stale.StaleReadInterceptor;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.springframework.aop.Advisor;
+import org.springframework.aop.support.DefaultPointcutAdvisor;
+import org.springframework.aop.support.StaticMethodMatcherPointcut;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Role;
+import org.springframework.core.Ordered;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Configuração das leituras com resposta antiga (stale-while-revalidate e stale-if-error).
+ *
+ * Métricas, com users.stale.lookups{result=fresh|stale|miss} como base:
+ * - users.stale.served.on.error: respostas antigas entregues no lugar de um erro do banco
+ * - users.stale.refreshes{outcome=success|failure}: atualizações em segundo plano
+ * - users.stale.entries: respostas guardadas
+ *
+ * @ConditionalOnProperty: só existe com users.stale.enabled=true
+ * @EnableConfigurationProperties: registra StaleReadProperties como bean
+ */
+@Configuration
+@ConditionalOnProperty("users.stale.enabled")
+@EnableConfigurationProperties(StaleReadProperties.class)
+public class StaleReadConfig {
+
+    /**
+     * @Role(ROLE_INFRASTRUCTURE): advisor considerado pelo mesmo criador de proxies do
+     * @Transactional. A ordem o deixa logo por dentro do evento JFR e por fora da transação.
+     *
+     * O interceptor é buscado na primeira chamada: o advisor é criado antes dos demais
+     * beans e não pode depender deles (propriedades, executor).
+     */
+    @Bean
+    @Role(BeanDefinition.ROLE_INFRASTRUCTURE)
+    public static Advisor staleReadAdvisor(ObjectProvider<StaleReadInterceptor> interceptor) {
+        MethodInterceptor advice = invocation -> interceptor.getObject().invoke(invocation);
+        DefaultPointcutAdvisor advisor = new DefaultPointcutAdvisor(new StaticMethodMatcherPointcut() {
+            @Override
+            public boolean matches(Method method, Class<?> targetClass) {
+                return UserService.class.isAssignableFrom(targetClass) && StaleReadInterceptor.intercepts(method);
+            }
+        }, advice);
+        advisor.setOrder(Ordered.HIGHEST_PRECEDENCE + 1);
+        return advisor;
+    }
+
+    @Bean
+    public StaleReadCache staleReadCache(StaleReadProperties properties) {
+        return new StaleReadCache(properties.getMaxEntries());
+    }
+
+    /**
+     * Uma thread virtual por atualização: elas passam quase todo o tempo esperando o banco.
+     * O Spring chama close() automaticamente ao encerrar o contexto.
+     */
+    @Bean
+    public ExecutorService staleRefreshExecutor() {
+        return Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("stale-refresh-", 0).factory());
+    }
+
+    @Bean
+    public StaleReadInterceptor staleReadInterceptor(StaleReadCache staleReadCache, StaleReadProperties properties,
+                                                     ExecutorService staleRefreshExecutor) {
+        return new StaleReadInterceptor(staleReadCache, properties, staleRefreshExecutor, System::currentTimeMillis);
+    }
+
+    @Bean
+    public MeterBinder staleReadMetrics(StaleReadInterceptor interceptor, StaleReadCache cache) {
+        return registry -> {
+            FunctionCounter.builder("users.stale.lookups", interceptor, StaleReadInterceptor::getFresh)
+                    .tag("result", "fresh")
+                    .description("Leituras atendidas por resposta guardada, por idade")
+                    .register(registry);
+            FunctionCounter.builder("users.stale.lookups", interceptor, StaleReadInterceptor::getStale)
+                    .tag("result", "stale")
+                    .description("Leituras atendidas por resposta guardada, por idade")
+                    .register(registry);
+            FunctionCounter.builder("users.stale.lookups", interceptor, StaleReadInterceptor::getMisses)
+                    .tag("result", "miss")
+                    .description("Leituras atendidas por resposta guardada, por idade")
+                    .register(registry);
+            FunctionCounter.builder("users.stale.served.on.error", interceptor, StaleReadInterceptor::getServedOnError)
+                    .description("Respostas antigas entregues no lugar de um erro do banco")
+                    .register(registry);
+            FunctionCounter.builder("users.stale.refreshes", interceptor, StaleReadInterceptor::getRefreshes)
+                    .tag("outcome", "success")
+                    .description("Atualizações de respostas em segundo plano")
+                    .register(registry);
+            FunctionCounter.builder("users.stale.refreshes", interceptor, StaleReadInterceptor::getRefreshFailures)
+                    .tag("outcome", "failure")
+                    .description("Atualizações de respostas em segundo plano")
+                    .register(registry);
+            Gauge.builder("users.stale.entries", cache, StaleReadCache::size)
+                    .description("Respostas guardadas para leituras com resposta antiga")
+                    .register(registry);
+        };
+    }
+}
@@ -0,0 +1,50 @@
+package com.example.usersapi.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Configurações das leituras com resposta antiga (prefixo users.stale no application.yml).
+ *
+ * Mesma ideia dos diretivos max-age, stale-while-revalidate e stale-if-error do
+ * Cache-Control (RFC 5861), aplicada às leituras do UserService.
+ *
+ * @ConfigurationProperties: associa as propriedades do application.yml aos campos da classe
+ */
+@Data
+@ConfigurationProperties(prefix = "users.stale")
+public class StaleReadProperties {
+
+    /**
+     * Guarda as últimas respostas das leituras por ID e as usa quando o banco demora ou falha.
+     */
+    private boolean enabled = false;
+
+    /**
+     * Idade até a qual a resposta guardada é entregue sem consultar o banco.
+     */
+    private Duration freshFor = Duration.ofSeconds(1);
+
+    /**
+     * Depois de fresh-for, por quanto tempo a resposta guardada ainda é entregue
+     * enquanto uma atualização roda em segundo plano.
+     */
+    private Duration staleWhileRevalidate = Duration.ofSeconds(30);
+
+    /**
+     * Idade máxima da resposta entregue no lugar de um erro do banco (falha ou timeout).
+     */
+    private Duration staleIfError = Duration.ofMinutes(10);
+
+    /**
+     * Prazo de cada atualização em segundo plano (vira o timeout da transação).
+     */
+    private Duration refreshTimeout = Duration.ofSeconds(2);
+
+    /**
+     * Respostas guardadas; a menos usada sai primeiro.
+     */
+    private int maxEntries = 10_000;
+}
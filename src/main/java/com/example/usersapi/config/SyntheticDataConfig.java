@@ -0,0 +1,31 @@
+package com.example.usersapi.config;
+
+import com.example.usersapi.synthetic.SyntheticDataInitializer;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.sql.init.dependency.DependsOnDatabaseInitialization;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.sql.DataSource;
+
+/**
+ * Configuração da carga de usuários sintéticos na inicialização.
+ *
+ * @ConditionalOnProperty: só existe com users.synthetic.enabled=true
+ * @EnableConfigurationProperties: registra SyntheticDataProperties como bean
+ */
+@Configuration
+@ConditionalOnProperty("users.synthetic.enabled")
+@EnableConfigurationProperties(SyntheticDataProperties.class)
+public class SyntheticDataConfig {
+
+    /**
+     * @DependsOnDatabaseInitialization: criado depois do data.sql ou das migrations do Flyway
+     */
+    @Bean
+    @DependsOnDatabaseInitialization
+    public SyntheticDataInitializer syntheticDataInitializer(SyntheticDataProperties properties, DataSource dataSource) {
+        return new SyntheticDataInitializer(properties, dataSource);
+    }
+}
@@ -0,0 +1,36 @@
+package com.example.usersapi.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Configurações da carga de usuários sintéticos na inicialização (prefixo users.synthetic no application.yml).
+ *
+ * Exemplo pronto no perfil "synthetic" (application-synthetic.yml).
+ *
+ * @ConfigurationProperties: associa as propriedades do application.yml aos campos da classe
+ */
+@Data
+@ConfigurationProperties(prefix = "users.synthetic")
+public class SyntheticDataProperties {
+
+    /**
+     * Grava os usuários gerados na tabela users ao iniciar (além dos dados iniciais).
+     */
+    private boolean enabled = false;
+
+    /**
+     * Quantidade de usuários gerados.
+     */
+    private long users = 1_000_000;
+
+    /**
+     * Semente do gerador: a mesma semente gera sempre os mesmos usuários.
+     */
+    private long seed = 42;
+
+    /**
+     * Linhas por JDBC batch (e por commit).
+     */
+    private int batchSize = 10_000;
+}
@@ -0,0 +1,32 @@
+package com.example.usersapi.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Configurações do cache de segundo nível do Hibernate (prefixo users.cache no application.yml).
+ *
+ * @ConfigurationProperties: associa as propriedades do application.yml aos campos da classe
+ */
+@Data
+@ConfigurationProperties(prefix = "users.cache")
+public class UserCacheProperties {
+
+    /**
+     * Máximo de usuários (entidades) mantidos em memória.
+     */
+    private long entityMaxSize = 10_000;
+
+    /**
+     * Máximo de resultados de consultas (findByEmail, findByAge, ...) mantidos em memória.
+     */
+    private long queryMaxSize = 1_000;
+
+    /**
+     * Tempo de vida de cada entrada. Limita por quanto tempo uma alteração feita
+     * fora da aplicação (ex.: pelo console do H2) pode ficar invisível.
+     */
+    private Duration timeToLive = Duration.ofMinutes(10);
+}
@@ -0,0 +1,45 @@
+package com.example.usersapi.config;
+
+import com.example.usersapi.query.UserQueryParser;
+import com.example.usersapi.repository.UserRepository;
+import com.example.usersapi.service.UserService;
+import com.example.usersapi.warmup.Warmup;
+import com.example.usersapi.warmup.WarmupHealthIndicator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import jakarta.validation.Validator;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.logging.LoggingSystem;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Configuração do aquecimento da JVM na inicialização.
+ *
+ * Os beans existem mesmo com users.warmup.enabled=false: o componente "warmup" do grupo
+ * readiness precisa existir (o Spring Boot recusa grupos com membros desconhecidos).
+ *
+ * @EnableConfigurationProperties: registra WarmupProperties como bean
+ */
+@Configuration
+@EnableConfigurationProperties(WarmupProperties.class)
+public class WarmupConfig {
+
+    @Bean
+    public Warmup warmup(WarmupProperties properties, UserService userService, UserRepository userRepository,
+                         UserQueryParser userQueryParser, ObjectMapper objectMapper, Validator validator,
+                         TransactionTemplate transactionTemplate, EntityManager entityManager,
+                         LoggingSystem loggingSystem) {
+        return new Warmup(properties, userService, userRepository, userQueryParser, objectMapper, validator,
+                transactionTemplate, entityManager, loggingSystem);
+    }
+
+    /**
+     * O nome do bean (sem o sufixo HealthIndicator) é o nome do componente no health.
+     */
+    @Bean
+    public WarmupHealthIndicator warmupHealthIndicator(Warmup warmup) {
+        return new WarmupHealthIndicator(warmup);
+    }
+}
@@ -0,0 +1,43 @@
+package com.example.usersapi.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Configurações do aquecimento da JVM na inicialização (prefixo users.warmup no application.yml).
+ *
+ * O aquecimento para no que acontecer primeiro: iterations ou max-duration.
+ *
+ * @ConfigurationProperties: associa as propriedades do application.yml aos campos da classe
+ */
+@Data
+@ConfigurationProperties(prefix = "users.warmup")
+public class WarmupProperties {
+
+    /**
+     * Exercita os caminhos quentes antes de a aplicação ficar pronta (readiness).
+     */
+    private boolean enabled = false;
+
+    /**
+     * Iterações do aquecimento (cada uma cria, lê, busca, altera e remove um usuário provisório).
+     */
+    private int iterations = 2000;
+
+    /**
+     * Tempo máximo do aquecimento, mesmo sem completar as iterações.
+     */
+    private Duration maxDuration = Duration.ofSeconds(60);
+
+    /**
+     * Em quantas fatias as iterações são divididas no relatório de latência.
+     */
+    private int slices = 10;
+
+    /**
+     * Variação aceita do p99 entre as duas últimas fatias para considerar a latência estável.
+     */
+    private double tolerance = 0.2;
+}
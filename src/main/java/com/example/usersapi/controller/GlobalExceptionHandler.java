@@ -1,12 +1,23 @@
 package com.example.usersapi.controller;
 
+import com.example.usersapi.deadline.Deadline;
+import com.example.usersapi.deadline.DeadlineExceededException;
+import com.example.usersapi.limiter.OverloadedException;
+import com.example.usersapi.service.ImportFailedException;
+import com.example.usersapi.service.ImportInProgressException;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.jdbc.CannotGetJdbcConnectionException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.transaction.CannotCreateTransactionException;
+import org.springframework.transaction.TransactionTimedOutException;
 import org.springframework.validation.FieldError;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.util.DisconnectedClientHelper;
 
 import java.time.LocalDateTime;
 import java.util.HashMap;
@@ -22,6 +33,12 @@ import java.util.Map;
 @Slf4j
 public class GlobalExceptionHandler {
 
+    /**
+     * Reconhece as exceções de escrita em uma conexão já fechada pelo cliente (Tomcat, Jetty...).
+     */
+    private static final DisconnectedClientHelper DISCONNECTED_CLIENT =
+            new DisconnectedClientHelper(GlobalExceptionHandler.class.getName());
+
     /**
      * Trata erros de validação (Bean Validation).
      * 
@@ -52,6 +69,105 @@ public class GlobalExceptionHandler {
         return ResponseEntity.badRequest().body(response);
     }
 
+    /**
+     * Trata requisições recusadas pelo limite de concorrência (ver limiter.ConcurrencyLimitInterceptor).
+     * 
+     * Retry-After: diz ao cliente quando tentar de novo, em vez de repetir imediatamente.
+     * Registrado em debug: sob sobrecarga, um log por recusa pioraria a situação.
+     */
+    @ExceptionHandler(OverloadedException.class)
+    public ResponseEntity<Map<String, Object>> handleOverloadedException(
+            OverloadedException ex) {
+        
+        log.debug("Requisição recusada: {}", ex.getMessage());
+        
+        Map<String, Object> response = new HashMap<>();
+        response.put("timestamp", LocalDateTime.now());
+        response.put("status", HttpStatus.SERVICE_UNAVAILABLE.value());
+        response.put("error", "Service Unavailable");
+        response.put("message", ex.getMessage());
+        
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(ex.getRetryAfterSeconds()))
+                .body(response);
+    }
+
+    /**
+     * Trata a falta de conexão para abrir a transação ou executar o comando.
+     * 
+     * Se a causa foi o limite de conexões da raia (ver bulkhead.LanePartitionedDataSource),
+     * a resposta é a mesma da sobrecarga (503 + Retry-After); os demais casos seguem como antes.
+     */
+    @ExceptionHandler({CannotCreateTransactionException.class, CannotGetJdbcConnectionException.class})
+    public ResponseEntity<Map<String, Object>> handleConnectionUnavailable(
+            RuntimeException ex) {
+        
+        for (Throwable cause = ex.getCause(); cause != null; cause = cause.getCause()) {
+            if (cause instanceof OverloadedException overloaded) {
+                return handleOverloadedException(overloaded);
+            }
+        }
+        return handleRuntimeException(ex);
+    }
+
+    /**
+     * Trata o prazo da requisição esgotado (ver deadline.Deadline): antes de uma etapa,
+     * no início da transação ou com o comando cancelado pelo timeout JDBC.
+     */
+    @ExceptionHandler({DeadlineExceededException.class, TransactionTimedOutException.class,
+            QueryTimeoutException.class})
+    public ResponseEntity<Map<String, Object>> handleDeadlineExceeded(
+            RuntimeException ex) {
+        
+        log.warn("Prazo da requisição esgotado: {}", ex.getMessage());
+        Deadline.current().ifPresent(deadline -> deadline.cancel(Deadline.EXPIRED));
+        
+        Map<String, Object> response = new HashMap<>();
+        response.put("timestamp", LocalDateTime.now());
+        response.put("status", HttpStatus.GATEWAY_TIMEOUT.value());
+        response.put("error", "Gateway Timeout");
+        response.put("message", "Prazo da requisição esgotado");
+        
+        return ResponseEntity.status(HttpStatus.GATEWAY_TIMEOUT).body(response);
+    }
+
+    /**
+     * Trata a importação em lote reservada por outra chamada com o mesmo importId.
+     */
+    @ExceptionHandler(ImportInProgressException.class)
+    public ResponseEntity<Map<String, Object>> handleImportInProgress(
+            ImportInProgressException ex) {
+        
+        log.warn("Importação recusada: {}", ex.getMessage());
+        
+        Map<String, Object> response = new HashMap<>();
+        response.put("timestamp", LocalDateTime.now());
+        response.put("status", HttpStatus.CONFLICT.value());
+        response.put("error", "Conflict");
+        response.put("message", ex.getMessage());
+        
+        return ResponseEntity.status(HttpStatus.CONFLICT).body(response);
+    }
+
+    /**
+     * Trata a importação em lote interrompida por falha do servidor (banco, transação).
+     * A causa fica no log; o cliente recebe só como retomar.
+     */
+    @ExceptionHandler(ImportFailedException.class)
+    public ResponseEntity<Map<String, Object>> handleImportFailed(
+            ImportFailedException ex) {
+        
+        log.error("Importação interrompida: {}", ex.getMessage(), ex.getCause());
+        
+        Map<String, Object> response = new HashMap<>();
+        response.put("timestamp", LocalDateTime.now());
+        response.put("status", HttpStatus.INTERNAL_SERVER_ERROR.value());
+        response.put("error", "Internal Server Error");
+        response.put("message", ex.getMessage());
+        
+        return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(response);
+    }
+
     /**
      * Trata exceções gerais de runtime.
      */
@@ -77,6 +193,13 @@ public class GlobalExceptionHandler {
     public ResponseEntity<Map<String, Object>> handleGenericException(
             Exception ex) {
         
+        // Cliente desconectou no meio da resposta: não há para quem responder
+        if (DISCONNECTED_CLIENT.isClientDisconnectedException(ex)) {
+            log.debug("Cliente desconectou antes do fim da resposta: {}", ex.getMessage());
+            Deadline.current().ifPresent(deadline -> deadline.cancel(Deadline.CLIENT_DISCONNECTED));
+            return null;
+        }
+        
         log.error("Erro interno: {}", ex.getMessage(), ex);
         
         Map<String, Object> response = new HashMap<>();
@@ -1,21 +1,39 @@
 package com.example.usersapi.controller;
 
+import com.example.usersapi.deadline.Deadline;
 import com.example.usersapi.dto.CreateUserRequest;
+import com.example.usersapi.dto.SparseUserResponse;
 import com.example.usersapi.dto.UpdateUserRequest;
+import com.example.usersapi.dto.UpsertUserRequest;
+import com.example.usersapi.dto.UpsertUserResult;
+import com.example.usersapi.dto.UserETag;
+import com.example.usersapi.dto.UserFieldSet;
+import com.example.usersapi.dto.UserPage;
 import com.example.usersapi.dto.UserResponse;
+import com.example.usersapi.hotkeys.HotKeyDimension;
+import com.example.usersapi.hotkeys.HotKeyTracker;
+import com.example.usersapi.query.UserQuery;
+import com.example.usersapi.query.UserQueryParser;
 import com.example.usersapi.service.UserService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.enums.ParameterIn;
+import io.swagger.v3.oas.annotations.headers.Header;
 import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
+import jakarta.validation.constraints.Email;
+import jakarta.validation.constraints.Size;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.jdbc.CannotGetJdbcConnectionException;
+import org.springframework.transaction.CannotCreateTransactionException;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
@@ -23,6 +41,9 @@ import java.util.List;
 /**
  * Controller REST para operações de usuários.
  * 
+ * Além de JSON, as respostas podem ser negociadas em CBOR ou Smile pelo header Accept
+ * (ver BinaryFormatsConfig), com datas em epoch para reduzir tamanho e custo de CPU.
+ * 
  * Annotations importantes:
  * @RestController: combina @Controller + @ResponseBody (retorna JSON automaticamente)
  * @RequestMapping: define o path base para todos os endpoints (/users)
@@ -37,35 +58,206 @@ import java.util.List;
 @Tag(name = "Users", description = "API para gerenciamento de usuários")
 public class UserController {
 
+    static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+    static final int MAX_BATCH_IDS = 100;
+    static final int DEFAULT_PHONE_LIMIT = 20;
+    static final int MAX_PHONE_LIMIT = 100;
+    private static final String FIELDS_DESCRIPTION =
+            "Campos retornados, ex.: id,name,email (padrão: todos). Só essas colunas são lidas do banco";
+
     private final UserService userService;
+    private final UserQueryParser userQueryParser;
+    private final HotKeyTracker hotKeyTracker;
 
     /**
-     * GET /users - Lista todos os usuários
+     * GET /users - Lista usuários
+     * 
+     * Sem parâmetros, retorna todos os usuários (comportamento original).
+     * Com filter, sort, limit ou cursor, executa a busca paginada por keyset:
+     * o corpo continua sendo uma lista e o cursor da próxima página vai no header X-Next-Cursor.
      * 
      * @Operation: documentação OpenAPI do endpoint
      * @ApiResponses: documentação das possíveis respostas
      * @GetMapping: mapeia requisições GET para este método
+     * @RequestParam(required = false): parâmetros opcionais da query string
      */
     @Operation(
             summary = "Lista todos os usuários",
-            description = "Retorna uma lista com todos os usuários cadastrados no sistema"
+            description = "Retorna uma lista com todos os usuários cadastrados no sistema. "
+                    + "Com filter/sort/limit/cursor, retorna uma página da busca (paginação por keyset)"
     )
     @ApiResponses(value = {
             @ApiResponse(
                     responseCode = "200",
                     description = "Lista de usuários retornada com sucesso",
-                    content = @Content(
-                            mediaType = "application/json",
-                            schema = @Schema(implementation = UserResponse.class)
-                    )
+                    headers = @Header(name = NEXT_CURSOR_HEADER,
+                            description = "Cursor da próxima página (ausente na última página)"),
+                    content = {
+                            @Content(mediaType = "application/json",
+                                    schema = @Schema(implementation = UserResponse.class)),
+                            @Content(mediaType = "application/cbor",
+                                    schema = @Schema(implementation = UserResponse.class)),
+                            @Content(mediaType = "application/x-jackson-smile",
+                                    schema = @Schema(implementation = UserResponse.class))
+                    }
+            ),
+            @ApiResponse(
+                    responseCode = "400",
+                    description = "Filtro ou ordenação inválidos ou que exigiriam varrer a tabela",
+                    content = @Content(mediaType = "application/json")
             )
     })
     @GetMapping
-    public ResponseEntity<List<UserResponse>> getAllUsers() {
-        log.info("Requisição recebida: GET /users");
+    public ResponseEntity<List<?>> getAllUsers(
+            @Parameter(description = "Filtro, ex.: age>=18;name~sil (operadores = != > >= < <= ^ ~)")
+            @RequestParam(required = false) String filter,
+            @Parameter(description = "Ordenação, ex.: -createdAt,name")
+            @RequestParam(required = false) String sort,
+            @Parameter(description = "Tamanho da página (1 a " + UserQueryParser.MAX_LIMIT + ")")
+            @RequestParam(required = false) Integer limit,
+            @Parameter(description = "Cursor retornado no header X-Next-Cursor da página anterior")
+            @RequestParam(required = false) String cursor,
+            @Parameter(description = FIELDS_DESCRIPTION)
+            @RequestParam(required = false) String fields) {
+        
+        // Erros de sintaxe ou consultas sem índice geram IllegalArgumentException (400 no GlobalExceptionHandler)
+        UserFieldSet fieldSet = fields == null ? null : UserFieldSet.parse(fields);
+        
+        if (filter == null && sort == null && limit == null && cursor == null) {
+            log.info("Requisição recebida: GET /users");
+            
+            List<?> users = fieldSet == null ? userService.getAllUsers() : userService.getAllUsers(fieldSet);
+            
+            log.info("Retornando {} usuários", users.size());
+            return ResponseEntity.ok(users);
+        }
+        
+        log.info("Requisição recebida: GET /users - filter: {}, sort: {}, limit: {}", filter, sort, limit);
+        
+        UserQuery query = userQueryParser.parse(filter, sort, limit, cursor);
+        hotKeyTracker.record(query);
+        UserPage<?> page = fieldSet == null
+                ? userService.searchUsers(query)
+                : userService.searchUsers(query, fieldSet);
+        
+        log.info("Retornando {} usuários", page.getUsers().size());
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (page.getNextCursor() != null) {
+            response.header(NEXT_CURSOR_HEADER, page.getNextCursor());
+        }
+        return response.body(page.getUsers());
+    }
+
+    /**
+     * GET /users/batch?ids=1,2,3 - Busca vários usuários por ID
+     * 
+     * Uma única consulta (IN) no lugar de várias chamadas a GET /users/{id}: é o endpoint
+     * usado pelo cliente (client.UsersApiClient) para agrupar buscas concorrentes.
+     * O path fixo /batch tem precedência sobre /{id}.
+     */
+    @Operation(
+            summary = "Busca vários usuários por ID",
+            description = "Retorna os usuários encontrados na ordem dos IDs pedidos (até "
+                    + MAX_BATCH_IDS + "); IDs inexistentes ficam de fora da lista"
+    )
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Usuários encontrados",
+                    content = {
+                            @Content(mediaType = "application/json",
+                                    schema = @Schema(implementation = UserResponse.class)),
+                            @Content(mediaType = "application/cbor",
+                                    schema = @Schema(implementation = UserResponse.class)),
+                            @Content(mediaType = "application/x-jackson-smile",
+                                    schema = @Schema(implementation = UserResponse.class))
+                    }
+            ),
+            @ApiResponse(
+                    responseCode = "400",
+                    description = "Lista de IDs vazia, inválida ou com mais de " + MAX_BATCH_IDS + " IDs",
+                    content = @Content(mediaType = "application/json")
+            )
+    })
+    @GetMapping("/batch")
+    public ResponseEntity<List<UserResponse>> getUsersByIds(
+            @Parameter(description = "IDs separados por vírgula, ex.: 1,2,3", required = true)
+            @RequestParam(required = false) List<Long> ids) {
+        
+        // Sem ids, vazio ou grande demais: 400 (GlobalExceptionHandler)
+        if (ids == null || ids.isEmpty() || ids.size() > MAX_BATCH_IDS) {
+            throw new IllegalArgumentException("ids deve ter de 1 a " + MAX_BATCH_IDS + " IDs");
+        }
+        if (ids.contains(null)) {
+            throw new IllegalArgumentException("ids não pode ter posições vazias");
+        }
+        log.info("Requisição recebida: GET /users/batch - {} IDs", ids.size());
+        ids.forEach(id -> hotKeyTracker.record(HotKeyDimension.ID, id));
+        
+        List<UserResponse> users = userService.getUsersByIds(ids);
+        log.info("Retornando {} usuários", users.size());
+        return ResponseEntity.ok(users);
+    }
+
+    /**
+     * GET /users/by-phone?phone=(11) 99999-9999 - Busca usuários por telefone
+     * 
+     * O telefone é normalizado como na gravação (só dígitos, com código do país, ver
+     * phone.PhoneNumbers), então "(11) 99999-9999", "11999999999" e "+55 11 99999-9999"
+     * encontram o mesmo usuário. Com match=prefix, basta o início do número (ex.: o DDD).
+     * A busca usa o índice em memória (phone.PhoneIndex), sem percorrer a tabela.
+     */
+    @Operation(
+            summary = "Busca usuários por telefone",
+            description = "Busca exata (padrão) ou por prefixo no telefone normalizado; retorna até "
+                    + MAX_PHONE_LIMIT + " usuários, em ordem de telefone e de ID"
+    )
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Usuários encontrados (lista vazia se nenhum)",
+                    content = {
+                            @Content(mediaType = "application/json",
+                                    schema = @Schema(implementation = UserResponse.class)),
+                            @Content(mediaType = "application/cbor",
+                                    schema = @Schema(implementation = UserResponse.class)),
+                            @Content(mediaType = "application/x-jackson-smile",
+                                    schema = @Schema(implementation = UserResponse.class))
+                    }
+            ),
+            @ApiResponse(
+                    responseCode = "400",
+                    description = "Telefone sem dígitos, match diferente de exact/prefix ou limit fora de 1 a "
+                            + MAX_PHONE_LIMIT,
+                    content = @Content(mediaType = "application/json")
+            )
+    })
+    @GetMapping("/by-phone")
+    public ResponseEntity<List<UserResponse>> getUsersByPhone(
+            @Parameter(description = "Telefone em qualquer formato, ex.: (11) 99999-9999 ou +55 11 99999-9999",
+                    required = true)
+            @RequestParam(required = false) String phone,
+            @Parameter(description = "exact (padrão) ou prefix")
+            @RequestParam(required = false) String match,
+            @Parameter(description = "Máximo de usuários (1 a " + MAX_PHONE_LIMIT + ", padrão "
+                    + DEFAULT_PHONE_LIMIT + ")")
+            @RequestParam(required = false) Integer limit) {
         
-        List<UserResponse> users = userService.getAllUsers();
+        if (phone == null || phone.isBlank()) {
+            throw new IllegalArgumentException("phone é obrigatório");
+        }
+        boolean prefix = switch (match == null ? "exact" : match) {
+            case "exact" -> false;
+            case "prefix" -> true;
+            default -> throw new IllegalArgumentException("match deve ser exact ou prefix: " + match);
+        };
+        int max = limit == null ? DEFAULT_PHONE_LIMIT : limit;
+        if (max < 1 || max > MAX_PHONE_LIMIT) {
+            throw new IllegalArgumentException("limit deve estar entre 1 e " + MAX_PHONE_LIMIT);
+        }
+        log.info("Requisição recebida: GET /users/by-phone - busca {}", prefix ? "por prefixo" : "exata");
         
+        List<UserResponse> users = userService.getUsersByPhone(phone, prefix, max);
         log.info("Retornando {} usuários", users.size());
         return ResponseEntity.ok(users);
     }
@@ -73,21 +265,39 @@ public class UserController {
     /**
      * GET /users/{id} - Busca usuário por ID
      * 
+     * A resposta completa traz um ETag fraco derivado de id e updatedAt (UserETag): o
+     * cliente revalida o que tem em cache com If-None-Match e recebe 304 sem corpo.
+     * 
      * @PathVariable: extrai valor da URL
      * @Parameter: documentação do parâmetro
      */
     @Operation(
             summary = "Busca usuário por ID",
-            description = "Retorna os detalhes de um usuário específico"
+            description = "Retorna os detalhes de um usuário específico. Sem ?fields=, a resposta traz "
+                    + "um ETag: com If-None-Match igual a ele, a resposta é 304 sem corpo"
     )
+    @Parameter(in = ParameterIn.HEADER, name = HttpHeaders.IF_NONE_MATCH,
+            description = "ETag de uma resposta anterior (304 se o usuário não mudou)")
     @ApiResponses(value = {
             @ApiResponse(
                     responseCode = "200",
                     description = "Usuário encontrado",
-                    content = @Content(
-                            mediaType = "application/json",
-                            schema = @Schema(implementation = UserResponse.class)
-                    )
+                    headers = @Header(name = HttpHeaders.ETAG,
+                            description = "Versão do usuário (ausente com ?fields=)"),
+                    content = {
+                            @Content(mediaType = "application/json",
+                                    schema = @Schema(implementation = UserResponse.class)),
+                            @Content(mediaType = "application/cbor",
+                                    schema = @Schema(implementation = UserResponse.class)),
+                            @Content(mediaType = "application/x-jackson-smile",
+                                    schema = @Schema(implementation = UserResponse.class))
+                    }
+            ),
+            @ApiResponse(
+                    responseCode = "304",
+                    description = "Usuário não mudou desde o ETag enviado em If-None-Match",
+                    // Sem corpo: @Content vazio evita o "*/*" que o springdoc deduziria do retorno
+                    content = @Content
             ),
             @ApiResponse(
                     responseCode = "404",
@@ -96,17 +306,31 @@ public class UserController {
             )
     })
     @GetMapping("/{id}")
-    public ResponseEntity<UserResponse> getUserById(
+    public ResponseEntity<?> getUserById(
             @Parameter(description = "ID do usuário", required = true)
-            @PathVariable Long id) {
+            @PathVariable Long id,
+            @Parameter(description = FIELDS_DESCRIPTION)
+            @RequestParam(required = false) String fields) {
         
         log.info("Requisição recebida: GET /users/{}", id);
+        hotKeyTracker.record(HotKeyDimension.ID, id);
+        
+        // Fora do try: campo inválido é 400 (GlobalExceptionHandler), não 404
+        UserFieldSet fieldSet = fields == null ? null : UserFieldSet.parse(fields);
         
         try {
+            if (fieldSet != null) {
+                SparseUserResponse user = userService.getUserById(id, fieldSet);
+                log.info("Usuário encontrado - ID: {}", id);
+                return ResponseEntity.ok(user);
+            }
             UserResponse user = userService.getUserById(id);
             log.info("Usuário encontrado: {}", user.getName());
-            return ResponseEntity.ok(user);
+            
+            // Com o ETag na resposta, o Spring devolve 304 sem corpo se o If-None-Match for igual
+            return ResponseEntity.ok().eTag(UserETag.of(user)).body(user);
         } catch (RuntimeException e) {
+            rethrowServerErrors(e);
             log.error("Erro ao buscar usuário: {}", e.getMessage());
             return ResponseEntity.notFound().build();
         }
@@ -151,6 +375,7 @@ public class UserController {
             // Retorna status 201 (Created) com o usuário criado
             return ResponseEntity.status(HttpStatus.CREATED).body(createdUser);
         } catch (RuntimeException e) {
+            rethrowServerErrors(e);
             log.error("Erro ao criar usuário: {}", e.getMessage());
             return ResponseEntity.badRequest().build();
         }
@@ -193,12 +418,14 @@ public class UserController {
             @Valid @RequestBody UpdateUserRequest request) {
         
         log.info("Requisição recebida: PUT /users/{} - Email: {}", id, request.getEmail());
+        hotKeyTracker.record(HotKeyDimension.ID, id);
         
         try {
             UserResponse updatedUser = userService.updateUser(id, request);
             log.info("Usuário atualizado com sucesso - ID: {}", updatedUser.getId());
             return ResponseEntity.ok(updatedUser);
         } catch (RuntimeException e) {
+            rethrowServerErrors(e);
             log.error("Erro ao atualizar usuário: {}", e.getMessage());
             
             // Determina o status code baseado na mensagem de erro
@@ -210,6 +437,60 @@ public class UserController {
         }
     }
 
+    /**
+     * PUT /users/by-email/{email} - Cria ou atualiza usuário pelo email
+     * 
+     * Substitui o fluxo GET por email + POST ou PUT por uma única chamada (e um único MERGE no banco).
+     * Retorna 201 quando o usuário foi criado e 200 quando já existia e foi atualizado.
+     * 
+     * @Email/@Size no @PathVariable: validação do parâmetro da URL
+     * (falha gera 400 pelo GlobalExceptionHandler)
+     */
+    @Operation(
+            summary = "Cria ou atualiza usuário pelo email",
+            description = "Upsert atômico: cria o usuário se o email não existir, senão atualiza seus dados"
+    )
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Usuário existente atualizado",
+                    content = @Content(
+                            mediaType = "application/json",
+                            schema = @Schema(implementation = UserResponse.class)
+                    )
+            ),
+            @ApiResponse(
+                    responseCode = "201",
+                    description = "Usuário criado",
+                    content = @Content(
+                            mediaType = "application/json",
+                            schema = @Schema(implementation = UserResponse.class)
+                    )
+            ),
+            @ApiResponse(
+                    responseCode = "400",
+                    description = "Dados ou email inválidos",
+                    content = @Content(mediaType = "application/json")
+            )
+    })
+    @PutMapping("/by-email/{email}")
+    public ResponseEntity<UserResponse> upsertUserByEmail(
+            @Parameter(description = "Email do usuário (chave do upsert)", required = true)
+            @PathVariable @Email(message = "Email deve ter um formato válido")
+            @Size(max = 150, message = "Email deve ter no máximo 150 caracteres") String email,
+            @Parameter(description = "Dados do usuário", required = true)
+            @Valid @RequestBody UpsertUserRequest request) {
+        
+        log.info("Requisição recebida: PUT /users/by-email/{}", email);
+        hotKeyTracker.record(HotKeyDimension.EMAIL, email);
+        
+        UpsertUserResult result = userService.upsertUserByEmail(email, request);
+        
+        // 201 (Created) para inserção, 200 (OK) para atualização
+        HttpStatus status = result.isCreated() ? HttpStatus.CREATED : HttpStatus.OK;
+        return ResponseEntity.status(status).body(result.getUser());
+    }
+
     /**
      * DELETE /users/{id} - Remove usuário
      * 
@@ -236,6 +517,7 @@ public class UserController {
             @PathVariable Long id) {
         
         log.info("Requisição recebida: DELETE /users/{}", id);
+        hotKeyTracker.record(HotKeyDimension.ID, id);
         
         try {
             userService.deleteUser(id);
@@ -244,8 +526,20 @@ public class UserController {
             // Retorna status 204 (No Content) - sucesso sem corpo de resposta
             return ResponseEntity.noContent().build();
         } catch (RuntimeException e) {
+            rethrowServerErrors(e);
             log.error("Erro ao remover usuário: {}", e.getMessage());
             return ResponseEntity.notFound().build();
         }
     }
+
+    /**
+     * Para os blocos catch (RuntimeException): prazo esgotado e falta de conexão não são
+     * "usuário não encontrado" nem "dados inválidos", e seguem para o GlobalExceptionHandler.
+     */
+    private static void rethrowServerErrors(RuntimeException e) {
+        Deadline.rethrowIfTimedOut(e);
+        if (e instanceof CannotCreateTransactionException || e instanceof CannotGetJdbcConnectionException) {
+            throw e;
+        }
+    }
 }
\ No newline at end of file
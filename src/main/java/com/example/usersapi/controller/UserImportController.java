@@ -0,0 +1,197 @@
+package com.example.usersapi.controller;
+
+import com.example.usersapi.dto.ImportRejectionResponse;
+import com.example.usersapi.dto.ImportReport;
+import com.example.usersapi.model.ImportFormat;
+import com.example.usersapi.service.UserImportService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.ArraySchema;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.io.InputStream;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Controller REST da importação em lote de usuários.
+ * 
+ * O corpo da requisição é recebido como InputStream: o Spring não converte nem
+ * guarda o conteúdo, e o UserImportService lê o arquivo linha a linha enquanto ele chega.
+ * Por isso o corpo é documentado no @Operation (requestBody) e não pelo parâmetro.
+ */
+@RestController
+@RequestMapping("/users/import")
+@RequiredArgsConstructor
+@Slf4j
+@Tag(name = "Users", description = "API para gerenciamento de usuários")
+public class UserImportController {
+
+    static final int DEFAULT_REJECTIONS_LIMIT = 100;
+    static final int MAX_REJECTIONS_LIMIT = 1000;
+
+    private final UserImportService userImportService;
+
+    /**
+     * POST /users/import - Importa usuários de um arquivo CSV ou NDJSON
+     * 
+     * consumes: aceita apenas text/csv e application/x-ndjson (outros tipos geram 415)
+     * InputStream: corpo bruto da requisição, lido sob demanda
+     */
+    @Operation(
+            summary = "Importa usuários em lote",
+            description = "Lê um arquivo CSV (com cabeçalho) ou NDJSON em streaming, valida as linhas em paralelo "
+                    + "e insere em lotes com commit periódico. Reenviar com o mesmo importId retoma da última linha confirmada",
+            requestBody = @io.swagger.v3.oas.annotations.parameters.RequestBody(
+                    required = true,
+                    content = {
+                            @Content(mediaType = "text/csv", schema = @Schema(type = "string")),
+                            @Content(mediaType = "application/x-ndjson", schema = @Schema(type = "string"))
+                    }
+            )
+    )
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Importação concluída ou interrompida (ver status); rejeições em rejectionsUrl",
+                    content = @Content(
+                            mediaType = "application/json",
+                            schema = @Schema(implementation = ImportReport.class)
+                    )
+            ),
+            @ApiResponse(
+                    responseCode = "400",
+                    description = "importId ou cabeçalho CSV inválidos",
+                    content = @Content(mediaType = "application/json")
+            ),
+            @ApiResponse(
+                    responseCode = "409",
+                    description = "Importação com o mesmo importId em andamento em outra chamada",
+                    content = @Content(mediaType = "application/json")
+            ),
+            @ApiResponse(
+                    responseCode = "500",
+                    description = "Falha do servidor; a importação fica FAILED e pode ser retomada com o mesmo importId",
+                    content = @Content(mediaType = "application/json")
+            )
+    })
+    @PostMapping(consumes = {"text/csv", "application/x-ndjson"})
+    public ResponseEntity<ImportReport> importUsers(
+            @Parameter(description = "ID da importação (padrão: gerado). Reenviar o mesmo ID retoma a importação")
+            @RequestParam(required = false) String importId,
+            @Parameter(hidden = true) @RequestHeader(HttpHeaders.CONTENT_TYPE) MediaType contentType,
+            @Parameter(hidden = true) InputStream body) {
+        
+        String id = importId != null ? importId : UUID.randomUUID().toString();
+        log.info("Requisição recebida: POST /users/import - importId: {}, formato: {}", id, contentType);
+        
+        ImportReport report = userImportService.importUsers(id, ImportFormat.fromMediaType(contentType), body);
+        return ResponseEntity.ok(report);
+    }
+
+    /**
+     * GET /users/import/{importId} - Consulta o progresso de uma importação
+     */
+    @Operation(
+            summary = "Consulta importação",
+            description = "Retorna o progresso de uma importação em lote"
+    )
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Importação encontrada",
+                    content = @Content(
+                            mediaType = "application/json",
+                            schema = @Schema(implementation = ImportReport.class)
+                    )
+            ),
+            @ApiResponse(
+                    responseCode = "404",
+                    description = "Importação não encontrada",
+                    content = @Content(mediaType = "application/json")
+            )
+    })
+    @GetMapping("/{importId}")
+    public ResponseEntity<ImportReport> getImport(
+            @Parameter(description = "ID da importação", required = true)
+            @PathVariable String importId) {
+        
+        log.info("Requisição recebida: GET /users/import/{}", importId);
+        
+        try {
+            return ResponseEntity.ok(userImportService.getImport(importId));
+        } catch (RuntimeException e) {
+            log.error("Erro ao buscar importação: {}", e.getMessage());
+            return ResponseEntity.notFound().build();
+        }
+    }
+
+    /**
+     * GET /users/import/{importId}/rejections - Lista as linhas rejeitadas de uma importação
+     * 
+     * Paginação por keyset: a próxima página começa com afterLine = line da última rejeição recebida.
+     */
+    @Operation(
+            summary = "Lista rejeições da importação",
+            description = "Retorna as linhas rejeitadas (número, motivos e conteúdo), em ordem de linha, "
+                    + "depois de afterLine. Cada página tem até " + MAX_REJECTIONS_LIMIT + " rejeições"
+    )
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Rejeições da importação (vazio quando não há mais)",
+                    content = @Content(
+                            mediaType = "application/json",
+                            array = @ArraySchema(schema = @Schema(implementation = ImportRejectionResponse.class))
+                    )
+            ),
+            @ApiResponse(
+                    responseCode = "400",
+                    description = "afterLine negativo ou limit fora de 1 a " + MAX_REJECTIONS_LIMIT,
+                    content = @Content(mediaType = "application/json")
+            ),
+            @ApiResponse(
+                    responseCode = "404",
+                    description = "Importação não encontrada",
+                    content = @Content(mediaType = "application/json")
+            )
+    })
+    @GetMapping("/{importId}/rejections")
+    public ResponseEntity<List<ImportRejectionResponse>> getRejections(
+            @Parameter(description = "ID da importação", required = true)
+            @PathVariable String importId,
+            @Parameter(description = "Última linha já recebida (padrão: 0, desde o início)")
+            @RequestParam(defaultValue = "0") long afterLine,
+            @Parameter(description = "Máximo de rejeições (1 a " + MAX_REJECTIONS_LIMIT + ", padrão "
+                    + DEFAULT_REJECTIONS_LIMIT + ")")
+            @RequestParam(required = false) Integer limit) {
+        
+        int max = limit == null ? DEFAULT_REJECTIONS_LIMIT : limit;
+        if (max < 1 || max > MAX_REJECTIONS_LIMIT) {
+            throw new IllegalArgumentException("limit deve estar entre 1 e " + MAX_REJECTIONS_LIMIT);
+        }
+        if (afterLine < 0) {
+            throw new IllegalArgumentException("afterLine não pode ser negativo");
+        }
+        log.info("Requisição recebida: GET /users/import/{}/rejections - depois da linha {}", importId, afterLine);
+        
+        List<ImportRejectionResponse> rejections;
+        try {
+            rejections = userImportService.getRejections(importId, afterLine, max);
+        } catch (RuntimeException e) {
+            log.error("Erro ao buscar rejeições da importação: {}", e.getMessage());
+            return ResponseEntity.notFound().build();
+        }
+        return ResponseEntity.ok(rejections);
+    }
+}
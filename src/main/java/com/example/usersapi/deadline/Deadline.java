@@ -0,0 +1,117 @@
+package com.example.usersapi.deadline;
+
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.transaction.TransactionTimedOutException;
+
+import java.time.Duration;
+import java.util.Optional;
+
+/**
+ * Prazo da requisição atual: até quando vale a pena continuar trabalhando nela.
+ *
+ * O DeadlineInterceptor define o prazo no início da requisição (header X-Request-Timeout
+ * ou padrão do endpoint) e o guarda em um ThreadLocal, que acompanha a requisição pelo
+ * UserService até o banco: o DeadlineTransactionManager transforma o tempo restante no
+ * timeout da transação, aplicado pelo Spring a cada comando JDBC (setQueryTimeout).
+ *
+ * Quando o prazo vence, o trabalho é interrompido (DeadlineExceededException, 504)
+ * e o motivo fica registrado para a métrica users.deadline.cancelled.
+ */
+public final class Deadline {
+
+    public static final String HEADER = "X-Request-Timeout";
+
+    /**
+     * Motivos de cancelamento (tag reason da métrica).
+     */
+    public static final String EXPIRED = "deadline";
+    public static final String CLIENT_DISCONNECTED = "client-disconnected";
+
+    private static final ThreadLocal<Deadline> CURRENT = new ThreadLocal<>();
+
+    private final Duration budget;
+    private final long expiresAtNanos;
+    private volatile String cancellation;
+
+    private Deadline(Duration budget) {
+        this.budget = budget;
+        this.expiresAtNanos = System.nanoTime() + budget.toNanos();
+    }
+
+    /**
+     * Define o prazo da requisição atual, a partir de agora.
+     */
+    public static Deadline start(Duration budget) {
+        Deadline deadline = new Deadline(budget);
+        CURRENT.set(deadline);
+        return deadline;
+    }
+
+    /**
+     * Prazo da requisição atual (vazio fora de requisições HTTP, ex.: jobs agendados).
+     */
+    public static Optional<Deadline> current() {
+        return Optional.ofNullable(CURRENT.get());
+    }
+
+    /**
+     * Interrompe o trabalho se o prazo da requisição atual já venceu.
+     *
+     * @param stage etapa que seria executada (vai na mensagem de erro)
+     * @throws DeadlineExceededException se o prazo venceu
+     */
+    public static void check(String stage) {
+        Deadline deadline = CURRENT.get();
+        if (deadline != null && deadline.isExpired()) {
+            throw deadline.expired(stage);
+        }
+    }
+
+    /**
+     * Para blocos catch (RuntimeException) dos controllers: prazo vencido não é
+     * "usuário não encontrado" nem "dados inválidos", e segue para o GlobalExceptionHandler (504).
+     */
+    public static void rethrowIfTimedOut(RuntimeException e) {
+        if (e instanceof DeadlineExceededException || e instanceof TransactionTimedOutException
+                || e instanceof QueryTimeoutException) {
+            throw e;
+        }
+    }
+
+    public static void clear() {
+        CURRENT.remove();
+    }
+
+    public Duration getBudget() {
+        return budget;
+    }
+
+    public long remainingMillis() {
+        return Math.max(0, (expiresAtNanos - System.nanoTime()) / 1_000_000);
+    }
+
+    public boolean isExpired() {
+        return System.nanoTime() - expiresAtNanos >= 0;
+    }
+
+    /**
+     * Registra que o trabalho foi interrompido e cria a exceção correspondente.
+     */
+    public DeadlineExceededException expired(String stage) {
+        cancel(EXPIRED);
+        return new DeadlineExceededException(stage, budget);
+    }
+
+    /**
+     * Registra o motivo do cancelamento (o primeiro prevalece).
+     */
+    public void cancel(String reason) {
+        if (cancellation == null) {
+            cancellation = reason;
+        }
+    }
+
+    public Optional<String> cancellation() {
+        return Optional.ofNullable(cancellation);
+    }
+}
@@ -0,0 +1,14 @@
+package com.example.usersapi.deadline;
+
+import java.time.Duration;
+
+/**
+ * O prazo da requisição venceu antes de uma etapa do trabalho.
+ * Convertida em 504 pelo GlobalExceptionHandler.
+ */
+public class DeadlineExceededException extends RuntimeException {
+
+    public DeadlineExceededException(String stage, Duration budget) {
+        super("Prazo da requisição (" + budget.toMillis() + " ms) esgotado antes de: " + stage);
+    }
+}
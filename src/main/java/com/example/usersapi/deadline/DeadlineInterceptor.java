@@ -0,0 +1,78 @@
+package com.example.usersapi.deadline;
+
+import com.example.usersapi.config.DeadlineProperties;
+import com.example.usersapi.controller.UserController;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.convert.DurationStyle;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.time.Duration;
+import java.time.temporal.ChronoUnit;
+
+/**
+ * Define o prazo de cada requisição do UserController e conta o trabalho cancelado.
+ *
+ * O prazo vem do header X-Request-Timeout (ex.: 200, 200ms, 2s; número sem unidade
+ * é milissegundos) ou, sem header, do padrão do endpoint em users.deadline.endpoints,
+ * limitado a users.deadline.max-timeout. Um header inválido é ignorado (vale o padrão).
+ *
+ * Ao fim da requisição, se o trabalho foi interrompido, incrementa
+ * users.deadline.cancelled{reason=deadline|client-disconnected, uri}.
+ */
+@RequiredArgsConstructor
+@Slf4j
+public class DeadlineInterceptor implements HandlerInterceptor {
+
+    private final DeadlineProperties properties;
+    private final MeterRegistry meterRegistry;
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (!(handler instanceof HandlerMethod method) || !UserController.class.isAssignableFrom(method.getBeanType())) {
+            return true;
+        }
+        Duration budget = requested(request.getHeader(Deadline.HEADER));
+        if (budget == null) {
+            budget = properties.getEndpoints().getOrDefault(
+                    request.getMethod() + " " + pattern(request), properties.getDefaultTimeout());
+        }
+        if (budget.compareTo(properties.getMaxTimeout()) > 0) {
+            budget = properties.getMaxTimeout();
+        }
+        Deadline.start(budget);
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        Deadline.current()
+                .flatMap(Deadline::cancellation)
+                .ifPresent(reason -> meterRegistry.counter("users.deadline.cancelled",
+                        "reason", reason, "uri", pattern(request)).increment());
+        Deadline.clear();
+    }
+
+    private static Duration requested(String header) {
+        if (header == null) {
+            return null;
+        }
+        try {
+            Duration budget = DurationStyle.detectAndParse(header.trim(), ChronoUnit.MILLIS);
+            return budget.isNegative() ? Duration.ZERO : budget;
+        } catch (IllegalArgumentException e) {
+            log.warn("{} inválido ({}), usando o prazo padrão do endpoint", Deadline.HEADER, header);
+            return null;
+        }
+    }
+
+    private static String pattern(HttpServletRequest request) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        return pattern != null ? pattern.toString() : request.getRequestURI();
+    }
+}
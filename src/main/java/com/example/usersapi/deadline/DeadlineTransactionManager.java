@@ -0,0 +1,45 @@
+package com.example.usersapi.deadline;
+
+import org.springframework.orm.jpa.JpaTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.ResourceHolderSupport;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * JpaTransactionManager que limita cada transação ao prazo da requisição.
+ *
+ * O tempo restante vira o timeout da transação (em milissegundos) nos recursos dela:
+ * - EntityManager: o Spring aplica o restante como timeout de cada consulta JPA
+ * - Conexão JDBC: o JdbcTemplate aplica o restante em setQueryTimeout de cada comando
+ * Antes de cada comando o Spring também confere o restante e lança TransactionTimedOutException
+ * se ele acabou. O H2 cancela o comando que passar do timeout (QueryTimeoutException).
+ *
+ * Sem prazo (ex.: OutboxDispatcher, importação), a transação segue como antes.
+ */
+public class DeadlineTransactionManager extends JpaTransactionManager {
+
+    @Override
+    protected void doBegin(Object transaction, TransactionDefinition definition) {
+        // Prazo já vencido: nem pede conexão ao pool
+        Deadline.check("início da transação");
+        super.doBegin(transaction, definition);
+
+        Deadline.current().ifPresent(deadline -> {
+            long remaining = Math.max(deadline.remainingMillis(), 1);
+            tighten(TransactionSynchronizationManager.getResource(obtainEntityManagerFactory()), remaining);
+            if (getDataSource() != null) {
+                tighten(TransactionSynchronizationManager.getResource(getDataSource()), remaining);
+            }
+        });
+    }
+
+    /**
+     * Usa o restante do prazo se ele for menor que o timeout já definido (ex.: @Transactional(timeout)).
+     */
+    private static void tighten(Object holder, long remainingMillis) {
+        if (holder instanceof ResourceHolderSupport resource
+                && (!resource.hasTimeout() || resource.getTimeToLiveInMillis() > remainingMillis)) {
+            resource.setTimeoutInMillis(remainingMillis);
+        }
+    }
+}
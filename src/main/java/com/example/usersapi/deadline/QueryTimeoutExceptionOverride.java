@@ -0,0 +1,27 @@
+package com.example.usersapi.deadline;
+
+import com.zaxxer.hikari.SQLExceptionOverride;
+
+import java.sql.SQLException;
+
+/**
+ * Impede o Hikari de descartar a conexão quando uma consulta é cancelada por timeout.
+ *
+ * O Hikari trata o SQLSTATE 57014 ("consulta cancelada") como conexão quebrada e a remove
+ * do pool. Com o prazo da requisição virando timeout JDBC, esse cancelamento é esperado
+ * e a conexão continua utilizável: sem esta classe, cada prazo esgotado custaria uma conexão.
+ *
+ * Registrada em spring.datasource.hikari.exception-override-class-name (o Hikari
+ * instancia a classe pelo nome, por isso o construtor público sem argumentos).
+ */
+public class QueryTimeoutExceptionOverride implements SQLExceptionOverride {
+
+    static final String QUERY_CANCELED = "57014";
+
+    /**
+     * Sem @Override: dentro desta classe o nome Override é o enum herdado da interface.
+     */
+    public SQLExceptionOverride.Override adjudicate(SQLException sqlException) {
+        return QUERY_CANCELED.equals(sqlException.getSQLState()) ? Override.DO_NOT_EVICT : Override.CONTINUE_EVICT;
+    }
+}
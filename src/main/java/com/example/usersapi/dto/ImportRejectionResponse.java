@@ -0,0 +1,31 @@
+package com.example.usersapi.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * DTO de uma linha rejeitada em uma importação em lote.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ImportRejectionResponse {
+
+    /**
+     * Número da linha no arquivo (começando em 1, contando o cabeçalho CSV).
+     */
+    private long line;
+
+    /**
+     * Motivos da rejeição.
+     */
+    private List<String> errors;
+
+    /**
+     * Linha como veio no arquivo.
+     */
+    private String raw;
+}
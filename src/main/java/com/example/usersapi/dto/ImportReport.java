@@ -0,0 +1,44 @@
+package com.example.usersapi.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * DTO com o resultado (ou progresso) de uma importação em lote.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ImportReport {
+
+    /**
+     * Identificador da importação (reenviar o arquivo com o mesmo ID retoma de onde parou).
+     */
+    private String importId;
+
+    /**
+     * Situação: RUNNING, COMPLETED ou FAILED.
+     */
+    private String status;
+
+    /**
+     * Linhas do arquivo já processadas e confirmadas.
+     */
+    private long linesCommitted;
+
+    /**
+     * Usuários inseridos.
+     */
+    private long imported;
+
+    /**
+     * Linhas rejeitadas.
+     */
+    private long rejected;
+
+    /**
+     * Caminho da API com o motivo de cada rejeição (GET, paginado por linha).
+     */
+    private String rejectionsUrl;
+}
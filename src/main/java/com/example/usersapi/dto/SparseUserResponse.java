@@ -0,0 +1,34 @@
+package com.example.usersapi.dto;
+
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+
+/**
+ * Resposta parcial de usuário para ?fields=.
+ * 
+ * Guarda os valores lidos do banco em um array indexado pelo ordinal de
+ * UserResponseField e só os campos pedidos são serializados.
+ * 
+ * @JsonSerialize: usa o serializer pré-compilado em vez da introspecção do Jackson
+ */
+@JsonSerialize(using = SparseUserResponseSerializer.class)
+public final class SparseUserResponse {
+
+    private final UserFieldSet fields;
+    private final Object[] values;
+
+    public SparseUserResponse(UserFieldSet fields, Object[] values) {
+        this.fields = fields;
+        this.values = values;
+    }
+
+    public UserFieldSet getFields() {
+        return fields;
+    }
+
+    /**
+     * Valor de um campo (nulo se não foi selecionado ou se está vazio no banco).
+     */
+    public Object get(UserResponseField field) {
+        return values[field.ordinal()];
+    }
+}
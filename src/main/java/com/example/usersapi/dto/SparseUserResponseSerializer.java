@@ -0,0 +1,27 @@
+package com.example.usersapi.dto;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+
+import java.io.IOException;
+
+/**
+ * Serializer de SparseUserResponse: percorre os campos pré-compilados do UserFieldSet
+ * e escreve cada um direto no JsonGenerator.
+ */
+public class SparseUserResponseSerializer extends StdSerializer<SparseUserResponse> {
+
+    public SparseUserResponseSerializer() {
+        super(SparseUserResponse.class);
+    }
+
+    @Override
+    public void serialize(SparseUserResponse user, JsonGenerator gen, SerializerProvider provider) throws IOException {
+        gen.writeStartObject(user);
+        for (UserResponseField field : user.getFields().fields()) {
+            field.write(gen, provider, user.get(field));
+        }
+        gen.writeEndObject();
+    }
+}
@@ -0,0 +1,36 @@
+package com.example.usersapi.dto;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * DTO para criação ou atualização de usuário pelo email (PUT /users/by-email/{email}).
+ * 
+ * O email não faz parte do corpo: ele é a chave da operação e vem na URL.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class UpsertUserRequest {
+
+    /**
+     * Nome do usuário - obrigatório.
+     */
+    @NotBlank(message = "Nome é obrigatório")
+    @Size(min = 2, max = 100, message = "Nome deve ter entre 2 e 100 caracteres")
+    private String name;
+
+    /**
+     * Idade do usuário - opcional.
+     */
+    private Integer age;
+
+    /**
+     * Telefone do usuário - opcional.
+     */
+    @Size(max = 20, message = "Telefone deve ter no máximo 20 caracteres")
+    private String phone;
+}
@@ -0,0 +1,26 @@
+package com.example.usersapi.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Resultado do upsert por email.
+ * 
+ * O controller devolve apenas o usuário no corpo; created decide entre 201 e 200.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class UpsertUserResult {
+
+    /**
+     * Estado do usuário após a operação.
+     */
+    private UserResponse user;
+
+    /**
+     * true se o usuário foi inserido, false se já existia e foi atualizado.
+     */
+    private boolean created;
+}
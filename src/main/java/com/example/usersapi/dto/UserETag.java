@@ -0,0 +1,26 @@
+package com.example.usersapi.dto;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+
+/**
+ * ETag de um usuário, derivado do ID e do updatedAt (toda alteração muda o updatedAt).
+ *
+ * Fraco (W/): a mesma versão do usuário vale para JSON, CBOR e Smile, que não são
+ * iguais byte a byte. O updatedAt entra em microssegundos, a precisão da coluna no banco.
+ * O cliente (client.UsersApiClient) calcula o mesmo valor para os usuários de /users/batch.
+ */
+public final class UserETag {
+
+    private UserETag() {
+    }
+
+    public static String of(UserResponse user) {
+        return of(user.getId(), user.getUpdatedAt());
+    }
+
+    public static String of(Long id, LocalDateTime updatedAt) {
+        long micros = updatedAt.toEpochSecond(ZoneOffset.UTC) * 1_000_000 + updatedAt.getNano() / 1_000;
+        return "W/\"" + id + "-" + Long.toString(micros, 36) + "\"";
+    }
+}
@@ -0,0 +1,142 @@
+package com.example.usersapi.dto;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Conjunto de campos pedido em ?fields=id,name,email.
+ * 
+ * Os 127 conjuntos possíveis (7 campos) são pré-compilados na carga da classe:
+ * cada um já tem a lista de colunas do SELECT e a sequência de campos a escrever.
+ * Uma requisição só converte o parâmetro em máscara de bits e pega o conjunto pronto.
+ */
+public final class UserFieldSet {
+
+    private static final UserResponseField[] FIELDS = UserResponseField.values();
+    private static final UserFieldSet[] BY_MASK = new UserFieldSet[1 << FIELDS.length];
+
+    static {
+        for (int mask = 1; mask < BY_MASK.length; mask++) {
+            BY_MASK[mask] = new UserFieldSet(mask);
+        }
+    }
+
+    /**
+     * Todos os campos (equivalente a não informar ?fields).
+     */
+    public static final UserFieldSet ALL = BY_MASK[BY_MASK.length - 1];
+
+    private final int mask;
+    private final UserResponseField[] fields;
+    private final String selectColumns;
+
+    private UserFieldSet(int mask) {
+        this.mask = mask;
+        List<UserResponseField> selected = new ArrayList<>();
+        for (UserResponseField field : FIELDS) {
+            if ((mask & bit(field)) != 0) {
+                selected.add(field);
+            }
+        }
+        this.fields = selected.toArray(UserResponseField[]::new);
+        this.selectColumns = selected.stream().map(UserResponseField::column).collect(Collectors.joining(", "));
+    }
+
+    /**
+     * Converte o parâmetro ?fields= no conjunto pré-compilado.
+     * 
+     * @param fields nomes separados por vírgula
+     * @return conjunto de campos
+     * @throws IllegalArgumentException se houver campo desconhecido ou o parâmetro estiver vazio
+     */
+    public static UserFieldSet parse(String fields) {
+        int mask = 0;
+        for (String name : fields.split(",")) {
+            String trimmed = name.trim();
+            if (!trimmed.isEmpty()) {
+                mask |= bit(fieldFor(trimmed));
+            }
+        }
+        if (mask == 0) {
+            throw new IllegalArgumentException("Informe ao menos um campo em fields");
+        }
+        return BY_MASK[mask];
+    }
+
+    /**
+     * Conjunto com os campos deste mais os informados (ex.: colunas de ordenação do cursor).
+     */
+    public UserFieldSet with(UserResponseField... extra) {
+        int combined = mask;
+        for (UserResponseField field : extra) {
+            combined |= bit(field);
+        }
+        return BY_MASK[combined];
+    }
+
+    /**
+     * Colunas do SELECT, ex.: "id, name, email".
+     */
+    public String selectColumns() {
+        return selectColumns;
+    }
+
+    public boolean contains(UserResponseField field) {
+        return (mask & bit(field)) != 0;
+    }
+
+    /**
+     * Lê as colunas deste conjunto em um array indexado pelo ordinal do campo.
+     */
+    public Object[] readRow(ResultSet rs) throws SQLException {
+        Object[] values = new Object[FIELDS.length];
+        for (UserResponseField field : fields) {
+            values[field.ordinal()] = field.read(rs);
+        }
+        return values;
+    }
+
+    /**
+     * Mesmo array de readRow(ResultSet), a partir de um usuário já carregado (ex.: do arquivo).
+     */
+    public Object[] readRow(UserResponse user) {
+        Object[] values = new Object[FIELDS.length];
+        for (UserResponseField field : fields) {
+            values[field.ordinal()] = switch (field) {
+                case ID -> user.getId();
+                case NAME -> user.getName();
+                case EMAIL -> user.getEmail();
+                case AGE -> user.getAge();
+                case PHONE -> user.getPhone();
+                case CREATED_AT -> user.getCreatedAt();
+                case UPDATED_AT -> user.getUpdatedAt();
+            };
+        }
+        return values;
+    }
+
+    UserResponseField[] fields() {
+        return fields;
+    }
+
+    private static int bit(UserResponseField field) {
+        return 1 << field.ordinal();
+    }
+
+    private static UserResponseField fieldFor(String apiName) {
+        for (UserResponseField field : FIELDS) {
+            if (field.apiName().equals(apiName)) {
+                return field;
+            }
+        }
+        throw new IllegalArgumentException("Campo desconhecido em fields: " + apiName);
+    }
+
+    @Override
+    public String toString() {
+        return selectColumns;
+    }
+}
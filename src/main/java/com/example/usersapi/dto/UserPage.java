@@ -0,0 +1,31 @@
+package com.example.usersapi.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Página de usuários retornada pela busca com filtro/ordenação.
+ * 
+ * O controller devolve apenas a lista no corpo (mesmo contrato de GET /users)
+ * e o cursor no header X-Next-Cursor.
+ * 
+ * @param <T> tipo do item (UserResponse ou SparseUserResponse quando há ?fields=)
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class UserPage<T> {
+
+    /**
+     * Usuários da página.
+     */
+    private List<T> users;
+
+    /**
+     * Cursor da próxima página (nulo quando esta é a última).
+     */
+    private String nextCursor;
+}
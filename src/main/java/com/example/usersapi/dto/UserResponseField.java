@@ -0,0 +1,131 @@
+package com.example.usersapi.dto;
+
+import com.example.usersapi.config.EpochMillisModule;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.SerializableString;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.SerializerProvider;
+
+import java.io.IOException;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * Campos de UserResponse que podem ser pedidos em ?fields=.
+ * 
+ * Cada campo sabe ler sua coluna do ResultSet e escrever seu valor no JsonGenerator
+ * diretamente, com o nome já pré-serializado (SerializedString). Assim a resposta
+ * parcial é escrita sem reflexão e sem introspecção de bean a cada requisição.
+ * 
+ * A ordem das constantes é a ordem dos campos no JSON, igual à de UserResponse.
+ */
+public enum UserResponseField {
+
+    ID("id", "id") {
+        @Override
+        Object read(ResultSet rs) throws SQLException {
+            return rs.getLong(column());
+        }
+
+        @Override
+        void writeValue(JsonGenerator gen, SerializerProvider provider, Object value) throws IOException {
+            gen.writeNumber((Long) value);
+        }
+    },
+    NAME("name", "name"),
+    EMAIL("email", "email"),
+    AGE("age", "age") {
+        @Override
+        Object read(ResultSet rs) throws SQLException {
+            return rs.getObject(column(), Integer.class);
+        }
+
+        @Override
+        void writeValue(JsonGenerator gen, SerializerProvider provider, Object value) throws IOException {
+            gen.writeNumber((Integer) value);
+        }
+    },
+    PHONE("phone", "phone"),
+    CREATED_AT("createdAt", "created_at") {
+        @Override
+        Object read(ResultSet rs) throws SQLException {
+            return rs.getObject(column(), LocalDateTime.class);
+        }
+
+        @Override
+        void writeValue(JsonGenerator gen, SerializerProvider provider, Object value) throws IOException {
+            writeTimestamp(gen, provider, (LocalDateTime) value);
+        }
+    },
+    UPDATED_AT("updatedAt", "updated_at") {
+        @Override
+        Object read(ResultSet rs) throws SQLException {
+            return rs.getObject(column(), LocalDateTime.class);
+        }
+
+        @Override
+        void writeValue(JsonGenerator gen, SerializerProvider provider, Object value) throws IOException {
+            writeTimestamp(gen, provider, (LocalDateTime) value);
+        }
+    };
+
+    private final String apiName;
+    private final String column;
+    private final SerializableString serializedName;
+
+    UserResponseField(String apiName, String column) {
+        this.apiName = apiName;
+        this.column = column;
+        this.serializedName = new SerializedString(apiName);
+    }
+
+    public String apiName() {
+        return apiName;
+    }
+
+    public String column() {
+        return column;
+    }
+
+    /**
+     * Lê o valor da coluna no ResultSet (texto por padrão).
+     */
+    Object read(ResultSet rs) throws SQLException {
+        return rs.getString(column);
+    }
+
+    /**
+     * Escreve um valor não nulo (texto por padrão).
+     */
+    void writeValue(JsonGenerator gen, SerializerProvider provider, Object value) throws IOException {
+        gen.writeString((String) value);
+    }
+
+    /**
+     * Escreve o par nome/valor; valores nulos são escritos como null, igual ao UserResponse.
+     */
+    void write(JsonGenerator gen, SerializerProvider provider, Object value) throws IOException {
+        gen.writeFieldName(serializedName);
+        if (value == null) {
+            gen.writeNull();
+        } else {
+            writeValue(gen, provider, value);
+        }
+    }
+
+    /**
+     * Datas em texto ISO-8601 no JSON, ou epoch em milissegundos nos formatos binários
+     * (mappers com WRITE_DATES_AS_TIMESTAMPS, ver BinaryFormatsConfig).
+     */
+    private static void writeTimestamp(JsonGenerator gen, SerializerProvider provider, LocalDateTime value)
+            throws IOException {
+        if (provider.isEnabled(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)) {
+            gen.writeNumber(EpochMillisModule.toEpochMillis(value));
+        } else {
+            gen.writeString(DateTimeFormatter.ISO_LOCAL_DATE_TIME.format(value));
+        }
+    }
+}
@@ -0,0 +1,122 @@
+package com.example.usersapi.hotkeys;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Contagem aproximada de frequências em memória fixa (count-min sketch).
+ *
+ * depth linhas de width contadores; cada chave incrementa um contador por linha,
+ * escolhido por um hash diferente. A estimativa é o menor dos contadores da chave:
+ * nunca menor que a contagem real e, com alta probabilidade, no máximo
+ * total * e / width acima dela. Memória: depth * width * 8 bytes.
+ *
+ * Sem locks: os contadores são um AtomicLongArray e cada incremento é um getAndAdd.
+ *
+ * As posições vêm de dois hashes de 64 bits dos bytes UTF-8 da chave, com a semente do
+ * sketch, e não do String.hashCode(): chaves com o mesmo hashCode ("Aa" e "BB", ou um
+ * email montado para isso) cairiam nos mesmos contadores em todas as linhas.
+ */
+public class CountMinSketch {
+
+    private static final long ROW_SALT = 0x9e3779b97f4a7c15L;
+    private static final long MURMUR_M = 0xc6a4a7935bd1e995L;
+    private static final VarHandle LITTLE_ENDIAN_LONG =
+            MethodHandles.byteArrayViewVarHandle(long[].class, ByteOrder.LITTLE_ENDIAN);
+
+    private final int depth;
+    private final int mask;
+    private final long seed;
+    private final AtomicLongArray counters;
+
+    /**
+     * @param width contadores por linha, arredondado para a próxima potência de 2
+     */
+    public CountMinSketch(int depth, int width, long seed) {
+        if (depth < 1 || width < 1) {
+            throw new IllegalArgumentException("depth e width devem ser positivos");
+        }
+        int roundedWidth = Integer.highestOneBit(Math.max(width - 1, 1)) << 1;
+        this.depth = depth;
+        this.mask = roundedWidth - 1;
+        this.seed = seed;
+        this.counters = new AtomicLongArray(depth * roundedWidth);
+    }
+
+    /**
+     * Conta mais uma ocorrência da chave.
+     *
+     * @return estimativa da contagem da chave já com esta ocorrência
+     */
+    public long add(String key) {
+        byte[] bytes = key.getBytes(StandardCharsets.UTF_8);
+        long hash1 = hash64(bytes, seed);
+        long hash2 = hash64(bytes, seed ^ ROW_SALT);
+        long estimate = Long.MAX_VALUE;
+        for (int row = 0; row < depth; row++) {
+            estimate = Math.min(estimate, counters.incrementAndGet(index(row, hash1, hash2)));
+        }
+        return estimate;
+    }
+
+    public long estimate(String key) {
+        byte[] bytes = key.getBytes(StandardCharsets.UTF_8);
+        long hash1 = hash64(bytes, seed);
+        long hash2 = hash64(bytes, seed ^ ROW_SALT);
+        long estimate = Long.MAX_VALUE;
+        for (int row = 0; row < depth; row++) {
+            estimate = Math.min(estimate, counters.get(index(row, hash1, hash2)));
+        }
+        return estimate;
+    }
+
+    /**
+     * Posição da chave na linha: hash1 + row * hash2 (Kirsch-Mitzenmacher), misturado.
+     * Como os dois hashes são independentes, duas chaves que colidem em uma linha
+     * só colidem nas outras com a probabilidade de uma colisão de 128 bits.
+     */
+    private int index(int row, long hash1, long hash2) {
+        return row * (mask + 1) + (int) (mix(hash1 + row * hash2) & mask);
+    }
+
+    /**
+     * MurmurHash64A dos bytes, com semente.
+     */
+    static long hash64(byte[] bytes, long seed) {
+        long h = seed ^ (bytes.length * MURMUR_M);
+        int blocks = bytes.length & ~7;
+        for (int i = 0; i < blocks; i += 8) {
+            long k = (long) LITTLE_ENDIAN_LONG.get(bytes, i);
+            k *= MURMUR_M;
+            k ^= k >>> 47;
+            k *= MURMUR_M;
+            h ^= k;
+            h *= MURMUR_M;
+        }
+        if (blocks < bytes.length) {
+            for (int i = bytes.length - 1; i >= blocks; i--) {
+                h ^= (long) (bytes[i] & 0xff) << (8 * (i - blocks));
+            }
+            h *= MURMUR_M;
+        }
+        h ^= h >>> 47;
+        h *= MURMUR_M;
+        h ^= h >>> 47;
+        return h;
+    }
+
+    /**
+     * Finalização do MurmurHash3 (fmix64): espalha os bits da combinação dos dois hashes.
+     */
+    private static long mix(long h) {
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+}
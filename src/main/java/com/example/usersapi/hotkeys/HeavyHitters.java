@@ -0,0 +1,151 @@
+package com.example.usersapi.hotkeys;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+/**
+ * Top-K das chaves mais acessadas, por janela de tempo.
+ *
+ * O CountMinSketch conta todas as chaves em memória fixa; só as candidatas a top-K
+ * ficam guardadas por nome, no máximo 2 * capacity delas. Uma chave entra nas candidatas
+ * quando sua estimativa alcança a menor estimativa mantida na última limpeza.
+ * Quando passa do dobro, uma única thread (a que ganhar o AtomicBoolean) descarta as
+ * menores; as outras seguem sem esperar.
+ *
+ * A cada janela (ex.: 1 minuto) sketch e candidatas recomeçam do zero, e o top-K da
+ * janela encerrada fica disponível em previous(). A troca é feita pela primeira
+ * requisição depois do fim da janela, com um compareAndSet (sem agendador).
+ */
+public class HeavyHitters {
+
+    private final int topK;
+    private final int capacity;
+    private final int depth;
+    private final int width;
+    private final long windowMillis;
+    private final LongSupplier clock;
+
+    private final AtomicReference<Window> current;
+    private volatile HotKeyWindow previous;
+
+    public HeavyHitters(int topK, int depth, int width, Duration window, LongSupplier clock) {
+        if (topK < 1) {
+            throw new IllegalArgumentException("top-k deve ser positivo");
+        }
+        this.topK = topK;
+        this.capacity = topK * 4;
+        this.depth = depth;
+        this.width = width;
+        this.windowMillis = window.toMillis();
+        this.clock = clock;
+        this.current = new AtomicReference<>(new Window(clock.getAsLong()));
+        this.previous = HotKeyWindow.empty(Instant.ofEpochMilli(clock.getAsLong()));
+    }
+
+    public void record(String key) {
+        window().record(key);
+    }
+
+    /**
+     * Top-K da janela em andamento, com taxas sobre o tempo já decorrido.
+     */
+    public HotKeyWindow current() {
+        return window().snapshot(clock.getAsLong());
+    }
+
+    /**
+     * Top-K da última janela completa.
+     */
+    public HotKeyWindow previous() {
+        window();
+        return previous;
+    }
+
+    private Window window() {
+        Window window = current.get();
+        long now = clock.getAsLong();
+        if (now - window.start < windowMillis) {
+            return window;
+        }
+        Window next = new Window(now);
+        if (current.compareAndSet(window, next)) {
+            previous = window.snapshot(window.start + windowMillis);
+        }
+        return current.get();
+    }
+
+    /**
+     * Contagens de uma janela.
+     */
+    private class Window {
+
+        private final long start;
+        private final CountMinSketch sketch = new CountMinSketch(depth, width, ThreadLocalRandom.current().nextLong());
+        private final Map<String, Long> candidates = new ConcurrentHashMap<>();
+        private final LongAdder total = new LongAdder();
+        private final AtomicBoolean trimming = new AtomicBoolean();
+        private volatile long floor;
+
+        Window(long start) {
+            this.start = start;
+        }
+
+        void record(String key) {
+            total.increment();
+            long estimate = sketch.add(key);
+            if (estimate < floor) {
+                return;
+            }
+            candidates.put(key, estimate);
+            if (candidates.size() > 2 * capacity && trimming.compareAndSet(false, true)) {
+                try {
+                    trim();
+                } finally {
+                    trimming.set(false);
+                }
+            }
+        }
+
+        /**
+         * Mantém as capacity candidatas com as maiores estimativas.
+         */
+        private void trim() {
+            List<Map.Entry<String, Long>> ranked = ranked();
+            for (int i = capacity; i < ranked.size(); i++) {
+                candidates.remove(ranked.get(i).getKey(), ranked.get(i).getValue());
+            }
+            floor = ranked.get(capacity - 1).getValue();
+        }
+
+        private List<Map.Entry<String, Long>> ranked() {
+            return candidates.entrySet().stream()
+                    .map(entry -> Map.entry(entry.getKey(), entry.getValue()))
+                    .sorted(Map.Entry.<String, Long>comparingByValue(Comparator.reverseOrder())
+                            .thenComparing(Map.Entry.comparingByKey()))
+                    .toList();
+        }
+
+        HotKeyWindow snapshot(long end) {
+            double seconds = Math.max(end - start, 1) / 1000.0;
+            // Estimativa atual do sketch: a guardada é a do último acesso que atualizou a candidata
+            List<HotKey> top = candidates.keySet().stream()
+                    .map(key -> {
+                        long count = sketch.estimate(key);
+                        return new HotKey(key, count, count / seconds);
+                    })
+                    .sorted(Comparator.comparingLong(HotKey::count).reversed().thenComparing(HotKey::key))
+                    .limit(topK)
+                    .toList();
+            return new HotKeyWindow(Instant.ofEpochMilli(start), seconds, total.sum(), top);
+        }
+    }
+}
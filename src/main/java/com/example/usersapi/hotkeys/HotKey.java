@@ -0,0 +1,11 @@
+package com.example.usersapi.hotkeys;
+
+/**
+ * Uma das chaves mais acessadas em uma janela.
+ *
+ * @param key chave (ID, email ou condição de filtro)
+ * @param count acessos estimados na janela (nunca abaixo do real)
+ * @param rate acessos por segundo na janela
+ */
+public record HotKey(String key, long count, double rate) {
+}
@@ -0,0 +1,32 @@
+package com.example.usersapi.hotkeys;
+
+/**
+ * Tipo de chave acompanhada: cada tipo tem seu próprio sketch e seu próprio top-K.
+ */
+public enum HotKeyDimension {
+
+    /**
+     * IDs de GET, PUT e DELETE /users/{id}.
+     */
+    ID("id"),
+
+    /**
+     * Emails de PUT /users/by-email/{email} e dos filtros email=...
+     */
+    EMAIL("email"),
+
+    /**
+     * Demais condições dos filtros de GET /users, ex.: name^Mar.
+     */
+    SEARCH("search");
+
+    private final String name;
+
+    HotKeyDimension(String name) {
+        this.name = name;
+    }
+
+    public String getName() {
+        return name;
+    }
+}
@@ -0,0 +1,64 @@
+package com.example.usersapi.hotkeys;
+
+import com.example.usersapi.query.FilterCondition;
+import com.example.usersapi.query.FilterOperator;
+import com.example.usersapi.query.UserField;
+import com.example.usersapi.query.UserQuery;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Registra as chaves consultadas no UserController e mantém o top-K de cada tipo.
+ *
+ * No caminho da requisição, record() custa alguns incrementos atômicos e, para as
+ * chaves candidatas, um put em um ConcurrentHashMap: nenhum lock, nenhuma E/S.
+ * Desligado (users.hotkeys.enabled=false), record() não faz nada.
+ */
+public class HotKeyTracker {
+
+    private final boolean enabled;
+    private final Map<HotKeyDimension, HeavyHitters> heavyHitters;
+    private final Map<HotKeyDimension, LongAdder> lookups = new EnumMap<>(HotKeyDimension.class);
+
+    public HotKeyTracker(boolean enabled, Map<HotKeyDimension, HeavyHitters> heavyHitters) {
+        this.enabled = enabled;
+        this.heavyHitters = new EnumMap<>(heavyHitters);
+        for (HotKeyDimension dimension : HotKeyDimension.values()) {
+            lookups.put(dimension, new LongAdder());
+        }
+    }
+
+    public void record(HotKeyDimension dimension, Object key) {
+        if (!enabled || key == null) {
+            return;
+        }
+        lookups.get(dimension).increment();
+        heavyHitters.get(dimension).record(key.toString());
+    }
+
+    /**
+     * Registra as condições do filtro de uma busca: email=... como email, as demais como busca.
+     */
+    public void record(UserQuery query) {
+        if (!enabled) {
+            return;
+        }
+        for (FilterCondition filter : query.filters()) {
+            if (filter.field() == UserField.EMAIL && filter.operator() == FilterOperator.EQUAL) {
+                record(HotKeyDimension.EMAIL, filter.value());
+            } else {
+                record(HotKeyDimension.SEARCH, filter.field().apiName() + filter.operator().symbol() + filter.value());
+            }
+        }
+    }
+
+    public HeavyHitters get(HotKeyDimension dimension) {
+        return heavyHitters.get(dimension);
+    }
+
+    public long getLookups(HotKeyDimension dimension) {
+        return lookups.get(dimension).sum();
+    }
+}
@@ -0,0 +1,26 @@
+package com.example.usersapi.hotkeys;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Top-K de uma janela de tempo.
+ *
+ * @param start início da janela
+ * @param seconds duração considerada nas taxas (a janela toda ou o tempo já decorrido)
+ * @param total acessos na janela, de todas as chaves
+ * @param top chaves mais acessadas, da maior para a menor contagem
+ */
+public record HotKeyWindow(Instant start, double seconds, long total, List<HotKey> top) {
+
+    static HotKeyWindow empty(Instant start) {
+        return new HotKeyWindow(start, 0, 0, List.of());
+    }
+
+    /**
+     * Fração dos acessos da janela que foi para as chaves do top-K (0 a 1).
+     */
+    public double topShare() {
+        return total == 0 ? 0 : Math.min(1.0, top.stream().mapToLong(HotKey::count).sum() / (double) total);
+    }
+}
@@ -0,0 +1,60 @@
+package com.example.usersapi.hotkeys;
+
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Selector;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Endpoint administrativo com as chaves mais acessadas: /actuator/hotkeys.
+ *
+ * @Endpoint: endpoint do Actuator, publicado em HTTP quando listado em
+ * management.endpoints.web.exposure.include
+ * @ReadOperation: responde a GET; @Selector vira um trecho do caminho (/actuator/hotkeys/id)
+ */
+@Endpoint(id = "hotkeys")
+public class HotKeysEndpoint {
+
+    private final HotKeyTracker tracker;
+
+    public HotKeysEndpoint(HotKeyTracker tracker) {
+        this.tracker = tracker;
+    }
+
+    @ReadOperation
+    public Map<String, HotKeysReport> hotKeys() {
+        Map<String, HotKeysReport> report = new LinkedHashMap<>();
+        for (HotKeyDimension dimension : HotKeyDimension.values()) {
+            report.put(dimension.getName(), report(dimension));
+        }
+        return report;
+    }
+
+    /**
+     * Um tipo de chave: id, email ou search. Tipo desconhecido: 404.
+     */
+    @ReadOperation
+    public HotKeysReport hotKeys(@Selector String dimension) {
+        return Arrays.stream(HotKeyDimension.values())
+                .filter(candidate -> candidate.getName().equals(dimension))
+                .findFirst()
+                .map(this::report)
+                .orElse(null);
+    }
+
+    private HotKeysReport report(HotKeyDimension dimension) {
+        HeavyHitters heavyHitters = tracker.get(dimension);
+        return new HotKeysReport(tracker.getLookups(dimension), heavyHitters.current(), heavyHitters.previous());
+    }
+
+    /**
+     * @param lookups acessos registrados desde o início da aplicação
+     * @param current janela em andamento
+     * @param previous última janela completa
+     */
+    public record HotKeysReport(long lookups, HotKeyWindow current, HotKeyWindow previous) {
+    }
+}
@@ -0,0 +1,315 @@
+package com.example.usersapi.invalidation;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.nio.ByteBuffer;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Barramento de invalidação entre instâncias: avisa as outras instâncias de que usuários
+ * foram gravados aqui, para que descartem o que têm em cache local (cache de segundo nível,
+ * respostas de @ServeStale, índice de telefones).
+ *
+ * Envio:
+ * - publish() só anota o par (ID, versão); um mesmo ID publicado várias vezes no intervalo
+ *   fica com a maior versão (coalescência)
+ * - a cada flush-interval, os pares anotados saem juntos, em ordem de ID, em tantas
+ *   mensagens quantas forem necessárias (InvalidationMessage), cada uma com o próximo número
+ *   de sequência deste nó
+ * - sem nada a enviar por um heartbeat inteiro, sai um heartbeat com a última sequência
+ *
+ * Recepção, por nó de origem:
+ * - sequência seguinte à última vista: aplica
+ * - sequência pulada (ou heartbeat à frente da última vista): mensagens se perderam e não se
+ *   sabe o que elas continham, então os caches descartam tudo (invalidateAll)
+ * - sequência já vista (datagrama duplicado ou atrasado): só os pares com versão maior que a
+ *   já aplicada para o ID
+ *
+ * A perda de uma mensagem é percebida, no máximo, um heartbeat depois. As versões de nós
+ * diferentes não são comparadas entre si (os relógios podem divergir).
+ */
+@Slf4j
+public class InvalidationBus implements AutoCloseable {
+
+    /**
+     * Versões aplicadas guardadas por nó de origem (as mais recentes).
+     */
+    private static final int APPLIED_VERSIONS = 4096;
+
+    /**
+     * Heartbeats perdidos até um nó calado ser esquecido.
+     */
+    private static final int SILENT_HEARTBEATS = 10;
+
+    private final long nodeId;
+    private final InvalidationTransport transport;
+    private final Supplier<List<InvalidationListener>> listeners;
+    private final long heartbeatNanos;
+
+    private final Map<Long, Long> pending = new ConcurrentHashMap<>();
+    private final AtomicBoolean dirty = new AtomicBoolean();
+    private final ByteBuffer out;
+    private long sequence;
+    private long lastSentAt = System.nanoTime();
+
+    private final Map<Long, Sender> senders = new HashMap<>();
+    private ScheduledExecutorService scheduler;
+
+    private final LongAdder published = new LongAdder();
+    private final LongAdder coalesced = new LongAdder();
+    private final LongAdder messagesSent = new LongAdder();
+    private final LongAdder heartbeatsSent = new LongAdder();
+    private final LongAdder messagesReceived = new LongAdder();
+    private final LongAdder gaps = new LongAdder();
+    private final LongAdder duplicates = new LongAdder();
+
+    /**
+     * Estado de recepção de um nó de origem.
+     */
+    private static final class Sender {
+
+        long lastSequence;
+        long lastHeardAt;
+
+        final Map<Long, Long> appliedVersions = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, Long> eldest) {
+                return size() > APPLIED_VERSIONS;
+            }
+        };
+    }
+
+    /**
+     * @param nodeId identificador deste nó (diferente a cada inicialização)
+     * @param listeners caches avisados a cada mensagem recebida (lidos a cada mensagem)
+     */
+    public InvalidationBus(long nodeId, InvalidationTransport transport,
+                           Supplier<List<InvalidationListener>> listeners, Duration heartbeat) {
+        this.nodeId = nodeId;
+        this.transport = transport;
+        this.listeners = listeners;
+        this.heartbeatNanos = heartbeat.toNanos();
+        this.out = ByteBuffer.allocate(transport.maxMessageBytes());
+    }
+
+    /**
+     * Versão de uma gravação: o instante em microssegundos (mesma precisão de updated_at).
+     */
+    public static long version(LocalDateTime time) {
+        return time.toEpochSecond(ZoneOffset.UTC) * 1_000_000 + time.getNano() / 1_000;
+    }
+
+    /**
+     * Passa a receber e, com flushInterval positivo, a enviar periodicamente.
+     * Com zero, o envio só acontece em flush() (testes).
+     */
+    public InvalidationBus start(Duration flushInterval) {
+        transport.start(this::receive);
+        if (!flushInterval.isZero()) {
+            scheduler = Executors.newSingleThreadScheduledExecutor(
+                    Thread.ofPlatform().daemon().name("invalidation-flush").factory());
+            long interval = flushInterval.toNanos();
+            scheduler.scheduleWithFixedDelay(this::scheduledFlush, interval, interval, TimeUnit.NANOSECONDS);
+        }
+        log.info("Barramento de invalidação iniciado - nó {}", Long.toHexString(nodeId));
+        return this;
+    }
+
+    /**
+     * Anota usuários gravados neste nó; saem no próximo flush.
+     *
+     * @param ids usuários gravados (vazio: só inserções, mas consultas podem ter mudado)
+     * @param version versão da gravação (ver version())
+     */
+    public void publish(Collection<Long> ids, long version) {
+        for (Long id : ids) {
+            pending.merge(id, version, (previous, current) -> {
+                coalesced.increment();
+                return Math.max(previous, current);
+            });
+        }
+        published.add(ids.size());
+        dirty.set(true);
+    }
+
+    /**
+     * Envia o que estiver anotado, ou um heartbeat se já passou o intervalo.
+     */
+    public synchronized void flush() {
+        long now = System.nanoTime();
+        if (dirty.getAndSet(false)) {
+            List<Long> drained = new ArrayList<>(pending.keySet());
+            long[] ids = new long[drained.size()];
+            long[] versions = new long[drained.size()];
+            drained.sort(null);
+            int count = 0;
+            for (Long id : drained) {
+                Long version = pending.remove(id);
+                if (version != null) {
+                    ids[count] = id;
+                    versions[count++] = version;
+                }
+            }
+            ids = Arrays.copyOf(ids, count);
+            versions = Arrays.copyOf(versions, count);
+            long baseVersion = Arrays.stream(versions).min().orElse(0);
+            int next = 0;
+            do {
+                out.clear();
+                next = InvalidationMessage.encode(nodeId, ++sequence, ids, versions, baseVersion, next, out);
+                transport.send(out.flip());
+                messagesSent.increment();
+            } while (next < ids.length);
+            lastSentAt = now;
+        } else if (now - lastSentAt >= heartbeatNanos) {
+            out.clear();
+            InvalidationMessage.encodeHeartbeat(nodeId, sequence, out);
+            transport.send(out.flip());
+            heartbeatsSent.increment();
+            lastSentAt = now;
+        }
+    }
+
+    /**
+     * Trata uma mensagem recebida pelo transporte.
+     */
+    void receive(ByteBuffer buffer) {
+        InvalidationMessage message;
+        try {
+            message = InvalidationMessage.decode(buffer);
+        } catch (IllegalArgumentException e) {
+            log.warn("Mensagem de invalidação descartada: {}", e.getMessage());
+            return;
+        }
+        if (message.sender() == nodeId) {
+            return;
+        }
+        messagesReceived.increment();
+
+        boolean lost;
+        List<Long> ids = new ArrayList<>(message.size());
+        synchronized (senders) {
+            Sender sender = senders.computeIfAbsent(message.sender(), id -> new Sender());
+            sender.lastHeardAt = System.nanoTime();
+            boolean fresh = message.sequence() > sender.lastSequence;
+            lost = message.sequence() > sender.lastSequence + (message.heartbeat() ? 0 : 1);
+            if (fresh) {
+                sender.lastSequence = message.sequence();
+            }
+            for (int i = 0; i < message.size(); i++) {
+                long id = message.ids()[i];
+                long version = message.versions()[i];
+                Long applied = sender.appliedVersions.get(id);
+                if (fresh || applied == null || version > applied) {
+                    ids.add(id);
+                    sender.appliedVersions.put(id, applied == null ? version : Math.max(applied, version));
+                }
+            }
+            if (!fresh && !message.heartbeat() && ids.isEmpty()) {
+                duplicates.increment();
+                return;
+            }
+        }
+
+        if (lost) {
+            gaps.increment();
+            log.warn("Mensagens de invalidação do nó {} perdidas (sequência {}): descartando os caches locais",
+                    Long.toHexString(message.sender()), message.sequence());
+            notifyListeners(null);
+        } else if (!message.heartbeat()) {
+            notifyListeners(ids);
+        }
+    }
+
+    public long getPublished() {
+        return published.sum();
+    }
+
+    public long getCoalesced() {
+        return coalesced.sum();
+    }
+
+    public long getMessagesSent() {
+        return messagesSent.sum();
+    }
+
+    public long getHeartbeatsSent() {
+        return heartbeatsSent.sum();
+    }
+
+    public long getMessagesReceived() {
+        return messagesReceived.sum();
+    }
+
+    public long getGaps() {
+        return gaps.sum();
+    }
+
+    public long getDuplicates() {
+        return duplicates.sum();
+    }
+
+    @Override
+    public void close() {
+        if (scheduler != null) {
+            scheduler.shutdown();
+        }
+        try {
+            flush();  // O que foi gravado até aqui ainda é avisado
+        } catch (RuntimeException e) {
+            log.warn("Falha no último envio de invalidações: {}", e.getMessage());
+        }
+        transport.close();
+    }
+
+    private void scheduledFlush() {
+        try {
+            flush();
+            forgetSilentSenders();
+        } catch (RuntimeException e) {
+            // Uma exceção aqui cancelaria o agendamento; o que não saiu vai no próximo ciclo
+            log.warn("Falha ao enviar invalidações: {}", e.getMessage(), e);
+        }
+    }
+
+    private void forgetSilentSenders() {
+        long silentFor = Math.max(heartbeatNanos, TimeUnit.SECONDS.toNanos(1)) * SILENT_HEARTBEATS;
+        long now = System.nanoTime();
+        synchronized (senders) {
+            senders.values().removeIf(sender -> now - sender.lastHeardAt > silentFor);
+        }
+    }
+
+    /**
+     * @param ids null: invalidar tudo
+     */
+    private void notifyListeners(List<Long> ids) {
+        for (InvalidationListener listener : listeners.get()) {
+            try {
+                if (ids == null) {
+                    listener.invalidateAll();
+                } else {
+                    listener.invalidate(ids);
+                }
+            } catch (RuntimeException e) {
+                log.warn("Falha ao invalidar cache local ({}): {}", listener.getClass().getSimpleName(), e.getMessage(), e);
+            }
+        }
+    }
+}
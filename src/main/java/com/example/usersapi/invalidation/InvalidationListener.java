@@ -0,0 +1,20 @@
+package com.example.usersapi.invalidation;
+
+import java.util.Collection;
+
+/**
+ * Cache local avisado pelo InvalidationBus quando outro nó grava usuários.
+ */
+public interface InvalidationListener {
+
+    /**
+     * Usuários gravados em outro nó. A lista pode vir vazia (só inserções ou importação
+     * sem IDs conhecidos): resultados de consultas continuam podendo ter mudado.
+     */
+    void invalidate(Collection<Long> ids);
+
+    /**
+     * Mensagens perdidas: não se sabe quais usuários mudaram, então tudo é descartado.
+     */
+    void invalidateAll();
+}
@@ -0,0 +1,117 @@
+package com.example.usersapi.invalidation;
+
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+
+/**
+ * Mensagem do barramento de invalidação: pares (ID do usuário, versão) de um nó.
+ *
+ * Formato binário (big-endian):
+ * - byte formato (1) e byte flags (1 = heartbeat, sem pares)
+ * - long nó de origem, long número de sequência, long versão base
+ * - short quantidade de pares
+ * - cada par: delta do ID em relação ao par anterior e versão menos a versão base,
+ *   os dois em varint (7 bits por byte)
+ *
+ * Com os IDs em ordem crescente e versões próximas (escritas do mesmo intervalo), um par
+ * costuma ocupar de 4 a 6 bytes em vez de 16.
+ *
+ * @param sequence heartbeat: a sequência da última mensagem com pares enviada pelo nó
+ * @param ids IDs em ordem crescente
+ * @param versions versão de cada ID (ver InvalidationBus.version)
+ */
+public record InvalidationMessage(long sender, long sequence, boolean heartbeat, long[] ids, long[] versions) {
+
+    static final int HEADER_BYTES = 28;
+    private static final byte FORMAT = 1;
+    private static final byte HEARTBEAT = 1;
+    private static final int MAX_ENTRY_BYTES = 20;
+
+    public int size() {
+        return ids.length;
+    }
+
+    /**
+     * Grava o heartbeat do nó.
+     */
+    static void encodeHeartbeat(long sender, long sequence, ByteBuffer out) {
+        out.put(FORMAT).put(HEARTBEAT).putLong(sender).putLong(sequence).putLong(0).putShort((short) 0);
+    }
+
+    /**
+     * Grava uma mensagem com os pares a partir de from, até encher out.
+     *
+     * @param ids IDs em ordem crescente
+     * @param baseVersion menor versão de todos os pares
+     * @return índice do primeiro par que não coube
+     */
+    static int encode(long sender, long sequence, long[] ids, long[] versions, long baseVersion, int from,
+                      ByteBuffer out) {
+        if (out.remaining() < HEADER_BYTES + MAX_ENTRY_BYTES) {
+            throw new IllegalArgumentException("Mensagem sem espaço para nenhum par: " + out.remaining() + " bytes");
+        }
+        out.put(FORMAT).put((byte) 0).putLong(sender).putLong(sequence).putLong(baseVersion);
+        int countPosition = out.position();
+        out.putShort((short) 0);
+        long previous = 0;
+        int next = from;
+        while (next < ids.length && next - from < Short.MAX_VALUE && out.remaining() >= MAX_ENTRY_BYTES) {
+            putVarLong(out, ids[next] - previous);
+            putVarLong(out, versions[next] - baseVersion);
+            previous = ids[next];
+            next++;
+        }
+        out.putShort(countPosition, (short) (next - from));
+        return next;
+    }
+
+    /**
+     * Lê uma mensagem recebida.
+     *
+     * @throws IllegalArgumentException formato desconhecido ou mensagem truncada
+     */
+    static InvalidationMessage decode(ByteBuffer in) {
+        try {
+            byte format = in.get();
+            if (format != FORMAT) {
+                throw new IllegalArgumentException("Formato de mensagem de invalidação desconhecido: " + format);
+            }
+            boolean heartbeat = (in.get() & HEARTBEAT) != 0;
+            long sender = in.getLong();
+            long sequence = in.getLong();
+            long baseVersion = in.getLong();
+            int count = Short.toUnsignedInt(in.getShort());
+            long[] ids = new long[count];
+            long[] versions = new long[count];
+            long previous = 0;
+            for (int i = 0; i < count; i++) {
+                previous += getVarLong(in);
+                ids[i] = previous;
+                versions[i] = baseVersion + getVarLong(in);
+            }
+            return new InvalidationMessage(sender, sequence, heartbeat, ids, versions);
+        } catch (BufferUnderflowException e) {
+            throw new IllegalArgumentException("Mensagem de invalidação truncada", e);
+        }
+    }
+
+    private static void putVarLong(ByteBuffer out, long value) {
+        while ((value & ~0x7FL) != 0) {
+            out.put((byte) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        out.put((byte) value);
+    }
+
+    private static long getVarLong(ByteBuffer in) {
+        long value = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            byte b = in.get();
+            value |= (long) (b & 0x7F) << shift;
+            if (b >= 0) {
+                return value;
+            }
+        }
+        throw new IllegalArgumentException("Varint com mais de 10 bytes");
+    }
+}
@@ -0,0 +1,32 @@
+package com.example.usersapi.invalidation;
+
+import java.nio.ByteBuffer;
+import java.util.function.Consumer;
+
+/**
+ * Meio por onde as mensagens do InvalidationBus chegam aos outros nós.
+ *
+ * A entrega não precisa ser garantida nem ordenada: o barramento percebe perdas pela
+ * sequência das mensagens. Implementações: LoopbackTransport (nós na mesma JVM) e
+ * UdpTransport (datagramas, inclusive entre processos na mesma máquina).
+ */
+public interface InvalidationTransport extends AutoCloseable {
+
+    /**
+     * Maior mensagem que o transporte entrega inteira.
+     */
+    int maxMessageBytes();
+
+    /**
+     * Começa a receber; o receiver é chamado com cada mensagem, uma de cada vez.
+     */
+    void start(Consumer<ByteBuffer> receiver);
+
+    /**
+     * Envia a mensagem (da posição ao limite do buffer) aos outros nós.
+     */
+    void send(ByteBuffer message);
+
+    @Override
+    void close();
+}
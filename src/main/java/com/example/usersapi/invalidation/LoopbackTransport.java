@@ -0,0 +1,68 @@
+package com.example.usersapi.invalidation;
+
+import java.nio.ByteBuffer;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArraySet;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+/**
+ * Transporte entre nós na mesma JVM: cada mensagem é entregue, na thread de quem envia,
+ * aos outros transportes da mesma rede (identificada pelo nome).
+ *
+ * Serve para subir vários contextos Spring em um teste, cada um fazendo o papel de uma
+ * instância. dropNext() simula perda de mensagens.
+ */
+public class LoopbackTransport implements InvalidationTransport {
+
+    private static final Map<String, Set<LoopbackTransport>> NETWORKS = new ConcurrentHashMap<>();
+
+    private final String network;
+    private final AtomicInteger dropping = new AtomicInteger();
+    private volatile Consumer<ByteBuffer> receiver;
+
+    public LoopbackTransport(String network) {
+        this.network = network;
+    }
+
+    @Override
+    public int maxMessageBytes() {
+        return 64 * 1024;
+    }
+
+    @Override
+    public void start(Consumer<ByteBuffer> receiver) {
+        this.receiver = receiver;
+        NETWORKS.computeIfAbsent(network, name -> new CopyOnWriteArraySet<>()).add(this);
+    }
+
+    @Override
+    public void send(ByteBuffer message) {
+        if (dropping.getAndUpdate(count -> Math.max(0, count - 1)) > 0) {
+            return;
+        }
+        for (LoopbackTransport member : NETWORKS.getOrDefault(network, Set.of())) {
+            if (member != this) {
+                // Cópia: quem recebe lê o buffer e não deve ver a posição dos outros
+                member.receiver.accept(message.asReadOnlyBuffer());
+            }
+        }
+    }
+
+    /**
+     * Descarta as próximas mensagens enviadas por este nó.
+     */
+    public void dropNext(int messages) {
+        dropping.addAndGet(messages);
+    }
+
+    @Override
+    public void close() {
+        Set<LoopbackTransport> members = NETWORKS.get(network);
+        if (members != null) {
+            members.remove(this);
+        }
+    }
+}
@@ -0,0 +1,104 @@
+package com.example.usersapi.invalidation;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.DatagramChannel;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Transporte por datagramas UDP: cada mensagem vai, em um datagrama, para cada nó da lista.
+ *
+ * Com endereços 127.0.0.1 e portas diferentes, várias instâncias na mesma máquina formam um
+ * cluster sem nenhuma infraestrutura. UDP pode perder, duplicar e reordenar datagramas; o
+ * InvalidationBus trata os três casos.
+ */
+@Slf4j
+public class UdpTransport implements InvalidationTransport {
+
+    /**
+     * Maior carga útil de um datagrama que não é fragmentado numa rede Ethernet
+     * (1500 de MTU menos os cabeçalhos IPv4 e UDP).
+     */
+    public static final int MAX_DATAGRAM_BYTES = 1472;
+
+    private final DatagramChannel channel;
+    private final List<InetSocketAddress> peers;
+    private Thread receiverThread;
+
+    /**
+     * @param bind endereço local (porta 0: qualquer porta livre)
+     * @param peers endereços dos outros nós
+     */
+    public UdpTransport(InetSocketAddress bind, List<InetSocketAddress> peers) {
+        this.peers = List.copyOf(peers);
+        try {
+            this.channel = DatagramChannel.open().bind(bind);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Falha ao abrir a porta UDP de invalidação " + bind, e);
+        }
+    }
+
+    public InetSocketAddress localAddress() {
+        try {
+            return (InetSocketAddress) channel.getLocalAddress();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public int maxMessageBytes() {
+        return MAX_DATAGRAM_BYTES;
+    }
+
+    @Override
+    public void start(Consumer<ByteBuffer> receiver) {
+        receiverThread = Thread.ofPlatform().daemon().name("invalidation-udp").start(() -> {
+            ByteBuffer buffer = ByteBuffer.allocate(MAX_DATAGRAM_BYTES);
+            while (channel.isOpen()) {
+                try {
+                    buffer.clear();
+                    channel.receive(buffer);
+                    receiver.accept(buffer.flip());
+                } catch (ClosedChannelException e) {
+                    return;
+                } catch (IOException | RuntimeException e) {
+                    log.warn("Falha ao receber mensagem de invalidação: {}", e.getMessage());
+                }
+            }
+        });
+        log.info("Invalidação por UDP em {} para {} nós", localAddress(), peers.size());
+    }
+
+    @Override
+    public void send(ByteBuffer message) {
+        for (InetSocketAddress peer : peers) {
+            try {
+                channel.send(message.duplicate(), peer);
+            } catch (IOException e) {
+                // Mensagem perdida para esse nó: ele percebe pela sequência
+                log.warn("Falha ao enviar mensagem de invalidação para {}: {}", peer, e.getMessage());
+            }
+        }
+    }
+
+    @Override
+    public void close() {
+        try {
+            channel.close();
+            if (receiverThread != null) {
+                receiverThread.join(1000);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package com.example.usersapi.invalidation;
+
+import com.example.usersapi.model.User;
+import org.hibernate.event.spi.PostCommitDeleteEventListener;
+import org.hibernate.event.spi.PostCommitInsertEventListener;
+import org.hibernate.event.spi.PostCommitUpdateEventListener;
+import org.hibernate.event.spi.PostDeleteEvent;
+import org.hibernate.event.spi.PostInsertEvent;
+import org.hibernate.event.spi.PostUpdateEvent;
+import org.hibernate.persister.entity.EntityPersister;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Publica no InvalidationBus as gravações de User feitas pelo JPA (save, delete), depois
+ * do commit. As gravações por SQL direto são publicadas pelo UserCacheInvalidator.
+ *
+ * Registrado nos eventos do Hibernate em config.InvalidationConfig.
+ */
+public class UserWriteEventListener
+        implements PostCommitInsertEventListener, PostCommitUpdateEventListener, PostCommitDeleteEventListener {
+
+    private final InvalidationBus bus;
+
+    public UserWriteEventListener(InvalidationBus bus) {
+        this.bus = bus;
+    }
+
+    @Override
+    public boolean requiresPostCommitHandling(EntityPersister persister) {
+        return persister.getMappedClass() == User.class;
+    }
+
+    @Override
+    public void onPostInsert(PostInsertEvent event) {
+        if (event.getEntity() instanceof User user) {
+            bus.publish(List.of(user.getId()), InvalidationBus.version(user.getUpdatedAt()));
+        }
+    }
+
+    @Override
+    public void onPostUpdate(PostUpdateEvent event) {
+        if (event.getEntity() instanceof User user) {
+            bus.publish(List.of(user.getId()), InvalidationBus.version(user.getUpdatedAt()));
+        }
+    }
+
+    @Override
+    public void onPostDelete(PostDeleteEvent event) {
+        if (event.getEntity() instanceof User) {
+            bus.publish(List.of((Long) event.getId()), InvalidationBus.version(LocalDateTime.now()));
+        }
+    }
+
+    @Override
+    public void onPostInsertCommitFailed(PostInsertEvent event) {
+        // Rollback: nada mudou para os outros nós
+    }
+
+    @Override
+    public void onPostUpdateCommitFailed(PostUpdateEvent event) {
+    }
+
+    @Override
+    public void onPostDeleteCommitFailed(PostDeleteEvent event) {
+    }
+}
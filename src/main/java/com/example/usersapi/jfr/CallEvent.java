@@ -0,0 +1,44 @@
+package com.example.usersapi.jfr;
+
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Registered;
+import jdk.jfr.StackTrace;
+
+/**
+ * Campos comuns aos eventos de chamada ao serviço e ao repositório (ver CallEventInterceptor).
+ *
+ * @Registered(false): só as subclasses são tipos de evento
+ */
+@Registered(false)
+@StackTrace(false)
+public abstract class CallEvent extends Event {
+
+    @Label("ID da requisição")
+    String requestId;
+
+    @Label("Método")
+    @Description("Classe e método chamados, ex.: UserService.getUserById")
+    String method;
+
+    @Label("ID do usuário")
+    @Description("Primeiro argumento Long da chamada (0 quando ausente)")
+    long userId;
+
+    @Label("Linhas retornadas")
+    @Description("Tamanho da lista, página ou Optional retornado (-1 para outros tipos)")
+    int rows;
+
+    @Label("Comandos SQL")
+    @Description("Comandos JDBC executados na thread durante a chamada")
+    int sqlStatements;
+
+    @Label("Cache")
+    @Description("hit ou miss nas buscas por chave (findBy..., getUserBy...); vazio nas demais")
+    String cache;
+
+    @Label("Erro")
+    @Description("Classe da exceção lançada, se houver")
+    String error;
+}
@@ -0,0 +1,110 @@
+package com.example.usersapi.jfr;
+
+import com.example.usersapi.query.UserQuery;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.springframework.data.domain.Slice;
+
+import java.util.Collection;
+import java.util.Optional;
+import java.util.function.Supplier;
+
+/**
+ * Emite um evento JFR por chamada ao UserService ou ao UserRepository.
+ *
+ * Aplicado pelos advisors do JfrConfig, no mesmo proxy do @Transactional. Sem gravação,
+ * custa a criação do evento (eliminada pelo JIT) e um isEnabled().
+ *
+ * O cache é deduzido dos comandos SQL: uma busca por chave que não executou nenhum
+ * comando foi atendida pelo cache de segundo nível (hit); com comandos, miss.
+ * Com os shards, as consultas vão a outros pools e threads, e o campo fica vazio.
+ */
+public class CallEventInterceptor implements MethodInterceptor {
+
+    private final Supplier<? extends CallEvent> events;
+    private final String component;
+    private final boolean cacheable;
+
+    /**
+     * @param events cria o evento de cada chamada
+     * @param component nome usado no campo method, ex.: UserService
+     * @param cacheable se o cache pode ser deduzido da contagem de comandos SQL
+     */
+    public CallEventInterceptor(Supplier<? extends CallEvent> events, String component, boolean cacheable) {
+        this.events = events;
+        this.component = component;
+        this.cacheable = cacheable;
+    }
+
+    @Override
+    public Object invoke(MethodInvocation invocation) throws Throwable {
+        CallEvent event = events.get();
+        if (!event.isEnabled()) {
+            return invocation.proceed();
+        }
+        SqlStatementCounter statements = SqlStatementCounter.current();
+        long before = statements.getCount();
+        Object result = null;
+        String error = null;
+        event.begin();
+        try {
+            result = invocation.proceed();
+            return result;
+        } catch (Throwable e) {
+            error = e.getClass().getName();
+            throw e;
+        } finally {
+            event.end();
+            if (event.shouldCommit()) {
+                int executed = (int) (statements.getCount() - before);
+                String name = invocation.getMethod().getName();
+                event.requestId = JfrRequestInterceptor.currentRequestId();
+                event.method = component + "." + name;
+                event.userId = userId(invocation.getArguments());
+                event.rows = rows(result);
+                event.sqlStatements = executed;
+                event.cache = cacheable && error == null && isKeyLookup(name) ? (executed == 0 ? "hit" : "miss") : "";
+                event.error = error;
+                if (event instanceof RepositoryCallEvent repositoryEvent) {
+                    repositoryEvent.shape = shape(invocation.getArguments(), executed, statements.getLastSql());
+                }
+                event.commit();
+            }
+        }
+    }
+
+    private static boolean isKeyLookup(String method) {
+        return method.startsWith("findBy") || method.startsWith("getUserBy");
+    }
+
+    private static long userId(Object[] arguments) {
+        for (Object argument : arguments) {
+            if (argument instanceof Long id) {
+                return id;
+            }
+        }
+        return 0;
+    }
+
+    private static int rows(Object result) {
+        if (result instanceof Collection<?> collection) {
+            return collection.size();
+        }
+        if (result instanceof Slice<?> slice) {
+            return slice.getNumberOfElements();
+        }
+        if (result instanceof Optional<?> optional) {
+            return optional.isPresent() ? 1 : 0;
+        }
+        return result == null ? 0 : -1;
+    }
+
+    private static String shape(Object[] arguments, int executed, String lastSql) {
+        for (Object argument : arguments) {
+            if (argument instanceof UserQuery query) {
+                return query.shape();
+            }
+        }
+        return executed > 0 ? lastSql : "";
+    }
+}
@@ -0,0 +1,40 @@
+package com.example.usersapi.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Evento JFR de uma requisição aos controllers de usuários, do preHandle ao afterCompletion.
+ *
+ * @Name: identificador do evento na gravação e no arquivo .jfc
+ * @StackTrace(false): a pilha do fim da requisição não diz nada e custaria caro
+ */
+@Name("com.example.usersapi.HttpRequest")
+@Label("Requisição HTTP")
+@Category({"Users API"})
+@Description("Requisição atendida pelos controllers de usuários")
+@StackTrace(false)
+public class HttpRequestEvent extends Event {
+
+    @Label("ID da requisição")
+    @Description("Header X-Request-Id ou gerado; também presente nos eventos de serviço, repositório e SQL")
+    String requestId;
+
+    @Label("Método HTTP")
+    String method;
+
+    @Label("Endpoint")
+    @Description("Padrão da rota, ex.: /users/{id}")
+    String endpoint;
+
+    @Label("ID do usuário")
+    @Description("Variável {id} da rota (0 quando ausente)")
+    long userId;
+
+    @Label("Status HTTP")
+    int status;
+}
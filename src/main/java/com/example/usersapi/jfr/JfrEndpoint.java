@@ -0,0 +1,160 @@
+package com.example.usersapi.jfr;
+
+import jdk.jfr.Configuration;
+import jdk.jfr.FlightRecorder;
+import jdk.jfr.Recording;
+import jdk.jfr.RecordingState;
+import org.springframework.boot.actuate.endpoint.InvalidEndpointRequestException;
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Selector;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.core.io.InputStreamResource;
+import org.springframework.core.io.Resource;
+import org.springframework.lang.Nullable;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.text.ParseException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Endpoint administrativo das gravações JFR: /actuator/jfr.
+ *
+ * - GET /actuator/jfr: lista as gravações da JVM
+ * - POST /actuator/jfr: inicia uma gravação (corpo opcional: name, duration, maxAge, base)
+ * - POST /actuator/jfr/{id}: para a gravação (os dados continuam disponíveis para o dump)
+ * - GET /actuator/jfr/{id}: baixa o arquivo .jfr com o que foi gravado até agora
+ * - DELETE /actuator/jfr/{id}: encerra a gravação e descarta os dados
+ *
+ * As gravações usam a configuração base do JDK ("default" ou "profile") com o perfil
+ * jfr/users-api.jfc por cima, que habilita os eventos da aplicação.
+ */
+@Endpoint(id = "jfr")
+public class JfrEndpoint {
+
+    public static final String PROFILE = "jfr/users-api.jfc";
+    private static final List<String> BASES = List.of("default", "profile");
+
+    private final Duration maxAge;
+    private final DataSize maxSize;
+
+    public JfrEndpoint(Duration maxAge, DataSize maxSize) {
+        this.maxAge = maxAge;
+        this.maxSize = maxSize;
+    }
+
+    @ReadOperation
+    public List<RecordingInfo> recordings() {
+        return FlightRecorder.getFlightRecorder().getRecordings().stream().map(RecordingInfo::of).toList();
+    }
+
+    /**
+     * @param name nome da gravação (padrão: users-api)
+     * @param duration para sozinha depois desse tempo (padrão: até o stop)
+     * @param maxAge dados mais antigos que isso são descartados (padrão: users.jfr.max-age)
+     * @param base configuração do JDK usada como base: default (padrão) ou profile
+     */
+    @WriteOperation
+    public RecordingInfo start(@Nullable String name, @Nullable Duration duration, @Nullable Duration maxAge,
+                               @Nullable String base) {
+        String configuration = base != null ? base : "default";
+        if (!BASES.contains(configuration)) {
+            throw new InvalidEndpointRequestException("Configuração base inválida: " + configuration,
+                    "base deve ser default ou profile");
+        }
+        Recording recording = new Recording(settings(configuration));
+        recording.setName(name != null ? name : "users-api");
+        recording.setToDisk(true);
+        recording.setMaxAge(maxAge != null ? maxAge : this.maxAge);
+        recording.setMaxSize(maxSize.toBytes());
+        if (duration != null) {
+            recording.setDuration(duration);
+        }
+        recording.start();
+        return RecordingInfo.of(recording);
+    }
+
+    @WriteOperation
+    public RecordingInfo stop(@Selector long id) {
+        Recording recording = find(id);
+        if (recording == null) {
+            return null;
+        }
+        if (recording.getState() == RecordingState.RUNNING) {
+            recording.stop();
+        }
+        return RecordingInfo.of(recording);
+    }
+
+    /**
+     * O dump vai para um arquivo temporário, apagado quando o download termina.
+     */
+    @ReadOperation(produces = "application/octet-stream")
+    public Resource dump(@Selector long id) throws IOException {
+        Recording recording = find(id);
+        if (recording == null || recording.getState() == RecordingState.NEW) {
+            return null;
+        }
+        Path file = Files.createTempFile("users-api-" + id + "-", ".jfr");
+        recording.dump(file);
+        return new InputStreamResource(Files.newInputStream(file, StandardOpenOption.DELETE_ON_CLOSE));
+    }
+
+    @DeleteOperation
+    public RecordingInfo close(@Selector long id) {
+        Recording recording = find(id);
+        if (recording == null) {
+            return null;
+        }
+        recording.close();
+        return RecordingInfo.of(recording);
+    }
+
+    /**
+     * Configuração do JDK com o perfil da aplicação por cima (o perfil vence nos eventos em comum).
+     */
+    static Map<String, String> settings(String base) {
+        try (Reader profile = new InputStreamReader(new ClassPathResource(PROFILE).getInputStream(), StandardCharsets.UTF_8)) {
+            Map<String, String> settings = new HashMap<>(Configuration.getConfiguration(base).getSettings());
+            settings.putAll(Configuration.create(profile).getSettings());
+            return settings;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } catch (ParseException e) {
+            throw new IllegalArgumentException("Configuração JFR inválida: " + base, e);
+        }
+    }
+
+    private static Recording find(long id) {
+        return FlightRecorder.getFlightRecorder().getRecordings().stream()
+                .filter(recording -> recording.getId() == id)
+                .findFirst()
+                .orElse(null);
+    }
+
+    /**
+     * Resumo de uma gravação.
+     */
+    public record RecordingInfo(long id, String name, String state, Instant startTime, Instant stopTime,
+                                long size, Duration maxAge) {
+
+        static RecordingInfo of(Recording recording) {
+            return new RecordingInfo(recording.getId(), recording.getName(), recording.getState().name(),
+                    recording.getStartTime(), recording.getStopTime(), recording.getSize(), recording.getMaxAge());
+        }
+    }
+}
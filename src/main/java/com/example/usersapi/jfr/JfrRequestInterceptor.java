@@ -0,0 +1,85 @@
+package com.example.usersapi.jfr;
+
+import com.example.usersapi.controller.UserController;
+import com.example.usersapi.controller.UserImportController;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Emite um HttpRequestEvent por requisição aos controllers de usuários.
+ *
+ * Com o evento habilitado, a requisição recebe um ID (header X-Request-Id ou gerado),
+ * guardado na thread para que os eventos de serviço, repositório e SQL da mesma
+ * requisição possam ser agrupados na análise. Sem gravação, preHandle só faz isEnabled().
+ */
+public class JfrRequestInterceptor implements HandlerInterceptor {
+
+    public static final String REQUEST_ID_HEADER = "X-Request-Id";
+
+    private static final String EVENT = JfrRequestInterceptor.class.getName() + ".event";
+    private static final ThreadLocal<String> REQUEST_ID = new ThreadLocal<>();
+    private static final AtomicLong SEQUENCE = new AtomicLong();
+
+    /**
+     * ID da requisição em andamento na thread ("" fora de uma requisição gravada).
+     */
+    public static String currentRequestId() {
+        String requestId = REQUEST_ID.get();
+        return requestId != null ? requestId : "";
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (!(handler instanceof HandlerMethod method) || !isUserController(method.getBeanType())) {
+            return true;
+        }
+        HttpRequestEvent event = new HttpRequestEvent();
+        if (!event.isEnabled()) {
+            return true;
+        }
+        String requestId = request.getHeader(REQUEST_ID_HEADER);
+        REQUEST_ID.set(requestId != null ? requestId : "req-" + SEQUENCE.incrementAndGet());
+        request.setAttribute(EVENT, event);
+        event.begin();
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        if (!(request.getAttribute(EVENT) instanceof HttpRequestEvent event)) {
+            return;
+        }
+        event.end();
+        if (event.shouldCommit()) {
+            event.requestId = currentRequestId();
+            event.method = request.getMethod();
+            event.endpoint = String.valueOf(request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE));
+            event.userId = userId(request);
+            event.status = response.getStatus();
+            event.commit();
+        }
+        REQUEST_ID.remove();
+    }
+
+    private static long userId(HttpServletRequest request) {
+        if (request.getAttribute(HandlerMapping.URI_TEMPLATE_VARIABLES_ATTRIBUTE) instanceof Map<?, ?> variables
+                && variables.get("id") instanceof String id) {
+            try {
+                return Long.parseLong(id);
+            } catch (NumberFormatException e) {
+                return 0;
+            }
+        }
+        return 0;
+    }
+
+    private static boolean isUserController(Class<?> beanType) {
+        return UserController.class.isAssignableFrom(beanType) || UserImportController.class.isAssignableFrom(beanType);
+    }
+}
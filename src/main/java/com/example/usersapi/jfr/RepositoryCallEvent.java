@@ -0,0 +1,20 @@
+package com.example.usersapi.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Evento JFR de uma chamada ao UserRepository (JPA ou particionado em shards).
+ */
+@Name("com.example.usersapi.RepositoryCall")
+@Label("Consulta ao repositório")
+@Category({"Users API"})
+@Description("Chamada a um método do UserRepository")
+public class RepositoryCallEvent extends CallEvent {
+
+    @Label("Formato da consulta")
+    @Description("UserQuery.shape() nas buscas com filtro; senão o último SQL executado na chamada")
+    String shape;
+}
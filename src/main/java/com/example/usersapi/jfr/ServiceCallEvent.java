@@ -0,0 +1,16 @@
+package com.example.usersapi.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Evento JFR de uma chamada pública ao UserService (inclui o commit da transação).
+ */
+@Name("com.example.usersapi.ServiceCall")
+@Label("Chamada ao serviço")
+@Category({"Users API"})
+@Description("Chamada a um método público do UserService")
+public class ServiceCallEvent extends CallEvent {
+}
@@ -0,0 +1,48 @@
+package com.example.usersapi.jfr;
+
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+
+import java.util.List;
+
+/**
+ * Recebe do datasource-proxy cada comando JDBC: conta o comando na thread
+ * (SqlStatementCounter) e, com o evento habilitado na gravação, emite um SqlStatementEvent.
+ *
+ * O evento começa em beforeQuery e termina em afterQuery; entre os dois ele viaja
+ * no próprio ExecutionInfo. Sem gravação, isEnabled() é falso e nada mais é feito.
+ */
+public class SqlEventListener implements QueryExecutionListener {
+
+    private static final String EVENT = SqlStatementEvent.class.getName();
+
+    @Override
+    public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        SqlStatementEvent event = new SqlStatementEvent();
+        if (event.isEnabled()) {
+            event.begin();
+            execInfo.addCustomValue(EVENT, event);
+        }
+    }
+
+    @Override
+    public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        String sql = queryInfoList.isEmpty() ? null : queryInfoList.get(0).getQuery();
+        SqlStatementCounter.current().record(sql,
+                execInfo.isBatch() ? Math.max(execInfo.getBatchSize(), queryInfoList.size()) : queryInfoList.size());
+
+        SqlStatementEvent event = execInfo.getCustomValue(EVENT, SqlStatementEvent.class);
+        if (event == null) {
+            return;
+        }
+        event.end();
+        if (event.shouldCommit()) {
+            event.requestId = JfrRequestInterceptor.currentRequestId();
+            event.sql = sql;
+            event.batchSize = execInfo.isBatch() ? execInfo.getBatchSize() : 0;
+            event.success = execInfo.isSuccess();
+            event.commit();
+        }
+    }
+}
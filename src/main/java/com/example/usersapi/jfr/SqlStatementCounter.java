@@ -0,0 +1,53 @@
+package com.example.usersapi.jfr;
+
+/**
+ * Comandos JDBC executados pela thread atual, contados pelo SqlEventListener.
+ *
+ * Quem quer saber quantos comandos uma chamada executou lê getCount() antes e depois
+ * dela. A contagem é sempre feita (um incremento por comando), com ou sem gravação JFR.
+ *
+ * Duas medidas: getCount() conta as idas ao banco (um executeBatch conta 1) e
+ * getStatements() conta os comandos SQL (cada linha de um batch conta 1).
+ */
+public final class SqlStatementCounter {
+
+    private static final ThreadLocal<SqlStatementCounter> CURRENT = ThreadLocal.withInitial(SqlStatementCounter::new);
+
+    private long count;
+    private long statements;
+    private String lastSql;
+
+    private SqlStatementCounter() {
+    }
+
+    public static SqlStatementCounter current() {
+        return CURRENT.get();
+    }
+
+    void record(String sql, int statementCount) {
+        count++;
+        statements += statementCount;
+        lastSql = sql;
+    }
+
+    /**
+     * Execuções JDBC (execute, executeQuery, executeUpdate, executeBatch): idas ao banco.
+     */
+    public long getCount() {
+        return count;
+    }
+
+    /**
+     * Comandos SQL executados, contando cada linha de um batch.
+     */
+    public long getStatements() {
+        return statements;
+    }
+
+    /**
+     * Texto do último comando executado pela thread (null se nenhum).
+     */
+    public String getLastSql() {
+        return lastSql;
+    }
+}
@@ -0,0 +1,33 @@
+package com.example.usersapi.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Evento JFR de um comando JDBC, do envio ao banco até a resposta (ver SqlEventListener).
+ */
+@Name("com.example.usersapi.SqlStatement")
+@Label("Comando SQL")
+@Category({"Users API"})
+@Description("Comando JDBC executado pelo DataSource da aplicação")
+@StackTrace(false)
+public class SqlStatementEvent extends Event {
+
+    @Label("ID da requisição")
+    String requestId;
+
+    @Label("SQL")
+    @Description("Texto do comando, com ? no lugar dos valores (o formato da consulta)")
+    String sql;
+
+    @Label("Tamanho do lote")
+    @Description("Comandos no executeBatch (0 fora de lote)")
+    int batchSize;
+
+    @Label("Sucesso")
+    boolean success;
+}
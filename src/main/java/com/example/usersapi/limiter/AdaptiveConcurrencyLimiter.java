@@ -0,0 +1,181 @@
+package com.example.usersapi.limiter;
+
+import lombok.Getter;
+
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Limite de requisições simultâneas que se ajusta pela latência observada.
+ *
+ * Em vez de deixar as requisições esperarem em fila nas threads do Tomcat quando o banco
+ * fica lento, o limite diminui e o excedente é recusado na hora (ver ConcurrencyLimitInterceptor).
+ * Algoritmo de gradiente (como o Gradient2 do concurrency-limits da Netflix):
+ * - longRtt: média móvel longa da latência (a referência "sem fila")
+ * - shortRtt: média móvel curta (a latência agora)
+ * - gradiente = clamp(TOLERANCE * longRtt / shortRtt, 0.5, 1.0)
+ * - novo limite = limite * gradiente + sqrt(limite), suavizado
+ *
+ * Latência estável: gradiente 1 e o limite cresce sqrt(limite) por vez, até maxLimit.
+ * Latência subindo (fila no banco): o gradiente cai e o limite encolhe até minLimit.
+ * Erros (5xx, exceções) reduzem o limite multiplicativamente, como no AIMD.
+ *
+ * Parte do limite (priorityShare) fica reservada para requisições prioritárias:
+ * as demais são recusadas quando sobram só as vagas reservadas.
+ */
+public class AdaptiveConcurrencyLimiter {
+
+    /**
+     * Aumento de latência tolerado antes de reduzir o limite.
+     */
+    static final double TOLERANCE = 1.5;
+    static final double SHORT_ALPHA = 0.1;
+    static final double LONG_ALPHA = 1.0 / 600;
+    static final double SMOOTHING = 0.2;
+    static final double BACKOFF = 0.9;
+
+    @Getter
+    private final String name;
+    private final int minLimit;
+    private final int maxLimit;
+    private final double priorityShare;
+    private final AtomicInteger inflight = new AtomicInteger();
+    private final LongAdder accepted = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+
+    private volatile double estimatedLimit;
+    private double shortRtt;
+    private double longRtt;
+
+    public AdaptiveConcurrencyLimiter(String name, int initialLimit, int minLimit, int maxLimit, double priorityShare) {
+        if (minLimit < 1 || minLimit > initialLimit || initialLimit > maxLimit) {
+            throw new IllegalArgumentException("Limites inválidos para " + name
+                    + ": é preciso 1 <= min-limit <= initial-limit <= max-limit");
+        }
+        this.name = name;
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.priorityShare = priorityShare;
+        this.estimatedLimit = initialLimit;
+    }
+
+    /**
+     * Tenta ocupar uma vaga, sem esperar.
+     *
+     * @param priority requisição prioritária (pode usar as vagas reservadas)
+     * @return a vaga, que deve ser liberada com um dos métodos de Permit; vazio se não há vaga
+     */
+    public Optional<Permit> tryAcquire(boolean priority) {
+        int limit = getLimit();
+        int available = priority ? limit : limit - (int) (limit * priorityShare);
+        while (true) {
+            int current = inflight.get();
+            if (current >= available) {
+                rejected.increment();
+                return Optional.empty();
+            }
+            if (inflight.compareAndSet(current, current + 1)) {
+                accepted.increment();
+                return Optional.of(new Permit(current + 1));
+            }
+        }
+    }
+
+    /**
+     * Limite atual (arredondado para baixo).
+     */
+    public int getLimit() {
+        return (int) estimatedLimit;
+    }
+
+    public int getInflight() {
+        return inflight.get();
+    }
+
+    /**
+     * Total de requisições admitidas desde o início.
+     */
+    public long getAccepted() {
+        return accepted.sum();
+    }
+
+    /**
+     * Total de requisições recusadas por falta de vaga desde o início.
+     */
+    public long getRejected() {
+        return rejected.sum();
+    }
+
+    private synchronized void onSample(long rttNanos, int inflightAtStart) {
+        double rtt = Math.max(rttNanos, 1);
+        shortRtt = shortRtt == 0 ? rtt : shortRtt + (rtt - shortRtt) * SHORT_ALPHA;
+        longRtt = longRtt == 0 ? rtt : longRtt + (rtt - longRtt) * LONG_ALPHA;
+        // A carga caiu depois de um período lento: a referência acompanha mais rápido
+        if (longRtt / shortRtt > 2) {
+            longRtt *= 0.95;
+        }
+        // Com menos da metade das vagas ocupadas, a latência não diz nada sobre o limite
+        if (inflightAtStart < estimatedLimit / 2) {
+            return;
+        }
+        double gradient = Math.max(0.5, Math.min(1.0, TOLERANCE * longRtt / shortRtt));
+        double newLimit = estimatedLimit * gradient + Math.sqrt(estimatedLimit);
+        setLimit(estimatedLimit * (1 - SMOOTHING) + newLimit * SMOOTHING);
+    }
+
+    private synchronized void onDropped() {
+        setLimit(estimatedLimit * BACKOFF);
+    }
+
+    private void setLimit(double limit) {
+        estimatedLimit = Math.max(minLimit, Math.min(maxLimit, limit));
+    }
+
+    /**
+     * Vaga ocupada por uma requisição. Só a primeira chamada de um dos métodos tem efeito.
+     */
+    public final class Permit {
+
+        private final int inflightAtStart;
+        private final AtomicBoolean released = new AtomicBoolean();
+
+        private Permit(int inflightAtStart) {
+            this.inflightAtStart = inflightAtStart;
+        }
+
+        /**
+         * Requisição concluída: a latência entra no cálculo do limite.
+         */
+        public void success(long rttNanos) {
+            if (release()) {
+                onSample(rttNanos, inflightAtStart);
+            }
+        }
+
+        /**
+         * Requisição falhou por sobrecarga ou erro interno: o limite é reduzido.
+         */
+        public void dropped() {
+            if (release()) {
+                onDropped();
+            }
+        }
+
+        /**
+         * Libera a vaga sem afetar o limite (ex.: requisição inválida, respondida sem ir ao banco).
+         */
+        public void ignore() {
+            release();
+        }
+
+        private boolean release() {
+            if (released.compareAndSet(false, true)) {
+                inflight.decrementAndGet();
+                return true;
+            }
+            return false;
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package com.example.usersapi.limiter;
+
+import com.example.usersapi.controller.UserController;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpMethod;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.time.Duration;
+
+/**
+ * Aplica os limites de concorrência às requisições do UserController.
+ *
+ * Leituras (GET, HEAD) e escritas têm limites separados: uma rajada de escritas lentas
+ * não tira vagas das leituras, e vice-versa. Sem vaga, a requisição é recusada na hora
+ * com 503 + Retry-After (OverloadedException), em vez de esperar em fila.
+ *
+ * GET /users/{id} sem ?fields= é prioritário: é servido pelo cache de segundo nível,
+ * quase sem custo, e pode usar a parte reservada do limite de leitura.
+ * A latência de cada requisição admitida alimenta o limite adaptativo.
+ */
+@RequiredArgsConstructor
+public class ConcurrencyLimitInterceptor implements HandlerInterceptor {
+
+    private static final String PERMIT = ConcurrencyLimitInterceptor.class.getName() + ".permit";
+    private static final String START = ConcurrencyLimitInterceptor.class.getName() + ".start";
+    private static final String CACHED_READ_PATTERN = "/users/{id}";
+
+    private final AdaptiveConcurrencyLimiter readLimiter;
+    private final AdaptiveConcurrencyLimiter writeLimiter;
+    private final Duration retryAfter;
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (!(handler instanceof HandlerMethod method) || !UserController.class.isAssignableFrom(method.getBeanType())) {
+            return true;
+        }
+        boolean read = HttpMethod.GET.matches(request.getMethod()) || HttpMethod.HEAD.matches(request.getMethod());
+        AdaptiveConcurrencyLimiter limiter = read ? readLimiter : writeLimiter;
+        boolean priority = read && isCachedRead(request);
+
+        AdaptiveConcurrencyLimiter.Permit permit = limiter.tryAcquire(priority)
+                .orElseThrow(() -> new OverloadedException(limiter.getName(), retryAfter));
+        request.setAttribute(PERMIT, permit);
+        request.setAttribute(START, System.nanoTime());
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        if (!(request.getAttribute(PERMIT) instanceof AdaptiveConcurrencyLimiter.Permit permit)) {
+            return;
+        }
+        if (ex != null || response.getStatus() >= 500) {
+            permit.dropped();
+        } else {
+            permit.success(System.nanoTime() - (long) request.getAttribute(START));
+        }
+    }
+
+    private static boolean isCachedRead(HttpServletRequest request) {
+        return CACHED_READ_PATTERN.equals(request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE))
+                && request.getParameter("fields") == null;
+    }
+}
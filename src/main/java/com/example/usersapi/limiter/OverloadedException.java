@@ -0,0 +1,31 @@
+package com.example.usersapi.limiter;
+
+import lombok.Getter;
+
+import java.time.Duration;
+
+/**
+ * Requisição recusada porque o limite de concorrência foi atingido.
+ * Convertida em 503 com o header Retry-After pelo GlobalExceptionHandler.
+ */
+@Getter
+public class OverloadedException extends RuntimeException {
+
+    private final Duration retryAfter;
+
+    public OverloadedException(String limiter, Duration retryAfter) {
+        super("Serviço sobrecarregado (" + limiter + "), tente novamente em " + seconds(retryAfter) + "s");
+        this.retryAfter = retryAfter;
+    }
+
+    /**
+     * Valor do header Retry-After: segundos inteiros, arredondados para cima (mínimo 1).
+     */
+    public long getRetryAfterSeconds() {
+        return seconds(retryAfter);
+    }
+
+    private static long seconds(Duration duration) {
+        return Math.max(1, (duration.toMillis() + 999) / 1000);
+    }
+}
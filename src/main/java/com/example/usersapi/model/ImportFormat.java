@@ -0,0 +1,56 @@
+package com.example.usersapi.model;
+
+import org.springframework.http.MediaType;
+
+import java.util.Arrays;
+
+/**
+ * Formatos de arquivo aceitos pela importação em lote.
+ * 
+ * CSV: primeira linha é o cabeçalho (name,email,age,phone em qualquer ordem)
+ * NDJSON: um objeto JSON por linha, com os mesmos campos de CreateUserRequest
+ */
+public enum ImportFormat {
+    CSV("text/csv", ".csv"),
+    NDJSON("application/x-ndjson", ".ndjson");
+
+    private final MediaType mediaType;
+    private final String extension;
+
+    ImportFormat(String mediaType, String extension) {
+        this.mediaType = MediaType.parseMediaType(mediaType);
+        this.extension = extension;
+    }
+
+    public MediaType getMediaType() {
+        return mediaType;
+    }
+
+    /**
+     * Formato correspondente ao Content-Type da requisição.
+     * 
+     * @throws IllegalArgumentException se o tipo não for suportado
+     */
+    public static ImportFormat fromMediaType(MediaType contentType) {
+        return Arrays.stream(values())
+                .filter(format -> format.mediaType.isCompatibleWith(contentType))
+                .findFirst()
+                .orElseThrow(() -> new IllegalArgumentException("Formato de importação não suportado: " + contentType));
+    }
+
+    /**
+     * Formato correspondente à extensão do arquivo (.csv, .ndjson ou .jsonl).
+     * 
+     * @throws IllegalArgumentException se a extensão não for reconhecida
+     */
+    public static ImportFormat fromFileName(String fileName) {
+        String lower = fileName.toLowerCase();
+        if (lower.endsWith(".jsonl")) {
+            return NDJSON;
+        }
+        return Arrays.stream(values())
+                .filter(format -> lower.endsWith(format.extension))
+                .findFirst()
+                .orElseThrow(() -> new IllegalArgumentException("Extensão de arquivo não suportada: " + fileName));
+    }
+}
@@ -0,0 +1,110 @@
+package com.example.usersapi.model;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Entidade que guarda o progresso de uma importação em lote.
+ * 
+ * linesCommitted é atualizado na mesma transação que insere cada lote de usuários:
+ * após uma queda, a importação com o mesmo ID recomeça exatamente depois
+ * da última linha confirmada, sem duplicar nem perder usuários.
+ */
+@Entity
+@Table(name = "user_import")
+@Data
+@NoArgsConstructor
+public class ImportJob {
+
+    /**
+     * Situação da importação.
+     * RUNNING: em andamento (ou interrompida por queda do processo, retomável depois de users.import.stale-after)
+     * COMPLETED: arquivo lido até o fim
+     * FAILED: interrompida por erro de leitura ou do banco; pode ser retomada
+     */
+    public enum Status {
+        RUNNING,
+        COMPLETED,
+        FAILED
+    }
+
+    /**
+     * Identificador escolhido pelo cliente (reenviar o mesmo ID retoma a importação).
+     */
+    @Id
+    @Column(name = "id", length = 64)
+    private String id;
+
+    /**
+     * Formato do arquivo.
+     */
+    @Enumerated(EnumType.STRING)
+    @Column(name = "format", nullable = false, length = 10)
+    private ImportFormat format;
+
+    /**
+     * Situação da importação.
+     */
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status", nullable = false, length = 10)
+    private Status status = Status.RUNNING;
+
+    /**
+     * Linhas do arquivo já processadas e confirmadas (inclui cabeçalho e linhas rejeitadas).
+     */
+    @Column(name = "lines_committed", nullable = false)
+    private long linesCommitted;
+
+    /**
+     * Usuários inseridos.
+     */
+    @Column(name = "imported", nullable = false)
+    private long imported;
+
+    /**
+     * Linhas rejeitadas (detalhadas em ImportRejection).
+     */
+    @Column(name = "rejected", nullable = false)
+    private long rejected;
+
+    /**
+     * Último erro que interrompeu a importação.
+     */
+    @Column(name = "last_error", length = 500)
+    private String lastError;
+
+    /**
+     * Controle otimista: cada gravação confere e incrementa a versão. Se outra chamada reservou
+     * a importação (ImportJobRepository.claim), a gravação de quem a tinha antes falha.
+     *
+     * @Version: usado pelo Hibernate no WHERE do UPDATE; nulo indica importação nova (INSERT)
+     */
+    @Version
+    @Column(name = "version", nullable = false)
+    private Long version;
+
+    /**
+     * Data de início da importação.
+     */
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+
+    /**
+     * Data do último lote confirmado.
+     */
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+
+    /**
+     * Construtor para iniciar uma nova importação.
+     */
+    public ImportJob(String id, ImportFormat format) {
+        this.id = id;
+        this.format = format;
+        this.createdAt = LocalDateTime.now();
+        this.updatedAt = this.createdAt;
+    }
+}
@@ -0,0 +1,67 @@
+package com.example.usersapi.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+
+/**
+ * Entidade de uma linha rejeitada em uma importação em lote.
+ * 
+ * É gravada na mesma transação que insere os usuários do lote e avança o progresso
+ * (ImportJob.linesCommitted): ou o lote inteiro fica, com suas rejeições, ou nada fica.
+ * Uma queda no meio não perde rejeições nem as duplica na retomada.
+ * 
+ * @IdClass: chave composta (importação, número da linha)
+ */
+@Entity
+@Table(name = "user_import_rejection")
+@IdClass(ImportRejection.Key.class)
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ImportRejection {
+
+    /**
+     * Importação à qual a linha pertence.
+     */
+    @Id
+    @Column(name = "import_id", length = 64)
+    private String importId;
+
+    /**
+     * Número da linha no arquivo (começando em 1, contando o cabeçalho CSV).
+     */
+    @Id
+    @Column(name = "line_number")
+    private long line;
+
+    /**
+     * Motivos da rejeição, como array JSON.
+     * 
+     * @Lob: texto sem limite de tamanho (CLOB)
+     */
+    @Lob
+    @Column(name = "errors", nullable = false)
+    private String errors;
+
+    /**
+     * Linha como veio no arquivo.
+     */
+    @Lob
+    @Column(name = "raw_line", nullable = false)
+    private String raw;
+
+    /**
+     * Chave composta exigida pelo @IdClass (mesmos nomes dos campos @Id).
+     */
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Key implements Serializable {
+        private String importId;
+        private long line;
+    }
+}
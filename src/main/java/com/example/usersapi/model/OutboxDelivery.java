@@ -0,0 +1,58 @@
+package com.example.usersapi.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+import java.time.LocalDateTime;
+
+/**
+ * Entidade que registra a entrega de um evento do outbox a um webhook.
+ * 
+ * Com vários webhooks, um evento pode ser aceito por uns e recusado por outros.
+ * A nova tentativa (e o replay de um evento FAILED) só chama os webhooks sem registro aqui;
+ * os registros são removidos junto com o evento, quando todos os webhooks confirmaram.
+ * 
+ * @IdClass: chave composta (evento, URL do webhook)
+ */
+@Entity
+@Table(name = "user_outbox_delivery")
+@IdClass(OutboxDelivery.Key.class)
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class OutboxDelivery {
+
+    /**
+     * Evento entregue (OutboxEvent.id).
+     */
+    @Id
+    @Column(name = "event_id")
+    private Long eventId;
+
+    /**
+     * URL do webhook, como está em users.outbox.webhooks.
+     */
+    @Id
+    @Column(name = "webhook", length = 500)
+    private String webhook;
+
+    /**
+     * Momento em que o webhook confirmou o recebimento (resposta 2xx).
+     */
+    @Column(name = "delivered_at", nullable = false)
+    private LocalDateTime deliveredAt;
+
+    /**
+     * Chave composta exigida pelo @IdClass (mesmos nomes dos campos @Id).
+     */
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Key implements Serializable {
+        private Long eventId;
+        private String webhook;
+    }
+}
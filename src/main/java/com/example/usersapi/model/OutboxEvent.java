@@ -0,0 +1,109 @@
+package com.example.usersapi.model;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Entidade que representa um evento pendente de entrega (padrão Transactional Outbox).
+ * 
+ * O evento é inserido na mesma transação que altera o usuário, garantindo que
+ * nenhuma alteração confirmada fique sem notificação e que nenhuma notificação
+ * seja enviada para uma alteração desfeita (rollback).
+ * 
+ * O índice (status, id) permite que o dispatcher leia os eventos pendentes
+ * em ordem de inserção sem varrer a tabela inteira; o (user_id, status, id)
+ * responde se um usuário tem evento anterior ainda em backoff ou em dead letter.
+ */
+@Entity
+@Table(name = "user_outbox", indexes = {
+        @Index(name = "idx_user_outbox_status_id", columnList = "status, id"),
+        @Index(name = "idx_user_outbox_user_status_id", columnList = "user_id, status, id")
+})
+@Data
+@NoArgsConstructor
+public class OutboxEvent {
+
+    /**
+     * Situação do evento na fila de entrega.
+     * PENDING: aguardando entrega (ou nova tentativa)
+     * FAILED: esgotou as tentativas (dead letter) e não será mais entregue automaticamente.
+     *   Os eventos seguintes do mesmo usuário ficam retidos até que ele seja reenviado
+     *   (volta a PENDING) ou descartado, pelo endpoint /actuator/outbox
+     */
+    public enum Status {
+        PENDING,
+        FAILED
+    }
+
+    /**
+     * Chave primária, também usada como ordem global de entrega.
+     */
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    /**
+     * ID do usuário afetado. Eventos do mesmo usuário são entregues em ordem.
+     */
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    /**
+     * Tipo do evento.
+     */
+    @Enumerated(EnumType.STRING)
+    @Column(name = "event_type", nullable = false, length = 20)
+    private UserEventType eventType;
+
+    /**
+     * Estado do usuário após a alteração, serializado em JSON
+     * (nulo para remoções).
+     */
+    @Column(name = "payload", length = 4000)
+    private String payload;
+
+    /**
+     * Situação do evento na fila.
+     */
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status", nullable = false, length = 10)
+    private Status status = Status.PENDING;
+
+    /**
+     * Quantidade de tentativas de entrega que falharam.
+     */
+    @Column(name = "attempts", nullable = false)
+    private int attempts;
+
+    /**
+     * Momento a partir do qual o evento pode ser entregue novamente (backoff).
+     */
+    @Column(name = "next_attempt_at", nullable = false)
+    private LocalDateTime nextAttemptAt;
+
+    /**
+     * Última mensagem de erro de entrega (para diagnóstico).
+     */
+    @Column(name = "last_error", length = 500)
+    private String lastError;
+
+    /**
+     * Data em que o evento foi gerado.
+     */
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+
+    /**
+     * Construtor para criar um novo evento pendente.
+     */
+    public OutboxEvent(Long userId, UserEventType eventType, String payload) {
+        this.userId = userId;
+        this.eventType = eventType;
+        this.payload = payload;
+        this.createdAt = LocalDateTime.now();
+        this.nextAttemptAt = this.createdAt;
+    }
+}
@@ -1,5 +1,6 @@
 package com.example.usersapi.model;
 
+import com.example.usersapi.phone.PhoneNumbers;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.Email;
 import jakarta.validation.constraints.NotBlank;
@@ -7,6 +8,8 @@ import jakarta.validation.constraints.Size;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import java.time.LocalDateTime;
 
@@ -15,18 +18,35 @@ import java.time.LocalDateTime;
  * 
  * Annotations utilizadas:
  * @Entity: marca a classe como uma entidade JPA
- * @Table: especifica detalhes da tabela no banco de dados
+ * @Table: especifica detalhes da tabela no banco de dados (incluindo índices)
  * @Data: gera automaticamente getters, setters, toString, equals e hashCode
  * @NoArgsConstructor: gera construtor sem parâmetros (necessário para JPA)
  * @AllArgsConstructor: gera construtor com todos os parâmetros
+ * @Cacheable / @Cache: guarda a entidade no cache de segundo nível (região "users").
+ *   READ_WRITE: updates e deletes travam a entrada até o commit, então nenhuma
+ *   transação lê do cache um estado que ainda não foi confirmado
  */
 @Entity
-@Table(name = "users")  // Nome da tabela no banco de dados
+@Table(name = "users", indexes = {  // Nome da tabela no banco de dados
+        // Índices usados pela busca com filtro/ordenação (ver query.UserIndex)
+        @Index(name = "idx_users_name", columnList = "name, id"),
+        @Index(name = "idx_users_age", columnList = "age, id"),
+        @Index(name = "idx_users_created_at_name", columnList = "created_at DESC, name, id"),
+        // Busca por telefone antes do índice em memória ficar pronto (ver phone.PhoneIndex)
+        @Index(name = "idx_users_phone_digits", columnList = "phone_digits, id")
+})
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = User.CACHE_REGION)
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 public class User {
 
+    /**
+     * Região do cache de segundo nível (ver config.HibernateCacheConfig).
+     */
+    public static final String CACHE_REGION = "users";
+
     /**
      * Chave primária da entidade.
      * @Id: marca o campo como chave primária
@@ -72,6 +92,13 @@ public class User {
     @Size(max = 20, message = "Telefone deve ter no máximo 20 caracteres")
     private String phone;
 
+    /**
+     * Telefone normalizado: só dígitos, com código do país (ex.: 5511999999999).
+     * Derivado de phone a cada gravação (ver PhoneNumbers.normalize); não faz parte da API.
+     */
+    @Column(name = "phone_digits", length = 15)
+    private String phoneDigits;
+
     /**
      * Data de criação do registro.
      * @Column: updatable = false garante que este campo não será alterado em updates
@@ -94,6 +121,7 @@ public class User {
         LocalDateTime now = LocalDateTime.now();
         this.createdAt = now;
         this.updatedAt = now;
+        this.phoneDigits = PhoneNumbers.normalize(phone);
     }
 
     /**
@@ -103,6 +131,7 @@ public class User {
     @PreUpdate
     protected void onUpdate() {
         this.updatedAt = LocalDateTime.now();
+        this.phoneDigits = PhoneNumbers.normalize(phone);
     }
 
     /**
@@ -114,4 +143,13 @@ public class User {
         this.age = age;
         this.phone = phone;
     }
+
+    /**
+     * Construtor com todos os campos da API (usuário lido por SQL direto ou do arquivo);
+     * o telefone normalizado é derivado do telefone.
+     */
+    public User(Long id, String name, String email, Integer age, String phone,
+                LocalDateTime createdAt, LocalDateTime updatedAt) {
+        this(id, name, email, age, phone, PhoneNumbers.normalize(phone), createdAt, updatedAt);
+    }
 }
\ No newline at end of file
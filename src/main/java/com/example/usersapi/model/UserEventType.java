@@ -0,0 +1,25 @@
+package com.example.usersapi.model;
+
+/**
+ * Tipos de eventos de domínio publicados quando um usuário muda.
+ * 
+ * Os eventos são gravados na tabela de outbox na mesma transação
+ * da alteração do usuário e entregues depois aos webhooks configurados.
+ */
+public enum UserEventType {
+
+    /**
+     * Usuário criado.
+     */
+    USER_CREATED,
+
+    /**
+     * Usuário atualizado.
+     */
+    USER_UPDATED,
+
+    /**
+     * Usuário removido.
+     */
+    USER_DELETED
+}
@@ -0,0 +1,270 @@
+package com.example.usersapi.phone;
+
+import java.util.Arrays;
+
+/**
+ * Trie de dígitos compacta (radix): número normalizado -> IDs de usuário.
+ *
+ * Compacta em dois sentidos:
+ * - cada aresta guarda uma sequência de dígitos, não um só: o final exclusivo de cada número
+ *   vira uma folha, e cada número novo cria no máximo dois nós (a folha e uma divisão)
+ * - cada nó tem arrays do tamanho exato dos filhos e dos IDs (vazios compartilhados)
+ *
+ * Os filhos ficam ordenados pelo primeiro dígito e os IDs em ordem crescente: a busca por
+ * prefixo devolve os números em ordem e para assim que junta o limite pedido.
+ *
+ * Não é thread-safe (o PhoneIndex controla o acesso).
+ */
+final class DigitTrie {
+
+    private static final byte[] NO_DIGITS = new byte[0];
+    private static final Node[] NO_CHILDREN = new Node[0];
+    private static final long[] NO_IDS = new long[0];
+
+    private static final class Node {
+
+        /**
+         * Dígitos (0 a 9) da aresta que chega a este nó.
+         */
+        byte[] label;
+        Node[] children = NO_CHILDREN;
+        long[] ids = NO_IDS;
+
+        Node(byte[] label) {
+            this.label = label;
+        }
+    }
+
+    private final Node root = new Node(NO_DIGITS);
+    private int size;
+    private int nodes = 1;
+
+    /**
+     * @return false se o par já estava na trie
+     */
+    boolean put(String number, long id) {
+        byte[] key = digits(number);
+        Node node = root;
+        int depth = 0;
+        while (depth < key.length) {
+            int index = childIndex(node, key[depth]);
+            if (index < 0) {
+                Node leaf = new Node(Arrays.copyOfRange(key, depth, key.length));
+                node.children = insert(node.children, -index - 1, leaf);
+                nodes++;
+                node = leaf;
+                break;
+            }
+            Node child = node.children[index];
+            int common = commonPrefix(child.label, key, depth);
+            if (common < child.label.length) {
+                // O número novo diverge no meio da aresta: ela é dividida em duas
+                Node split = new Node(Arrays.copyOf(child.label, common));
+                child.label = Arrays.copyOfRange(child.label, common, child.label.length);
+                split.children = new Node[]{child};
+                node.children[index] = split;
+                nodes++;
+                child = split;
+            }
+            node = child;
+            depth += common;
+        }
+        int position = Arrays.binarySearch(node.ids, id);
+        if (position >= 0) {
+            return false;
+        }
+        node.ids = insert(node.ids, -position - 1, id);
+        size++;
+        return true;
+    }
+
+    /**
+     * @return false se o par não estava na trie
+     */
+    boolean remove(String number, long id) {
+        byte[] key = digits(number);
+        Node[] path = new Node[key.length + 1];
+        int[] indexes = new int[key.length + 1];
+        path[0] = root;
+        int length = 1;
+        Node node = root;
+        int depth = 0;
+        while (depth < key.length) {
+            int index = childIndex(node, key[depth]);
+            if (index < 0) {
+                return false;
+            }
+            Node child = node.children[index];
+            if (commonPrefix(child.label, key, depth) < child.label.length) {
+                return false;
+            }
+            indexes[length] = index;
+            path[length++] = child;
+            node = child;
+            depth += child.label.length;
+        }
+        int position = Arrays.binarySearch(node.ids, id);
+        if (position < 0) {
+            return false;
+        }
+        node.ids = node.ids.length == 1 ? NO_IDS : remove(node.ids, position);
+        size--;
+        compact(path, indexes, length);
+        return true;
+    }
+
+    /**
+     * IDs com o número exato (ou iniciado por ele, com prefix), em ordem de número e de ID.
+     */
+    long[] find(String number, boolean prefix, int limit) {
+        byte[] key = digits(number);
+        Node node = root;
+        int depth = 0;
+        while (depth < key.length) {
+            int index = childIndex(node, key[depth]);
+            if (index < 0) {
+                return NO_IDS;
+            }
+            Node child = node.children[index];
+            int common = commonPrefix(child.label, key, depth);
+            if (common < child.label.length && (!prefix || depth + common < key.length)) {
+                return NO_IDS;  // Diverge no meio da aresta (ou, na busca exata, para no meio dela)
+            }
+            node = child;
+            depth += child.label.length;
+        }
+        if (!prefix) {
+            return node.ids.length <= limit ? node.ids.clone() : Arrays.copyOf(node.ids, limit);
+        }
+        long[] ids = new long[Math.min(limit, size)];
+        int found = collect(node, ids, 0);
+        return found == ids.length ? ids : Arrays.copyOf(ids, found);
+    }
+
+    /**
+     * Pares (número, ID) guardados.
+     */
+    int size() {
+        return size;
+    }
+
+    int nodeCount() {
+        return nodes;
+    }
+
+    private static int collect(Node node, long[] ids, int found) {
+        int copied = Math.min(node.ids.length, ids.length - found);
+        System.arraycopy(node.ids, 0, ids, found, copied);
+        found += copied;
+        for (Node child : node.children) {
+            if (found == ids.length) {
+                break;
+            }
+            found = collect(child, ids, found);
+        }
+        return found;
+    }
+
+    /**
+     * Depois de uma remoção: tira os nós que ficaram sem IDs e sem filhos, e junta à aresta
+     * do filho o nó que ficou sem IDs e com um único filho.
+     */
+    private void compact(Node[] path, int[] indexes, int length) {
+        for (int i = length - 1; i > 0; i--) {
+            Node node = path[i];
+            Node parent = path[i - 1];
+            if (node.ids.length > 0) {
+                return;
+            }
+            if (node.children.length == 0) {
+                parent.children = remove(parent.children, indexes[i]);
+                nodes--;
+                continue;
+            }
+            if (node.children.length == 1) {
+                Node child = node.children[0];
+                byte[] label = Arrays.copyOf(node.label, node.label.length + child.label.length);
+                System.arraycopy(child.label, 0, label, node.label.length, child.label.length);
+                child.label = label;
+                parent.children[indexes[i]] = child;
+                nodes--;
+            }
+            return;
+        }
+    }
+
+    /**
+     * Posição do filho cuja aresta começa com o dígito, ou (-(posição de inserção) - 1).
+     */
+    private static int childIndex(Node node, byte digit) {
+        Node[] children = node.children;
+        int low = 0;
+        int high = children.length - 1;
+        while (low <= high) {
+            int middle = (low + high) >>> 1;
+            byte first = children[middle].label[0];
+            if (first < digit) {
+                low = middle + 1;
+            } else if (first > digit) {
+                high = middle - 1;
+            } else {
+                return middle;
+            }
+        }
+        return -low - 1;
+    }
+
+    private static int commonPrefix(byte[] label, byte[] key, int offset) {
+        int max = Math.min(label.length, key.length - offset);
+        int i = 0;
+        while (i < max && label[i] == key[offset + i]) {
+            i++;
+        }
+        return i;
+    }
+
+    private static byte[] digits(String number) {
+        byte[] digits = new byte[number.length()];
+        for (int i = 0; i < digits.length; i++) {
+            char c = number.charAt(i);
+            if (c < '0' || c > '9') {
+                throw new IllegalArgumentException("Número com caractere que não é dígito: " + number);
+            }
+            digits[i] = (byte) (c - '0');
+        }
+        return digits;
+    }
+
+    private static Node[] insert(Node[] array, int position, Node value) {
+        Node[] copy = new Node[array.length + 1];
+        System.arraycopy(array, 0, copy, 0, position);
+        copy[position] = value;
+        System.arraycopy(array, position, copy, position + 1, array.length - position);
+        return copy;
+    }
+
+    private static long[] insert(long[] array, int position, long value) {
+        long[] copy = new long[array.length + 1];
+        System.arraycopy(array, 0, copy, 0, position);
+        copy[position] = value;
+        System.arraycopy(array, position, copy, position + 1, array.length - position);
+        return copy;
+    }
+
+    private static Node[] remove(Node[] array, int position) {
+        if (array.length == 1) {
+            return NO_CHILDREN;
+        }
+        Node[] copy = new Node[array.length - 1];
+        System.arraycopy(array, 0, copy, 0, position);
+        System.arraycopy(array, position + 1, copy, position, copy.length - position);
+        return copy;
+    }
+
+    private static long[] remove(long[] array, int position) {
+        long[] copy = new long[array.length - 1];
+        System.arraycopy(array, 0, copy, 0, position);
+        System.arraycopy(array, position + 1, copy, position, copy.length - position);
+        return copy;
+    }
+}
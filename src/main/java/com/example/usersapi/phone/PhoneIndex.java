@@ -0,0 +1,139 @@
+package com.example.usersapi.phone;
+
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Optional;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Índice em memória dos telefones normalizados: DigitTrie de número -> IDs.
+ *
+ * Montado ao subir a aplicação (PhoneIndexLoader) e mantido pelas escritas do UserService e
+ * da importação. Enquanto não está pronto, find devolve vazio e a busca usa a coluna
+ * indexada phone_digits.
+ *
+ * As alterações são aplicadas só depois do commit. Uma entrada que ficar para trás (uma
+ * remoção que cruzou com a carga inicial, por exemplo) não aparece para o cliente: quem
+ * busca confere o telefone do usuário lido do banco.
+ */
+public class PhoneIndex {
+
+    private final DigitTrie trie = new DigitTrie();
+
+    /**
+     * Várias buscas ao mesmo tempo; cada escrita sozinha.
+     */
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private volatile boolean loaded;
+
+    private PhoneIndex() {
+    }
+
+    public static PhoneIndex create() {
+        return new PhoneIndex();
+    }
+
+    public boolean isLoaded() {
+        return loaded;
+    }
+
+    /**
+     * Passa a indexar o telefone do usuário (depois do commit, dentro de uma transação).
+     *
+     * @param phone telefone como foi gravado (normalizado aqui); null é ignorado
+     */
+    public void add(Long id, String phone) {
+        String digits = PhoneNumbers.normalize(phone);
+        if (digits != null) {
+            afterCommit(() -> put(id, digits));
+        }
+    }
+
+    /**
+     * Deixa de indexar o telefone do usuário (depois do commit, dentro de uma transação).
+     *
+     * @param phone telefone anterior, como estava gravado
+     */
+    public void remove(Long id, String phone) {
+        String digits = PhoneNumbers.normalize(phone);
+        if (digits != null) {
+            afterCommit(() -> {
+                lock.writeLock().lock();
+                try {
+                    trie.remove(digits, id);
+                } finally {
+                    lock.writeLock().unlock();
+                }
+            });
+        }
+    }
+
+    /**
+     * IDs com o número (normalizado) ou, com prefix, iniciado por ele; em ordem de número e de ID.
+     *
+     * @return vazio enquanto o índice não está pronto
+     */
+    public Optional<long[]> find(String digits, boolean prefix, int limit) {
+        if (!loaded) {
+            return Optional.empty();
+        }
+        lock.readLock().lock();
+        try {
+            return Optional.of(trie.find(digits, prefix, limit));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Pares (número, ID) indexados.
+     */
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return trie.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int nodeCount() {
+        lock.readLock().lock();
+        try {
+            return trie.nodeCount();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Usado pela carga inicial: grava na hora, sem esperar transação.
+     */
+    void put(long id, String digits) {
+        lock.writeLock().lock();
+        try {
+            trie.put(digits, id);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    void markLoaded() {
+        loaded = true;
+    }
+
+    private static void afterCommit(Runnable change) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    change.run();
+                }
+            });
+        } else {
+            change.run();
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package com.example.usersapi.phone;
+
+import com.example.usersapi.repository.UserCacheInvalidator;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Carga inicial do PhoneIndex, quando a aplicação fica pronta.
+ *
+ * Lê os telefones em uma passada por tabela users: a do banco principal ou, com
+ * users.sharding.enabled, a de cada shard, uma depois da outra (os IDs são únicos entre
+ * os shards, então todos vão para a mesma trie). Linhas gravadas antes da coluna phone_digits
+ * existir (data.sql, snapshot do seed, bancos migrados pela V4) ainda não têm o telefone
+ * normalizado: ele é calculado e gravado aqui, em lotes, para a busca pela coluna também as
+ * encontrar.
+ *
+ * Criado em config.PhoneIndexConfig.
+ */
+@Slf4j
+public class PhoneIndexLoader implements ApplicationListener<ApplicationReadyEvent> {
+
+    private static final String SELECT_SQL = "SELECT id, phone, phone_digits FROM users WHERE phone IS NOT NULL";
+    private static final String BACKFILL_SQL = "UPDATE users SET phone_digits = ? WHERE id = ?";
+    private static final int BACKFILL_BATCH = 1000;
+
+    private final PhoneIndex phoneIndex;
+    private final List<JdbcTemplate> databases;
+    private final UserCacheInvalidator userCacheInvalidator;
+
+    /**
+     * @param databases bancos com a tabela users (o principal ou cada um dos shards)
+     */
+    public PhoneIndexLoader(PhoneIndex phoneIndex, List<JdbcTemplate> databases,
+                            UserCacheInvalidator userCacheInvalidator) {
+        this.phoneIndex = phoneIndex;
+        this.databases = List.copyOf(databases);
+        this.userCacheInvalidator = userCacheInvalidator;
+    }
+
+    @Override
+    public void onApplicationEvent(ApplicationReadyEvent event) {
+        load();
+    }
+
+    /**
+     * Lê as tabelas, completa phone_digits onde faltar e marca o índice como pronto.
+     */
+    public void load() {
+        long start = System.nanoTime();
+        long[] backfilled = {0};
+        for (JdbcTemplate database : databases) {
+            List<Object[]> backfill = new ArrayList<>();
+            database.query(SELECT_SQL, rs -> {
+                long id = rs.getLong("id");
+                String digits = rs.getString("phone_digits");
+                if (digits == null) {
+                    digits = PhoneNumbers.normalize(rs.getString("phone"));
+                    if (digits == null) {
+                        return;  // Telefone sem nenhum dígito
+                    }
+                    backfill.add(new Object[]{digits, id});
+                    if (backfill.size() == BACKFILL_BATCH) {
+                        backfilled[0] += backfill(database, backfill);
+                    }
+                }
+                phoneIndex.put(id, digits);
+            });
+            backfilled[0] += backfill(database, backfill);
+        }
+        phoneIndex.markLoaded();
+        log.info("Índice de telefones pronto em {} ms: {} números, {} nós, {} linhas com phone_digits preenchido agora",
+                (System.nanoTime() - start) / 1_000_000, phoneIndex.size(), phoneIndex.nodeCount(), backfilled[0]);
+    }
+
+    private int backfill(JdbcTemplate database, List<Object[]> rows) {
+        if (rows.isEmpty()) {
+            return 0;
+        }
+        database.batchUpdate(BACKFILL_SQL, rows);
+        userCacheInvalidator.usersWritten("phone-backfill", rows.stream().map(row -> (Long) row[1]).toList());
+        int count = rows.size();
+        rows.clear();
+        return count;
+    }
+}
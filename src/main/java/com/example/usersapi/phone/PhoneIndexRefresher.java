@@ -0,0 +1,48 @@
+package com.example.usersapi.phone;
+
+import com.example.usersapi.invalidation.InvalidationListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+
+import java.util.Collection;
+import java.util.Collections;
+
+/**
+ * Mantém o PhoneIndex em dia com as gravações de outras instâncias (InvalidationBus).
+ *
+ * O aviso só traz IDs: o telefone atual de cada um é lido do banco (uma consulta por
+ * mensagem) e indexado. A entrada do telefone anterior fica na trie e é descartada nas
+ * buscas, como as demais entradas antigas.
+ */
+public class PhoneIndexRefresher implements InvalidationListener {
+
+    private final PhoneIndex phoneIndex;
+    private final PhoneIndexLoader phoneIndexLoader;
+    private final JdbcTemplate jdbcTemplate;
+
+    public PhoneIndexRefresher(PhoneIndex phoneIndex, PhoneIndexLoader phoneIndexLoader, JdbcTemplate jdbcTemplate) {
+        this.phoneIndex = phoneIndex;
+        this.phoneIndexLoader = phoneIndexLoader;
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public void invalidate(Collection<Long> ids) {
+        if (ids.isEmpty() || !phoneIndex.isLoaded()) {
+            return;  // Ainda carregando: a carga inicial lê o estado atual
+        }
+        String placeholders = String.join(", ", Collections.nCopies(ids.size(), "?"));
+        jdbcTemplate.query("SELECT id, phone FROM users WHERE phone IS NOT NULL AND id IN (" + placeholders + ")",
+                (RowCallbackHandler) rs -> phoneIndex.add(rs.getLong("id"), rs.getString("phone")), ids.toArray());
+    }
+
+    /**
+     * Avisos perdidos: relê a tabela inteira (entradas já indexadas são mantidas).
+     */
+    @Override
+    public void invalidateAll() {
+        if (phoneIndex.isLoaded()) {
+            phoneIndexLoader.load();
+        }
+    }
+}
@@ -0,0 +1,98 @@
+package com.example.usersapi.phone;
+
+/**
+ * Normalização de telefones para a busca (coluna phone_digits e PhoneIndex).
+ *
+ * O telefone continua gravado como o cliente enviou; a forma normalizada são só os dígitos
+ * no formato E.164 (sem o "+"), ex.: "(11) 99999-9999" -> "5511999999999".
+ * - com "+" ou "00" na frente: já é internacional, ficam os dígitos
+ * - senão, sem o 0 de discagem de longa distância; com 10 ou 11 dígitos (DDD + número),
+ *   recebe o código do Brasil (55)
+ * - demais formatos (ex.: sem DDD): só os dígitos, sem código de país
+ */
+public final class PhoneNumbers {
+
+    /**
+     * Código de país dos números nacionais (os dados da aplicação são brasileiros).
+     */
+    public static final String DEFAULT_COUNTRY_CODE = "55";
+
+    /**
+     * Maior número E.164 (15 dígitos); é também o tamanho da coluna phone_digits.
+     */
+    public static final int MAX_DIGITS = 15;
+
+    private PhoneNumbers() {
+    }
+
+    /**
+     * Forma normalizada do telefone gravado.
+     *
+     * @return dígitos E.164, ou null sem telefone (ou sem nenhum dígito nele)
+     */
+    public static String normalize(String phone) {
+        if (phone == null) {
+            return null;
+        }
+        String trimmed = phone.strip();
+        String digits = digits(trimmed);
+        if (digits.isEmpty()) {
+            return null;
+        }
+        String normalized;
+        if (trimmed.startsWith("+")) {
+            normalized = digits;
+        } else if (digits.startsWith("00")) {
+            normalized = digits.substring(2);
+        } else {
+            String national = digits.startsWith("0") ? digits.substring(1) : digits;
+            normalized = national.length() == 10 || national.length() == 11 ? DEFAULT_COUNTRY_CODE + national : national;
+        }
+        return normalized.length() > MAX_DIGITS ? normalized.substring(0, MAX_DIGITS) : normalized;
+    }
+
+    /**
+     * Início de número para a busca por prefixo: nacional (começando pelo DDD) ou
+     * internacional com "+" / "00".
+     *
+     * @throws IllegalArgumentException sem nenhum dígito
+     */
+    public static String prefix(String phone) {
+        String trimmed = phone.strip();
+        String digits = digits(trimmed);
+        if (digits.isEmpty()) {
+            throw new IllegalArgumentException("Telefone sem dígitos: " + phone);
+        }
+        if (trimmed.startsWith("+")) {
+            return digits;
+        }
+        if (digits.startsWith("00")) {
+            return digits.substring(2);
+        }
+        return DEFAULT_COUNTRY_CODE + (digits.startsWith("0") ? digits.substring(1) : digits);
+    }
+
+    /**
+     * Número completo para a busca exata: mesma normalização da gravação.
+     *
+     * @throws IllegalArgumentException sem nenhum dígito
+     */
+    public static String exact(String phone) {
+        String normalized = normalize(phone);
+        if (normalized == null) {
+            throw new IllegalArgumentException("Telefone sem dígitos: " + phone);
+        }
+        return normalized;
+    }
+
+    private static String digits(String phone) {
+        StringBuilder digits = new StringBuilder(phone.length());
+        for (int i = 0; i < phone.length(); i++) {
+            char c = phone.charAt(i);
+            if (c >= '0' && c <= '9') {
+                digits.append(c);
+            }
+        }
+        return digits.toString();
+    }
+}
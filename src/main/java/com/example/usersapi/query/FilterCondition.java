@@ -0,0 +1,25 @@
+package com.example.usersapi.query;
+
+/**
+ * Um predicado do filtro, ex.: age>=18 vira (AGE, GREATER_OR_EQUAL, 18).
+ * 
+ * @param field campo filtrado
+ * @param operator operador
+ * @param value valor já convertido para o tipo do campo
+ */
+public record FilterCondition(UserField field, FilterOperator operator, Object value) {
+
+    /**
+     * Indica se o predicado pode ser resolvido por busca em índice.
+     */
+    public boolean usesIndex() {
+        return field.isIndexed() && operator.isSargable();
+    }
+
+    /**
+     * Indica se o predicado encontra no máximo um usuário (igualdade em coluna única).
+     */
+    public boolean isUniqueLookup() {
+        return field.isUnique() && operator == FilterOperator.EQUAL;
+    }
+}
@@ -0,0 +1,56 @@
+package com.example.usersapi.query;
+
+/**
+ * Operadores aceitos na linguagem de filtro.
+ * 
+ * Operadores "sargable" podem ser resolvidos por busca em índice
+ * (igualdade, faixa e prefixo). Os demais (!= e ~) só filtram linhas
+ * já encontradas por outro predicado, nunca são caminho de acesso.
+ * 
+ * A ordem das constantes importa: operadores de dois caracteres
+ * vêm antes para que ">=" não seja lido como ">".
+ */
+public enum FilterOperator {
+
+    GREATER_OR_EQUAL(">=", ">= ?", true, false),
+    LESS_OR_EQUAL("<=", "<= ?", true, false),
+    NOT_EQUAL("!=", "<> ?", false, false),
+    EQUAL("=", "= ?", true, false),
+    GREATER(">", "> ?", true, false),
+    LESS("<", "< ?", true, false),
+    // Prefixo (sensível a maiúsculas): LIKE 'abc%' pode usar o índice
+    STARTS_WITH("^", "LIKE ? ESCAPE '\\'", true, true),
+    // Contém (ignora maiúsculas): LIKE '%abc%' exige ler todas as linhas candidatas
+    CONTAINS("~", "LIKE ? ESCAPE '\\'", false, true);
+
+    private final String symbol;
+    private final String sql;
+    private final boolean sargable;
+    private final boolean textOnly;
+
+    FilterOperator(String symbol, String sql, boolean sargable, boolean textOnly) {
+        this.symbol = symbol;
+        this.sql = sql;
+        this.sargable = sargable;
+        this.textOnly = textOnly;
+    }
+
+    public String symbol() {
+        return symbol;
+    }
+
+    /**
+     * Trecho SQL aplicado após a coluna, com um único parâmetro posicional.
+     */
+    public String sql() {
+        return sql;
+    }
+
+    public boolean isSargable() {
+        return sargable;
+    }
+
+    public boolean isTextOnly() {
+        return textOnly;
+    }
+}
@@ -0,0 +1,78 @@
+package com.example.usersapi.query;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+
+/**
+ * Codifica e decodifica o cursor opaco da paginação por keyset.
+ * 
+ * O cursor guarda a ordenação usada e os valores das colunas de ordenação
+ * da última linha entregue. Cada valor é gravado como "tamanho:texto",
+ * então nomes com qualquer caractere são preservados.
+ * O resultado é codificado em Base64 URL-safe para trafegar na query string.
+ */
+public final class KeysetCursor {
+
+    private KeysetCursor() {
+    }
+
+    /**
+     * Gera o cursor a partir dos valores da última linha da página.
+     */
+    public static String encode(List<SortKey> order, List<Object> values) {
+        StringBuilder raw = new StringBuilder();
+        append(raw, order.toString());
+        for (Object value : values) {
+            append(raw, String.valueOf(value));
+        }
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(raw.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Lê os valores do cursor, convertidos para os tipos das colunas de ordenação.
+     * 
+     * @throws IllegalArgumentException se o cursor for inválido ou de outra ordenação
+     */
+    public static List<Object> decode(List<SortKey> order, String cursor) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            List<String> parts = split(raw);
+            if (parts.size() != order.size() + 1 || !parts.get(0).equals(order.toString())) {
+                throw new IllegalArgumentException("Cursor não corresponde à ordenação informada");
+            }
+            List<Object> values = new ArrayList<>(order.size());
+            for (int i = 0; i < order.size(); i++) {
+                values.add(order.get(i).field().parse(parts.get(i + 1)));
+            }
+            return values;
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Cursor inválido: " + e.getMessage());
+        }
+    }
+
+    private static void append(StringBuilder raw, String value) {
+        raw.append(value.length()).append(':').append(value);
+    }
+
+    private static List<String> split(String raw) {
+        List<String> parts = new ArrayList<>();
+        int position = 0;
+        while (position < raw.length()) {
+            int separator = raw.indexOf(':', position);
+            if (separator < 0) {
+                throw new IllegalArgumentException("formato desconhecido");
+            }
+            int length = Integer.parseInt(raw.substring(position, separator));
+            int end = separator + 1 + length;
+            if (length < 0 || end > raw.length()) {
+                throw new IllegalArgumentException("formato desconhecido");
+            }
+            parts.add(raw.substring(separator + 1, end));
+            position = end;
+        }
+        return parts;
+    }
+}
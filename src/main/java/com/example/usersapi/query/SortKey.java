@@ -0,0 +1,27 @@
+package com.example.usersapi.query;
+
+/**
+ * Uma chave de ordenação, ex.: -createdAt vira (CREATED_AT, descending = true).
+ * 
+ * @param field campo ordenado
+ * @param descending true para ordem decrescente
+ */
+public record SortKey(UserField field, boolean descending) {
+
+    public static SortKey asc(UserField field) {
+        return new SortKey(field, false);
+    }
+
+    public static SortKey desc(UserField field) {
+        return new SortKey(field, true);
+    }
+
+    public SortKey reversed() {
+        return new SortKey(field, !descending);
+    }
+
+    @Override
+    public String toString() {
+        return (descending ? "-" : "") + field.apiName();
+    }
+}
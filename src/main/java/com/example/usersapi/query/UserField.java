@@ -0,0 +1,115 @@
+package com.example.usersapi.query;
+
+import com.example.usersapi.model.User;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Arrays;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Campos de User que podem ser usados em filtros e ordenações (whitelist).
+ * 
+ * Cada campo conhece o nome exposto na API, a coluna no banco, o tipo do valor
+ * e se existe índice que permita usá-lo como caminho de acesso ou de ordenação.
+ * Campos fora desta lista (ex.: phone) são recusados pelo parser.
+ */
+public enum UserField {
+
+    ID("id", "id", Long.class, true, true, true, User::getId),
+    NAME("name", "name", String.class, true, true, false, User::getName),
+    EMAIL("email", "email", String.class, true, true, true, User::getEmail),
+    // age aceita nulos: só entra na ordenação (keyset) com um filtro indexável por age, que exclui os nulos
+    AGE("age", "age", Integer.class, true, false, false, User::getAge),
+    CREATED_AT("createdAt", "created_at", LocalDateTime.class, true, true, false, User::getCreatedAt),
+    // updated_at não tem índice: só pode aparecer como filtro residual
+    UPDATED_AT("updatedAt", "updated_at", LocalDateTime.class, false, false, false, User::getUpdatedAt);
+
+    private final String apiName;
+    private final String column;
+    private final Class<?> type;
+    private final boolean indexed;
+    private final boolean sortable;
+    private final boolean unique;
+    private final Function<User, Object> accessor;
+
+    UserField(String apiName, String column, Class<?> type, boolean indexed,
+              boolean sortable, boolean unique, Function<User, Object> accessor) {
+        this.apiName = apiName;
+        this.column = column;
+        this.type = type;
+        this.indexed = indexed;
+        this.sortable = sortable;
+        this.unique = unique;
+        this.accessor = accessor;
+    }
+
+    public String apiName() {
+        return apiName;
+    }
+
+    public String column() {
+        return column;
+    }
+
+    public boolean isIndexed() {
+        return indexed;
+    }
+
+    public boolean isSortable() {
+        return sortable;
+    }
+
+    public boolean isUnique() {
+        return unique;
+    }
+
+    public boolean isText() {
+        return type == String.class;
+    }
+
+    /**
+     * Lê o valor do campo em um usuário (usado para montar o cursor da próxima página).
+     */
+    public Object read(User user) {
+        return accessor.apply(user);
+    }
+
+    /**
+     * Converte o texto recebido na URL para o tipo do campo.
+     * 
+     * @throws IllegalArgumentException se o valor não for compatível com o tipo
+     */
+    public Object parse(String raw) {
+        try {
+            if (type == Long.class) {
+                return Long.valueOf(raw);
+            }
+            if (type == Integer.class) {
+                return Integer.valueOf(raw);
+            }
+            if (type == LocalDateTime.class) {
+                return LocalDateTime.parse(raw);
+            }
+            return raw;
+        } catch (NumberFormatException | DateTimeParseException e) {
+            throw new IllegalArgumentException("Valor inválido para o campo " + apiName + ": " + raw);
+        }
+    }
+
+    /**
+     * Busca o campo pelo nome usado na API.
+     * 
+     * @throws IllegalArgumentException se o campo não estiver na whitelist
+     */
+    public static UserField fromApiName(String name) {
+        for (UserField field : values()) {
+            if (field.apiName.equals(name)) {
+                return field;
+            }
+        }
+        throw new IllegalArgumentException("Campo não permitido: " + name + ". Campos aceitos: "
+                + Arrays.stream(values()).map(UserField::apiName).collect(Collectors.joining(", ")));
+    }
+}
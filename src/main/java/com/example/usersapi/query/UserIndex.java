@@ -0,0 +1,102 @@
+package com.example.usersapi.query;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import static com.example.usersapi.query.SortKey.asc;
+import static com.example.usersapi.query.SortKey.desc;
+
+/**
+ * Índices da tabela users que podem entregar linhas já ordenadas.
+ * 
+ * Deve ser mantido em sincronia com os @Index declarados na entidade User.
+ * Um índice pode ser percorrido nos dois sentidos, então cada um atende
+ * tanto a sua ordem declarada quanto a ordem totalmente invertida.
+ */
+public enum UserIndex {
+
+    PRIMARY_KEY(List.of(asc(UserField.ID))),
+    NAME(List.of(asc(UserField.NAME), asc(UserField.ID))),
+    AGE(List.of(asc(UserField.AGE), asc(UserField.ID))),
+    EMAIL(List.of(asc(UserField.EMAIL))),
+    CREATED_AT_NAME(List.of(desc(UserField.CREATED_AT), asc(UserField.NAME), asc(UserField.ID)));
+
+    private final List<SortKey> keys;
+
+    UserIndex(List<SortKey> keys) {
+        this.keys = keys;
+    }
+
+    /**
+     * Resolve a ordenação pedida para uma ordem total (sem empates) atendida por um índice.
+     * 
+     * A ordem pedida precisa ser um prefixo das colunas de algum índice, no sentido
+     * declarado ou no inverso. As colunas restantes do índice são acrescentadas até
+     * uma coluna única, o que garante que o cursor da paginação seja determinístico.
+     * 
+     * @param requested ordenação pedida (vazia = por ID)
+     * @return ordem total, ou vazio se nenhum índice atende
+     */
+    public static Optional<List<SortKey>> resolveOrder(List<SortKey> requested) {
+        if (requested.isEmpty()) {
+            return Optional.of(PRIMARY_KEY.keys);
+        }
+        for (UserIndex index : values()) {
+            for (boolean reversed : new boolean[]{false, true}) {
+                List<SortKey> indexKeys = reversed ? reverse(index.keys) : index.keys;
+                if (isPrefix(requested, indexKeys)) {
+                    return Optional.of(untilUnique(indexKeys));
+                }
+            }
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * Ordem total do índice que começa pelo campo, no sentido declarado.
+     * 
+     * @param field primeira coluna do índice
+     * @return ordem total, ou vazio se nenhum índice começa pelo campo
+     */
+    public static Optional<List<SortKey>> leadingWith(UserField field) {
+        for (UserIndex index : values()) {
+            if (index.keys.get(0).field() == field) {
+                return Optional.of(untilUnique(index.keys));
+            }
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * Ordenações aceitas, para a mensagem de erro.
+     */
+    public static List<String> supportedOrders() {
+        List<String> orders = new ArrayList<>();
+        for (UserIndex index : values()) {
+            orders.add(format(untilUnique(index.keys)));
+        }
+        return orders;
+    }
+
+    private static boolean isPrefix(List<SortKey> prefix, List<SortKey> keys) {
+        return prefix.size() <= keys.size() && keys.subList(0, prefix.size()).equals(prefix);
+    }
+
+    private static List<SortKey> untilUnique(List<SortKey> keys) {
+        for (int i = 0; i < keys.size(); i++) {
+            if (keys.get(i).field().isUnique()) {
+                return keys.subList(0, i + 1);
+            }
+        }
+        return keys;
+    }
+
+    private static List<SortKey> reverse(List<SortKey> keys) {
+        return keys.stream().map(SortKey::reversed).toList();
+    }
+
+    private static String format(List<SortKey> keys) {
+        return String.join(",", keys.stream().map(SortKey::toString).toList());
+    }
+}
@@ -0,0 +1,28 @@
+package com.example.usersapi.query;
+
+import java.util.List;
+
+/**
+ * Consulta de usuários já validada (AST da linguagem de filtro e ordenação).
+ * 
+ * @param filters predicados combinados com AND
+ * @param order ordem total resolvida por um índice (sempre termina em coluna única)
+ * @param limit tamanho da página
+ * @param after valores das colunas de ordenação da última linha da página anterior
+ *              (nulo na primeira página)
+ */
+public record UserQuery(List<FilterCondition> filters, List<SortKey> order, int limit, List<Object> after) {
+
+    /**
+     * Chave que identifica o formato da consulta, independente dos valores.
+     * Consultas com a mesma chave compartilham o mesmo SQL compilado.
+     */
+    public String shape() {
+        StringBuilder shape = new StringBuilder();
+        for (FilterCondition filter : filters) {
+            shape.append(filter.field().apiName()).append(filter.operator().symbol()).append(';');
+        }
+        shape.append('|').append(order).append('|').append(after != null);
+        return shape.toString();
+    }
+}
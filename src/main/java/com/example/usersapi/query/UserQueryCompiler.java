@@ -0,0 +1,147 @@
+package com.example.usersapi.query;
+
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Compila uma UserQuery em SQL parametrizado.
+ * 
+ * O texto SQL depende apenas do formato da consulta (campos, operadores, ordenação
+ * e presença de cursor), nunca dos valores, que vão como parâmetros posicionais.
+ * Por isso o SQL é guardado em cache por formato: consultas repetidas não montam
+ * strings de novo e o banco reaproveita o plano de execução do mesmo comando.
+ * 
+ * A paginação é por keyset: em vez de OFFSET, a próxima página começa logo após
+ * os valores da última linha entregue, seguindo o índice sem reler linhas anteriores.
+ */
+@Component
+public class UserQueryCompiler {
+
+    public static final String COLUMNS = "id, name, email, age, phone, created_at, updated_at";
+    private static final int MAX_CACHED_SHAPES = 1024;
+
+    private final Map<String, String> sqlByShape = new ConcurrentHashMap<>();
+
+    /**
+     * SQL compilado junto com os valores dos parâmetros, na ordem dos "?".
+     */
+    public record SqlQuery(String sql, List<Object> parameters) {
+    }
+
+    /**
+     * Compila a consulta. O SQL é buscado no cache; só os parâmetros são montados por chamada.
+     * Uma linha além do limite é pedida para saber se existe próxima página.
+     */
+    public SqlQuery compile(UserQuery query) {
+        return compile(query, COLUMNS);
+    }
+
+    /**
+     * Compila a consulta selecionando apenas as colunas informadas (usado por ?fields=).
+     * 
+     * @param query consulta validada
+     * @param columns lista de colunas do SELECT, ex.: "id, name"
+     */
+    public SqlQuery compile(UserQuery query, String columns) {
+        String shape = columns + '|' + query.shape();
+        String sql = sqlByShape.get(shape);
+        if (sql == null) {
+            sql = buildSql(query, columns);
+            // O número de formatos é finito, mas o limite evita crescimento sem controle
+            if (sqlByShape.size() < MAX_CACHED_SHAPES) {
+                sqlByShape.put(shape, sql);
+            }
+        }
+        return new SqlQuery(sql, bindParameters(query));
+    }
+
+    /**
+     * Quantidade de formatos em cache (usado em testes e diagnóstico).
+     */
+    public int cachedShapes() {
+        return sqlByShape.size();
+    }
+
+    private String buildSql(UserQuery query, String columns) {
+        List<String> conditions = new ArrayList<>();
+        for (FilterCondition filter : query.filters()) {
+            String column = filter.operator() == FilterOperator.CONTAINS
+                    ? "LOWER(" + filter.field().column() + ")"
+                    : filter.field().column();
+            conditions.add(column + " " + filter.operator().sql());
+        }
+        if (query.after() != null) {
+            conditions.add(keysetCondition(query.order()));
+        }
+
+        StringBuilder sql = new StringBuilder("SELECT ").append(columns).append(" FROM users");
+        if (!conditions.isEmpty()) {
+            sql.append(" WHERE ").append(String.join(" AND ", conditions));
+        }
+        sql.append(" ORDER BY ");
+        List<String> orderBy = new ArrayList<>();
+        for (SortKey key : query.order()) {
+            orderBy.add(key.field().column() + (key.descending() ? " DESC" : " ASC"));
+        }
+        sql.append(String.join(", ", orderBy)).append(" LIMIT ?");
+        return sql.toString();
+    }
+
+    /**
+     * Predicado "depois da última linha" para uma ordenação (a, b, c):
+     * a >= ? AND (a > ? OR (a = ? AND b > ?) OR (a = ? AND b = ? AND c > ?))
+     * 
+     * A primeira parte (a >= ?) é redundante, mas dá ao otimizador um limite
+     * de faixa na coluna líder do índice. Com "<" no lugar de ">" para colunas DESC.
+     */
+    private String keysetCondition(List<SortKey> order) {
+        SortKey leading = order.get(0);
+        StringBuilder condition = new StringBuilder()
+                .append(leading.field().column()).append(leading.descending() ? " <= ?" : " >= ?")
+                .append(" AND (");
+        for (int i = 0; i < order.size(); i++) {
+            if (i > 0) {
+                condition.append(" OR ");
+            }
+            condition.append('(');
+            for (int j = 0; j < i; j++) {
+                condition.append(order.get(j).field().column()).append(" = ? AND ");
+            }
+            SortKey key = order.get(i);
+            condition.append(key.field().column()).append(key.descending() ? " < ?" : " > ?");
+            condition.append(')');
+        }
+        return condition.append(')').toString();
+    }
+
+    private List<Object> bindParameters(UserQuery query) {
+        List<Object> parameters = new ArrayList<>();
+        for (FilterCondition filter : query.filters()) {
+            parameters.add(switch (filter.operator()) {
+                case CONTAINS -> "%" + escapeLike(((String) filter.value()).toLowerCase(Locale.ROOT)) + "%";
+                case STARTS_WITH -> escapeLike((String) filter.value()) + "%";
+                default -> filter.value();
+            });
+        }
+        List<Object> after = query.after();
+        if (after != null) {
+            parameters.add(after.get(0));
+            for (int i = 0; i < after.size(); i++) {
+                for (int j = 0; j <= i; j++) {
+                    parameters.add(after.get(j));
+                }
+            }
+        }
+        parameters.add(query.limit() + 1);
+        return parameters;
+    }
+
+    private static String escapeLike(String value) {
+        return value.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+}
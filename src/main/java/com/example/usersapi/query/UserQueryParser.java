@@ -0,0 +1,150 @@
+package com.example.usersapi.query;
+
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Converte os parâmetros filter, sort, limit e cursor de GET /users em uma UserQuery.
+ * 
+ * Sintaxe:
+ * - filter: predicados separados por ";" (AND), ex.: age>=18;name~sil
+ *   operadores: = != > >= < <= ^ (começa com) ~ (contém, ignora maiúsculas)
+ * - sort: campos separados por "," com "-" para decrescente, ex.: -createdAt,name
+ * 
+ * Além da sintaxe, valida se a consulta pode ser atendida por índice:
+ * - a ordenação precisa corresponder a um índice (UserIndex)
+ * - um filtro precisa ter ao menos um predicado de índice (igualdade, faixa ou prefixo
+ *   sobre coluna indexada); filtros só com != ou ~ exigiriam ler a tabela inteira
+ * - esse predicado precisa estar na primeira coluna do índice da ordenação: o banco percorre
+ *   o índice só na faixa filtrada e já na ordem pedida. Com age>=18&sort=name, o índice de
+ *   name teria de ser lido inteiro (ou o de age, e tudo ordenado depois) para montar uma página.
+ *   A exceção é igualdade em coluna única (id=, email=), que acha no máximo um usuário
+ * Sem sort, um filtro usa a ordem do índice da coluna filtrada (ex.: age>=18 ordena por age,id).
+ * Consultas que varreriam a tabela são recusadas com IllegalArgumentException (400).
+ */
+@Component
+public class UserQueryParser {
+
+    public static final int DEFAULT_LIMIT = 50;
+    public static final int MAX_LIMIT = 1000;
+    static final int MAX_FILTERS = 8;
+
+    private static final Pattern TERM = Pattern.compile("^([A-Za-z]+)(>=|<=|!=|=|>|<|\\^|~)(.+)$");
+
+    /**
+     * Monta e valida a consulta.
+     * 
+     * @param filter expressão de filtro (opcional)
+     * @param sort expressão de ordenação (opcional)
+     * @param limit tamanho da página (opcional)
+     * @param cursor cursor devolvido pela página anterior (opcional)
+     * @return consulta validada
+     * @throws IllegalArgumentException se a consulta for inválida ou exigir varredura da tabela
+     */
+    public UserQuery parse(String filter, String sort, Integer limit, String cursor) {
+        List<FilterCondition> filters = parseFilter(filter);
+        List<SortKey> requestedOrder = parseSort(sort, filters);
+
+        if (!filters.isEmpty() && filters.stream().noneMatch(FilterCondition::usesIndex)) {
+            throw new IllegalArgumentException("Filtro '" + filter + "' exigiria varrer a tabela inteira. "
+                    + "Inclua um predicado =, >, >=, <, <= ou ^ sobre um campo indexado "
+                    + "(id, name, email, age, createdAt)");
+        }
+
+        List<SortKey> order = (requestedOrder.isEmpty() ? defaultOrder(filters) : UserIndex.resolveOrder(requestedOrder))
+                .orElseThrow(() -> new IllegalArgumentException("Ordenação '" + sort
+                        + "' não é atendida por nenhum índice. Ordenações aceitas (ou suas inversas): "
+                        + String.join(" | ", UserIndex.supportedOrders())));
+
+        UserField leading = order.get(0).field();
+        if (!filters.isEmpty() && filters.stream().noneMatch(FilterCondition::isUniqueLookup)
+                && filters.stream().noneMatch(condition -> condition.usesIndex() && condition.field() == leading)) {
+            throw new IllegalArgumentException("Filtro '" + filter + "' não é atendido pelo índice da ordenação '"
+                    + (sort == null || sort.isBlank() ? leading.apiName() : sort) + "', que começa por "
+                    + leading.apiName() + ". Filtre " + leading.apiName()
+                    + " com =, >, >=, <, <= ou ^, ou ordene pelo campo filtrado");
+        }
+
+        int pageSize = limit == null ? DEFAULT_LIMIT : limit;
+        if (pageSize < 1 || pageSize > MAX_LIMIT) {
+            throw new IllegalArgumentException("limit deve estar entre 1 e " + MAX_LIMIT);
+        }
+
+        List<Object> after = cursor == null || cursor.isBlank() ? null : KeysetCursor.decode(order, cursor);
+        return new UserQuery(filters, order, pageSize, after);
+    }
+
+    private List<FilterCondition> parseFilter(String filter) {
+        List<FilterCondition> filters = new ArrayList<>();
+        if (filter == null || filter.isBlank()) {
+            return filters;
+        }
+        for (String term : filter.split(";")) {
+            if (term.isBlank()) {
+                continue;
+            }
+            Matcher matcher = TERM.matcher(term.trim());
+            if (!matcher.matches()) {
+                throw new IllegalArgumentException("Predicado de filtro inválido: " + term);
+            }
+            UserField field = UserField.fromApiName(matcher.group(1));
+            FilterOperator operator = operatorFor(matcher.group(2));
+            if (operator.isTextOnly() && !field.isText()) {
+                throw new IllegalArgumentException("Operador " + operator.symbol()
+                        + " só pode ser usado em campos de texto: " + term);
+            }
+            filters.add(new FilterCondition(field, operator, field.parse(matcher.group(3))));
+        }
+        if (filters.size() > MAX_FILTERS) {
+            throw new IllegalArgumentException("Máximo de " + MAX_FILTERS + " predicados por filtro");
+        }
+        return filters;
+    }
+
+    /**
+     * Ordem usada sem sort: a do índice do primeiro predicado indexável, ou por ID.
+     */
+    private static Optional<List<SortKey>> defaultOrder(List<FilterCondition> filters) {
+        return filters.stream()
+                .filter(condition -> condition.usesIndex() && !condition.isUniqueLookup())
+                .findFirst()
+                .flatMap(condition -> UserIndex.leadingWith(condition.field()))
+                .or(() -> UserIndex.resolveOrder(List.of()));
+    }
+
+    private List<SortKey> parseSort(String sort, List<FilterCondition> filters) {
+        List<SortKey> keys = new ArrayList<>();
+        if (sort == null || sort.isBlank()) {
+            return keys;
+        }
+        for (String item : sort.split(",")) {
+            String name = item.trim();
+            boolean descending = name.startsWith("-");
+            UserField field = UserField.fromApiName(descending ? name.substring(1) : name);
+            // Um predicado indexável (comparação ou prefixo) nunca é verdadeiro para NULL
+            boolean nullsExcluded = filters.stream()
+                    .anyMatch(condition -> condition.usesIndex() && condition.field() == field);
+            if (!field.isSortable() && !(field.isIndexed() && nullsExcluded)) {
+                throw new IllegalArgumentException("Campo não pode ser usado na ordenação: " + field.apiName()
+                        + (field.isIndexed() ? " (aceita nulos: filtre " + field.apiName()
+                        + " com =, >, >=, <, <= para ordenar por ele)" : ""));
+            }
+            keys.add(new SortKey(field, descending));
+        }
+        return keys;
+    }
+
+    private static FilterOperator operatorFor(String symbol) {
+        for (FilterOperator operator : FilterOperator.values()) {
+            if (operator.symbol().equals(symbol)) {
+                return operator;
+            }
+        }
+        throw new IllegalArgumentException("Operador desconhecido: " + symbol);
+    }
+}
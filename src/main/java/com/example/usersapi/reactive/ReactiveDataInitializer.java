@@ -0,0 +1,54 @@
+package com.example.usersapi.reactive;
+
+import com.example.usersapi.config.SyntheticDataProperties;
+import com.example.usersapi.model.User;
+import com.example.usersapi.synthetic.SyntheticUserGenerator;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.publisher.Flux;
+
+/**
+ * Completa os dados iniciais da variante reativa antes de o servidor aceitar requisições:
+ * - phone_digits das linhas do data.sql (na API Spring MVC, feito pelo phone.PhoneIndexLoader)
+ * - com users.synthetic.enabled, os mesmos usuários sintéticos da API Spring MVC (mesma semente)
+ *
+ * Criado em ReactiveUsersApiApplication depois do esquema e do data.sql. Bloquear aqui não
+ * prende o servidor: a inicialização roda na thread main, antes de o Netty subir.
+ */
+@Slf4j
+public class ReactiveDataInitializer {
+
+    private final ReactiveUserRepository userRepository;
+    private final SyntheticDataProperties synthetic;
+
+    public ReactiveDataInitializer(ReactiveUserRepository userRepository, SyntheticDataProperties synthetic) {
+        this.userRepository = userRepository;
+        this.synthetic = synthetic;
+    }
+
+    @PostConstruct
+    public void load() {
+        Long backfilled = userRepository.backfillPhoneDigits().block();
+        log.info("Telefone normalizado preenchido em {} usuários", backfilled);
+
+        if (!synthetic.isEnabled()) {
+            return;
+        }
+        SyntheticUserGenerator generator = new SyntheticUserGenerator(synthetic.getSeed());
+        if (userRepository.findByEmail(generator.user(0).email()).hasElement().block()) {
+            log.info("Usuários sintéticos da semente {} já estão no banco, carga ignorada", synthetic.getSeed());
+            return;
+        }
+        log.info("Gerando {} usuários sintéticos (semente {})", synthetic.getUsers(), synthetic.getSeed());
+        long start = System.nanoTime();
+        Flux<User> users = Flux.fromStream(() -> generator.users(synthetic.getUsers()))
+                .map(user -> {
+                    User row = new User(user.name(), user.email(), user.age(), user.phone());
+                    row.setCreatedAt(user.createdAt());
+                    row.setUpdatedAt(user.updatedAt());
+                    return row;
+                });
+        Long loaded = userRepository.insertAll(users, synthetic.getBatchSize()).block();
+        log.info("{} usuários sintéticos gravados em {} ms", loaded, (System.nanoTime() - start) / 1_000_000);
+    }
+}
@@ -0,0 +1,81 @@
+package com.example.usersapi.reactive;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.ResponseEntity;
+import org.springframework.validation.FieldError;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.bind.support.WebExchangeBindException;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Tratamento de exceções da variante reativa, com os mesmos corpos de erro de
+ * controller.GlobalExceptionHandler.
+ *
+ * No WebFlux, @Valid falha com WebExchangeBindException (no MVC, MethodArgumentNotValidException),
+ * e os erros do próprio framework (405, 406, 415, parâmetro inválido) são ResponseStatusException
+ * com o status já definido.
+ *
+ * @ConditionalOnWebApplication(REACTIVE): na aplicação servlet, o handler de RuntimeException
+ * daqui concorreria com o do GlobalExceptionHandler
+ */
+@RestControllerAdvice
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+@Slf4j
+public class ReactiveExceptionHandler {
+
+    @ExceptionHandler(WebExchangeBindException.class)
+    public ResponseEntity<Map<String, Object>> handleValidationExceptions(WebExchangeBindException ex) {
+        log.error("Erro de validação: {}", ex.getMessage());
+
+        Map<String, String> errors = new HashMap<>();
+        ex.getBindingResult().getAllErrors().forEach(error ->
+                errors.put(((FieldError) error).getField(), error.getDefaultMessage()));
+
+        Map<String, Object> response = body(HttpStatus.BAD_REQUEST, "Validation Failed", "Dados inválidos fornecidos");
+        response.put("errors", errors);
+        return ResponseEntity.badRequest().body(response);
+    }
+
+    @ExceptionHandler(ResponseStatusException.class)
+    public ResponseEntity<Map<String, Object>> handleResponseStatusException(ResponseStatusException ex) {
+        log.error("Requisição recusada ({}): {}", ex.getStatusCode(), ex.getReason());
+        HttpStatusCode status = ex.getStatusCode();
+        HttpStatus known = HttpStatus.resolve(status.value());
+        return ResponseEntity.status(status)
+                .headers(ex.getHeaders())
+                .body(body(status, known != null ? known.getReasonPhrase() : status.toString(), ex.getReason()));
+    }
+
+    /**
+     * Email já em uso, filtro inválido, telefone sem dígitos...: 400, como na API Spring MVC.
+     */
+    @ExceptionHandler(RuntimeException.class)
+    public ResponseEntity<Map<String, Object>> handleRuntimeException(RuntimeException ex) {
+        log.error("Erro de runtime: {}", ex.getMessage());
+        return ResponseEntity.badRequest().body(body(HttpStatus.BAD_REQUEST, "Bad Request", ex.getMessage()));
+    }
+
+    @ExceptionHandler(Exception.class)
+    public ResponseEntity<Map<String, Object>> handleGenericException(Exception ex) {
+        log.error("Erro interno: {}", ex.getMessage(), ex);
+        return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                .body(body(HttpStatus.INTERNAL_SERVER_ERROR, "Internal Server Error", "Erro interno do servidor"));
+    }
+
+    private static Map<String, Object> body(HttpStatusCode status, String error, String message) {
+        Map<String, Object> response = new HashMap<>();
+        response.put("timestamp", LocalDateTime.now());
+        response.put("status", status.value());
+        response.put("error", error);
+        response.put("message", message);
+        return response;
+    }
+}
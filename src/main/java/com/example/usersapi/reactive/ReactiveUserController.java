@@ -0,0 +1,197 @@
+package com.example.usersapi.reactive;
+
+import com.example.usersapi.dto.CreateUserRequest;
+import com.example.usersapi.dto.UpdateUserRequest;
+import com.example.usersapi.dto.UpsertUserRequest;
+import com.example.usersapi.dto.UserETag;
+import com.example.usersapi.dto.UserFieldSet;
+import com.example.usersapi.dto.UserPage;
+import com.example.usersapi.query.UserQuery;
+import com.example.usersapi.query.UserQueryParser;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.Email;
+import jakarta.validation.constraints.Size;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+
+/**
+ * Controller WebFlux com o mesmo contrato de controller.UserController (docs/openapi.yaml):
+ * mesmos paths, parâmetros, códigos de resposta e corpos.
+ *
+ * GET /users sem paginação devolve um Flux: os usuários são lidos do banco em páginas e
+ * escritos na resposta conforme o cliente consome (backpressure do TCP até a leitura da
+ * próxima página), em JSON (array escrito aos poucos) ou, com Accept: application/x-ndjson,
+ * um usuário por linha.
+ * Uma conexão lenta não prende uma thread nem uma lista com a tabela inteira.
+ *
+ * Fora do contrato de /users: importação em lote (/users/import), limite de concorrência,
+ * prazo por requisição e registro de chaves quentes, que só existem na API Spring MVC.
+ *
+ * @ConditionalOnWebApplication(REACTIVE): sem ele, a aplicação servlet registraria
+ * este controller e os mesmos paths ficariam mapeados duas vezes
+ */
+@RestController
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+@RequestMapping("/users")
+@RequiredArgsConstructor
+@Slf4j
+public class ReactiveUserController {
+
+    static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+    static final int MAX_BATCH_IDS = 100;
+    static final int DEFAULT_PHONE_LIMIT = 20;
+    static final int MAX_PHONE_LIMIT = 100;
+
+    private final ReactiveUserService userService;
+    private final UserQueryParser userQueryParser;
+
+    /**
+     * GET /users - lista completa em fluxo ou, com filter/sort/limit/cursor, uma página da busca.
+     */
+    @GetMapping
+    public Mono<ResponseEntity<Flux<?>>> getAllUsers(
+            @RequestParam(required = false) String filter,
+            @RequestParam(required = false) String sort,
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) String fields) {
+
+        // Erros de sintaxe e consultas sem índice: IllegalArgumentException (400 no ReactiveExceptionHandler)
+        UserFieldSet fieldSet = fields == null ? null : UserFieldSet.parse(fields);
+
+        if (filter == null && sort == null && limit == null && cursor == null) {
+            log.info("Requisição recebida: GET /users");
+            Flux<?> users = fieldSet == null ? userService.getAllUsers() : userService.getAllUsers(fieldSet);
+            return Mono.just(ResponseEntity.ok(users));
+        }
+
+        log.info("Requisição recebida: GET /users - filter: {}, sort: {}, limit: {}", filter, sort, limit);
+        UserQuery query = userQueryParser.parse(filter, sort, limit, cursor);
+        Mono<? extends UserPage<?>> page = fieldSet == null
+                ? userService.searchUsers(query)
+                : userService.searchUsers(query, fieldSet);
+        return page.map(result -> {
+            log.info("Retornando {} usuários", result.getUsers().size());
+            ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+            if (result.getNextCursor() != null) {
+                response.header(NEXT_CURSOR_HEADER, result.getNextCursor());
+            }
+            return response.body(Flux.fromIterable(result.getUsers()));
+        });
+    }
+
+    /**
+     * GET /users/batch?ids=1,2,3 - vários usuários por ID, na ordem pedida.
+     */
+    @GetMapping("/batch")
+    public Mono<ResponseEntity<List<?>>> getUsersByIds(@RequestParam(required = false) List<Long> ids) {
+        if (ids == null || ids.isEmpty() || ids.size() > MAX_BATCH_IDS) {
+            throw new IllegalArgumentException("ids deve ter de 1 a " + MAX_BATCH_IDS + " IDs");
+        }
+        if (ids.contains(null)) {
+            throw new IllegalArgumentException("ids não pode ter posições vazias");
+        }
+        log.info("Requisição recebida: GET /users/batch - {} IDs", ids.size());
+        return userService.getUsersByIds(ids).map(ResponseEntity::ok);
+    }
+
+    /**
+     * GET /users/by-phone?phone=... - busca exata ou por prefixo no telefone normalizado.
+     */
+    @GetMapping("/by-phone")
+    public Mono<ResponseEntity<Flux<?>>> getUsersByPhone(
+            @RequestParam(required = false) String phone,
+            @RequestParam(required = false) String match,
+            @RequestParam(required = false) Integer limit) {
+
+        if (phone == null || phone.isBlank()) {
+            throw new IllegalArgumentException("phone é obrigatório");
+        }
+        boolean prefix = switch (match == null ? "exact" : match) {
+            case "exact" -> false;
+            case "prefix" -> true;
+            default -> throw new IllegalArgumentException("match deve ser exact ou prefix: " + match);
+        };
+        int max = limit == null ? DEFAULT_PHONE_LIMIT : limit;
+        if (max < 1 || max > MAX_PHONE_LIMIT) {
+            throw new IllegalArgumentException("limit deve estar entre 1 e " + MAX_PHONE_LIMIT);
+        }
+        log.info("Requisição recebida: GET /users/by-phone - busca {}", prefix ? "por prefixo" : "exata");
+        return Mono.just(ResponseEntity.ok(userService.getUsersByPhone(phone, prefix, max)));
+    }
+
+    /**
+     * GET /users/{id} - com ETag (UserETag); If-None-Match igual responde 304 sem corpo.
+     */
+    @GetMapping("/{id}")
+    public Mono<ResponseEntity<?>> getUserById(
+            @PathVariable Long id,
+            @RequestParam(required = false) String fields) {
+
+        log.info("Requisição recebida: GET /users/{}", id);
+        UserFieldSet fieldSet = fields == null ? null : UserFieldSet.parse(fields);
+
+        Mono<ResponseEntity<?>> response = fieldSet != null
+                ? userService.getUserById(id, fieldSet).map(ResponseEntity::ok)
+                // O ResponseEntityResultHandler compara o ETag com o If-None-Match e responde 304
+                : userService.getUserById(id).map(user -> ResponseEntity.ok().eTag(UserETag.of(user)).body(user));
+        return response.defaultIfEmpty(ResponseEntity.notFound().build());
+    }
+
+    /**
+     * POST /users - cria um usuário (201).
+     */
+    @PostMapping
+    public Mono<ResponseEntity<?>> createUser(@Valid @RequestBody CreateUserRequest request) {
+        log.info("Requisição recebida: POST /users - Email: {}", request.getEmail());
+        return userService.createUser(request)
+                .map(user -> ResponseEntity.status(HttpStatus.CREATED).body(user));
+    }
+
+    /**
+     * PUT /users/{id} - atualiza um usuário (404 se não existir).
+     */
+    @PutMapping("/{id}")
+    public Mono<ResponseEntity<?>> updateUser(
+            @PathVariable Long id,
+            @Valid @RequestBody UpdateUserRequest request) {
+
+        log.info("Requisição recebida: PUT /users/{} - Email: {}", id, request.getEmail());
+        return userService.updateUser(id, request)
+                .<ResponseEntity<?>>map(ResponseEntity::ok)
+                .defaultIfEmpty(ResponseEntity.notFound().build());
+    }
+
+    /**
+     * PUT /users/by-email/{email} - cria (201) ou atualiza (200) pelo email.
+     */
+    @PutMapping("/by-email/{email}")
+    public Mono<ResponseEntity<?>> upsertUserByEmail(
+            @PathVariable @Email(message = "Email deve ter um formato válido")
+            @Size(max = 150, message = "Email deve ter no máximo 150 caracteres") String email,
+            @Valid @RequestBody UpsertUserRequest request) {
+
+        log.info("Requisição recebida: PUT /users/by-email/{}", email);
+        return userService.upsertUserByEmail(email, request)
+                .map(result -> ResponseEntity.status(result.isCreated() ? HttpStatus.CREATED : HttpStatus.OK)
+                        .body(result.getUser()));
+    }
+
+    /**
+     * DELETE /users/{id} - 204, ou 404 se não existir.
+     */
+    @DeleteMapping("/{id}")
+    public Mono<ResponseEntity<Void>> deleteUser(@PathVariable Long id) {
+        log.info("Requisição recebida: DELETE /users/{}", id);
+        return userService.deleteUser(id)
+                .map(deleted -> deleted ? ResponseEntity.noContent().build() : ResponseEntity.notFound().build());
+    }
+}
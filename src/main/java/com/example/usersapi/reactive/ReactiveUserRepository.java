@@ -0,0 +1,394 @@
+package com.example.usersapi.reactive;
+
+import com.example.usersapi.dto.UserFieldSet;
+import com.example.usersapi.dto.UserResponseField;
+import com.example.usersapi.model.User;
+import com.example.usersapi.phone.PhoneNumbers;
+import com.example.usersapi.query.UserQuery;
+import com.example.usersapi.query.UserQueryCompiler;
+import com.example.usersapi.repository.UserRepositoryCustom;
+import io.r2dbc.spi.Readable;
+import io.r2dbc.spi.Statement;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.Collection;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Acesso à tabela users na variante reativa: SQL direto pelo DatabaseClient (R2DBC).
+ *
+ * A listagem completa é lida em páginas por ID (SCAN_PAGE_SIZE linhas por consulta), pedidas
+ * conforme o assinante consome (request(n)): vai para a resposta HTTP no ritmo do cliente, sem
+ * montar a lista em memória e sem prender uma conexão do pool enquanto um cliente lento lê.
+ * A busca com filtro usa o SQL do UserQueryCompiler, o mesmo da API Spring MVC, com os
+ * marcadores ? trocados pelos $1, $2... do driver R2DBC do H2.
+ *
+ * @ConditionalOnWebApplication(REACTIVE): a aplicação servlet também escaneia este pacote
+ * e não deve criar este bean
+ */
+@Repository
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+@RequiredArgsConstructor
+public class ReactiveUserRepository {
+
+    private static final String SELECT_SQL = "SELECT " + UserQueryCompiler.COLUMNS + " FROM users";
+
+    private static final String INSERT_SQL = """
+            INSERT INTO users (name, email, age, phone, phone_digits, created_at, updated_at)
+            VALUES (:name, :email, :age, :phone, :phoneDigits, :createdAt, :updatedAt)""";
+
+    private static final String UPDATE_SQL = """
+            UPDATE users SET name = :name, email = :email, age = :age, phone = :phone,
+                phone_digits = :phoneDigits, updated_at = :updatedAt
+            WHERE id = :id""";
+
+    /**
+     * Mesmo MERGE da API Spring MVC (UserRepositoryImpl): a linha gravada volta na própria instrução,
+     * com inserted (created_at = updated_at) indicando se ela foi criada.
+     */
+    private static final String UPSERT_BY_EMAIL_SQL = """
+            SELECT id, name, email, age, phone, created_at, updated_at, created_at = updated_at AS inserted
+            FROM FINAL TABLE (
+                MERGE INTO users u USING (VALUES (CAST(:email AS VARCHAR(150)))) s(email) ON u.email = s.email
+                WHEN MATCHED THEN UPDATE SET name = :name, age = :age, phone = :phone, phone_digits = :phoneDigits,
+                    updated_at = GREATEST(CAST(:now AS TIMESTAMP(6)), DATEADD(MICROSECOND, 1, u.created_at))
+                WHEN NOT MATCHED THEN INSERT (name, email, age, phone, phone_digits, created_at, updated_at)
+                    VALUES (:name, s.email, :age, :phone, :phoneDigits, :now, :now)
+            )""";
+
+    private static final String INSERT_ALL_SQL = "INSERT INTO users (name, email, age, phone, phone_digits, created_at, updated_at)"
+            + " VALUES ($1, $2, $3, $4, $5, $6, $7)";
+
+    static final int SCAN_PAGE_SIZE = 500;
+
+    private final DatabaseClient databaseClient;
+    private final UserQueryCompiler userQueryCompiler;
+
+    /**
+     * Todos os usuários, em ordem de ID, lidos conforme a demanda.
+     */
+    public Flux<User> findAll() {
+        return scanById(SELECT_SQL, ReactiveUserRepository::toUser, User::getId);
+    }
+
+    /**
+     * Todos os usuários, só com as colunas pedidas (array indexado pelo ordinal de UserResponseField).
+     * O ID é sempre lido, para a próxima página; quem serializa usa só os campos pedidos.
+     */
+    public Flux<Object[]> findAllColumns(UserFieldSet columns) {
+        UserFieldSet withId = columns.with(UserResponseField.ID);
+        return scanById("SELECT " + withId.selectColumns() + " FROM users",
+                row -> readRow(row, withId),
+                values -> (Long) values[UserResponseField.ID.ordinal()]);
+    }
+
+    /**
+     * Páginas por keyset (id > último ID lido), cada uma em uma consulta com a própria conexão.
+     *
+     * expand: a próxima página é consultada quando a anterior termina
+     * concatMapIterable(prefetch 1): no máximo uma página além da que está sendo entregue
+     */
+    private <T> Flux<T> scanById(String select, Function<Readable, T> mapper, Function<T, Long> id) {
+        return scanPage(select, mapper, 0L)
+                .expand(page -> page.size() < SCAN_PAGE_SIZE
+                        ? Mono.empty()
+                        : scanPage(select, mapper, id.apply(page.get(page.size() - 1))))
+                .concatMapIterable(page -> page, 1);
+    }
+
+    /**
+     * onBackpressureBuffer: o expand assina a próxima página logo que entrega a anterior, mas o
+     * collectList só pediria as linhas quando o cliente pedisse mais, com a conexão já tirada do
+     * pool. Assim a página é lida inteira na assinatura e a conexão volta ao pool em seguida.
+     */
+    private <T> Mono<List<T>> scanPage(String select, Function<Readable, T> mapper, long afterId) {
+        return databaseClient.sql(select + " WHERE id > :afterId ORDER BY id LIMIT :limit")
+                .bind("afterId", afterId)
+                .bind("limit", SCAN_PAGE_SIZE)
+                .map(mapper::apply)
+                .all()
+                .onBackpressureBuffer()
+                .collectList();
+    }
+
+    /**
+     * Busca com filtro e paginação por keyset (uma linha a mais que o limite, como na API Spring MVC).
+     */
+    public Flux<User> search(UserQuery query) {
+        return compiled(userQueryCompiler.compile(query))
+                .map(ReactiveUserRepository::toUser)
+                .all();
+    }
+
+    public Flux<Object[]> searchColumns(UserQuery query, UserFieldSet columns) {
+        return compiled(userQueryCompiler.compile(query, columns.selectColumns()))
+                .map(row -> readRow(row, columns))
+                .all();
+    }
+
+    public Mono<User> findById(long id) {
+        return databaseClient.sql(SELECT_SQL + " WHERE id = :id")
+                .bind("id", id)
+                .map(ReactiveUserRepository::toUser)
+                .one();
+    }
+
+    public Mono<Object[]> findColumnsById(long id, UserFieldSet columns) {
+        return databaseClient.sql("SELECT " + columns.selectColumns() + " FROM users WHERE id = :id")
+                .bind("id", id)
+                .map(row -> readRow(row, columns))
+                .one();
+    }
+
+    /**
+     * Usuários dos IDs em uma consulta (IN), em qualquer ordem.
+     */
+    public Flux<User> findAllById(Collection<Long> ids) {
+        return databaseClient.sql(SELECT_SQL + " WHERE id IN (:ids)")
+                .bind("ids", ids)
+                .map(ReactiveUserRepository::toUser)
+                .all();
+    }
+
+    public Mono<User> findByEmail(String email) {
+        return databaseClient.sql(SELECT_SQL + " WHERE email = :email")
+                .bind("email", email)
+                .map(ReactiveUserRepository::toUser)
+                .one();
+    }
+
+    /**
+     * Usuários com o telefone normalizado informado, em ordem de ID.
+     */
+    public Flux<User> findByPhoneDigits(String phoneDigits, int limit) {
+        return databaseClient.sql(SELECT_SQL + " WHERE phone_digits = :digits ORDER BY id LIMIT :limit")
+                .bind("digits", phoneDigits)
+                .bind("limit", limit)
+                .map(ReactiveUserRepository::toUser)
+                .all();
+    }
+
+    /**
+     * Usuários com telefone normalizado em [from, to), em ordem de telefone e de ID
+     * (to = prefixo + ':', ver UserRepository.findByPhoneDigitsRange).
+     */
+    public Flux<User> findByPhoneDigitsRange(String from, String to, int limit) {
+        return databaseClient.sql(SELECT_SQL + " WHERE phone_digits >= :from AND phone_digits < :to"
+                        + " ORDER BY phone_digits, id LIMIT :limit")
+                .bind("from", from)
+                .bind("to", to)
+                .bind("limit", limit)
+                .map(ReactiveUserRepository::toUser)
+                .all();
+    }
+
+    /**
+     * Insere o usuário com createdAt e updatedAt no instante atual.
+     *
+     * @return usuário com o ID gerado e as datas gravadas
+     */
+    public Mono<User> insert(User user) {
+        LocalDateTime now = now();
+        user.setCreatedAt(now);
+        user.setUpdatedAt(now);
+        return bindUser(databaseClient.sql(INSERT_SQL), user)
+                .bind("createdAt", now)
+                .filter(statement -> statement.returnGeneratedValues("id"))
+                .map(row -> row.get("id", Long.class))
+                .one()
+                .map(id -> {
+                    user.setId(id);
+                    return user;
+                });
+    }
+
+    /**
+     * Grava os dados do usuário com updatedAt no instante atual.
+     *
+     * @return usuário como ficou, ou vazio se o ID não existir mais
+     */
+    public Mono<User> update(User user) {
+        user.setUpdatedAt(now());
+        return bindUser(databaseClient.sql(UPDATE_SQL), user)
+                .bind("id", user.getId())
+                .fetch()
+                .rowsUpdated()
+                .filter(rows -> rows > 0)
+                .map(rows -> user);
+    }
+
+    /**
+     * Cria ou atualiza o usuário com o email em um MERGE.
+     */
+    public Mono<UserRepositoryCustom.Upsert> upsertByEmail(User user) {
+        // Outra transação inseriu o mesmo email entre a verificação do MERGE e o INSERT:
+        // a linha agora existe, então a segunda tentativa vira UPDATE
+        return merge(user).onErrorResume(DuplicateKeyException.class, e -> merge(user));
+    }
+
+    /**
+     * @return true se o usuário existia
+     */
+    public Mono<Boolean> deleteById(long id) {
+        return databaseClient.sql("DELETE FROM users WHERE id = :id")
+                .bind("id", id)
+                .fetch()
+                .rowsUpdated()
+                .map(rows -> rows > 0);
+    }
+
+    /**
+     * Insere usuários já com as datas definidas, batchSize linhas por comando (lote do driver).
+     *
+     * @return usuários inseridos
+     */
+    public Mono<Long> insertAll(Flux<User> users, int batchSize) {
+        return users.buffer(batchSize)
+                .concatMap(batch -> databaseClient.inConnectionMany(connection -> {
+                    Statement insert = connection.createStatement(INSERT_ALL_SQL);
+                    for (int i = 0; i < batch.size(); i++) {
+                        if (i > 0) {
+                            insert.add();
+                        }
+                        bindPositional(insert, batch.get(i));
+                    }
+                    return Flux.from(insert.execute()).flatMap(result -> Mono.from(result.getRowsUpdated()));
+                }))
+                .reduce(0L, Long::sum);
+    }
+
+    /**
+     * Preenche phone_digits das linhas gravadas sem ele (ex.: data.sql), como o
+     * phone.PhoneIndexLoader faz na API Spring MVC.
+     *
+     * @return linhas atualizadas
+     */
+    public Mono<Long> backfillPhoneDigits() {
+        return databaseClient.sql("SELECT id, phone FROM users WHERE phone IS NOT NULL AND phone_digits IS NULL")
+                .map(row -> new Object[]{row.get("id", Long.class), row.get("phone", String.class)})
+                .all()
+                .filter(row -> PhoneNumbers.normalize((String) row[1]) != null)
+                .concatMap(row -> databaseClient.sql("UPDATE users SET phone_digits = :digits WHERE id = :id")
+                        .bind("digits", PhoneNumbers.normalize((String) row[1]))
+                        .bind("id", row[0])
+                        .fetch()
+                        .rowsUpdated())
+                .reduce(0L, Long::sum);
+    }
+
+    private Mono<UserRepositoryCustom.Upsert> merge(User user) {
+        return bindUser(databaseClient.sql(UPSERT_BY_EMAIL_SQL), user)
+                .bind("now", now())
+                .map(row -> new UserRepositoryCustom.Upsert(toUser(row), row.get("inserted", Boolean.class)))
+                .one();
+    }
+
+    /**
+     * Executa o SQL do UserQueryCompiler com os parâmetros posicionais.
+     */
+    private DatabaseClient.GenericExecuteSpec compiled(UserQueryCompiler.SqlQuery sql) {
+        DatabaseClient.GenericExecuteSpec spec = databaseClient.sql(indexedMarkers(sql.sql()));
+        List<Object> parameters = sql.parameters();
+        for (int i = 0; i < parameters.size(); i++) {
+            spec = spec.bind(i, parameters.get(i));
+        }
+        return spec;
+    }
+
+    /**
+     * Troca cada ? por $1, $2...: os valores da busca são sempre parâmetros, nunca literais no SQL.
+     */
+    static String indexedMarkers(String sql) {
+        StringBuilder indexed = new StringBuilder(sql.length() + 16);
+        int index = 0;
+        for (int i = 0; i < sql.length(); i++) {
+            char c = sql.charAt(i);
+            if (c == '?') {
+                indexed.append('$').append(++index);
+            } else {
+                indexed.append(c);
+            }
+        }
+        return indexed.toString();
+    }
+
+    /**
+     * Parâmetros comuns a INSERT, UPDATE e MERGE (name, email, age, phone, phoneDigits, updatedAt).
+     * Os opcionais precisam do tipo quando nulos (bindNull).
+     */
+    private static DatabaseClient.GenericExecuteSpec bindUser(DatabaseClient.GenericExecuteSpec spec, User user) {
+        spec = spec.bind("name", user.getName()).bind("email", user.getEmail());
+        spec = user.getAge() != null ? spec.bind("age", user.getAge()) : spec.bindNull("age", Integer.class);
+        spec = user.getPhone() != null ? spec.bind("phone", user.getPhone()) : spec.bindNull("phone", String.class);
+        String phoneDigits = PhoneNumbers.normalize(user.getPhone());
+        spec = phoneDigits != null ? spec.bind("phoneDigits", phoneDigits) : spec.bindNull("phoneDigits", String.class);
+        if (user.getUpdatedAt() != null) {
+            spec = spec.bind("updatedAt", user.getUpdatedAt());
+        }
+        return spec;
+    }
+
+    private static void bindPositional(Statement insert, User user) {
+        insert.bind(0, user.getName()).bind(1, user.getEmail());
+        if (user.getAge() != null) {
+            insert.bind(2, user.getAge());
+        } else {
+            insert.bindNull(2, Integer.class);
+        }
+        String phoneDigits = PhoneNumbers.normalize(user.getPhone());
+        if (user.getPhone() != null) {
+            insert.bind(3, user.getPhone());
+        } else {
+            insert.bindNull(3, String.class);
+        }
+        if (phoneDigits != null) {
+            insert.bind(4, phoneDigits);
+        } else {
+            insert.bindNull(4, String.class);
+        }
+        insert.bind(5, user.getCreatedAt()).bind(6, user.getUpdatedAt());
+    }
+
+    private static User toUser(Readable row) {
+        return new User(
+                row.get("id", Long.class),
+                row.get("name", String.class),
+                row.get("email", String.class),
+                row.get("age", Integer.class),
+                row.get("phone", String.class),
+                row.get("created_at", LocalDateTime.class),
+                row.get("updated_at", LocalDateTime.class));
+    }
+
+    /**
+     * Mesmo array de UserFieldSet.readRow(ResultSet), lido de uma linha R2DBC.
+     */
+    private static Object[] readRow(Readable row, UserFieldSet columns) {
+        Object[] values = new Object[UserResponseField.values().length];
+        for (UserResponseField field : UserResponseField.values()) {
+            if (columns.contains(field)) {
+                Class<?> type = switch (field) {
+                    case ID -> Long.class;
+                    case AGE -> Integer.class;
+                    case CREATED_AT, UPDATED_AT -> LocalDateTime.class;
+                    case NAME, EMAIL, PHONE -> String.class;
+                };
+                values[field.ordinal()] = row.get(field.column(), type);
+            }
+        }
+        return values;
+    }
+
+    private static LocalDateTime now() {
+        return LocalDateTime.now().truncatedTo(ChronoUnit.MICROS);
+    }
+}
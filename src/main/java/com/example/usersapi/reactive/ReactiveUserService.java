@@ -0,0 +1,228 @@
+package com.example.usersapi.reactive;
+
+import com.example.usersapi.dto.CreateUserRequest;
+import com.example.usersapi.dto.SparseUserResponse;
+import com.example.usersapi.dto.UpdateUserRequest;
+import com.example.usersapi.dto.UpsertUserRequest;
+import com.example.usersapi.dto.UpsertUserResult;
+import com.example.usersapi.dto.UserFieldSet;
+import com.example.usersapi.dto.UserPage;
+import com.example.usersapi.dto.UserResponse;
+import com.example.usersapi.dto.UserResponseField;
+import com.example.usersapi.model.User;
+import com.example.usersapi.phone.PhoneNumbers;
+import com.example.usersapi.query.KeysetCursor;
+import com.example.usersapi.query.SortKey;
+import com.example.usersapi.query.UserField;
+import com.example.usersapi.query.UserQuery;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
+
+/**
+ * Regras de negócio da variante reativa, equivalentes às de service.UserService.
+ *
+ * Nada aqui bloqueia uma thread: cada método monta um Mono ou Flux que só executa quando a
+ * resposta HTTP é assinada. Usuário inexistente é um Mono vazio (o controller responde 404);
+ * email já em uso é RuntimeException, como na API Spring MVC.
+ *
+ * Ficam de fora os recursos que dependem do JPA ou de estado em memória da outra aplicação:
+ * outbox, arquivo de inativos, índice de telefones em memória (a busca usa a coluna
+ * phone_digits) e cache de segundo nível.
+ *
+ * @Transactional por método, não na classe: com um Mono ou Flux de retorno, o Spring usa o
+ * ReactiveTransactionManager (R2dbcTransactionManager) e a transação acompanha a assinatura,
+ * não a thread; a listagem completa fica sem nenhuma (ver getAllUsers)
+ */
+@Service
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+@RequiredArgsConstructor
+@Slf4j
+public class ReactiveUserService {
+
+    private final ReactiveUserRepository userRepository;
+
+    /**
+     * Todos os usuários em ordem de ID, entregues conforme a demanda do cliente.
+     *
+     * Sem @Transactional: mesmo com NOT_SUPPORTED, o escopo transacional reativo prende a
+     * primeira conexão até o último usuário ser entregue; sem ele, cada página da leitura usa
+     * e devolve uma conexão do pool.
+     */
+    public Flux<UserResponse> getAllUsers() {
+        return userRepository.findAll().map(this::convertToResponse);
+    }
+
+    public Flux<SparseUserResponse> getAllUsers(UserFieldSet fields) {
+        return userRepository.findAllColumns(fields).map(row -> new SparseUserResponse(fields, row));
+    }
+
+    /**
+     * Busca paginada por keyset; a página (até UserQueryParser.MAX_LIMIT linhas) é montada
+     * inteira para saber se há próxima.
+     */
+    @Transactional(readOnly = true)
+    public Mono<UserPage<UserResponse>> searchUsers(UserQuery query) {
+        log.info("Buscando usuários - formato da consulta: {}", query.shape());
+        return userRepository.search(query)
+                .collectList()
+                .map(users -> {
+                    String nextCursor = null;
+                    if (users.size() > query.limit()) {
+                        users = users.subList(0, query.limit());
+                        User last = users.get(users.size() - 1);
+                        nextCursor = nextCursor(query, field -> field.read(last));
+                    }
+                    return new UserPage<>(users.stream().map(this::convertToResponse).toList(), nextCursor);
+                });
+    }
+
+    @Transactional(readOnly = true)
+    public Mono<UserPage<SparseUserResponse>> searchUsers(UserQuery query, UserFieldSet fields) {
+        log.info("Buscando usuários - formato da consulta: {}, campos: {}", query.shape(), fields);
+        UserResponseField[] orderFields = query.order().stream()
+                .map(key -> UserResponseField.valueOf(key.field().name()))
+                .toArray(UserResponseField[]::new);
+        return userRepository.searchColumns(query, fields.with(orderFields))
+                .collectList()
+                .map(rows -> {
+                    String nextCursor = null;
+                    if (rows.size() > query.limit()) {
+                        rows = rows.subList(0, query.limit());
+                        Object[] last = rows.get(rows.size() - 1);
+                        nextCursor = nextCursor(query, field -> last[UserResponseField.valueOf(field.name()).ordinal()]);
+                    }
+                    return new UserPage<>(rows.stream().map(row -> new SparseUserResponse(fields, row)).toList(),
+                            nextCursor);
+                });
+    }
+
+    /**
+     * @return usuário, ou vazio se não existir
+     */
+    @Transactional(readOnly = true)
+    public Mono<UserResponse> getUserById(Long id) {
+        return userRepository.findById(id).map(this::convertToResponse);
+    }
+
+    @Transactional(readOnly = true)
+    public Mono<SparseUserResponse> getUserById(Long id, UserFieldSet fields) {
+        return userRepository.findColumnsById(id, fields).map(row -> new SparseUserResponse(fields, row));
+    }
+
+    /**
+     * @return usuários encontrados, na ordem dos IDs pedidos (repetidos e inexistentes ficam de fora)
+     */
+    @Transactional(readOnly = true)
+    public Mono<List<UserResponse>> getUsersByIds(List<Long> ids) {
+        log.info("Buscando {} usuários por ID", ids.size());
+        return userRepository.findAllById(ids)
+                .collectMap(User::getId, Function.identity())
+                .map(users -> ordered(ids, users));
+    }
+
+    /**
+     * Busca pelo telefone normalizado direto na coluna phone_digits (índice idx_users_phone_digits).
+     *
+     * @throws IllegalArgumentException se o telefone não tiver dígitos (antes de montar o Flux)
+     */
+    @Transactional(readOnly = true)
+    public Flux<UserResponse> getUsersByPhone(String phone, boolean prefix, int limit) {
+        String digits = prefix ? PhoneNumbers.prefix(phone) : PhoneNumbers.exact(phone);
+        Flux<User> users = prefix
+                ? userRepository.findByPhoneDigitsRange(digits, digits + ":", limit)
+                : userRepository.findByPhoneDigits(digits, limit);
+        return users.map(this::convertToResponse);
+    }
+
+    /**
+     * @return usuário criado
+     * @throws RuntimeException (no Mono) se o email já existir
+     */
+    @Transactional
+    public Mono<UserResponse> createUser(CreateUserRequest request) {
+        log.info("Criando novo usuário com email: {}", request.getEmail());
+        return userRepository.findByEmail(request.getEmail())
+                .flatMap(existing -> Mono.<User>error(new RuntimeException("Email já está em uso: " + request.getEmail())))
+                .switchIfEmpty(Mono.defer(() -> userRepository.insert(
+                        new User(request.getName(), request.getEmail(), request.getAge(), request.getPhone()))))
+                .doOnNext(user -> log.info("Usuário criado com sucesso - ID: {}", user.getId()))
+                .map(this::convertToResponse);
+    }
+
+    /**
+     * @return usuário atualizado, ou vazio se não existir
+     * @throws RuntimeException (no Mono) se o email for de outro usuário
+     */
+    @Transactional
+    public Mono<UserResponse> updateUser(Long id, UpdateUserRequest request) {
+        log.info("Atualizando usuário com ID: {}", id);
+        return userRepository.findById(id)
+                .flatMap(existing -> userRepository.findByEmail(request.getEmail())
+                        .filter(user -> !user.getId().equals(id))
+                        .flatMap(other -> Mono.<User>error(new RuntimeException(
+                                "Email já está em uso por outro usuário: " + request.getEmail())))
+                        .switchIfEmpty(Mono.defer(() -> {
+                            existing.setName(request.getName());
+                            existing.setEmail(request.getEmail());
+                            existing.setAge(request.getAge());
+                            existing.setPhone(request.getPhone());
+                            return userRepository.update(existing);
+                        })))
+                .map(this::convertToResponse);
+    }
+
+    @Transactional
+    public Mono<UpsertUserResult> upsertUserByEmail(String email, UpsertUserRequest request) {
+        log.info("Upsert de usuário com email: {}", email);
+        return userRepository.upsertByEmail(new User(request.getName(), email, request.getAge(), request.getPhone()))
+                .map(upsert -> new UpsertUserResult(convertToResponse(upsert.user()), upsert.created()));
+    }
+
+    /**
+     * @return true se o usuário existia
+     */
+    @Transactional
+    public Mono<Boolean> deleteUser(Long id) {
+        log.info("Removendo usuário com ID: {}", id);
+        return userRepository.deleteById(id);
+    }
+
+    private List<UserResponse> ordered(List<Long> ids, Map<Long, User> users) {
+        return ids.stream()
+                .distinct()
+                .map(users::get)
+                .filter(Objects::nonNull)
+                .map(this::convertToResponse)
+                .toList();
+    }
+
+    private String nextCursor(UserQuery query, Function<UserField, Object> lastValue) {
+        List<Object> values = query.order().stream()
+                .map(SortKey::field)
+                .map(lastValue)
+                .toList();
+        return KeysetCursor.encode(query.order(), values);
+    }
+
+    private UserResponse convertToResponse(User user) {
+        return new UserResponse(
+                user.getId(),
+                user.getName(),
+                user.getEmail(),
+                user.getAge(),
+                user.getPhone(),
+                user.getCreatedAt(),
+                user.getUpdatedAt()
+        );
+    }
+}
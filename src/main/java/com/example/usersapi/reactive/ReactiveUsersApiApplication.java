@@ -0,0 +1,182 @@
+package com.example.usersapi.reactive;
+
+import com.example.usersapi.config.BinaryFormatsConfig;
+import com.example.usersapi.config.SyntheticDataProperties;
+import com.example.usersapi.query.UserQueryCompiler;
+import com.example.usersapi.query.UserQueryParser;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import io.r2dbc.spi.ConnectionFactory;
+import org.reactivestreams.Publisher;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.autoconfigure.EnableAutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.autoconfigure.data.jpa.JpaRepositoriesAutoConfiguration;
+import org.springframework.boot.autoconfigure.flyway.FlywayAutoConfiguration;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceAutoConfiguration;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceTransactionManagerAutoConfiguration;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernateJpaAutoConfiguration;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.sql.init.dependency.DependsOnDatabaseInitialization;
+import org.springframework.boot.web.embedded.netty.NettyReactiveWebServerFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.ComponentScan;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+import org.springframework.core.ResolvableType;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferFactory;
+import org.springframework.http.MediaType;
+import org.springframework.http.codec.ServerCodecConfigurer;
+import org.springframework.http.codec.cbor.Jackson2CborDecoder;
+import org.springframework.http.codec.cbor.Jackson2CborEncoder;
+import org.springframework.http.codec.json.Jackson2JsonEncoder;
+import org.springframework.http.codec.json.Jackson2SmileDecoder;
+import org.springframework.http.codec.json.Jackson2SmileEncoder;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.util.MimeType;
+import org.springframework.web.reactive.config.WebFluxConfigurer;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Variante reativa da Users API: WebFlux (Netty) + R2DBC, com o contrato de /users da
+ * API Spring MVC (docs/openapi.yaml) e o mesmo banco H2 em memória, sem JPA.
+ *
+ * Executar: mvn spring-boot:run -Dspring-boot.run.main-class=com.example.usersapi.reactive.ReactiveUsersApiApplication
+ * (porta 8081, perfil "reactive" em application-reactive.yml).
+ *
+ * Não é uma @SpringBootApplication: os testes da API Spring MVC procuram a única
+ * @SpringBootConfiguration a partir do pacote com.example.usersapi e encontrariam duas.
+ *
+ * @ConditionalOnWebApplication(REACTIVE): a aplicação servlet escaneia este pacote e ignora
+ * esta configuração (e, com ela, o @EnableAutoConfiguration e as exclusões abaixo)
+ * @EnableAutoConfiguration(exclude): o JPA, o JDBC e o Flyway continuam no classpath, mas aqui
+ * o banco é acessado só pelo R2DBC
+ * @ComponentScan: só o pacote reactive; os serviços da API Spring MVC dependem do JPA
+ * @Import: o parser e o compilador de consultas são os mesmos da API Spring MVC
+ */
+@Configuration(proxyBeanMethods = false)
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+@EnableAutoConfiguration(exclude = {
+        DataSourceAutoConfiguration.class,
+        DataSourceTransactionManagerAutoConfiguration.class,
+        HibernateJpaAutoConfiguration.class,
+        JpaRepositoriesAutoConfiguration.class,
+        FlywayAutoConfiguration.class
+})
+@ComponentScan
+@Import({UserQueryParser.class, UserQueryCompiler.class})
+@EnableConfigurationProperties(SyntheticDataProperties.class)
+public class ReactiveUsersApiApplication implements WebFluxConfigurer {
+
+    static final String PROFILE = "reactive";
+
+    private static final MediaType SMILE = new MediaType("application", "x-jackson-smile");
+
+    private final ObjectProvider<Jackson2ObjectMapperBuilder> builderProvider;
+    private final ObjectMapper objectMapper;
+
+    public ReactiveUsersApiApplication(ObjectProvider<Jackson2ObjectMapperBuilder> builderProvider,
+                                       ObjectMapper objectMapper) {
+        this.builderProvider = builderProvider;
+        this.objectMapper = objectMapper;
+    }
+
+    public static void main(String[] args) {
+        new SpringApplicationBuilder(ReactiveUsersApiApplication.class)
+                .web(WebApplicationType.REACTIVE)
+                .profiles(PROFILE)
+                .run(args);
+    }
+
+    /**
+     * Com o Tomcat da API Spring MVC no classpath, o Spring Boot o escolheria também para o
+     * WebFlux; o servidor é declarado para que a variante rode no Netty (event loop, sem uma
+     * thread por conexão).
+     */
+    @Bean
+    public NettyReactiveWebServerFactory nettyReactiveWebServerFactory() {
+        return new NettyReactiveWebServerFactory();
+    }
+
+    /**
+     * Envolve o pool do Spring Boot em SchedulingConnectionFactory (H2 embarcado fora do event loop).
+     *
+     * static: BeanPostProcessor precisa existir antes dos demais beans desta configuração
+     */
+    @Bean
+    public static BeanPostProcessor schedulingConnectionFactoryPostProcessor() {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof ConnectionFactory connectionFactory
+                        && !(bean instanceof SchedulingConnectionFactory)) {
+                    return new SchedulingConnectionFactory(connectionFactory, Schedulers.boundedElastic());
+                }
+                return bean;
+            }
+        };
+    }
+
+    /**
+     * @DependsOnDatabaseInitialization: criado depois das migrations e do data.sql
+     */
+    @Bean
+    @DependsOnDatabaseInitialization
+    public ReactiveDataInitializer reactiveDataInitializer(ReactiveUserRepository userRepository,
+                                                           SyntheticDataProperties synthetic) {
+        return new ReactiveDataInitializer(userRepository, synthetic);
+    }
+
+    /**
+     * CBOR e Smile com datas em epoch, como BinaryFormatsConfig faz para o Spring MVC.
+     *
+     * Os construtores com ObjectMapper assumem os tipos JSON quando nenhum tipo é informado, por
+     * isso os tipos de mídia explícitos. Codecs customizados entram antes dos padrão na negociação:
+     * sem o encoder JSON registrado na frente do CBOR, um cliente sem Accept receberia CBOR.
+     */
+    @Override
+    public void configureHttpMessageCodecs(ServerCodecConfigurer configurer) {
+        ObjectMapper cbor = BinaryFormatsConfig.binaryMapper(builderProvider.getObject(), new CBORFactory());
+        ObjectMapper smile = BinaryFormatsConfig.binaryMapper(builderProvider.getObject(), new SmileFactory());
+        configurer.customCodecs().register(new Jackson2JsonEncoder(objectMapper));
+        configurer.customCodecs().register(new CollectingCborEncoder(cbor));
+        configurer.customCodecs().register(new Jackson2CborDecoder(cbor, MediaType.APPLICATION_CBOR));
+        configurer.defaultCodecs().jackson2SmileEncoder(new Jackson2SmileEncoder(smile, SMILE));
+        configurer.defaultCodecs().jackson2SmileDecoder(new Jackson2SmileDecoder(smile, SMILE));
+    }
+
+    /**
+     * O Jackson2CborEncoder só implementa encodeValue (encode recusa qualquer Publisher): um Mono
+     * é codificado como valor único e os elementos de um Flux são reunidos em uma lista antes.
+     * Só CBOR perde o fluxo; JSON, NDJSON e Smile mantêm.
+     */
+    static final class CollectingCborEncoder extends Jackson2CborEncoder {
+
+        CollectingCborEncoder(ObjectMapper mapper) {
+            super(mapper, MediaType.APPLICATION_CBOR);
+        }
+
+        @Override
+        public Flux<DataBuffer> encode(Publisher<?> inputStream, DataBufferFactory bufferFactory,
+                                       ResolvableType elementType, MimeType mimeType, Map<String, Object> hints) {
+            if (inputStream instanceof Mono<?> mono) {
+                return mono.map(value -> encodeValue(value, bufferFactory, elementType, mimeType, hints)).flux();
+            }
+            return Flux.from(inputStream)
+                    .collectList()
+                    .map(values -> encodeValue(values, bufferFactory,
+                            ResolvableType.forClassWithGenerics(List.class, elementType), mimeType, hints))
+                    .flux();
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package com.example.usersapi.reactive;
+
+import io.r2dbc.spi.Connection;
+import io.r2dbc.spi.ConnectionFactory;
+import org.springframework.r2dbc.connection.DelegatingConnectionFactory;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+
+/**
+ * Entrega as conexões do pool R2DBC em um Scheduler próprio, fora do event loop do Netty.
+ *
+ * O driver r2dbc-h2 é uma fachada sobre o H2 embarcado: o SQL roda na thread de quem assina,
+ * sem I/O de rede para esperar. Sem a troca de thread, cada consulta ocupa o event loop que
+ * a disparou e, sob carga, as conexões HTTP desse event loop ficam sem ser lidas.
+ *
+ * publishOn depois da aquisição: o SQL, a leitura das linhas e a devolução da conexão ao pool
+ * acontecem no Scheduler; a escrita da resposta volta ao event loop da conexão HTTP.
+ */
+public class SchedulingConnectionFactory extends DelegatingConnectionFactory {
+
+    private final Scheduler scheduler;
+
+    public SchedulingConnectionFactory(ConnectionFactory targetConnectionFactory, Scheduler scheduler) {
+        super(targetConnectionFactory);
+        this.scheduler = scheduler;
+    }
+
+    @Override
+    public Mono<? extends Connection> create() {
+        return super.create().publishOn(scheduler);
+    }
+}
@@ -0,0 +1,73 @@
+package com.example.usersapi.replication;
+
+import org.h2.api.Trigger;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Objects;
+
+/**
+ * Trigger do H2 que registra no changelog cada linha inserida, alterada ou removida.
+ *
+ * Roda dentro da transação que alterou a linha: o registro só fica visível (e só é
+ * replicado) se ela for confirmada. Cada linha recebe uma nova versão, tirada do contador
+ * em replication_version; o UPDATE do contador trava a linha até o commit, então as versões
+ * ficam visíveis na ordem em que são geradas e uma versão confirmada nunca aparece
+ * depois de uma maior (ver ReplicationLog).
+ *
+ * Criado pelo ReplicationLog com CREATE TRIGGER ... CALL; o H2 instancia a classe pelo nome.
+ */
+public class ChangelogTrigger implements Trigger {
+
+    private static final String NEXT_VERSION_SQL =
+            "UPDATE " + ReplicationLog.VERSION_TABLE + " SET version = version + 1";
+
+    private static final String RECORD_SQL = "INSERT INTO " + ReplicationLog.CHANGELOG_TABLE
+            + " (version, table_name, row_key) SELECT version, ?, ? FROM " + ReplicationLog.VERSION_TABLE;
+
+    private String tableName;
+    private int keyIndex;
+
+    @Override
+    public void init(Connection conn, String schemaName, String triggerName, String tableName,
+                     boolean before, int type) throws SQLException {
+        this.tableName = tableName;
+        String keyColumn;
+        try (ResultSet primaryKey = conn.getMetaData().getPrimaryKeys(null, schemaName, tableName)) {
+            if (!primaryKey.next()) {
+                throw new SQLException("Tabela sem chave primária não pode ser replicada: " + tableName);
+            }
+            keyColumn = primaryKey.getString("COLUMN_NAME");
+            if (primaryKey.next()) {
+                throw new SQLException("Chave primária composta não é suportada na replicação: " + tableName);
+            }
+        }
+        try (ResultSet column = conn.getMetaData().getColumns(null, schemaName, tableName, keyColumn)) {
+            column.next();
+            keyIndex = column.getInt("ORDINAL_POSITION") - 1;
+        }
+    }
+
+    @Override
+    public void fire(Connection conn, Object[] oldRow, Object[] newRow) throws SQLException {
+        if (newRow != null) {
+            record(conn, newRow[keyIndex]);
+        }
+        // Remoção, ou alteração da própria chave: a linha antiga também some da réplica
+        if (oldRow != null && (newRow == null || !Objects.equals(oldRow[keyIndex], newRow[keyIndex]))) {
+            record(conn, oldRow[keyIndex]);
+        }
+    }
+
+    private void record(Connection conn, Object key) throws SQLException {
+        try (PreparedStatement nextVersion = conn.prepareStatement(NEXT_VERSION_SQL);
+             PreparedStatement record = conn.prepareStatement(RECORD_SQL)) {
+            nextVersion.executeUpdate();
+            record.setString(1, tableName);
+            record.setString(2, String.valueOf(key));
+            record.executeUpdate();
+        }
+    }
+}
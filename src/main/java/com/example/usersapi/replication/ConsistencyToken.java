@@ -0,0 +1,55 @@
+package com.example.usersapi.replication;
+
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+/**
+ * Versão mínima do changelog que as leituras da thread atual precisam enxergar (read-your-writes).
+ *
+ * Depois de uma escrita confirmada, a versão do principal é devolvida ao cliente no header
+ * X-Consistency-Token. Quando o cliente reenvia o header, suas leituras só vão a uma réplica
+ * que já aplicou essa versão; senão, vão ao principal.
+ * Dentro da mesma requisição, uma leitura depois de uma escrita também exige a nova versão.
+ */
+public final class ConsistencyToken {
+
+    public static final String HEADER = "X-Consistency-Token";
+
+    private static final ThreadLocal<Long> REQUIRED = new ThreadLocal<>();
+
+    private ConsistencyToken() {
+    }
+
+    /**
+     * Versão mínima exigida pela thread atual (0: nenhuma exigência).
+     */
+    public static long required() {
+        Long version = REQUIRED.get();
+        return version != null ? version : 0;
+    }
+
+    /**
+     * Passa a exigir pelo menos a versão informada nas próximas leituras da thread.
+     */
+    public static void require(long version) {
+        REQUIRED.set(Math.max(required(), version));
+    }
+
+    /**
+     * Registra a versão de uma escrita confirmada e a devolve ao cliente, se houver uma requisição HTTP.
+     */
+    static void issue(long version) {
+        require(version);
+        if (RequestContextHolder.getRequestAttributes() instanceof ServletRequestAttributes attributes) {
+            HttpServletResponse response = attributes.getResponse();
+            if (response != null && !response.isCommitted()) {
+                response.setHeader(HEADER, Long.toString(required()));
+            }
+        }
+    }
+
+    static void clear() {
+        REQUIRED.remove();
+    }
+}
@@ -0,0 +1,45 @@
+package com.example.usersapi.replication;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/**
+ * Lê o header X-Consistency-Token de cada requisição e o aplica às leituras dela.
+ *
+ * Um token inválido não é ignorado: as leituras vão ao principal, que sempre está em dia.
+ *
+ * @ConditionalOnProperty: só existe com users.replication.enabled=true
+ * OncePerRequestFilter: o Spring Boot registra o filtro para todas as URLs
+ */
+@Component
+@ConditionalOnProperty("users.replication.enabled")
+@Slf4j
+public class ConsistencyTokenFilter extends OncePerRequestFilter {
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        String token = request.getHeader(ConsistencyToken.HEADER);
+        if (token != null) {
+            try {
+                ConsistencyToken.require(Long.parseLong(token.trim()));
+            } catch (NumberFormatException e) {
+                log.warn("{} inválido ({}), lendo do banco principal", ConsistencyToken.HEADER, token);
+                ConsistencyToken.require(Long.MAX_VALUE);
+            }
+        }
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            ConsistencyToken.clear();
+        }
+    }
+}
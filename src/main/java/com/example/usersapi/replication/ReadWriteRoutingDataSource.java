@@ -0,0 +1,95 @@
+package com.example.usersapi.replication;
+
+import org.hibernate.CacheMode;
+import org.hibernate.Session;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.orm.jpa.EntityManagerHolder;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * DataSource que envia transações somente leitura para uma réplica e todo o resto ao principal.
+ *
+ * A decisão é tomada quando a transação pede a primeira conexão. Por isso este DataSource
+ * fica atrás de um LazyConnectionDataSourceProxy (ver config.ReplicationConfig): o Spring
+ * só marca a transação como readOnly depois de abri-la, e o proxy adia a conexão real
+ * até o primeiro comando SQL.
+ *
+ * Transações de escrita registram um callback: após o commit, a versão do changelog é
+ * entregue ao cliente como consistency token (ver ConsistencyToken).
+ */
+public class ReadWriteRoutingDataSource extends AbstractRoutingDataSource {
+
+    static final String PRIMARY = "primary";
+
+    /**
+     * Marca, entre os recursos da transação, que o callback de escrita já foi registrado.
+     */
+    private static final Object WRITE_MARKER = new Object();
+
+    private final ReplicaSet replicaSet;
+    private final ReplicationLog replicationLog;
+
+    public ReadWriteRoutingDataSource(DataSource primary, ReplicaSet replicaSet, ReplicationLog replicationLog) {
+        this.replicaSet = replicaSet;
+        this.replicationLog = replicationLog;
+
+        Map<Object, Object> targets = new HashMap<>();
+        targets.put(PRIMARY, primary);
+        replicaSet.replicas().forEach(replica -> targets.put(replica.getName(), replica.getDataSource()));
+        setTargetDataSources(targets);
+        setDefaultTargetDataSource(primary);
+        afterPropertiesSet();
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            trackWrite();
+            return PRIMARY;
+        }
+        return replicaSet.choose(ConsistencyToken.required())
+                .map(replica -> {
+                    disableCachePuts();
+                    return replica.getName();
+                })
+                .orElse(PRIMARY);
+    }
+
+    /**
+     * Após o commit da transação de escrita, lê a versão do principal e a entrega ao cliente.
+     */
+    private void trackWrite() {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()
+                || TransactionSynchronizationManager.hasResource(WRITE_MARKER)) {
+            return;
+        }
+        TransactionSynchronizationManager.bindResource(WRITE_MARKER, Boolean.TRUE);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                ConsistencyToken.issue(replicationLog.currentVersion());
+            }
+
+            @Override
+            public void afterCompletion(int status) {
+                TransactionSynchronizationManager.unbindResourceIfPossible(WRITE_MARKER);
+            }
+        });
+    }
+
+    /**
+     * Uma réplica pode estar atrás do principal: o que for lido dela não entra no cache
+     * de segundo nível (compartilhado), só o que já estiver lá pode ser usado.
+     */
+    private void disableCachePuts() {
+        TransactionSynchronizationManager.getResourceMap().values().stream()
+                .filter(EntityManagerHolder.class::isInstance)
+                .map(holder -> ((EntityManagerHolder) holder).getEntityManager().unwrap(Session.class))
+                .forEach(session -> session.setCacheMode(CacheMode.GET));
+    }
+}
@@ -0,0 +1,69 @@
+package com.example.usersapi.replication;
+
+import com.zaxxer.hikari.HikariDataSource;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.Setter;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Réplicas de leitura e a versão do changelog que cada uma já aplicou.
+ *
+ * Uma réplica só atende leituras depois da cópia inicial (appliedVersion >= 0),
+ * e só atende um cliente se já aplicou a versão que ele exige (read-your-writes).
+ * O Spring chama close() ao encerrar o contexto, fechando os pools de conexões.
+ */
+public class ReplicaSet implements AutoCloseable {
+
+    private final List<Replica> replicas;
+    private final AtomicInteger next = new AtomicInteger();
+
+    public ReplicaSet(List<Replica> replicas) {
+        this.replicas = List.copyOf(replicas);
+    }
+
+    public List<Replica> replicas() {
+        return replicas;
+    }
+
+    /**
+     * Escolhe, em rodízio, uma réplica que já aplicou a versão pedida.
+     *
+     * @param minVersion versão mínima exigida pelo cliente (0: qualquer réplica pronta)
+     * @return réplica escolhida, ou vazio se nenhuma estiver em dia (a leitura vai ao principal)
+     */
+    public Optional<Replica> choose(long minVersion) {
+        int start = Math.floorMod(next.getAndIncrement(), Math.max(replicas.size(), 1));
+        for (int i = 0; i < replicas.size(); i++) {
+            Replica replica = replicas.get((start + i) % replicas.size());
+            if (replica.getAppliedVersion() >= Math.max(minVersion, 0)) {
+                return Optional.of(replica);
+            }
+        }
+        return Optional.empty();
+    }
+
+    @Override
+    public void close() {
+        replicas.forEach(replica -> replica.getDataSource().close());
+    }
+
+    /**
+     * Uma réplica: nome (chave do roteamento e tag das métricas), pool de conexões
+     * e última versão do changelog aplicada (-1 até a cópia inicial).
+     */
+    @Getter
+    @RequiredArgsConstructor
+    public static class Replica {
+
+        private final String name;
+        private final HikariDataSource dataSource;
+
+        @Setter(AccessLevel.PACKAGE)
+        private volatile long appliedVersion = -1;
+    }
+}
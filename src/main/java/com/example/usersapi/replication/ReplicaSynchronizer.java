@@ -0,0 +1,284 @@
+package com.example.usersapi.replication;
+
+import com.example.usersapi.config.ReplicationProperties;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.sql.init.dependency.DependsOnDatabaseInitialization;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+/**
+ * Mantém as réplicas em dia com o banco principal.
+ *
+ * Na inicialização (depois do esquema e dos dados iniciais), instala o changelog no principal
+ * e copia esquema e dados para cada réplica com o comando SCRIPT do H2.
+ * A cada ciclo:
+ * 1. Lê a versão confirmada no principal (alvo do ciclo)
+ * 2. Lê as linhas alteradas desde a versão já aplicada
+ * 3. Lê o estado atual dessas linhas no principal, em lotes (um SELECT ... IN por lote)
+ * 4. Aplica em cada réplica: MERGE das linhas existentes, DELETE das removidas
+ * 5. Marca o alvo como aplicado e descarta do changelog o que todas as réplicas já têm
+ *
+ * A defasagem de cada réplica (em versões) é publicada em users.replication.lag.
+ *
+ * @DependsOnDatabaseInitialization: inicializa depois do Flyway / data.sql
+ */
+@Component
+@ConditionalOnProperty("users.replication.enabled")
+@DependsOnDatabaseInitialization
+@Slf4j
+public class ReplicaSynchronizer {
+
+    private final ReplicationLog replicationLog;
+    private final ReplicaSet replicaSet;
+    private final ReplicationProperties properties;
+    private final JdbcTemplate primary;
+    private final MeterRegistry meterRegistry;
+
+    /**
+     * Coluna da chave primária de cada tabela replicada.
+     */
+    private final Map<String, String> keyColumns = new ConcurrentHashMap<>();
+
+    /**
+     * Última versão lida do principal (base do cálculo da defasagem).
+     */
+    private volatile long latestVersion;
+
+    public ReplicaSynchronizer(ReplicationLog replicationLog, ReplicaSet replicaSet, ReplicationProperties properties,
+                               @Qualifier("primaryDataSource") DataSource primaryDataSource, MeterRegistry meterRegistry) {
+        this.replicationLog = replicationLog;
+        this.replicaSet = replicaSet;
+        this.properties = properties;
+        this.primary = new JdbcTemplate(primaryDataSource);
+        this.meterRegistry = meterRegistry;
+    }
+
+    /**
+     * Instala o changelog e faz a cópia inicial das réplicas.
+     *
+     * @PostConstruct: executado uma vez, antes de a aplicação aceitar requisições.
+     * O changelog é instalado antes da cópia: uma alteração feita no meio dela
+     * é aplicada de novo no primeiro ciclo, sem efeito duplicado.
+     */
+    @PostConstruct
+    public void start() {
+        replicationLog.install(properties.getTables());
+        long version = replicationLog.currentVersion();
+        latestVersion = version;
+
+        List<String> script = primary.queryForList("SCRIPT", String.class).stream()
+                .filter(statement -> !statement.startsWith("CREATE USER") && !statement.matches("(?s)CREATE (FORCE )?TRIGGER .*"))
+                .toList();
+        for (ReplicaSet.Replica replica : replicaSet.replicas()) {
+            long start = System.nanoTime();
+            JdbcTemplate target = new JdbcTemplate(replica.getDataSource());
+            script.forEach(target::execute);
+            relaxUniqueConstraints(target);
+            replica.setAppliedVersion(version);
+
+            Gauge.builder("users.replication.lag", replica, r -> Math.max(latestVersion - r.getAppliedVersion(), 0))
+                    .tag("replica", replica.getName())
+                    .description("Versões do changelog ainda não aplicadas na réplica")
+                    .register(meterRegistry);
+            log.info("Réplica {} copiada do principal (versão {}) em {} ms",
+                    replica.getName(), version, (System.nanoTime() - start) / 1_000_000);
+        }
+    }
+
+    /**
+     * Ciclo agendado da sincronização.
+     *
+     * @Scheduled(fixedDelayString): o próximo ciclo começa um intervalo após o fim do anterior.
+     */
+    @Scheduled(fixedDelayString = "${users.replication.poll-interval:PT0.2S}",
+            initialDelayString = "${users.replication.poll-interval:PT0.2S}")
+    public void scheduledSync() {
+        sync();
+    }
+
+    /**
+     * Executa um ciclo de sincronização.
+     *
+     * @return versão aplicada em todas as réplicas ao fim do ciclo
+     */
+    public synchronized long sync() {
+        long target = replicationLog.currentVersion();
+        latestVersion = target;
+        long applied = minAppliedVersion();
+        if (applied >= target) {
+            return applied;
+        }
+
+        List<ReplicationLog.Change> changes = replicationLog.changes(applied, target);
+        Map<String, List<String>> keysByTable = changes.stream().collect(Collectors.groupingBy(
+                ReplicationLog.Change::table, LinkedHashMap::new,
+                Collectors.mapping(ReplicationLog.Change::key, Collectors.toList())));
+
+        List<ReplicaSet.Replica> pending = replicaSet.replicas().stream()
+                .filter(replica -> replica.getAppliedVersion() >= 0 && replica.getAppliedVersion() < target)
+                .collect(Collectors.toCollection(ArrayList::new));
+        keysByTable.forEach((table, keys) -> {
+            for (int from = 0; from < keys.size(); from += properties.getBatchSize()) {
+                List<String> batch = keys.subList(from, Math.min(from + properties.getBatchSize(), keys.size()));
+                RowBatch rows = readRows(table, batch);
+                pending.removeIf(replica -> !apply(replica, rows));
+            }
+        });
+        pending.forEach(replica -> replica.setAppliedVersion(target));
+
+        long synced = minAppliedVersion();
+        int discarded = replicationLog.discardUpTo(synced);
+        log.debug("Réplicas sincronizadas até a versão {}: {} linhas alteradas, {} registros descartados do changelog",
+                synced, changes.size(), discarded);
+        return synced;
+    }
+
+    private long minAppliedVersion() {
+        return replicaSet.replicas().stream()
+                .mapToLong(ReplicaSet.Replica::getAppliedVersion)
+                .filter(version -> version >= 0)
+                .min()
+                .orElse(latestVersion);
+    }
+
+    /**
+     * Estado atual, no principal, de um lote de linhas alteradas.
+     */
+    private RowBatch readRows(String table, List<String> keys) {
+        String keyColumn = keyColumns.computeIfAbsent(table, this::findKeyColumn);
+        String placeholders = String.join(", ", Collections.nCopies(keys.size(), "?"));
+        List<String> columns = new ArrayList<>();
+        List<Object[]> rows = primary.query(
+                "SELECT * FROM \"" + table + "\" WHERE \"" + keyColumn + "\" IN (" + placeholders + ")",
+                (rs, rowNum) -> {
+                    ResultSetMetaData metaData = rs.getMetaData();
+                    if (columns.isEmpty()) {
+                        for (int i = 1; i <= metaData.getColumnCount(); i++) {
+                            columns.add(metaData.getColumnName(i));
+                        }
+                    }
+                    Object[] row = new Object[metaData.getColumnCount()];
+                    for (int i = 0; i < row.length; i++) {
+                        row[i] = rs.getObject(i + 1);
+                    }
+                    return row;
+                }, keys.toArray());
+
+        int keyIndex = columns.indexOf(keyColumn);
+        Set<String> found = new HashSet<>();
+        rows.forEach(row -> found.add(String.valueOf(row[keyIndex])));
+        List<String> deleted = keys.stream().filter(key -> !found.contains(key)).toList();
+        return new RowBatch(table, keyColumn, columns, rows, deleted);
+    }
+
+    /**
+     * Aplica um lote em uma réplica, em uma transação.
+     *
+     * @return false se a réplica falhou (ela deixa o ciclo e tenta de novo no próximo)
+     */
+    private boolean apply(ReplicaSet.Replica replica, RowBatch batch) {
+        try (Connection connection = replica.getDataSource().getConnection()) {
+            connection.setAutoCommit(false);
+            try {
+                if (!batch.deleted().isEmpty()) {
+                    try (PreparedStatement delete = connection.prepareStatement(
+                            "DELETE FROM \"" + batch.table() + "\" WHERE \"" + batch.keyColumn() + "\" = ?")) {
+                        for (String key : batch.deleted()) {
+                            delete.setString(1, key);
+                            delete.addBatch();
+                        }
+                        delete.executeBatch();
+                    }
+                }
+                if (!batch.rows().isEmpty()) {
+                    try (PreparedStatement merge = connection.prepareStatement(batch.mergeSql())) {
+                        for (Object[] row : batch.rows()) {
+                            for (int i = 0; i < row.length; i++) {
+                                merge.setObject(i + 1, row[i]);
+                            }
+                            merge.addBatch();
+                        }
+                        merge.executeBatch();
+                    }
+                }
+                connection.commit();
+                return true;
+            } catch (SQLException e) {
+                connection.rollback();
+                throw e;
+            }
+        } catch (SQLException e) {
+            log.warn("Falha ao sincronizar a réplica {} (tabela {}): {}", replica.getName(), batch.table(), e.getMessage());
+            return false;
+        }
+    }
+
+    private String findKeyColumn(String table) {
+        return primary.execute((Connection connection) -> {
+            try (var primaryKey = connection.getMetaData().getPrimaryKeys(null, null, table)) {
+                if (!primaryKey.next()) {
+                    throw new IllegalStateException("Tabela sem chave primária não pode ser replicada: " + table);
+                }
+                return primaryKey.getString("COLUMN_NAME");
+            }
+        });
+    }
+
+    /**
+     * Troca as restrições UNIQUE das tabelas replicadas por índices comuns.
+     *
+     * A unicidade já é garantida pelo principal; a réplica recebe o estado final das linhas
+     * em qualquer ordem (ex.: dois usuários que trocaram de email) e não pode recusá-lo.
+     * O índice continua lá para as buscas (ex.: findByEmail).
+     */
+    private void relaxUniqueConstraints(JdbcTemplate replica) {
+        List<String> tables = properties.getTables().stream().map(table -> table.toUpperCase(Locale.ROOT)).toList();
+        replica.query("SELECT CONSTRAINT_NAME, TABLE_NAME FROM INFORMATION_SCHEMA.TABLE_CONSTRAINTS "
+                        + "WHERE CONSTRAINT_TYPE = 'UNIQUE' AND TABLE_SCHEMA = 'PUBLIC'",
+                (rs, rowNum) -> List.of(rs.getString("CONSTRAINT_NAME"), rs.getString("TABLE_NAME")))
+                .stream()
+                .filter(constraint -> tables.contains(constraint.get(1)))
+                .forEach(constraint -> {
+                    String columns = replica.queryForList("SELECT COLUMN_NAME FROM INFORMATION_SCHEMA.KEY_COLUMN_USAGE "
+                                    + "WHERE CONSTRAINT_NAME = ? ORDER BY ORDINAL_POSITION", String.class, constraint.get(0))
+                            .stream().map(column -> "\"" + column + "\"").collect(Collectors.joining(", "));
+                    replica.execute("ALTER TABLE \"" + constraint.get(1) + "\" DROP CONSTRAINT \"" + constraint.get(0) + "\"");
+                    replica.execute("CREATE INDEX \"" + constraint.get(0) + "_REPLICA\" ON \"" + constraint.get(1) + "\" (" + columns + ")");
+                });
+    }
+
+    /**
+     * Linhas lidas do principal para uma tabela: as existentes (MERGE) e as chaves removidas (DELETE).
+     */
+    private record RowBatch(String table, String keyColumn, List<String> columns, List<Object[]> rows,
+                            List<String> deleted) {
+
+        String mergeSql() {
+            String columnList = columns.stream().map(column -> "\"" + column + "\"").collect(Collectors.joining(", "));
+            String placeholders = String.join(", ", Collections.nCopies(columns.size(), "?"));
+            return "MERGE INTO \"" + table + "\" (" + columnList + ") KEY (\"" + keyColumn + "\") VALUES (" + placeholders + ")";
+        }
+    }
+}
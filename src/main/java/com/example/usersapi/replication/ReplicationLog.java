@@ -0,0 +1,87 @@
+package com.example.usersapi.replication;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Changelog do banco principal: quais linhas mudaram e em que versão.
+ *
+ * replication_version guarda um único contador, incrementado pelo ChangelogTrigger a cada
+ * linha alterada; replication_changelog guarda (versão, tabela, chave). Só a chave é gravada:
+ * a sincronização lê o estado atual da linha no principal, então aplicar a mesma mudança
+ * duas vezes (ou fora de ordem) dá o mesmo resultado.
+ *
+ * A versão confirmada no contador é o "consistency token" entregue aos clientes após uma escrita.
+ * As tabelas são criadas aqui (e não por migration) porque só existem com a replicação habilitada.
+ */
+@Slf4j
+public class ReplicationLog {
+
+    static final String VERSION_TABLE = "replication_version";
+    static final String CHANGELOG_TABLE = "replication_changelog";
+
+    private final JdbcTemplate primary;
+
+    /**
+     * @param primaryDataSource banco principal (sem passar pelo roteamento)
+     */
+    public ReplicationLog(DataSource primaryDataSource) {
+        this.primary = new JdbcTemplate(primaryDataSource);
+    }
+
+    /**
+     * Cria o contador, o changelog e um trigger por tabela replicada (se ainda não existirem).
+     */
+    public void install(List<String> tables) {
+        primary.execute("CREATE TABLE IF NOT EXISTS " + VERSION_TABLE + " (id INTEGER PRIMARY KEY, version BIGINT NOT NULL)");
+        primary.update("INSERT INTO " + VERSION_TABLE + " SELECT 1, 0 WHERE NOT EXISTS (SELECT 1 FROM " + VERSION_TABLE + ")");
+        primary.execute("CREATE TABLE IF NOT EXISTS " + CHANGELOG_TABLE
+                + " (version BIGINT NOT NULL, table_name VARCHAR(128) NOT NULL, row_key VARCHAR(255) NOT NULL)");
+        primary.execute("CREATE INDEX IF NOT EXISTS idx_" + CHANGELOG_TABLE + "_version ON " + CHANGELOG_TABLE + " (version)");
+
+        for (String table : tables) {
+            String name = table.toUpperCase(Locale.ROOT);
+            primary.execute("CREATE TRIGGER IF NOT EXISTS \"" + name + "_REPLICATION\" AFTER INSERT, UPDATE, DELETE ON \""
+                    + name + "\" FOR EACH ROW CALL '" + ChangelogTrigger.class.getName() + "'");
+        }
+        log.info("Changelog de replicação instalado para as tabelas {}", tables);
+    }
+
+    /**
+     * Versão mais recente confirmada no principal.
+     * Toda mudança com versão menor ou igual já está visível no changelog.
+     */
+    public long currentVersion() {
+        Long version = primary.queryForObject("SELECT version FROM " + VERSION_TABLE, Long.class);
+        return version != null ? version : 0;
+    }
+
+    /**
+     * Linhas alteradas entre duas versões, sem repetição (a mesma linha pode ter mudado várias vezes).
+     *
+     * @param after versão já aplicada (exclusiva)
+     * @param upTo versão alvo (inclusiva)
+     */
+    public List<Change> changes(long after, long upTo) {
+        return primary.query("SELECT DISTINCT table_name, row_key FROM " + CHANGELOG_TABLE
+                        + " WHERE version > ? AND version <= ? ORDER BY table_name, row_key",
+                (rs, rowNum) -> new Change(rs.getString("table_name"), rs.getString("row_key")), after, upTo);
+    }
+
+    /**
+     * Remove do changelog as mudanças já aplicadas em todas as réplicas.
+     */
+    public int discardUpTo(long version) {
+        return primary.update("DELETE FROM " + CHANGELOG_TABLE + " WHERE version <= ?", version);
+    }
+
+    /**
+     * Uma linha alterada: tabela (nome no H2, em maiúsculas) e valor da chave primária.
+     */
+    public record Change(String table, String key) {
+    }
+}
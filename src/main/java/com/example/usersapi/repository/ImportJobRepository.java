@@ -0,0 +1,51 @@
+package com.example.usersapi.repository;
+
+import com.example.usersapi.model.ImportJob;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+/**
+ * Repository do progresso das importações em lote.
+ */
+@Repository
+public interface ImportJobRepository extends JpaRepository<ImportJob, String> {
+
+    /**
+     * findById do JpaRepository redeclarado com @Transactional sem readOnly: com réplicas
+     * de leitura habilitadas (users.replication), a retomada de uma importação precisa
+     * do progresso gravado no banco principal.
+     * 
+     * @param id ID da importação
+     * @return Optional contendo a importação se encontrada
+     */
+    @Override
+    @Transactional
+    Optional<ImportJob> findById(String id);
+
+    /**
+     * Reserva uma importação existente para quem chamou, em um único UPDATE condicional:
+     * de duas chamadas simultâneas com o mesmo ID, só uma muda a linha. Uma importação
+     * RUNNING só é reservada se está parada desde antes de staleBefore (processo que caiu).
+     * A versão é incrementada: gravações de quem tinha a importação antes passam a falhar.
+     *
+     * @Modifying: UPDATE em vez de SELECT; clearAutomatically descarta a cópia antiga do contexto
+     * @return 1 se a importação foi reservada, 0 se ela está com outra chamada (ou já concluída)
+     */
+    @Transactional
+    @Modifying(clearAutomatically = true)
+    @Query("""
+            UPDATE ImportJob j SET j.status = :running, j.updatedAt = :now, j.version = j.version + 1
+            WHERE j.id = :id
+              AND j.status <> :completed
+              AND (j.status <> :running OR j.updatedAt < :staleBefore)""")
+    int claim(@Param("id") String id, @Param("running") ImportJob.Status running,
+              @Param("completed") ImportJob.Status completed, @Param("now") LocalDateTime now,
+              @Param("staleBefore") LocalDateTime staleBefore);
+}
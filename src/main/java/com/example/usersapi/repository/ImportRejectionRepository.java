@@ -0,0 +1,26 @@
+package com.example.usersapi.repository;
+
+import com.example.usersapi.model.ImportRejection;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+/**
+ * Repository das linhas rejeitadas nas importações em lote.
+ */
+@Repository
+public interface ImportRejectionRepository extends JpaRepository<ImportRejection, ImportRejection.Key>,
+        ImportRejectionRepositoryCustom {
+
+    /**
+     * Página de rejeições por keyset: as linhas depois de afterLine, em ordem (chave primária).
+     * 
+     * @param importId ID da importação
+     * @param afterLine última linha já lida (0 para começar)
+     * @param limit máximo de rejeições
+     * @return rejeições em ordem de linha
+     */
+    List<ImportRejection> findByImportIdAndLineGreaterThanOrderByLineAsc(String importId, long afterLine, Limit limit);
+}
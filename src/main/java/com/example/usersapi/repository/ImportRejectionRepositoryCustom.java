@@ -0,0 +1,18 @@
+package com.example.usersapi.repository;
+
+import com.example.usersapi.model.ImportRejection;
+
+import java.util.List;
+
+/**
+ * Operações de ImportRejectionRepository implementadas manualmente (ver ImportRejectionRepositoryImpl).
+ */
+public interface ImportRejectionRepositoryCustom {
+
+    /**
+     * Insere as rejeições de um lote com um único JDBC batch, na transação corrente.
+     * 
+     * @param rejections rejeições novas (nenhuma pode existir ainda)
+     */
+    void insertAll(List<ImportRejection> rejections);
+}
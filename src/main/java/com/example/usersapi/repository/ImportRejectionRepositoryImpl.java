@@ -0,0 +1,35 @@
+package com.example.usersapi.repository;
+
+import com.example.usersapi.model.ImportRejection;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.List;
+
+/**
+ * Implementação das operações customizadas de ImportRejectionRepository.
+ * 
+ * Com a chave atribuída pela aplicação, o save do JPA faria um SELECT por rejeição
+ * (merge) antes do INSERT; o JDBC batch grava o lote de uma vez.
+ */
+@RequiredArgsConstructor
+public class ImportRejectionRepositoryImpl implements ImportRejectionRepositoryCustom {
+
+    private static final String INSERT_SQL =
+            "INSERT INTO user_import_rejection (import_id, line_number, errors, raw_line) VALUES (?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Override
+    public void insertAll(List<ImportRejection> rejections) {
+        if (rejections.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.batchUpdate(INSERT_SQL, rejections, rejections.size(), (ps, rejection) -> {
+            ps.setString(1, rejection.getImportId());
+            ps.setLong(2, rejection.getLine());
+            ps.setString(3, rejection.getErrors());
+            ps.setString(4, rejection.getRaw());
+        });
+    }
+}
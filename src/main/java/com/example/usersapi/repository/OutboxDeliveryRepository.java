@@ -0,0 +1,42 @@
+package com.example.usersapi.repository;
+
+import com.example.usersapi.model.OutboxDelivery;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Repository das entregas por webhook dos eventos do outbox.
+ * 
+ * Como no OutboxEventRepository, as consultas usam @Transactional sem readOnly
+ * para ler sempre o banco principal.
+ */
+@Repository
+public interface OutboxDeliveryRepository extends JpaRepository<OutboxDelivery, OutboxDelivery.Key> {
+
+    /**
+     * Webhooks que já receberam os eventos de um lote (uma consulta por lote).
+     * 
+     * @param eventIds IDs dos eventos
+     * @return entregas registradas
+     */
+    @Transactional
+    List<OutboxDelivery> findByEventIdIn(Collection<Long> eventIds);
+
+    /**
+     * Remove as entregas de eventos concluídos ou descartados.
+     * 
+     * @param eventIds IDs dos eventos
+     * @return quantidade de registros removidos
+     */
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM OutboxDelivery d WHERE d.eventId IN :eventIds")
+    int deleteByEventIdIn(@Param("eventIds") Collection<Long> eventIds);
+}
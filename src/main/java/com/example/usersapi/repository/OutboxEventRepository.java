@@ -0,0 +1,75 @@
+package com.example.usersapi.repository;
+
+import com.example.usersapi.model.OutboxEvent;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Repository para a tabela de outbox de eventos de usuários.
+ * 
+ * As consultas usam @Transactional sem readOnly: com réplicas de leitura habilitadas
+ * (users.replication), o dispatcher precisa ver o outbox do banco principal, ou
+ * reenviaria eventos já entregues.
+ */
+@Repository
+public interface OutboxEventRepository extends JpaRepository<OutboxEvent, Long> {
+
+    /**
+     * Busca um lote de eventos em uma determinada situação, na ordem em que foram gerados.
+     * 
+     * Limit: limita o tamanho do lote (LIMIT no SQL), usando o índice (status, id).
+     * 
+     * @param status situação dos eventos
+     * @param limit tamanho máximo do lote
+     * @return eventos ordenados por ID
+     */
+    @Transactional
+    List<OutboxEvent> findByStatusOrderByIdAsc(OutboxEvent.Status status, Limit limit);
+
+    /**
+     * Busca o próximo lote de eventos que já podem ser entregues, em ordem de ID.
+     * 
+     * O filtro de backoff fica na query: filtrado depois, em memória, um usuário com
+     * eventos em backoff ocuparia o lote inteiro a cada ciclo e os demais não seriam entregues.
+     * NOT EXISTS: eventos de um usuário com evento anterior ainda em backoff, ou em dead letter
+     * (FAILED), ficam de fora, preservando a ordem de entrega por usuário (usa o índice
+     * (user_id, status, id)). Um evento FAILED segura os seguintes até ser reenviado ou descartado.
+     * 
+     * @param status situação dos eventos (PENDING)
+     * @param failed situação dos eventos em dead letter (FAILED)
+     * @param now instante atual
+     * @param limit tamanho máximo do lote
+     * @return eventos ordenados por ID
+     */
+    @Transactional
+    @Query("""
+            SELECT e FROM OutboxEvent e
+            WHERE e.status = :status
+              AND e.nextAttemptAt <= :now
+              AND NOT EXISTS (
+                  SELECT 1 FROM OutboxEvent earlier
+                  WHERE earlier.userId = e.userId
+                    AND earlier.id < e.id
+                    AND (earlier.status = :failed
+                         OR (earlier.status = :status AND earlier.nextAttemptAt > :now)))
+            ORDER BY e.id""")
+    List<OutboxEvent> findDeliverable(@Param("status") OutboxEvent.Status status,
+                                      @Param("failed") OutboxEvent.Status failed,
+                                      @Param("now") LocalDateTime now, Limit limit);
+
+    /**
+     * Conta os eventos em uma determinada situação.
+     * 
+     * @param status situação dos eventos
+     * @return quantidade de eventos
+     */
+    @Transactional
+    long countByStatus(OutboxEvent.Status status);
+}
@@ -0,0 +1,107 @@
+package com.example.usersapi.repository;
+
+import com.example.usersapi.invalidation.InvalidationBus;
+import com.example.usersapi.invalidation.InvalidationListener;
+import com.example.usersapi.model.User;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.Cache;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Invalida o cache de segundo nível quando usuários são gravados por SQL direto (JdbcTemplate).
+ *
+ * Alterações feitas pelo JPA (save, delete, JPQL em lote) já são tratadas pelo Hibernate.
+ * O upsert por email e a importação em lote, porém, gravam sem passar por ele: sem este
+ * aviso, findById continuaria devolvendo a versão antiga e findByEmail/existsByEmail
+ * continuariam dizendo que um email recém-importado não existe.
+ *
+ * A invalidação acontece na hora e de novo ao fim da transação: uma leitura concorrente
+ * feita antes do commit poderia recolocar no cache o estado anterior.
+ * Cada invalidação é contada em users.cache.invalidations, com a origem como tag.
+ *
+ * Com users.invalidation, a escrita confirmada também é publicada no InvalidationBus, e as
+ * escritas das outras instâncias chegam por ele (invalidate/invalidateAll).
+ */
+@Component
+@Slf4j
+public class UserCacheInvalidator implements InvalidationListener {
+
+    private final Cache cache;
+    private final MeterRegistry meterRegistry;
+    private final ObjectProvider<InvalidationBus> invalidationBus;
+
+    public UserCacheInvalidator(EntityManagerFactory entityManagerFactory, MeterRegistry meterRegistry,
+                                ObjectProvider<InvalidationBus> invalidationBus) {
+        this.cache = entityManagerFactory.getCache().unwrap(Cache.class);
+        this.meterRegistry = meterRegistry;
+        this.invalidationBus = invalidationBus;
+    }
+
+    /**
+     * Avisa que usuários foram inseridos ou alterados fora do JPA.
+     *
+     * @param source origem da escrita (tag da métrica, ex.: "upsert", "import")
+     * @param ids IDs alterados; usuários apenas inseridos não precisam ser informados,
+     *            pois ainda não estão no cache de entidades
+     */
+    public void usersWritten(String source, Collection<Long> ids) {
+        List<Long> changed = List.copyOf(ids);
+        long version = InvalidationBus.version(LocalDateTime.now());
+        evict(changed);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    evict(changed);
+                    if (status == STATUS_COMMITTED) {
+                        invalidationBus.ifAvailable(bus -> bus.publish(changed, version));
+                    }
+                }
+            });
+        } else {
+            invalidationBus.ifAvailable(bus -> bus.publish(changed, version));
+        }
+        invalidations(source).increment();
+        log.debug("Cache de usuários invalidado ({}): {} entidades e resultados de consultas", source, changed.size());
+    }
+
+    /**
+     * Usuários gravados em outra instância.
+     */
+    @Override
+    public void invalidate(Collection<Long> ids) {
+        evict(ids);
+    }
+
+    /**
+     * Avisos de outra instância perdidos: todos os usuários e consultas saem do cache.
+     */
+    @Override
+    public void invalidateAll() {
+        cache.evictEntityData(User.class);
+        cache.evictQueryRegions();
+    }
+
+    private void evict(Collection<Long> ids) {
+        ids.forEach(id -> cache.evictEntityData(User.class, id));
+        // Qualquer resultado de consulta pode ter mudado (ex.: um email que não existia agora existe)
+        cache.evictQueryRegions();
+    }
+
+    private Counter invalidations(String source) {
+        return Counter.builder("users.cache.invalidations")
+                .tag("source", source)
+                .description("Invalidações do cache de usuários por escritas fora do JPA")
+                .register(meterRegistry);
+    }
+}
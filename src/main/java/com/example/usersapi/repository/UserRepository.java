@@ -1,8 +1,12 @@
 package com.example.usersapi.repository;
 
 import com.example.usersapi.model.User;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.AvailableHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
@@ -22,9 +26,18 @@ import java.util.Optional;
  * - findAll(): listar todos
  * - deleteById(id): deletar por ID
  * - existsById(id): verificar se existe
+ * 
+ * UserRepositoryCustom acrescenta a busca com filtro/ordenação (search),
+ * implementada em UserRepositoryImpl.
+ * 
+ * Cache: findById usa o cache de segundo nível da entidade User automaticamente.
+ * As consultas marcadas com @QueryHints(HINT_CACHEABLE) guardam o resultado no
+ * cache de consultas do Hibernate, que o descarta sozinho sempre que a tabela users
+ * é alterada pelo JPA (save, delete, JPQL em lote). Escritas por SQL direto
+ * avisam o UserCacheInvalidator.
  */
 @Repository
-public interface UserRepository extends JpaRepository<User, Long> {
+public interface UserRepository extends JpaRepository<User, Long>, UserRepositoryCustom {
 
     /**
      * Método para buscar usuário por email.
@@ -34,6 +47,7 @@ public interface UserRepository extends JpaRepository<User, Long> {
      * @param email email do usuário
      * @return Optional contendo o usuário se encontrado
      */
+    @QueryHints(@QueryHint(name = AvailableHints.HINT_CACHEABLE, value = "true"))
     Optional<User> findByEmail(String email);
 
     /**
@@ -43,6 +57,7 @@ public interface UserRepository extends JpaRepository<User, Long> {
      * @param email email a ser verificado
      * @return true se existir, false caso contrário
      */
+    @QueryHints(@QueryHint(name = AvailableHints.HINT_CACHEABLE, value = "true"))
     boolean existsByEmail(String email);
 
     /**
@@ -56,6 +71,7 @@ public interface UserRepository extends JpaRepository<User, Long> {
      * @param name nome ou parte do nome a ser buscado
      * @return lista de usuários que contêm o nome especificado
      */
+    @QueryHints(@QueryHint(name = AvailableHints.HINT_CACHEABLE, value = "true"))
     @Query("SELECT u FROM User u WHERE LOWER(u.name) LIKE LOWER(CONCAT('%', :name, '%'))")
     java.util.List<User> findByNameContainingIgnoreCase(@Param("name") String name);
 
@@ -66,6 +82,7 @@ public interface UserRepository extends JpaRepository<User, Long> {
      * @param age idade a ser buscada
      * @return lista de usuários com a idade especificada
      */
+    @QueryHints(@QueryHint(name = AvailableHints.HINT_CACHEABLE, value = "true"))
     java.util.List<User> findByAge(Integer age);
 
     /**
@@ -76,5 +93,41 @@ public interface UserRepository extends JpaRepository<User, Long> {
      * @param maxAge idade máxima
      * @return lista de usuários na faixa de idade especificada
      */
+    @QueryHints(@QueryHint(name = AvailableHints.HINT_CACHEABLE, value = "true"))
     java.util.List<User> findByAgeBetween(Integer minAge, Integer maxAge);
-}
\ No newline at end of file
+
+    /**
+     * Usuários com o telefone normalizado informado (índice idx_users_phone_digits).
+     * A busca por telefone usa o PhoneIndex em memória; esta consulta só atende enquanto
+     * ele não termina de carregar.
+     * 
+     * @param phoneDigits telefone normalizado (ver phone.PhoneNumbers)
+     * @param limit máximo de usuários
+     * @return usuários em ordem de ID
+     */
+    java.util.List<User> findByPhoneDigitsOrderByIdAsc(String phoneDigits, Limit limit);
+
+    /**
+     * Usuários com telefone normalizado na faixa [from, to), para a busca por prefixo.
+     * Uma faixa em vez de LIKE: prefixo "5511" vira [5511, 5511:) (':' vem logo depois
+     * do '9'), e o H2 percorre só esse trecho do índice.
+     * 
+     * @param from prefixo
+     * @param to prefixo seguido de ':'
+     * @param limit máximo de usuários
+     * @return usuários em ordem de telefone e de ID
+     */
+    @Query("SELECT u FROM User u WHERE u.phoneDigits >= :from AND u.phoneDigits < :to ORDER BY u.phoneDigits, u.id")
+    java.util.List<User> findByPhoneDigitsRange(@Param("from") String from, @Param("to") String to, Limit limit);
+
+    /**
+     * existsById do JpaRepository redeclarado só para receber a dica de cache:
+     * o Spring Data aplica as @QueryHints do método à consulta de contagem que ele gera.
+     * 
+     * @param id ID do usuário
+     * @return true se existir, false caso contrário
+     */
+    @Override
+    @QueryHints(@QueryHint(name = AvailableHints.HINT_CACHEABLE, value = "true"))
+    boolean existsById(Long id);
+}
@@ -0,0 +1,98 @@
+package com.example.usersapi.repository;
+
+import com.example.usersapi.dto.UserFieldSet;
+import com.example.usersapi.model.User;
+import com.example.usersapi.query.UserQuery;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Operações de UserRepository implementadas manualmente (fragmento customizado do Spring Data).
+ * 
+ * O Spring Data combina esta interface com a implementação UserRepositoryImpl,
+ * encontrada pelo sufixo "Impl" no mesmo pacote.
+ */
+public interface UserRepositoryCustom {
+
+    /**
+     * Executa uma consulta da linguagem de filtro/ordenação.
+     * 
+     * @param query consulta validada
+     * @return até query.limit() + 1 usuários (a linha extra indica que há próxima página)
+     */
+    List<User> search(UserQuery query);
+
+    /**
+     * Mesma busca de search, mas selecionando apenas algumas colunas.
+     * 
+     * @param query consulta validada
+     * @param columns colunas a selecionar
+     * @return linhas como arrays indexados pelo ordinal de UserResponseField
+     */
+    List<Object[]> searchColumns(UserQuery query, UserFieldSet columns);
+
+    /**
+     * Lista todos os usuários selecionando apenas algumas colunas.
+     * 
+     * @param columns colunas a selecionar
+     * @return linhas como arrays indexados pelo ordinal de UserResponseField
+     */
+    List<Object[]> findAllColumns(UserFieldSet columns);
+
+    /**
+     * Busca um usuário por ID selecionando apenas algumas colunas.
+     * 
+     * @param id ID do usuário
+     * @param columns colunas a selecionar
+     * @return linha como array indexado pelo ordinal de UserResponseField
+     */
+    Optional<Object[]> findColumnsById(Long id, UserFieldSet columns);
+
+    /**
+     * Insere ou atualiza o usuário com o email informado em um único comando SQL (MERGE).
+     * 
+     * Seguro com chamadas concorrentes sem lock na aplicação: a constraint única de email
+     * garante que só uma inserção vence; a perdedora repete o MERGE, que então atualiza.
+     * 
+     * @param user dados do usuário (o email é a chave)
+     * @return usuário gravado e se ele foi criado ou atualizado
+     */
+    Upsert upsertByEmail(User user);
+
+    /**
+     * Insere vários usuários novos de uma vez (JDBC batch), usado pela importação em lote.
+     * 
+     * Os usuários já devem ter createdAt e updatedAt preenchidos; o ID gerado pelo banco
+     * é preenchido em cada um deles.
+     * 
+     * @param users usuários a inserir (emails já verificados com findExistingEmails)
+     */
+    void insertAll(List<User> users);
+
+    /**
+     * Insere um usuário mantendo ID, createdAt e updatedAt (usuário trazido de volta do arquivo).
+     * 
+     * @param user usuário completo, com um ID que não está na tabela
+     */
+    void insertWithId(User user);
+
+    /**
+     * Dentre os emails informados, os que já estão cadastrados (uma consulta para todos).
+     * 
+     * @param emails emails a verificar
+     * @return emails já em uso
+     */
+    Set<String> findExistingEmails(Collection<String> emails);
+
+    /**
+     * Resultado de upsertByEmail.
+     * 
+     * @param user linha gravada (lida da própria instrução, sem SELECT adicional)
+     * @param created true se a linha foi inserida
+     */
+    record Upsert(User user, boolean created) {
+    }
+}
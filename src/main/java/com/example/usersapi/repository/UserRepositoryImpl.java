@@ -0,0 +1,185 @@
+package com.example.usersapi.repository;
+
+import com.example.usersapi.dto.UserFieldSet;
+import com.example.usersapi.model.User;
+import com.example.usersapi.phone.PhoneNumbers;
+import com.example.usersapi.query.UserQuery;
+import com.example.usersapi.query.UserQueryCompiler;
+import lombok.RequiredArgsConstructor;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Implementação das consultas customizadas de UserRepository.
+ * 
+ * Usa JdbcTemplate com o SQL compilado pelo UserQueryCompiler: a consulta
+ * é exatamente a que foi validada contra os índices, sem tradução adicional do JPA.
+ * Os usuários retornados não são gerenciados pelo EntityManager (somente leitura).
+ * O upsert por email também usa SQL direto: um MERGE faz em uma instrução o que
+ * com JPA seriam um SELECT e depois um INSERT ou UPDATE. Como o Hibernate não vê
+ * essa escrita, o UserCacheInvalidator descarta o usuário do cache de segundo nível.
+ */
+@RequiredArgsConstructor
+public class UserRepositoryImpl implements UserRepositoryCustom {
+
+    /**
+     * Converte uma linha do ResultSet em User.
+     */
+    public static final RowMapper<User> USER_ROW_MAPPER = (rs, rowNum) -> {
+        User user = new User(
+                rs.getString("name"),
+                rs.getString("email"),
+                rs.getObject("age", Integer.class),
+                rs.getString("phone"));
+        user.setId(rs.getLong("id"));
+        user.setCreatedAt(rs.getObject("created_at", LocalDateTime.class));
+        user.setUpdatedAt(rs.getObject("updated_at", LocalDateTime.class));
+        return user;
+    };
+
+    /**
+     * MERGE por email embrulhado em FINAL TABLE: o H2 devolve a linha como ficou após
+     * o INSERT ou UPDATE, então criação/atualização e leitura do resultado são um único round-trip.
+     * 
+     * A coluna inserted diz qual dos dois ramos rodou, sem depender do relógio de quem chamou:
+     * - INSERT grava created_at = updated_at
+     * - UPDATE grava updated_at estritamente depois de created_at (no mínimo 1 µs), mesmo que
+     *   o instante desta chamada seja igual ou anterior ao da inserção feita por outra
+     */
+    private static final String UPSERT_BY_EMAIL_SQL = """
+            SELECT id, name, email, age, phone, created_at, updated_at, created_at = updated_at AS inserted
+            FROM FINAL TABLE (
+                MERGE INTO users u USING (VALUES (CAST(? AS VARCHAR(150)))) s(email) ON u.email = s.email
+                WHEN MATCHED THEN UPDATE SET name = ?, age = ?, phone = ?, phone_digits = ?,
+                    updated_at = GREATEST(CAST(? AS TIMESTAMP(6)), DATEADD(MICROSECOND, 1, u.created_at))
+                WHEN NOT MATCHED THEN INSERT (name, email, age, phone, phone_digits, created_at, updated_at)
+                    VALUES (?, s.email, ?, ?, ?, ?, ?)
+            )""";
+
+    private static final String INSERT_SQL = "INSERT INTO users (name, email, age, phone, phone_digits, created_at, updated_at)"
+            + " VALUES (?, ?, ?, ?, ?, ?, ?)";
+
+    private static final String INSERT_WITH_ID_SQL = "INSERT INTO users (id, name, email, age, phone, phone_digits, created_at, updated_at)"
+            + " VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final UserQueryCompiler userQueryCompiler;
+    private final UserCacheInvalidator userCacheInvalidator;
+
+    @Override
+    public List<User> search(UserQuery query) {
+        UserQueryCompiler.SqlQuery sql = userQueryCompiler.compile(query);
+        return jdbcTemplate.query(sql.sql(), USER_ROW_MAPPER, sql.parameters().toArray());
+    }
+
+    @Override
+    public List<Object[]> searchColumns(UserQuery query, UserFieldSet columns) {
+        UserQueryCompiler.SqlQuery sql = userQueryCompiler.compile(query, columns.selectColumns());
+        return jdbcTemplate.query(sql.sql(), (rs, rowNum) -> columns.readRow(rs), sql.parameters().toArray());
+    }
+
+    @Override
+    public List<Object[]> findAllColumns(UserFieldSet columns) {
+        // ORDER BY id mantém a mesma ordem da listagem completa, mesmo quando
+        // o H2 escolhe um índice que cobre as colunas pedidas (ex.: id, name)
+        return jdbcTemplate.query("SELECT " + columns.selectColumns() + " FROM users ORDER BY id",
+                (rs, rowNum) -> columns.readRow(rs));
+    }
+
+    @Override
+    public Optional<Object[]> findColumnsById(Long id, UserFieldSet columns) {
+        return jdbcTemplate.query("SELECT " + columns.selectColumns() + " FROM users WHERE id = ?",
+                (rs, rowNum) -> columns.readRow(rs), id).stream().findFirst();
+    }
+
+    @Override
+    public Upsert upsertByEmail(User user) {
+        try {
+            return merge(user);
+        } catch (DuplicateKeyException e) {
+            // Outra transação inseriu o mesmo email entre a verificação do MERGE e o INSERT.
+            // A linha agora existe (e já foi confirmada), então a segunda tentativa vira UPDATE.
+            return merge(user);
+        }
+    }
+
+    @Override
+    public void insertAll(List<User> users) {
+        if (users.isEmpty()) {
+            return;
+        }
+        // Um único batch que também devolve os IDs gerados (getGeneratedKeys)
+        KeyHolder keys = new GeneratedKeyHolder();
+        jdbcTemplate.batchUpdate(connection -> connection.prepareStatement(INSERT_SQL, new String[]{"id"}),
+                new BatchPreparedStatementSetter() {
+                    @Override
+                    public void setValues(PreparedStatement ps, int i) throws SQLException {
+                        User user = users.get(i);
+                        ps.setString(1, user.getName());
+                        ps.setString(2, user.getEmail());
+                        ps.setObject(3, user.getAge());
+                        ps.setString(4, user.getPhone());
+                        ps.setString(5, PhoneNumbers.normalize(user.getPhone()));
+                        ps.setObject(6, user.getCreatedAt());
+                        ps.setObject(7, user.getUpdatedAt());
+                    }
+
+                    @Override
+                    public int getBatchSize() {
+                        return users.size();
+                    }
+                }, keys);
+        List<Map<String, Object>> generated = keys.getKeyList();
+        for (int i = 0; i < users.size(); i++) {
+            users.get(i).setId(((Number) generated.get(i).get("id")).longValue());
+        }
+        // Só inserções: nenhuma entidade em cache mudou, mas consultas como existsByEmail sim
+        userCacheInvalidator.usersWritten("import", List.of());
+    }
+
+    @Override
+    public void insertWithId(User user) {
+        jdbcTemplate.update(INSERT_WITH_ID_SQL, user.getId(), user.getName(), user.getEmail(), user.getAge(),
+                user.getPhone(), PhoneNumbers.normalize(user.getPhone()), user.getCreatedAt(), user.getUpdatedAt());
+        userCacheInvalidator.usersWritten("rehydrate", List.of(user.getId()));
+    }
+
+    @Override
+    public Set<String> findExistingEmails(Collection<String> emails) {
+        if (emails.isEmpty()) {
+            return Set.of();
+        }
+        String placeholders = String.join(", ", Collections.nCopies(emails.size(), "?"));
+        return new HashSet<>(jdbcTemplate.queryForList(
+                "SELECT email FROM users WHERE email IN (" + placeholders + ")", String.class, emails.toArray()));
+    }
+
+    private Upsert merge(User user) {
+        // Precisão de microssegundos, a mesma da coluna TIMESTAMP(6): created_at = updated_at na inserção
+        LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.MICROS);
+        String phoneDigits = PhoneNumbers.normalize(user.getPhone());
+        Upsert upsert = jdbcTemplate.queryForObject(UPSERT_BY_EMAIL_SQL,
+                (rs, rowNum) -> new Upsert(USER_ROW_MAPPER.mapRow(rs, rowNum), rs.getBoolean("inserted")),
+                user.getEmail(),
+                user.getName(), user.getAge(), user.getPhone(), phoneDigits, now,
+                user.getName(), user.getAge(), user.getPhone(), phoneDigits, now, now);
+        userCacheInvalidator.usersWritten("upsert", List.of(upsert.user().getId()));
+        return upsert;
+    }
+}
@@ -0,0 +1,14 @@
+package com.example.usersapi.service;
+
+/**
+ * A importação parou por uma falha do servidor (banco, transação...), não do arquivo.
+ * Ela fica FAILED com o erro registrado e pode ser retomada com o mesmo importId.
+ * Convertida em 500 pelo GlobalExceptionHandler.
+ */
+public class ImportFailedException extends RuntimeException {
+
+    public ImportFailedException(String importId, long linesCommitted, Throwable cause) {
+        super("Importação " + importId + " interrompida depois da linha " + linesCommitted
+                + "; reenvie com o mesmo importId para retomar", cause);
+    }
+}
@@ -0,0 +1,12 @@
+package com.example.usersapi.service;
+
+/**
+ * Outra chamada está com a importação (mesmo importId em andamento).
+ * Convertida em 409 pelo GlobalExceptionHandler.
+ */
+public class ImportInProgressException extends RuntimeException {
+
+    public ImportInProgressException(String importId) {
+        super("Importação " + importId + " já está em andamento em outra chamada");
+    }
+}
@@ -0,0 +1,300 @@
+package com.example.usersapi.service;
+
+import com.example.usersapi.config.OutboxProperties;
+import com.example.usersapi.model.OutboxDelivery;
+import com.example.usersapi.model.OutboxEvent;
+import com.example.usersapi.repository.OutboxDeliveryRepository;
+import com.example.usersapi.repository.OutboxEventRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Limit;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.stream.Collectors;
+
+/**
+ * Componente que drena a tabela de outbox e entrega os eventos aos webhooks.
+ * 
+ * Funcionamento de cada ciclo:
+ * 1. Lê um lote de eventos PENDING em ordem de ID (uma única query), já sem os
+ *    eventos em backoff e sem os que esperam um evento anterior do mesmo usuário
+ * 2. Lê de uma vez quais webhooks já receberam cada evento do lote (OutboxDelivery)
+ * 3. Agrupa os eventos por usuário, preservando a ordem
+ * 4. Entrega os grupos em paralelo (no máximo users.outbox.concurrency ao mesmo tempo),
+ *    mas os eventos de um mesmo usuário sempre em sequência
+ * 5. Se um webhook falha, os eventos seguintes do mesmo usuário esperam,
+ *    e o evento recebe nova tentativa com backoff exponencial; a nova tentativa
+ *    só chama os webhooks que ainda não confirmaram
+ * 6. Remove de uma vez (um DELETE por tabela) os eventos entregues a todos os webhooks
+ * 
+ * Dead letter: depois de users.outbox.max-attempts falhas o evento fica FAILED e
+ * continua segurando os eventos seguintes do mesmo usuário (entregá-los antes faria o
+ * assinante ver, por exemplo, USER_DELETED sem o USER_UPDATED anterior). Ele sai dessa
+ * situação por replay (volta a PENDING, com novas tentativas) ou acknowledge (descartado),
+ * ambos em /actuator/outbox.
+ * 
+ * A entrega é "at-least-once": um webhook pode receber o evento de novo se a aplicação
+ * cair entre a resposta dele e o registro da entrega (ou a remoção do evento).
+ * Os assinantes devem usar o header X-Event-Id para descartar duplicatas.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class OutboxDispatcher {
+
+    static final String EVENT_ID_HEADER = "X-Event-Id";
+    static final String EVENT_TYPE_HEADER = "X-Event-Type";
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final OutboxDeliveryRepository outboxDeliveryRepository;
+    private final OutboxProperties properties;
+    private final HttpClient outboxHttpClient;
+    private final ExecutorService outboxExecutor;
+    private final ObjectMapper objectMapper;
+
+    /**
+     * Ciclo agendado do dispatcher.
+     * 
+     * @Scheduled(fixedDelayString): o próximo ciclo começa um intervalo após o fim do anterior,
+     * então dois ciclos nunca rodam ao mesmo tempo.
+     * initialDelayString: o primeiro ciclo também espera um intervalo, em vez de disputar a inicialização.
+     * Enquanto os lotes vierem cheios e forem totalmente entregues, drena novamente sem esperar.
+     */
+    @Scheduled(fixedDelayString = "${users.outbox.poll-interval:PT0.5S}",
+            initialDelayString = "${users.outbox.poll-interval:PT0.5S}")
+    public void scheduledDrain() {
+        if (!properties.isEnabled() || properties.getWebhooks().isEmpty()) {
+            return;
+        }
+        while (drain() == properties.getBatchSize()) {
+            log.debug("Lote do outbox completo, drenando novamente");
+        }
+    }
+
+    /**
+     * Executa um ciclo de entrega.
+     * 
+     * @return quantidade de eventos entregues com sucesso
+     */
+    public int drain() {
+        List<OutboxEvent> batch = outboxEventRepository.findDeliverable(OutboxEvent.Status.PENDING,
+                OutboxEvent.Status.FAILED, LocalDateTime.now(), Limit.of(properties.getBatchSize()));
+        if (batch.isEmpty()) {
+            return 0;
+        }
+        Map<Long, Set<String>> deliveredWebhooks = deliveredWebhooks(batch);
+
+        // Agrupa por usuário mantendo a ordem de ID dentro de cada grupo
+        Map<Long, List<OutboxEvent>> eventsByUser = batch.stream()
+                .collect(Collectors.groupingBy(OutboxEvent::getUserId, LinkedHashMap::new, Collectors.toList()));
+
+        List<Callable<List<Long>>> tasks = new ArrayList<>();
+        eventsByUser.values().forEach(events -> tasks.add(() -> deliverInOrder(events, deliveredWebhooks)));
+
+        List<Long> deliveredIds = new ArrayList<>();
+        try {
+            for (Future<List<Long>> result : outboxExecutor.invokeAll(tasks)) {
+                deliveredIds.addAll(result.get());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            log.warn("Entrega do outbox interrompida");
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Falha inesperada na entrega do outbox", e.getCause());
+        } finally {
+            if (!deliveredIds.isEmpty()) {
+                outboxDeliveryRepository.deleteByEventIdIn(deliveredIds);
+                outboxEventRepository.deleteAllByIdInBatch(deliveredIds);
+            }
+        }
+
+        log.debug("Outbox: {} de {} eventos entregues", deliveredIds.size(), batch.size());
+        return deliveredIds.size();
+    }
+
+    /**
+     * Eventos em dead letter (FAILED), do mais antigo ao mais novo.
+     * 
+     * @param limit quantidade máxima
+     */
+    public List<OutboxEvent> failedEvents(int limit) {
+        return outboxEventRepository.findByStatusOrderByIdAsc(OutboxEvent.Status.FAILED, Limit.of(limit));
+    }
+
+    /**
+     * Webhooks que já confirmaram cada evento.
+     */
+    public Map<Long, Set<String>> deliveredWebhooks(List<OutboxEvent> events) {
+        Map<Long, Set<String>> delivered = new LinkedHashMap<>();
+        outboxDeliveryRepository.findByEventIdIn(events.stream().map(OutboxEvent::getId).toList())
+                .forEach(delivery -> delivered.computeIfAbsent(delivery.getEventId(), id -> new HashSet<>())
+                        .add(delivery.getWebhook()));
+        return delivered;
+    }
+
+    /**
+     * Devolve um evento FAILED à fila: volta a PENDING com as tentativas zeradas, e os
+     * eventos seguintes do usuário voltam a ser entregues depois dele. Webhooks que já
+     * o receberam não são chamados de novo.
+     * 
+     * @return evento reenfileirado, ou vazio se não existe evento FAILED com esse ID
+     */
+    @Transactional
+    public Optional<OutboxEvent> replay(long eventId) {
+        return outboxEventRepository.findById(eventId)
+                .filter(event -> event.getStatus() == OutboxEvent.Status.FAILED)
+                .map(event -> {
+                    event.setStatus(OutboxEvent.Status.PENDING);
+                    event.setAttempts(0);
+                    event.setNextAttemptAt(LocalDateTime.now());
+                    log.info("Evento {} do usuário {} reenfileirado", event.getId(), event.getUserId());
+                    return outboxEventRepository.save(event);
+                });
+    }
+
+    /**
+     * Descarta um evento FAILED sem entregá-lo: os eventos seguintes do usuário são liberados.
+     * 
+     * @return evento descartado, ou vazio se não existe evento FAILED com esse ID
+     */
+    @Transactional
+    public Optional<OutboxEvent> acknowledge(long eventId) {
+        return outboxEventRepository.findById(eventId)
+                .filter(event -> event.getStatus() == OutboxEvent.Status.FAILED)
+                .map(event -> {
+                    outboxDeliveryRepository.deleteByEventIdIn(List.of(event.getId()));
+                    outboxEventRepository.delete(event);
+                    log.warn("Evento {} do usuário {} descartado sem entrega ({})",
+                            event.getId(), event.getUserId(), event.getLastError());
+                    return event;
+                });
+    }
+
+    /**
+     * Entrega os eventos de um usuário em sequência, parando no primeiro erro.
+     * 
+     * @return IDs dos eventos entregues
+     */
+    private List<Long> deliverInOrder(List<OutboxEvent> events, Map<Long, Set<String>> deliveredWebhooks) {
+        List<Long> delivered = new ArrayList<>(events.size());
+        for (OutboxEvent event : events) {
+            try {
+                deliver(event, deliveredWebhooks.getOrDefault(event.getId(), Set.of()));
+                delivered.add(event.getId());
+            } catch (Exception e) {
+                if (e instanceof InterruptedException) {
+                    Thread.currentThread().interrupt();
+                }
+                registerFailure(event, e);
+                break;
+            }
+        }
+        return delivered;
+    }
+
+    /**
+     * Envia um evento para os webhooks configurados que ainda não o receberam.
+     * Qualquer resposta fora da faixa 2xx é considerada falha.
+     * 
+     * Cada confirmação é registrada antes de chamar o próximo webhook, para que uma falha
+     * adiante não faça a nova tentativa repetir o envio. A última não precisa de registro:
+     * com ela o evento está entregue e será removido.
+     */
+    private void deliver(OutboxEvent event, Set<String> alreadyDelivered) throws IOException, InterruptedException {
+        String body = toEnvelope(event);
+        List<String> pending = properties.getWebhooks().stream()
+                .filter(webhook -> !alreadyDelivered.contains(webhook))
+                .toList();
+        for (int i = 0; i < pending.size(); i++) {
+            String webhook = pending.get(i);
+            HttpRequest request = HttpRequest.newBuilder()
+                    .uri(URI.create(webhook))
+                    .timeout(properties.getRequestTimeout())
+                    .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                    .header(EVENT_ID_HEADER, String.valueOf(event.getId()))
+                    .header(EVENT_TYPE_HEADER, event.getEventType().name())
+                    .POST(HttpRequest.BodyPublishers.ofString(body))
+                    .build();
+
+            HttpResponse<Void> response = outboxHttpClient.send(request, HttpResponse.BodyHandlers.discarding());
+            if (response.statusCode() / 100 != 2) {
+                throw new IOException("Webhook " + webhook + " respondeu com status " + response.statusCode());
+            }
+            if (i < pending.size() - 1) {
+                outboxDeliveryRepository.save(new OutboxDelivery(event.getId(), webhook, LocalDateTime.now()));
+            }
+        }
+    }
+
+    /**
+     * Monta o corpo JSON enviado aos webhooks.
+     */
+    private String toEnvelope(OutboxEvent event) throws IOException {
+        ObjectNode envelope = objectMapper.createObjectNode();
+        envelope.put("eventId", event.getId());
+        envelope.put("type", event.getEventType().name());
+        envelope.put("userId", event.getUserId());
+        envelope.put("occurredAt", event.getCreatedAt().toString());
+        envelope.set("data", event.getPayload() == null ? null : objectMapper.readTree(event.getPayload()));
+        return objectMapper.writeValueAsString(envelope);
+    }
+
+    /**
+     * Registra a falha e agenda a próxima tentativa com backoff exponencial.
+     * Depois de users.outbox.max-attempts falhas, o evento é marcado como FAILED (dead letter).
+     */
+    private void registerFailure(OutboxEvent event, Exception error) {
+        int attempts = event.getAttempts() + 1;
+        event.setAttempts(attempts);
+        event.setLastError(abbreviate(String.valueOf(error.getMessage())));
+
+        if (attempts >= properties.getMaxAttempts()) {
+            event.setStatus(OutboxEvent.Status.FAILED);
+            log.error("Evento {} do usuário {} em dead letter após {} tentativas; os eventos seguintes do usuário "
+                            + "aguardam replay ou acknowledge em /actuator/outbox: {}",
+                    event.getId(), event.getUserId(), attempts, error.getMessage());
+        } else {
+            Duration backoff = backoff(attempts);
+            event.setNextAttemptAt(LocalDateTime.now().plus(backoff));
+            log.warn("Falha ao entregar evento {} do usuário {} (tentativa {}), nova tentativa em {}: {}",
+                    event.getId(), event.getUserId(), attempts, backoff, error.getMessage());
+        }
+        outboxEventRepository.save(event);
+    }
+
+    /**
+     * Calcula o backoff: initialBackoff * 2^(tentativas - 1), limitado a maxBackoff.
+     */
+    Duration backoff(int attempts) {
+        Duration backoff = properties.getInitialBackoff().multipliedBy(1L << Math.min(attempts - 1, 30));
+        return backoff.compareTo(properties.getMaxBackoff()) > 0 ? properties.getMaxBackoff() : backoff;
+    }
+
+    private static String abbreviate(String message) {
+        return message.length() <= 500 ? message : message.substring(0, 500);
+    }
+}
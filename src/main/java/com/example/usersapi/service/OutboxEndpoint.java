@@ -0,0 +1,77 @@
+package com.example.usersapi.service;
+
+import com.example.usersapi.model.OutboxEvent;
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Selector;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.boot.actuate.endpoint.web.WebEndpointResponse;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Endpoint administrativo do dead letter do outbox: /actuator/outbox.
+ *
+ * - GET /actuator/outbox: lista os eventos FAILED (os que seguram os eventos seguintes do usuário)
+ * - POST /actuator/outbox/{id}: replay, o evento volta à fila com as tentativas zeradas
+ * - DELETE /actuator/outbox/{id}: acknowledge, o evento é descartado sem entrega
+ *
+ * Nos dois casos os eventos seguintes do usuário voltam a ser entregues.
+ * Um ID que não é de um evento FAILED responde 404. WebEndpointResponse: nas operações
+ * de escrita, retornar null responderia 204, como se tivesse funcionado.
+ */
+@Endpoint(id = "outbox")
+public class OutboxEndpoint {
+
+    private static final int MAX_LISTED = 100;
+
+    private final OutboxDispatcher dispatcher;
+
+    public OutboxEndpoint(OutboxDispatcher dispatcher) {
+        this.dispatcher = dispatcher;
+    }
+
+    @ReadOperation
+    public List<FailedEvent> failed() {
+        List<OutboxEvent> events = dispatcher.failedEvents(MAX_LISTED);
+        Map<Long, Set<String>> delivered = dispatcher.deliveredWebhooks(events);
+        return events.stream()
+                .map(event -> FailedEvent.of(event, delivered.getOrDefault(event.getId(), Set.of())))
+                .toList();
+    }
+
+    @WriteOperation
+    public WebEndpointResponse<FailedEvent> replay(@Selector long id) {
+        return response(dispatcher.replay(id));
+    }
+
+    @DeleteOperation
+    public WebEndpointResponse<FailedEvent> acknowledge(@Selector long id) {
+        return response(dispatcher.acknowledge(id));
+    }
+
+    private static WebEndpointResponse<FailedEvent> response(Optional<OutboxEvent> event) {
+        return event.map(found -> new WebEndpointResponse<>(FailedEvent.of(found, Set.of())))
+                .orElseGet(() -> new WebEndpointResponse<>(WebEndpointResponse.STATUS_NOT_FOUND));
+    }
+
+    /**
+     * Resumo de um evento em dead letter.
+     *
+     * @param deliveredTo webhooks que já confirmaram o evento (não são chamados de novo no replay)
+     */
+    public record FailedEvent(long id, long userId, String type, String status, int attempts, String lastError,
+                              LocalDateTime createdAt, Set<String> deliveredTo) {
+
+        static FailedEvent of(OutboxEvent event, Set<String> deliveredTo) {
+            return new FailedEvent(event.getId(), event.getUserId(), event.getEventType().name(),
+                    event.getStatus().name(), event.getAttempts(), event.getLastError(), event.getCreatedAt(),
+                    deliveredTo);
+        }
+    }
+}
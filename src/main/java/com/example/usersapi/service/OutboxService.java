@@ -0,0 +1,70 @@
+package com.example.usersapi.service;
+
+import com.example.usersapi.config.OutboxProperties;
+import com.example.usersapi.dto.UserResponse;
+import com.example.usersapi.model.OutboxEvent;
+import com.example.usersapi.model.UserEventType;
+import com.example.usersapi.repository.OutboxEventRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Service que grava eventos de usuários na tabela de outbox.
+ * 
+ * Propagation.MANDATORY: exige uma transação já aberta (a do UserService),
+ * de modo que o evento é confirmado ou desfeito junto com a alteração do usuário.
+ * Nenhuma chamada HTTP acontece aqui; a entrega é feita pelo OutboxDispatcher.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+@Transactional(propagation = Propagation.MANDATORY)
+public class OutboxService {
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final OutboxProperties properties;
+    private final ObjectMapper objectMapper;
+
+    /**
+     * Registra um evento de criação ou atualização com o estado atual do usuário.
+     * 
+     * @param type tipo do evento
+     * @param user estado do usuário após a alteração
+     */
+    public void record(UserEventType type, UserResponse user) {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        save(new OutboxEvent(user.getId(), type, toJson(user)));
+    }
+
+    /**
+     * Registra um evento de remoção (sem payload).
+     * 
+     * @param userId ID do usuário removido
+     */
+    public void recordDeleted(Long userId) {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        save(new OutboxEvent(userId, UserEventType.USER_DELETED, null));
+    }
+
+    private void save(OutboxEvent event) {
+        outboxEventRepository.save(event);
+        log.debug("Evento {} registrado no outbox para o usuário {}", event.getEventType(), event.getUserId());
+    }
+
+    private String toJson(UserResponse user) {
+        try {
+            return objectMapper.writeValueAsString(user);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Falha ao serializar evento do usuário " + user.getId(), e);
+        }
+    }
+}
@@ -0,0 +1,484 @@
+package com.example.usersapi.service;
+
+import com.example.usersapi.archive.UserArchive;
+import com.example.usersapi.config.ImportProperties;
+import com.example.usersapi.dto.CreateUserRequest;
+import com.example.usersapi.dto.ImportRejectionResponse;
+import com.example.usersapi.dto.ImportReport;
+import com.example.usersapi.model.ImportFormat;
+import com.example.usersapi.model.ImportJob;
+import com.example.usersapi.model.ImportRejection;
+import com.example.usersapi.model.User;
+import com.example.usersapi.phone.PhoneIndex;
+import com.example.usersapi.repository.ImportJobRepository;
+import com.example.usersapi.repository.ImportRejectionRepository;
+import com.example.usersapi.repository.UserRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.type.CollectionType;
+import com.fasterxml.jackson.dataformat.csv.CsvMapper;
+import com.fasterxml.jackson.dataformat.csv.CsvParser;
+import com.fasterxml.jackson.dataformat.csv.CsvSchema;
+import jakarta.validation.Validator;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.regex.Pattern;
+
+/**
+ * Service de importação em lote de usuários (CSV ou NDJSON).
+ *
+ * O arquivo é lido linha a linha, sem ser carregado inteiro na memória. A cada
+ * batch-size linhas:
+ * 1. as linhas são convertidas e validadas em paralelo (mesmas regras de CreateUserRequest);
+ * 2. emails repetidos (no lote ou já cadastrados) são rejeitados com uma única consulta;
+ * 3. as linhas válidas são inseridas com JDBC batch e, na mesma transação (commit por lote),
+ *    são gravados as rejeições (ImportRejection) e o progresso da importação.
+ *
+ * Reenviar o arquivo com o mesmo importId pula as linhas já confirmadas. Cada chamada
+ * reserva a importação antes de ler (ImportJobRepository.claim): duas chamadas simultâneas
+ * com o mesmo ID não processam o arquivo ao mesmo tempo.
+ * A importação não gera eventos no outbox: é uma carga inicial, não uma alteração de usuário.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class UserImportService {
+
+    private static final Set<String> CSV_COLUMNS = Set.of("name", "email", "age", "phone");
+
+    /**
+     * O importId também vai na URL das rejeições.
+     */
+    private static final Pattern IMPORT_ID = Pattern.compile("[A-Za-z0-9._-]{1,64}");
+
+    private static final CsvMapper CSV_MAPPER = CsvMapper.builder()
+            .enable(CsvParser.Feature.EMPTY_STRING_AS_NULL)
+            .build();
+
+    private final ImportJobRepository importJobRepository;
+    private final ImportRejectionRepository importRejectionRepository;
+    private final UserRepository userRepository;
+    private final UserArchive userArchive;
+    private final PhoneIndex phoneIndex;
+    private final ImportProperties properties;
+    private final TransactionTemplate transactionTemplate;
+    private final Validator validator;
+    private final ObjectMapper objectMapper;
+    private final ExecutorService importExecutor;
+
+    /**
+     * Importa (ou retoma a importação de) um arquivo do disco. Usado pela linha de comando.
+     *
+     * @param file arquivo .csv, .ndjson ou .jsonl
+     * @param importId ID da importação (nulo: nome do arquivo, para que rodar de novo retome)
+     * @return resultado da importação
+     */
+    public ImportReport importFile(Path file, String importId) {
+        String fileName = file.getFileName().toString();
+        String id = importId != null ? importId : fileName.replaceAll("[^A-Za-z0-9._-]", "_");
+        try (InputStream input = Files.newInputStream(file)) {
+            return importUsers(id, ImportFormat.fromFileName(fileName), input);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Falha ao abrir o arquivo " + file, e);
+        }
+    }
+
+    /**
+     * Importa usuários de um stream (corpo da requisição ou arquivo).
+     *
+     * @param importId ID da importação; se já existir, as linhas confirmadas são puladas
+     * @param format formato do conteúdo
+     * @param input conteúdo em UTF-8 (não é fechado aqui)
+     * @return resultado da importação (FAILED se a leitura do conteúdo falhou)
+     * @throws IllegalArgumentException se o ID, o formato ou o cabeçalho CSV forem inválidos
+     * @throws ImportInProgressException se outra chamada está com a mesma importação
+     * @throws ImportFailedException se a importação parou por uma falha do servidor (fica FAILED)
+     */
+    public ImportReport importUsers(String importId, ImportFormat format, InputStream input) {
+        if (!IMPORT_ID.matcher(importId).matches()) {
+            throw new IllegalArgumentException("importId inválido (use até 64 letras, números, '.', '_' ou '-'): " + importId);
+        }
+
+        Optional<ImportJob> claimed = claim(importId, format);
+        if (claimed.isEmpty()) {
+            log.info("Importação {} já concluída, nada a fazer", importId);
+            return getImport(importId);
+        }
+        ImportJob job = claimed.get();
+        log.info("Iniciando importação {} ({}) a partir da linha {}", importId, format, job.getLinesCommitted() + 1);
+
+        try {
+            BufferedReader reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8));
+            importLines(job, format, reader);
+            job.setStatus(ImportJob.Status.COMPLETED);
+            job.setLastError(null);
+            job = importJobRepository.save(job);
+        } catch (IOException | UncheckedIOException e) {
+            // Os lotes já confirmados ficam; a próxima chamada com o mesmo ID continua deles
+            log.error("Importação {} interrompida na linha {}: {}", importId, job.getLinesCommitted(), e.getMessage());
+            job = markFailed(job, e);
+        } catch (OptimisticLockingFailureException e) {
+            // Esta chamada ficou parada mais que stale-after e outra reservou a importação: o progresso é dela
+            log.warn("Importação {} reservada por outra chamada; esta para aqui", importId);
+            throw new ImportInProgressException(importId);
+        } catch (IllegalArgumentException e) {
+            // Conteúdo inválido (ex.: cabeçalho CSV): erro do cliente, mas a importação não fica presa em RUNNING
+            markFailed(job, e);
+            throw e;
+        } catch (RuntimeException e) {
+            log.error("Importação {} interrompida na linha {} por falha do servidor: {}",
+                    importId, job.getLinesCommitted(), e.getMessage());
+            ImportJob failed = markFailed(job, e);
+            throw new ImportFailedException(importId, failed.getLinesCommitted(), e);
+        }
+
+        log.info("Importação {} {}: {} usuários inseridos, {} linhas rejeitadas",
+                importId, job.getStatus(), job.getImported(), job.getRejected());
+        return toReport(job);
+    }
+
+    /**
+     * Situação de uma importação.
+     *
+     * @throws RuntimeException se a importação não existir
+     */
+    public ImportReport getImport(String importId) {
+        return importJobRepository.findById(importId)
+                .map(this::toReport)
+                .orElseThrow(() -> new RuntimeException("Importação não encontrada: " + importId));
+    }
+
+    /**
+     * Rejeições de uma importação, em ordem de linha, paginadas por keyset.
+     *
+     * @param importId ID da importação
+     * @param afterLine última linha já recebida (0 para começar)
+     * @param limit máximo de rejeições
+     * @throws RuntimeException se a importação não existir
+     */
+    public List<ImportRejectionResponse> getRejections(String importId, long afterLine, int limit) {
+        if (!importJobRepository.existsById(importId)) {
+            throw new RuntimeException("Importação não encontrada: " + importId);
+        }
+        CollectionType errorsType = objectMapper.getTypeFactory().constructCollectionType(List.class, String.class);
+        return importRejectionRepository
+                .findByImportIdAndLineGreaterThanOrderByLineAsc(importId, afterLine, Limit.of(limit)).stream()
+                .map(rejection -> {
+                    try {
+                        List<String> errors = objectMapper.readValue(rejection.getErrors(), errorsType);
+                        return new ImportRejectionResponse(rejection.getLine(), errors, rejection.getRaw());
+                    } catch (JsonProcessingException e) {
+                        throw new IllegalStateException("Rejeição da linha " + rejection.getLine() + " ilegível", e);
+                    }
+                })
+                .toList();
+    }
+
+    /**
+     * Cria a importação ou reserva a que já existe.
+     *
+     * @return importação reservada para esta chamada; vazio se ela já foi concluída
+     * @throws ImportInProgressException se outra chamada está com ela
+     */
+    private Optional<ImportJob> claim(String importId, ImportFormat format) {
+        Optional<ImportJob> existing = importJobRepository.findById(importId);
+        if (existing.isEmpty()) {
+            try {
+                return Optional.of(importJobRepository.saveAndFlush(new ImportJob(importId, format)));
+            } catch (DataIntegrityViolationException e) {
+                // Outra chamada criou a mesma importação ao mesmo tempo (chave primária): ela é a dona
+                throw new ImportInProgressException(importId);
+            }
+        }
+        ImportJob job = existing.get();
+        if (job.getStatus() == ImportJob.Status.COMPLETED) {
+            return Optional.empty();
+        }
+        if (job.getFormat() != format) {
+            throw new IllegalArgumentException("Importação " + importId + " foi iniciada no formato " + job.getFormat());
+        }
+        LocalDateTime now = LocalDateTime.now();
+        if (importJobRepository.claim(importId, ImportJob.Status.RUNNING, ImportJob.Status.COMPLETED,
+                now, now.minus(properties.getStaleAfter())) == 0) {
+            throw new ImportInProgressException(importId);
+        }
+        return importJobRepository.findById(importId);
+    }
+
+    /**
+     * Marca a importação como FAILED a partir do que está no banco: o lote que falhou pode
+     * ter avançado os contadores em memória sem ter sido confirmado. Se outra chamada já
+     * reservou a importação (versão diferente), ela não é tocada.
+     */
+    private ImportJob markFailed(ImportJob job, Exception cause) {
+        try {
+            return importJobRepository.findById(job.getId())
+                    .filter(current -> current.getVersion().equals(job.getVersion()))
+                    .map(current -> {
+                        current.setStatus(ImportJob.Status.FAILED);
+                        current.setLastError(truncate(cause.getMessage(), 500));
+                        current.setUpdatedAt(LocalDateTime.now());
+                        return importJobRepository.save(current);
+                    })
+                    .orElse(job);
+        } catch (RuntimeException e) {
+            // Banco ainda fora: a importação fica RUNNING e pode ser retomada depois de stale-after
+            log.error("Não foi possível marcar a importação {} como FAILED: {}", job.getId(), e.getMessage());
+            cause.addSuppressed(e);
+            return job;
+        }
+    }
+
+    private void importLines(ImportJob job, ImportFormat format, BufferedReader reader) throws IOException {
+        long lineNumber = 0;
+        ObjectReader rowReader;
+        if (format == ImportFormat.CSV) {
+            String header = reader.readLine();
+            if (header == null) {
+                return;
+            }
+            lineNumber++;
+            rowReader = csvRowReader(header);
+        } else {
+            rowReader = objectMapper.readerFor(CreateUserRequest.class);
+        }
+
+        // Retomada: descarta o que já foi confirmado (o cabeçalho CSV é sempre relido)
+        while (lineNumber < job.getLinesCommitted() && reader.readLine() != null) {
+            lineNumber++;
+        }
+        if (job.getLinesCommitted() < lineNumber) {
+            job.setLinesCommitted(lineNumber);
+        }
+
+        List<RawLine> batch = new ArrayList<>(properties.getBatchSize());
+        String line;
+        while ((line = reader.readLine()) != null) {
+            batch.add(new RawLine(++lineNumber, line));
+            if (batch.size() == properties.getBatchSize()) {
+                commitBatch(job, batch, rowReader);
+                batch.clear();
+            }
+        }
+        if (!batch.isEmpty()) {
+            commitBatch(job, batch, rowReader);
+        }
+    }
+
+    /**
+     * Valida, insere e confirma um lote de linhas junto com suas rejeições e o progresso da importação.
+     */
+    private void commitBatch(ImportJob job, List<RawLine> batch, ObjectReader rowReader) throws IOException {
+        List<ParsedLine> parsed = parseInParallel(batch, rowReader);
+        rejectDuplicateEmails(parsed);
+
+        List<CreateUserRequest> valid = new ArrayList<>();
+        List<ImportRejection> rejected = new ArrayList<>();
+        for (ParsedLine line : parsed) {
+            if (line.errors().isEmpty()) {
+                if (line.user() != null) {
+                    valid.add(line.user());
+                }
+            } else {
+                rejected.add(new ImportRejection(job.getId(), line.number(),
+                        objectMapper.writeValueAsString(line.errors()), line.raw()));
+            }
+        }
+
+        long lastLine = batch.get(batch.size() - 1).number();
+        LocalDateTime now = LocalDateTime.now();
+        ImportJob saved = transactionTemplate.execute(status -> {
+            List<User> users = valid.stream().map(request -> toUser(request, now)).toList();
+            userRepository.insertAll(users);
+            users.forEach(user -> phoneIndex.add(user.getId(), user.getPhone()));
+            // Na mesma transação: uma queda antes do commit refaz o lote sem perder nem duplicar rejeições
+            importRejectionRepository.insertAll(rejected);
+            job.setLinesCommitted(lastLine);
+            job.setImported(job.getImported() + valid.size());
+            job.setRejected(job.getRejected() + rejected.size());
+            job.setUpdatedAt(LocalDateTime.now());
+            return importJobRepository.save(job);
+        });
+        // A versão incrementada no commit é a que o próximo lote confere
+        job.setVersion(saved.getVersion());
+
+
+        log.debug("Importação {}: lote confirmado até a linha {} ({} inseridos, {} rejeitados)",
+                job.getId(), lastLine, valid.size(), rejected.size());
+    }
+
+    /**
+     * Converte e valida as linhas do lote dividindo-as entre as threads de validação.
+     * A ordem das linhas é preservada.
+     */
+    private List<ParsedLine> parseInParallel(List<RawLine> batch, ObjectReader rowReader) {
+        int slices = Math.min(properties.getValidationThreads(), batch.size());
+        int sliceSize = (batch.size() + slices - 1) / slices;
+
+        List<Callable<List<ParsedLine>>> tasks = new ArrayList<>();
+        for (int start = 0; start < batch.size(); start += sliceSize) {
+            List<RawLine> slice = batch.subList(start, Math.min(start + sliceSize, batch.size()));
+            tasks.add(() -> slice.stream().map(line -> parse(line, rowReader)).toList());
+        }
+
+        List<ParsedLine> parsed = new ArrayList<>(batch.size());
+        try {
+            for (Future<List<ParsedLine>> result : importExecutor.invokeAll(tasks)) {
+                parsed.addAll(result.get());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Importação interrompida", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Falha na validação das linhas", e.getCause());
+        }
+        return parsed;
+    }
+
+    /**
+     * Converte uma linha em CreateUserRequest e aplica as validações do DTO.
+     * Linhas em branco são ignoradas (sem usuário e sem erro).
+     */
+    private ParsedLine parse(RawLine line, ObjectReader rowReader) {
+        if (line.text().isBlank()) {
+            return new ParsedLine(line.number(), line.text(), null, List.of());
+        }
+
+        CreateUserRequest user;
+        try {
+            user = rowReader.readValue(line.text());
+        } catch (JsonProcessingException e) {
+            return new ParsedLine(line.number(), line.text(), null, List.of("linha inválida: " + e.getOriginalMessage()));
+        }
+
+        List<String> errors = validator.validate(user).stream()
+                .map(violation -> violation.getPropertyPath() + ": " + violation.getMessage())
+                .sorted()
+                .toList();
+        return new ParsedLine(line.number(), line.text(), user, errors);
+    }
+
+    /**
+     * Rejeita emails repetidos dentro do lote (a primeira ocorrência vence)
+     * e emails já cadastrados, consultando o banco uma vez por lote (e o arquivo, se ligado).
+     */
+    private void rejectDuplicateEmails(List<ParsedLine> parsed) {
+        List<String> emails = parsed.stream()
+                .filter(line -> line.user() != null && line.errors().isEmpty())
+                .map(line -> line.user().getEmail())
+                .toList();
+        if (emails.isEmpty()) {
+            return;
+        }
+
+        Set<String> taken = new HashSet<>(userRepository.findExistingEmails(emails));
+        if (userArchive.isEnabled()) {
+            // O arquivo não tem IN: uma busca no índice de emails de cada segmento por email
+            emails.stream()
+                    .filter(email -> !taken.contains(email) && userArchive.findByEmail(email).isPresent())
+                    .forEach(taken::add);
+        }
+
+        Set<String> seen = new HashSet<>();
+        for (int i = 0; i < parsed.size(); i++) {
+            ParsedLine line = parsed.get(i);
+            if (line.user() == null || !line.errors().isEmpty()) {
+                continue;
+            }
+            String email = line.user().getEmail();
+            if (taken.contains(email)) {
+                parsed.set(i, line.reject("email: Email já está em uso: " + email));
+            } else if (!seen.add(email)) {
+                parsed.set(i, line.reject("email: Email repetido no arquivo: " + email));
+            }
+        }
+    }
+
+    /**
+     * Leitor de linhas CSV com as colunas do cabeçalho.
+     *
+     * @throws IllegalArgumentException se o cabeçalho tiver colunas desconhecidas ou faltar name/email
+     */
+    private ObjectReader csvRowReader(String header) throws IOException {
+        String[] columns;
+        try {
+            columns = CSV_MAPPER.readerFor(String[].class).readValue(header);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Cabeçalho CSV inválido: " + e.getOriginalMessage());
+        }
+        CsvSchema.Builder schema = CsvSchema.builder();
+        for (String column : columns) {
+            String name = column.trim();
+            if (!CSV_COLUMNS.contains(name)) {
+                throw new IllegalArgumentException("Coluna CSV desconhecida: " + name + " (aceitas: name, email, age, phone)");
+            }
+            schema.addColumn(name);
+        }
+        List<String> names = Arrays.stream(columns).map(String::trim).toList();
+        if (!names.contains("name") || !names.contains("email")) {
+            throw new IllegalArgumentException("Cabeçalho CSV deve conter as colunas name e email");
+        }
+        return CSV_MAPPER.readerFor(CreateUserRequest.class).with(schema.build());
+    }
+
+    private ImportReport toReport(ImportJob job) {
+        return new ImportReport(job.getId(), job.getStatus().name(), job.getLinesCommitted(),
+                job.getImported(), job.getRejected(), "/users/import/" + job.getId() + "/rejections");
+    }
+
+    private static User toUser(CreateUserRequest request, LocalDateTime now) {
+        User user = new User(request.getName(), request.getEmail(), request.getAge(), request.getPhone());
+        user.setCreatedAt(now);
+        user.setUpdatedAt(now);
+        return user;
+    }
+
+    private static String truncate(String value, int maxLength) {
+        if (value == null || value.length() <= maxLength) {
+            return value;
+        }
+        return value.substring(0, maxLength);
+    }
+
+    /**
+     * Linha lida do arquivo (número começando em 1, contando o cabeçalho CSV).
+     */
+    private record RawLine(long number, String text) {
+    }
+
+    /**
+     * Linha convertida: user nulo indica linha em branco ou inválida; errors vazio indica linha aceita.
+     */
+    private record ParsedLine(long number, String raw, CreateUserRequest user, List<String> errors) {
+
+        ParsedLine reject(String error) {
+            return new ParsedLine(number, raw, user, List.of(error));
+        }
+    }
+}
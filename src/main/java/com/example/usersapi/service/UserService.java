@@ -1,16 +1,40 @@
 package com.example.usersapi.service;
 
+import com.example.usersapi.archive.UserArchive;
+import com.example.usersapi.deadline.Deadline;
 import com.example.usersapi.dto.CreateUserRequest;
+import com.example.usersapi.dto.SparseUserResponse;
 import com.example.usersapi.dto.UpdateUserRequest;
+import com.example.usersapi.dto.UpsertUserRequest;
+import com.example.usersapi.dto.UpsertUserResult;
+import com.example.usersapi.dto.UserFieldSet;
+import com.example.usersapi.dto.UserPage;
 import com.example.usersapi.dto.UserResponse;
+import com.example.usersapi.dto.UserResponseField;
 import com.example.usersapi.model.User;
+import com.example.usersapi.model.UserEventType;
+import com.example.usersapi.phone.PhoneIndex;
+import com.example.usersapi.phone.PhoneNumbers;
+import com.example.usersapi.query.KeysetCursor;
+import com.example.usersapi.query.SortKey;
+import com.example.usersapi.query.UserField;
+import com.example.usersapi.query.UserQuery;
 import com.example.usersapi.repository.UserRepository;
+import com.example.usersapi.repository.UserRepositoryCustom;
+import com.example.usersapi.stale.ServeStale;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Arrays;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 /**
@@ -28,6 +52,9 @@ import java.util.stream.Collectors;
 public class UserService {
 
     private final UserRepository userRepository;
+    private final OutboxService outboxService;
+    private final UserArchive userArchive;
+    private final PhoneIndex phoneIndex;
 
     /**
      * Lista todos os usuários.
@@ -41,12 +68,89 @@ public class UserService {
         List<User> users = userRepository.findAll();
         log.info("Encontrados {} usuários", users.size());
         
+        // Listagem completa pode ser grande: se o cliente já desistiu, não converte nem serializa
+        Deadline.check("conversão da listagem");
+        
         // Converte lista de User para lista de UserResponse
         return users.stream()
                 .map(this::convertToResponse)
                 .collect(Collectors.toList());
     }
 
+    /**
+     * Lista todos os usuários retornando apenas os campos pedidos.
+     * Só as colunas pedidas são lidas do banco.
+     * 
+     * @param fields campos pedidos em ?fields=
+     * @return lista de respostas parciais
+     */
+    @Transactional(readOnly = true)
+    public List<SparseUserResponse> getAllUsers(UserFieldSet fields) {
+        log.info("Buscando todos os usuários - campos: {}", fields);
+        
+        List<Object[]> rows = userRepository.findAllColumns(fields);
+        Deadline.check("conversão da listagem");
+        
+        List<SparseUserResponse> users = rows.stream()
+                .map(row -> new SparseUserResponse(fields, row))
+                .toList();
+        log.info("Encontrados {} usuários", users.size());
+        
+        return users;
+    }
+
+    /**
+     * Busca usuários com filtro, ordenação e paginação por keyset.
+     * 
+     * @param query consulta já validada pelo UserQueryParser
+     * @return página de usuários com o cursor da próxima página
+     */
+    @Transactional(readOnly = true)
+    public UserPage<UserResponse> searchUsers(UserQuery query) {
+        log.info("Buscando usuários - formato da consulta: {}", query.shape());
+        
+        List<User> users = userRepository.search(query);
+        
+        // O repository traz uma linha a mais para indicar se existe próxima página
+        String nextCursor = null;
+        if (users.size() > query.limit()) {
+            users = users.subList(0, query.limit());
+            User last = users.get(users.size() - 1);
+            nextCursor = nextCursor(query, field -> field.read(last));
+        }
+        log.info("Encontrados {} usuários", users.size());
+        
+        return new UserPage<>(users.stream().map(this::convertToResponse).toList(), nextCursor);
+    }
+
+    /**
+     * Busca paginada retornando apenas os campos pedidos.
+     * As colunas de ordenação também são lidas (para montar o cursor), mas não serializadas.
+     * 
+     * @param query consulta já validada pelo UserQueryParser
+     * @param fields campos pedidos em ?fields=
+     * @return página de respostas parciais com o cursor da próxima página
+     */
+    @Transactional(readOnly = true)
+    public UserPage<SparseUserResponse> searchUsers(UserQuery query, UserFieldSet fields) {
+        log.info("Buscando usuários - formato da consulta: {}, campos: {}", query.shape(), fields);
+        
+        UserResponseField[] orderFields = query.order().stream()
+                .map(key -> UserResponseField.valueOf(key.field().name()))
+                .toArray(UserResponseField[]::new);
+        List<Object[]> rows = userRepository.searchColumns(query, fields.with(orderFields));
+        
+        String nextCursor = null;
+        if (rows.size() > query.limit()) {
+            rows = rows.subList(0, query.limit());
+            Object[] last = rows.get(rows.size() - 1);
+            nextCursor = nextCursor(query, field -> last[UserResponseField.valueOf(field.name()).ordinal()]);
+        }
+        log.info("Encontrados {} usuários", rows.size());
+        
+        return new UserPage<>(rows.stream().map(row -> new SparseUserResponse(fields, row)).toList(), nextCursor);
+    }
+
     /**
      * Busca usuário por ID.
      * 
@@ -55,10 +159,13 @@ public class UserService {
      * @throws RuntimeException se usuário não for encontrado
      */
     @Transactional(readOnly = true)
+    @ServeStale  // Com users.stale.enabled: resposta guardada se o banco demorar ou falhar
     public UserResponse getUserById(Long id) {
         log.info("Buscando usuário com ID: {}", id);
         
+        // A tabela primeiro: o arquivo só é consultado para IDs que não estão nela
         User user = userRepository.findById(id)
+                .or(() -> userArchive.find(id))
                 .orElseThrow(() -> {
                     log.error("Usuário não encontrado com ID: {}", id);
                     return new RuntimeException("Usuário não encontrado com ID: " + id);
@@ -68,6 +175,88 @@ public class UserService {
         return convertToResponse(user);
     }
 
+    /**
+     * Busca vários usuários por ID em uma única consulta (IN).
+     * 
+     * @param ids IDs pedidos (repetidos são ignorados)
+     * @return usuários encontrados, na ordem dos IDs pedidos; IDs inexistentes ficam de fora
+     */
+    @Transactional(readOnly = true)
+    @ServeStale
+    public List<UserResponse> getUsersByIds(List<Long> ids) {
+        log.info("Buscando {} usuários por ID", ids.size());
+        
+        Map<Long, User> users = userRepository.findAllById(ids).stream()
+                .collect(Collectors.toMap(User::getId, Function.identity(), (a, b) -> a, HashMap::new));
+        if (userArchive.isEnabled()) {
+            ids.stream()
+                    .filter(id -> !users.containsKey(id))
+                    .forEach(id -> userArchive.find(id).ifPresent(user -> users.put(id, user)));
+        }
+        log.info("Encontrados {} usuários", users.size());
+        
+        return ids.stream()
+                .distinct()
+                .map(users::get)
+                .filter(Objects::nonNull)
+                .map(this::convertToResponse)
+                .toList();
+    }
+
+    /**
+     * Busca usuário por ID retornando apenas os campos pedidos.
+     * 
+     * @param id ID do usuário
+     * @param fields campos pedidos em ?fields=
+     * @return resposta parcial
+     * @throws RuntimeException se usuário não for encontrado
+     */
+    @Transactional(readOnly = true)
+    @ServeStale
+    public SparseUserResponse getUserById(Long id, UserFieldSet fields) {
+        log.info("Buscando usuário com ID: {} - campos: {}", id, fields);
+        
+        Object[] row = userRepository.findColumnsById(id, fields)
+                .or(() -> userArchive.find(id).map(user -> fields.readRow(convertToResponse(user))))
+                .orElseThrow(() -> {
+                    log.error("Usuário não encontrado com ID: {}", id);
+                    return new RuntimeException("Usuário não encontrado com ID: " + id);
+                });
+        
+        return new SparseUserResponse(fields, row);
+    }
+
+    /**
+     * Busca usuários pelo telefone normalizado (exato ou por prefixo).
+     * 
+     * Os IDs saem do PhoneIndex e os usuários de uma consulta por ID (IN). Cada usuário é
+     * conferido com o telefone lido agora: uma entrada antiga do índice (telefone alterado
+     * por upsert, leitura em réplica atrasada) fica de fora em vez de virar um resultado errado.
+     * Enquanto o índice carrega, a consulta usa a coluna phone_digits.
+     * 
+     * @param phone telefone em qualquer formato
+     * @param prefix busca por prefixo em vez de exata
+     * @param limit máximo de usuários
+     * @return usuários em ordem de telefone normalizado e de ID
+     * @throws IllegalArgumentException se o telefone não tiver dígitos
+     */
+    @Transactional(readOnly = true)
+    public List<UserResponse> getUsersByPhone(String phone, boolean prefix, int limit) {
+        String digits = prefix ? PhoneNumbers.prefix(phone) : PhoneNumbers.exact(phone);
+        
+        List<User> users = phoneIndex.find(digits, prefix, limit)
+                .map(ids -> findIndexed(ids, digits, prefix))
+                .orElseGet(() -> {
+                    log.info("Índice de telefones ainda não carregado: busca pela coluna phone_digits");
+                    return prefix
+                            ? userRepository.findByPhoneDigitsRange(digits, digits + ":", Limit.of(limit))
+                            : userRepository.findByPhoneDigitsOrderByIdAsc(digits, Limit.of(limit));
+                });
+        log.info("Encontrados {} usuários", users.size());
+        
+        return users.stream().map(this::convertToResponse).toList();
+    }
+
     /**
      * Cria um novo usuário.
      * 
@@ -78,8 +267,9 @@ public class UserService {
     public UserResponse createUser(CreateUserRequest request) {
         log.info("Criando novo usuário com email: {}", request.getEmail());
         
-        // Verifica se email já existe
-        if (userRepository.existsByEmail(request.getEmail())) {
+        // Verifica se email já existe (também entre os usuários arquivados)
+        if (userRepository.existsByEmail(request.getEmail())
+                || userArchive.findByEmail(request.getEmail()).isPresent()) {
             log.error("Email já existe: {}", request.getEmail());
             throw new RuntimeException("Email já está em uso: " + request.getEmail());
         }
@@ -90,8 +280,13 @@ public class UserService {
         // Salva no banco
         User savedUser = userRepository.save(user);
         log.info("Usuário criado com sucesso - ID: {}", savedUser.getId());
+        phoneIndex.add(savedUser.getId(), savedUser.getPhone());
+        
+        // Registra o evento na mesma transação (entregue depois pelo OutboxDispatcher)
+        UserResponse response = convertToResponse(savedUser);
+        outboxService.record(UserEventType.USER_CREATED, response);
         
-        return convertToResponse(savedUser);
+        return response;
     }
 
     /**
@@ -105,8 +300,9 @@ public class UserService {
     public UserResponse updateUser(Long id, UpdateUserRequest request) {
         log.info("Atualizando usuário com ID: {}", id);
         
-        // Busca usuário existente
+        // Busca usuário existente; um usuário arquivado volta para a tabela antes de ser alterado
         User existingUser = userRepository.findById(id)
+                .or(() -> rehydrate(id))
                 .orElseThrow(() -> {
                     log.error("Usuário não encontrado com ID: {}", id);
                     return new RuntimeException("Usuário não encontrado com ID: " + id);
@@ -114,6 +310,7 @@ public class UserService {
         
         // Verifica se email já existe em outro usuário
         userRepository.findByEmail(request.getEmail())
+                .or(() -> userArchive.findByEmail(request.getEmail()))
                 .filter(user -> !user.getId().equals(id))  // Ignora o próprio usuário
                 .ifPresent(user -> {
                     log.error("Email já existe em outro usuário: {}", request.getEmail());
@@ -121,16 +318,53 @@ public class UserService {
                 });
         
         // Atualiza dados
+        String previousPhone = existingUser.getPhone();
         existingUser.setName(request.getName());
         existingUser.setEmail(request.getEmail());
         existingUser.setAge(request.getAge());
         existingUser.setPhone(request.getPhone());
         
-        // Salva no banco (o @PreUpdate será chamado automaticamente)
-        User updatedUser = userRepository.save(existingUser);
+        // Salva no banco com flush imediato: o @PreUpdate roda no flush,
+        // então o updatedAt da resposta e do evento é o mesmo gravado no banco
+        User updatedUser = userRepository.saveAndFlush(existingUser);
         log.info("Usuário atualizado com sucesso - ID: {}", updatedUser.getId());
+        phoneIndex.remove(id, previousPhone);
+        phoneIndex.add(id, updatedUser.getPhone());
+        
+        // Registra o evento na mesma transação (entregue depois pelo OutboxDispatcher)
+        UserResponse response = convertToResponse(updatedUser);
+        outboxService.record(UserEventType.USER_UPDATED, response);
+        
+        return response;
+    }
+
+    /**
+     * Cria ou atualiza o usuário com o email informado.
+     * 
+     * Um único comando MERGE no banco substitui o fluxo busca por email + POST ou PUT,
+     * e o evento do outbox (criação ou atualização) é gravado na mesma transação.
+     * 
+     * @param email email do usuário (chave do upsert)
+     * @param request demais dados do usuário
+     * @return usuário gravado e se ele foi criado
+     */
+    public UpsertUserResult upsertUserByEmail(String email, UpsertUserRequest request) {
+        log.info("Upsert de usuário com email: {}", email);
+        
+        // Email de um usuário arquivado: ele volta para a tabela e o MERGE o atualiza (mesmo ID)
+        userArchive.findByEmail(email).ifPresent(this::rehydrate);
+        
+        UserRepositoryCustom.Upsert upsert = userRepository.upsertByEmail(
+                new User(request.getName(), email, request.getAge(), request.getPhone()));
+        log.info("Usuário {} com sucesso - ID: {}", upsert.created() ? "criado" : "atualizado", upsert.user().getId());
+        // O MERGE não devolve o telefone anterior: a entrada antiga fica no índice e é
+        // descartada nas buscas (getUsersByPhone confere o telefone atual)
+        phoneIndex.add(upsert.user().getId(), upsert.user().getPhone());
         
-        return convertToResponse(updatedUser);
+        UserResponse response = convertToResponse(upsert.user());
+        outboxService.record(upsert.created() ? UserEventType.USER_CREATED : UserEventType.USER_UPDATED, response);
+        
+        return new UpsertUserResult(response, upsert.created());
     }
 
     /**
@@ -142,16 +376,80 @@ public class UserService {
     public void deleteUser(Long id) {
         log.info("Removendo usuário com ID: {}", id);
         
-        // Verifica se usuário existe
-        if (!userRepository.existsById(id)) {
+        // Verifica se usuário existe (na tabela ou no arquivo); o telefone sai do índice junto
+        Optional<User> hot = userRepository.findById(id);
+        boolean archived = userArchive.find(id).isPresent();
+        if (hot.isEmpty() && !archived) {
             log.error("Usuário não encontrado com ID: {}", id);
             throw new RuntimeException("Usuário não encontrado com ID: " + id);
         }
         
-        userRepository.deleteById(id);
+        hot.ifPresent(user -> {
+            userRepository.delete(user);
+            phoneIndex.remove(id, user.getPhone());
+        });
+        if (archived) {
+            userArchive.forget(id);
+        }
+        outboxService.recordDeleted(id);
         log.info("Usuário removido com sucesso - ID: {}", id);
     }
 
+    /**
+     * Traz de volta para a tabela o usuário arquivado com o ID, se houver.
+     */
+    private Optional<User> rehydrate(Long id) {
+        return userArchive.find(id).map(this::rehydrate);
+    }
+
+    /**
+     * Insere o usuário arquivado na tabela (mesmo ID e datas) e dá lápide à cópia arquivada
+     * depois do commit. Se ele já estiver na tabela (cópia deixada por um arquivamento
+     * interrompido), só a lápide é necessária.
+     * 
+     * @return entidade gerenciada, pronta para ser alterada
+     */
+    private User rehydrate(User archived) {
+        if (!userRepository.existsById(archived.getId())) {
+            log.info("Trazendo de volta do arquivo o usuário com ID: {}", archived.getId());
+            userRepository.insertWithId(archived);
+            phoneIndex.add(archived.getId(), archived.getPhone());
+        }
+        userArchive.forget(archived.getId());
+        return userRepository.findById(archived.getId()).orElseThrow();
+    }
+
+    /**
+     * Usuários dos IDs vindos do PhoneIndex, na ordem do índice, só os que ainda têm o telefone.
+     */
+    private List<User> findIndexed(long[] ids, String digits, boolean prefix) {
+        if (ids.length == 0) {
+            return List.of();
+        }
+        List<Long> order = Arrays.stream(ids).boxed().toList();
+        Map<Long, User> users = userRepository.findAllById(order).stream()
+                .collect(Collectors.toMap(User::getId, Function.identity()));
+        return order.stream()
+                .map(users::get)
+                .filter(Objects::nonNull)
+                .filter(user -> {
+                    String current = PhoneNumbers.normalize(user.getPhone());
+                    return current != null && (prefix ? current.startsWith(digits) : current.equals(digits));
+                })
+                .toList();
+    }
+
+    /**
+     * Monta o cursor da próxima página a partir dos valores da última linha entregue.
+     */
+    private String nextCursor(UserQuery query, Function<UserField, Object> lastValue) {
+        List<Object> values = query.order().stream()
+                .map(SortKey::field)
+                .map(lastValue)
+                .toList();
+        return KeysetCursor.encode(query.order(), values);
+    }
+
     /**
      * Converte CreateUserRequest para User entity.
      */
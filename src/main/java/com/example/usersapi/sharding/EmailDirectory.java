@@ -0,0 +1,103 @@
+package com.example.usersapi.sharding;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Diretório email → usuário/shard, guardado no banco principal.
+ *
+ * Cada shard só enxerga os próprios usuários, então a constraint UNIQUE de email de um shard
+ * não impede o mesmo email em outro. A chave primária deste diretório é o email: é ela que
+ * garante a unicidade global. Também responde findByEmail/existsByEmail sem consultar todos
+ * os shards.
+ *
+ * O JdbcTemplate usa o DataSource da aplicação: dentro de um @Transactional, as gravações
+ * no diretório entram na mesma transação do JPA (e do evento do outbox).
+ * A tabela é criada aqui (e não por migration) porque só existe com o particionamento habilitado.
+ */
+@Slf4j
+public class EmailDirectory {
+
+    static final String TABLE = "user_email_directory";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public EmailDirectory(DataSource dataSource) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+    }
+
+    /**
+     * Cria a tabela do diretório, se ainda não existir.
+     */
+    public void install() {
+        jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS " + TABLE
+                + " (email VARCHAR(150) PRIMARY KEY, user_id BIGINT NOT NULL, shard INTEGER NOT NULL)");
+        log.info("Diretório de emails dos shards pronto ({})", TABLE);
+    }
+
+    public boolean isEmpty() {
+        return jdbcTemplate.queryForList("SELECT 1 FROM " + TABLE + " LIMIT 1").isEmpty();
+    }
+
+    public Optional<Entry> find(String email) {
+        return jdbcTemplate.query("SELECT email, user_id, shard FROM " + TABLE + " WHERE email = ?",
+                (rs, rowNum) -> new Entry(rs.getString("email"), rs.getLong("user_id"), rs.getInt("shard")),
+                email).stream().findFirst();
+    }
+
+    /**
+     * Reserva o email para o usuário.
+     *
+     * @throws org.springframework.dao.DuplicateKeyException se o email já pertence a alguém
+     */
+    public void register(Entry entry) {
+        jdbcTemplate.update("INSERT INTO " + TABLE + " (email, user_id, shard) VALUES (?, ?, ?)",
+                entry.email(), entry.userId(), entry.shard());
+    }
+
+    /**
+     * Reserva vários emails de uma vez (JDBC batch).
+     */
+    public void registerAll(List<Entry> entries) {
+        jdbcTemplate.batchUpdate("INSERT INTO " + TABLE + " (email, user_id, shard) VALUES (?, ?, ?)",
+                entries, entries.size(), (ps, entry) -> {
+                    ps.setString(1, entry.email());
+                    ps.setLong(2, entry.userId());
+                    ps.setInt(3, entry.shard());
+                });
+    }
+
+    public void remove(String email) {
+        jdbcTemplate.update("DELETE FROM " + TABLE + " WHERE email = ?", email);
+    }
+
+    /**
+     * Dentre os emails informados, os já reservados.
+     */
+    public Set<String> existing(Collection<String> emails) {
+        if (emails.isEmpty()) {
+            return Set.of();
+        }
+        String placeholders = String.join(", ", Collections.nCopies(emails.size(), "?"));
+        return new HashSet<>(jdbcTemplate.queryForList(
+                "SELECT email FROM " + TABLE + " WHERE email IN (" + placeholders + ")", String.class, emails.toArray()));
+    }
+
+    /**
+     * Uma entrada do diretório.
+     *
+     * @param email email reservado
+     * @param userId ID do dono do email
+     * @param shard posição do shard do usuário (ver ShardSet.indexFor)
+     */
+    public record Entry(String email, long userId, int shard) {
+    }
+}
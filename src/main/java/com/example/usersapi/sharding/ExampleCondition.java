@@ -0,0 +1,100 @@
+package com.example.usersapi.sharding;
+
+import com.example.usersapi.model.User;
+import org.springframework.beans.BeanWrapper;
+import org.springframework.data.domain.Example;
+import org.springframework.data.domain.ExampleMatcher;
+import org.springframework.data.jpa.repository.query.EscapeCharacter;
+import org.springframework.data.support.ExampleMatcherAccessor;
+import org.springframework.data.util.DirectFieldAccessFallbackBeanWrapper;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Cláusula WHERE enviada igual a todos os shards, com os valores dos seus parâmetros.
+ *
+ * of(Example) monta a de uma consulta por Example (query by example), com as regras do ExampleMatcher do mesmo jeito que o Spring Data JPA:
+ * - propriedade nula no exemplo é ignorada, ou vira IS NULL com NullHandler.INCLUDE
+ * - texto usa o StringMatcher do caminho (EXACT, STARTING, ENDING, CONTAINING ou REGEX),
+ *   com LOWER dos dois lados quando o caminho ignora maiúsculas
+ * - matchingAll junta as condições com AND; matchingAny, com OR
+ * Os valores vão como parâmetros (?): nada do exemplo é concatenado no SQL.
+ *
+ * @param sql condição pronta para o WHERE ("TRUE" se o exemplo não restringe nada)
+ * @param parameters valores dos ?, na ordem em que aparecem
+ */
+record ExampleCondition(String sql, List<Object> parameters) {
+
+    /**
+     * Sem restrição: todos os usuários.
+     */
+    static final ExampleCondition ALL = new ExampleCondition("TRUE", List.of());
+
+    /**
+     * Propriedades de User e suas colunas, na ordem em que as condições são montadas.
+     */
+    private static final List<Property> PROPERTIES = List.of(
+            new Property("id", "id"),
+            new Property("name", "name"),
+            new Property("email", "email"),
+            new Property("age", "age"),
+            new Property("phone", "phone"),
+            new Property("phoneDigits", "phone_digits"),
+            new Property("createdAt", "created_at"),
+            new Property("updatedAt", "updated_at"));
+
+    private record Property(String name, String column) {
+    }
+
+    static ExampleCondition of(Example<? extends User> example) {
+        ExampleMatcherAccessor matcher = new ExampleMatcherAccessor(example.getMatcher());
+        BeanWrapper probe = new DirectFieldAccessFallbackBeanWrapper(example.getProbe());
+        List<String> conditions = new ArrayList<>();
+        List<Object> parameters = new ArrayList<>();
+        for (Property property : PROPERTIES) {
+            if (matcher.isIgnoredPath(property.name())) {
+                continue;
+            }
+            Optional<Object> value = matcher.getValueTransformerForPath(property.name())
+                    .apply(Optional.ofNullable(probe.getPropertyValue(property.name())));
+            if (value.isEmpty()) {
+                if (matcher.getNullHandler() == ExampleMatcher.NullHandler.INCLUDE) {
+                    conditions.add(property.column() + " IS NULL");
+                }
+            } else if (value.get() instanceof String text) {
+                conditions.add(text(property.column(), matcher.getStringMatcherForPath(property.name()),
+                        matcher.isIgnoreCaseForPath(property.name())));
+                parameters.add(pattern(text, matcher.getStringMatcherForPath(property.name())));
+            } else {
+                conditions.add(property.column() + " = ?");
+                parameters.add(value.get());
+            }
+        }
+        if (conditions.isEmpty()) {
+            return ALL;
+        }
+        String junction = example.getMatcher().isAllMatching() ? " AND " : " OR ";
+        return new ExampleCondition("(" + String.join(junction, conditions) + ")", List.copyOf(parameters));
+    }
+
+    private static String text(String column, ExampleMatcher.StringMatcher stringMatcher, boolean ignoreCase) {
+        return switch (stringMatcher) {
+            case DEFAULT, EXACT -> ignoreCase ? "LOWER(" + column + ") = LOWER(?)" : column + " = ?";
+            // O padrão já vem com % e _ do valor escapados (ver pattern)
+            case STARTING, ENDING, CONTAINING -> (ignoreCase ? "LOWER(" + column + ") LIKE LOWER(?)" : column + " LIKE ?")
+                    + " ESCAPE '\\'";
+            case REGEX -> "REGEXP_LIKE(" + column + ", ?, '" + (ignoreCase ? "i" : "c") + "')";
+        };
+    }
+
+    private static String pattern(String text, ExampleMatcher.StringMatcher stringMatcher) {
+        return switch (stringMatcher) {
+            case DEFAULT, EXACT, REGEX -> text;
+            case STARTING -> EscapeCharacter.DEFAULT.escape(text) + "%";
+            case ENDING -> "%" + EscapeCharacter.DEFAULT.escape(text);
+            case CONTAINING -> "%" + EscapeCharacter.DEFAULT.escape(text) + "%";
+        };
+    }
+}
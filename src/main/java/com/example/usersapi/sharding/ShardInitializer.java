@@ -0,0 +1,116 @@
+package com.example.usersapi.sharding;
+
+import com.example.usersapi.model.User;
+import com.example.usersapi.phone.PhoneNumbers;
+import com.example.usersapi.repository.UserRepositoryImpl;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.sql.init.dependency.DependsOnDatabaseInitialization;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Prepara os shards na inicialização.
+ *
+ * 1. Cria a tabela users em cada shard que ainda não a tem, com o mesmo script da
+ *    migration V1 (colunas, constraint de email e índices da busca); a coluna phone_digits
+ *    e seu índice vêm do script da V4, que também é aplicado a shards criados antes dela
+ *    (as linhas que já existiam recebem os dígitos do telefone na hora)
+ * 2. Cria o diretório de emails no banco principal
+ * 3. Se o diretório está vazio, distribui entre os shards os usuários que já estão na tabela
+ *    users do banco principal (data.sql ou snapshot do perfil prod), mantendo os IDs
+ *
+ * Depois da carga inicial, a tabela users do banco principal não é mais lida nem gravada.
+ *
+ * @DependsOnDatabaseInitialization: inicializa depois do Flyway / data.sql
+ */
+@Component
+@ConditionalOnProperty("users.sharding.enabled")
+@DependsOnDatabaseInitialization
+@RequiredArgsConstructor
+@Slf4j
+public class ShardInitializer {
+
+    private static final String USERS_SCHEMA = "db/migration/V1__create_users.sql";
+    private static final String PHONE_DIGITS_SCHEMA = "db/migration/V4__add_users_phone_digits.sql";
+    private static final int COPY_BATCH_SIZE = 1000;
+
+    private final ShardSet shardSet;
+    private final EmailDirectory emailDirectory;
+    private final DataSource dataSource;
+
+    @PostConstruct
+    public void start() {
+        for (ShardSet.Shard shard : shardSet.shards()) {
+            if (!hasUsersTable(shard.getJdbcTemplate())) {
+                new ResourceDatabasePopulator(new ClassPathResource(USERS_SCHEMA)).execute(shard.getDataSource());
+                log.info("Tabela users criada no shard {}", shard.getName());
+            }
+            if (!hasPhoneDigitsColumn(shard.getJdbcTemplate())) {
+                new ResourceDatabasePopulator(new ClassPathResource(PHONE_DIGITS_SCHEMA)).execute(shard.getDataSource());
+                backfillPhoneDigits(shard.getJdbcTemplate());
+                log.info("Coluna phone_digits criada no shard {}", shard.getName());
+            }
+        }
+        emailDirectory.install();
+        if (emailDirectory.isEmpty()) {
+            copyFromPrimary();
+        }
+    }
+
+    private void copyFromPrimary() {
+        JdbcTemplate primary = new JdbcTemplate(dataSource);
+        List<User> batch = new ArrayList<>();
+        int[] copied = {0};
+        primary.query("SELECT id, name, email, age, phone, created_at, updated_at FROM users ORDER BY id", rs -> {
+            batch.add(UserRepositoryImpl.USER_ROW_MAPPER.mapRow(rs, copied[0]++));
+            if (batch.size() == COPY_BATCH_SIZE) {
+                distribute(batch);
+                batch.clear();
+            }
+        });
+        if (!batch.isEmpty()) {
+            distribute(batch);
+        }
+        log.info("{} usuários do banco principal distribuídos entre {} shards", copied[0], shardSet.size());
+    }
+
+    private void distribute(List<User> users) {
+        Map<Integer, List<User>> usersByShard = new LinkedHashMap<>();
+        List<EmailDirectory.Entry> entries = new ArrayList<>();
+        for (User user : users) {
+            int index = shardSet.indexFor(user.getId());
+            usersByShard.computeIfAbsent(index, key -> new ArrayList<>()).add(user);
+            entries.add(new EmailDirectory.Entry(user.getEmail(), user.getId(), index));
+        }
+        usersByShard.forEach((index, shardUsers) ->
+                ShardedUserRepository.insertBatch(shardSet.get(index).getJdbcTemplate(), shardUsers));
+        emailDirectory.registerAll(entries);
+    }
+
+    private static void backfillPhoneDigits(JdbcTemplate shard) {
+        List<Object[]> digits = shard.query("SELECT id, phone FROM users WHERE phone IS NOT NULL",
+                (rs, rowNum) -> new Object[]{PhoneNumbers.normalize(rs.getString("phone")), rs.getLong("id")});
+        shard.batchUpdate("UPDATE users SET phone_digits = ? WHERE id = ?", digits);
+    }
+
+    private static boolean hasPhoneDigitsColumn(JdbcTemplate shard) {
+        return !shard.queryForList("SELECT 1 FROM INFORMATION_SCHEMA.COLUMNS "
+                + "WHERE TABLE_SCHEMA = 'PUBLIC' AND TABLE_NAME = 'USERS' AND COLUMN_NAME = 'PHONE_DIGITS'").isEmpty();
+    }
+
+    private static boolean hasUsersTable(JdbcTemplate shard) {
+        return !shard.queryForList("SELECT 1 FROM INFORMATION_SCHEMA.TABLES "
+                + "WHERE TABLE_SCHEMA = 'PUBLIC' AND TABLE_NAME = 'USERS'").isEmpty();
+    }
+}
@@ -0,0 +1,109 @@
+package com.example.usersapi.sharding;
+
+import com.example.usersapi.dto.UserResponseField;
+import com.example.usersapi.model.User;
+import com.example.usersapi.query.SortKey;
+import com.example.usersapi.query.UserField;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.function.BiFunction;
+
+/**
+ * Junção dos resultados de uma consulta executada em todos os shards.
+ *
+ * Cada shard devolve suas linhas já ordenadas (ORDER BY no SQL) e limitadas;
+ * a junção é um merge de k listas ordenadas, que para assim que o limite é atingido.
+ * Como cada shard devolveu as suas N primeiras linhas, as N primeiras do total
+ * estão necessariamente entre elas: a paginação continua correta após o merge.
+ */
+final class ShardMerge {
+
+    /**
+     * Mesma comparação do H2: nulos antes de qualquer valor em ordem crescente.
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static final Comparator<Object> VALUES = Comparator.nullsFirst((a, b) -> ((Comparable) a).compareTo(b));
+
+    private ShardMerge() {
+    }
+
+    /**
+     * Junta listas já ordenadas, mantendo a ordem.
+     *
+     * @param sorted resultado de cada shard
+     * @param order ordem em que cada lista está
+     * @param limit máximo de itens no resultado
+     */
+    static <T> List<T> merge(List<List<T>> sorted, Comparator<? super T> order, int limit) {
+        record Head<T>(T value, Iterator<T> rest) {
+        }
+        PriorityQueue<Head<T>> heads = new PriorityQueue<>(Math.max(sorted.size(), 1),
+                (a, b) -> order.compare(a.value(), b.value()));
+        for (List<T> list : sorted) {
+            Iterator<T> iterator = list.iterator();
+            if (iterator.hasNext()) {
+                heads.add(new Head<>(iterator.next(), iterator));
+            }
+        }
+        List<T> merged = new ArrayList<>();
+        while (!heads.isEmpty() && merged.size() < limit) {
+            Head<T> head = heads.poll();
+            merged.add(head.value());
+            if (head.rest().hasNext()) {
+                heads.add(new Head<>(head.rest().next(), head.rest()));
+            }
+        }
+        return merged;
+    }
+
+    /**
+     * Comparador de usuários na ordem das chaves (a mesma do ORDER BY enviado aos shards).
+     */
+    static Comparator<User> users(List<SortKey> order) {
+        return comparing(order, (user, field) -> field.read(user));
+    }
+
+    /**
+     * Comparador de linhas parciais (arrays indexados pelo ordinal de UserResponseField).
+     */
+    static Comparator<Object[]> rows(List<SortKey> order) {
+        return comparing(order, (row, field) -> row[UserResponseField.valueOf(field.name()).ordinal()]);
+    }
+
+    /**
+     * Cláusula ORDER BY das chaves, ex.: "created_at DESC, name ASC, id ASC".
+     */
+    static String orderBy(List<SortKey> order) {
+        return String.join(", ", order.stream()
+                .map(key -> key.field().column() + (key.descending() ? " DESC" : " ASC"))
+                .toList());
+    }
+
+    /**
+     * Posição de um usuário em relação a uma chave de keyset (valores indexados pelo apiName
+     * de cada campo): negativo se ele vem antes da chave na ordem, positivo se vem depois.
+     */
+    static int compareToKeyset(User user, List<SortKey> order, Map<String, ?> keyset) {
+        for (SortKey key : order) {
+            int result = VALUES.compare(key.field().read(user), keyset.get(key.field().apiName()));
+            if (result != 0) {
+                return key.descending() ? -result : result;
+            }
+        }
+        return 0;
+    }
+
+    private static <T> Comparator<T> comparing(List<SortKey> order, BiFunction<T, UserField, Object> value) {
+        Comparator<T> comparator = (a, b) -> 0;
+        for (SortKey key : order) {
+            Comparator<T> byKey = (a, b) -> VALUES.compare(value.apply(a, key.field()), value.apply(b, key.field()));
+            comparator = comparator.thenComparing(key.descending() ? byKey.reversed() : byKey);
+        }
+        return comparator;
+    }
+}
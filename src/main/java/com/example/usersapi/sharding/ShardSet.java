@@ -0,0 +1,91 @@
+package com.example.usersapi.sharding;
+
+import com.zaxxer.hikari.HikariDataSource;
+import lombok.Getter;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.List;
+
+/**
+ * Os shards da tabela users e a regra que diz em qual deles cada usuário mora.
+ *
+ * O shard é função só do ID: floorMod(hash(id), N). O hash embaralha os bits do ID
+ * antes do módulo, então IDs sequenciais (ou gerados no mesmo milissegundo) se espalham
+ * de maneira uniforme. Mudar o número de shards muda o destino dos IDs existentes:
+ * isso exige uma migração dos dados, que está fora do escopo desta classe.
+ * O Spring chama close() ao encerrar o contexto, fechando os pools de conexões.
+ */
+public class ShardSet implements AutoCloseable {
+
+    private final List<Shard> shards;
+
+    public ShardSet(List<Shard> shards) {
+        if (shards.isEmpty()) {
+            throw new IllegalArgumentException("Informe ao menos um shard em users.sharding.shard-urls");
+        }
+        this.shards = List.copyOf(shards);
+    }
+
+    public List<Shard> shards() {
+        return shards;
+    }
+
+    public int size() {
+        return shards.size();
+    }
+
+    /**
+     * Shard onde mora o usuário com este ID.
+     */
+    public Shard shardFor(long id) {
+        return shards.get(indexFor(id));
+    }
+
+    /**
+     * Posição do shard do ID na lista (gravada também no diretório de emails).
+     */
+    public int indexFor(long id) {
+        return Math.floorMod(mix(id), shards.size());
+    }
+
+    public Shard get(int index) {
+        return shards.get(index);
+    }
+
+    @Override
+    public void close() {
+        shards.forEach(shard -> shard.getDataSource().close());
+    }
+
+    /**
+     * Finalizador de 64 bits do MurmurHash3: cada bit do ID afeta todos os bits do resultado.
+     */
+    private static long mix(long id) {
+        long h = id;
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+
+    /**
+     * Um shard: nome (usado em logs e nos pools), pool de conexões e JdbcTemplate sobre ele.
+     */
+    @Getter
+    public static class Shard {
+
+        private final int index;
+        private final String name;
+        private final HikariDataSource dataSource;
+        private final JdbcTemplate jdbcTemplate;
+
+        public Shard(int index, String name, HikariDataSource dataSource) {
+            this.index = index;
+            this.name = name;
+            this.dataSource = dataSource;
+            this.jdbcTemplate = new JdbcTemplate(dataSource);
+        }
+    }
+}
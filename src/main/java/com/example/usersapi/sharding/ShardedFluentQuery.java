@@ -0,0 +1,189 @@
+package com.example.usersapi.sharding;
+
+import com.example.usersapi.model.User;
+import com.example.usersapi.query.SortKey;
+import org.springframework.beans.BeanUtils;
+import org.springframework.beans.BeanWrapper;
+import org.springframework.beans.BeanWrapperImpl;
+import org.springframework.dao.IncorrectResultSizeDataAccessException;
+import org.springframework.data.domain.Example;
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.OffsetScrollPosition;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
+import org.springframework.data.projection.SpelAwareProxyProjectionFactory;
+import org.springframework.data.repository.query.FluentQuery;
+
+import java.lang.reflect.Constructor;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+/**
+ * Consulta fluente de ShardedUserRepository.findBy(Example, ...).
+ *
+ * Cada operação terminal vira uma consulta por Example do repository (fan-out + merge);
+ * ordenação, limite e projeção são só acumulados até lá. A projeção é aplicada depois
+ * do merge, sobre o User completo:
+ * - interface: proxy do Spring Data (o mesmo usado pelos repositories)
+ * - classe (DTO ou record): construtor com os nomes das propriedades de User
+ * project(...) não muda nada: os shards sempre leem todas as colunas da API.
+ * scroll percorre o resultado já ordenado do merge, por offset ou por keyset.
+ */
+final class ShardedFluentQuery<S extends User, R> implements FluentQuery.FetchableFluentQuery<R> {
+
+    private static final SpelAwareProxyProjectionFactory PROJECTIONS = new SpelAwareProxyProjectionFactory();
+
+    private final ShardedUserRepository repository;
+    private final Example<S> example;
+    private final Sort sort;
+    private final int limit;
+    private final Function<User, R> projection;
+
+    private ShardedFluentQuery(ShardedUserRepository repository, Example<S> example, Sort sort, int limit,
+                               Function<User, R> projection) {
+        this.repository = repository;
+        this.example = example;
+        this.sort = sort;
+        this.limit = limit;
+        this.projection = projection;
+    }
+
+    @SuppressWarnings("unchecked")
+    static <S extends User> ShardedFluentQuery<S, S> of(ShardedUserRepository repository, Example<S> example) {
+        return new ShardedFluentQuery<>(repository, example, Sort.unsorted(), Integer.MAX_VALUE, user -> (S) user);
+    }
+
+    @Override
+    public FetchableFluentQuery<R> sortBy(Sort sort) {
+        return new ShardedFluentQuery<>(repository, example, this.sort.and(sort), limit, projection);
+    }
+
+    @Override
+    public FetchableFluentQuery<R> limit(int limit) {
+        if (limit < 0) {
+            throw new IllegalArgumentException("Limite não pode ser negativo: " + limit);
+        }
+        return new ShardedFluentQuery<>(repository, example, sort, limit, projection);
+    }
+
+    @Override
+    public <P> FetchableFluentQuery<P> as(Class<P> type) {
+        return new ShardedFluentQuery<>(repository, example, sort, limit, projectionTo(type));
+    }
+
+    @Override
+    public FetchableFluentQuery<R> project(Collection<String> properties) {
+        return this;
+    }
+
+    @Override
+    public R oneValue() {
+        List<User> found = repository.findAllMatching(example, sort, 2);
+        if (found.size() > 1) {
+            throw new IncorrectResultSizeDataAccessException(1, found.size());
+        }
+        return found.isEmpty() ? null : projection.apply(found.get(0));
+    }
+
+    @Override
+    public R firstValue() {
+        List<User> found = repository.findAllMatching(example, sort, 1);
+        return found.isEmpty() ? null : projection.apply(found.get(0));
+    }
+
+    @Override
+    public List<R> all() {
+        return repository.findAllMatching(example, sort, limit).stream().map(projection).toList();
+    }
+
+    @Override
+    public Window<R> scroll(ScrollPosition position) {
+        List<SortKey> order = ShardedUserRepository.sortKeys(sort);
+        List<User> sorted = repository.findAllMatching(example, sort, Integer.MAX_VALUE);
+        if (position instanceof OffsetScrollPosition offset) {
+            int start = Math.toIntExact(Math.min(offset.getOffset(), sorted.size()));
+            List<User> rest = sorted.subList(start, sorted.size());
+            return Window.from(first(rest, limit).stream().map(projection).toList(),
+                    OffsetScrollPosition.positionFunction(start), rest.size() > limit);
+        }
+        KeysetScrollPosition keyset = (KeysetScrollPosition) position;
+        if (keyset.scrollsBackward() && !keyset.isInitial()) {
+            List<User> before = sorted.stream()
+                    .filter(user -> ShardMerge.compareToKeyset(user, order, keyset.getKeys()) < 0)
+                    .toList();
+            List<User> window = before.subList(Math.max(0, before.size() - limit), before.size());
+            return window(window, order, ScrollPosition.Direction.BACKWARD, before.size() > limit);
+        }
+        List<User> after = keyset.isInitial() ? sorted : sorted.stream()
+                .filter(user -> ShardMerge.compareToKeyset(user, order, keyset.getKeys()) > 0)
+                .toList();
+        return window(first(after, limit), order, ScrollPosition.Direction.FORWARD, after.size() > limit);
+    }
+
+    @Override
+    public Page<R> page(Pageable pageable) {
+        if (pageable.isUnpaged()) {
+            return new PageImpl<>(all());
+        }
+        Pageable sorted = pageable.getSort().isSorted() ? pageable
+                : PageRequest.of(pageable.getPageNumber(), pageable.getPageSize(), sort);
+        return repository.findAll(example, sorted).map(projection);
+    }
+
+    @Override
+    public Stream<R> stream() {
+        return all().stream();
+    }
+
+    @Override
+    public long count() {
+        return repository.count(example);
+    }
+
+    @Override
+    public boolean exists() {
+        return repository.exists(example);
+    }
+
+    private Window<R> window(List<User> users, List<SortKey> order, ScrollPosition.Direction direction,
+                             boolean hasNext) {
+        return Window.from(users.stream().map(projection).toList(),
+                index -> ScrollPosition.of(keyset(users.get(index), order), direction), hasNext);
+    }
+
+    private static Map<String, Object> keyset(User user, List<SortKey> order) {
+        Map<String, Object> keys = new LinkedHashMap<>();
+        order.forEach(key -> keys.put(key.field().apiName(), key.field().read(user)));
+        return keys;
+    }
+
+    private static List<User> first(List<User> users, int limit) {
+        return users.subList(0, Math.min(limit, users.size()));
+    }
+
+    private static <P> Function<User, P> projectionTo(Class<P> type) {
+        if (type.isAssignableFrom(User.class)) {
+            return type::cast;
+        }
+        if (type.isInterface()) {
+            return user -> PROJECTIONS.createProjection(type, user);
+        }
+        Constructor<P> constructor = BeanUtils.getResolvableConstructor(type);
+        String[] properties = BeanUtils.getParameterNames(constructor);
+        return user -> {
+            BeanWrapper source = new BeanWrapperImpl(user);
+            return BeanUtils.instantiateClass(constructor,
+                    Arrays.stream(properties).map(source::getPropertyValue).toArray());
+        };
+    }
+}
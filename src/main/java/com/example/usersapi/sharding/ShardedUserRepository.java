@@ -0,0 +1,655 @@
+package com.example.usersapi.sharding;
+
+import com.example.usersapi.deadline.Deadline;
+import com.example.usersapi.dto.UserFieldSet;
+import com.example.usersapi.dto.UserResponseField;
+import com.example.usersapi.model.User;
+import com.example.usersapi.phone.PhoneNumbers;
+import com.example.usersapi.query.SortKey;
+import com.example.usersapi.query.UserField;
+import com.example.usersapi.query.UserQuery;
+import com.example.usersapi.query.UserQueryCompiler;
+import com.example.usersapi.repository.UserRepository;
+import com.example.usersapi.repository.UserRepositoryImpl;
+import jakarta.persistence.EntityNotFoundException;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.dao.IncorrectResultSizeDataAccessException;
+import org.springframework.data.domain.Example;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.repository.query.FluentQuery;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Function;
+
+/**
+ * UserRepository que distribui os usuários entre vários bancos (shards).
+ *
+ * Substitui o repository do Spring Data quando users.sharding.enabled=true
+ * (ver config.ShardingConfig); o UserService não muda.
+ * - findById, save, deleteById: vão direto ao shard do ID (ShardSet.shardFor)
+ * - findAll, search, buscas por nome, idade, telefone e por Example, count: executadas em
+ *   todos os shards em paralelo; os resultados ordenados são juntados por ShardMerge
+ * - findByEmail, existsByEmail: respondidas pelo EmailDirectory, que também garante
+ *   a unicidade global do email
+ *
+ * Novos usuários recebem o ID do UserIdGenerator (sem IDENTITY nos shards).
+ *
+ * Transações: o diretório fica no banco principal e participa do @Transactional do service;
+ * cada comando em um shard é confirmado na hora. Se a transação principal for desfeita depois
+ * (ex.: falha ao gravar o evento do outbox), uma compensação desfaz a escrita no shard.
+ * Por usar SQL direto, os usuários não passam pelo cache de segundo nível do Hibernate.
+ */
+@RequiredArgsConstructor
+@Slf4j
+public class ShardedUserRepository implements UserRepository {
+
+    static final String INSERT_SQL = "INSERT INTO users (id, name, email, age, phone, phone_digits, created_at, updated_at)"
+            + " VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private static final String SELECT_SQL = "SELECT " + UserQueryCompiler.COLUMNS + " FROM users";
+
+    private static final String UPDATE_SQL =
+            "UPDATE users SET name = ?, email = ?, age = ?, phone = ?, phone_digits = ?, updated_at = ? WHERE id = ?";
+
+    private static final List<SortKey> BY_ID = List.of(SortKey.asc(UserField.ID));
+
+    /**
+     * Ordem do índice idx_users_phone_digits (phone_digits, id), a mesma do ORDER BY da busca por faixa.
+     */
+    private static final Comparator<User> BY_PHONE_DIGITS =
+            Comparator.comparing((User user) -> PhoneNumbers.normalize(user.getPhone())).thenComparing(User::getId);
+
+    private final ShardSet shardSet;
+    private final EmailDirectory emailDirectory;
+    private final UserIdGenerator idGenerator;
+    private final UserQueryCompiler userQueryCompiler;
+    private final ExecutorService shardExecutor;
+
+    @Override
+    public Optional<User> findById(Long id) {
+        return findOn(shardSet.shardFor(id), id);
+    }
+
+    @Override
+    public boolean existsById(Long id) {
+        return !shardSet.shardFor(id).getJdbcTemplate()
+                .queryForList("SELECT 1 FROM users WHERE id = ?", id).isEmpty();
+    }
+
+    @Override
+    public Optional<Object[]> findColumnsById(Long id, UserFieldSet columns) {
+        return shardSet.shardFor(id).getJdbcTemplate()
+                .query("SELECT " + columns.selectColumns() + " FROM users WHERE id = ?",
+                        (rs, rowNum) -> columns.readRow(rs), id)
+                .stream().findFirst();
+    }
+
+    @Override
+    public List<User> findAllById(Iterable<Long> ids) {
+        Map<Integer, List<Long>> idsByShard = new LinkedHashMap<>();
+        ids.forEach(id -> idsByShard.computeIfAbsent(shardSet.indexFor(id), index -> new ArrayList<>()).add(id));
+        List<List<User>> found = fanOut(shard -> {
+            List<Long> shardIds = idsByShard.getOrDefault(shard.getIndex(), List.of());
+            if (shardIds.isEmpty()) {
+                return List.of();
+            }
+            return shard.getJdbcTemplate().query(SELECT_SQL + " WHERE id IN (" + placeholders(shardIds.size())
+                    + ") ORDER BY id", UserRepositoryImpl.USER_ROW_MAPPER, shardIds.toArray());
+        });
+        return ShardMerge.merge(found, ShardMerge.users(BY_ID), Integer.MAX_VALUE);
+    }
+
+    @Override
+    public User getReferenceById(Long id) {
+        return findById(id).orElseThrow(() -> new EntityNotFoundException("Usuário não encontrado com ID: " + id));
+    }
+
+    @Override
+    @Deprecated
+    public User getOne(Long id) {
+        return getReferenceById(id);
+    }
+
+    @Override
+    @Deprecated
+    public User getById(Long id) {
+        return getReferenceById(id);
+    }
+
+    @Override
+    public Optional<User> findByEmail(String email) {
+        return emailDirectory.find(email)
+                .flatMap(entry -> findOn(shardSet.get(entry.shard()), entry.userId()));
+    }
+
+    @Override
+    public boolean existsByEmail(String email) {
+        return emailDirectory.find(email).isPresent();
+    }
+
+    @Override
+    public Set<String> findExistingEmails(Collection<String> emails) {
+        return emailDirectory.existing(emails);
+    }
+
+    @Override
+    public List<User> findAll() {
+        return findAll(Sort.unsorted());
+    }
+
+    @Override
+    public List<User> findAll(Sort sort) {
+        return findAllWhere(ExampleCondition.ALL, sortKeys(sort), Integer.MAX_VALUE);
+    }
+
+    /**
+     * Página com OFFSET: cada shard devolve suas offset + size primeiras linhas,
+     * o merge pega as offset + size primeiras do total e descarta as offset iniciais.
+     * Para páginas profundas, prefira search (keyset), que não relê as páginas anteriores.
+     */
+    @Override
+    public Page<User> findAll(Pageable pageable) {
+        return findPage(ExampleCondition.ALL, pageable);
+    }
+
+    @Override
+    public long count() {
+        return count(ExampleCondition.ALL);
+    }
+
+    @Override
+    public List<User> findByNameContainingIgnoreCase(String name) {
+        return findAllWhere("LOWER(name) LIKE LOWER(CONCAT('%', ?, '%'))", name);
+    }
+
+    @Override
+    public List<User> findByAge(Integer age) {
+        return age == null ? findAllWhere("age IS NULL") : findAllWhere("age = ?", age);
+    }
+
+    @Override
+    public List<User> findByAgeBetween(Integer minAge, Integer maxAge) {
+        return findAllWhere("age BETWEEN ? AND ?", minAge, maxAge);
+    }
+
+    @Override
+    public List<User> findByPhoneDigitsOrderByIdAsc(String phoneDigits, Limit limit) {
+        return findAllWhere(new ExampleCondition("phone_digits = ?", List.of(phoneDigits)), BY_ID, max(limit));
+    }
+
+    /**
+     * Cada shard percorre sua faixa do índice (phone_digits, id) até o limite;
+     * o merge usa a mesma ordem, recalculando os dígitos a partir do telefone lido.
+     */
+    @Override
+    public List<User> findByPhoneDigitsRange(String from, String to, Limit limit) {
+        int max = max(limit);
+        String sql = SELECT_SQL + " WHERE phone_digits >= ? AND phone_digits < ? ORDER BY phone_digits, id LIMIT ?";
+        return ShardMerge.merge(
+                fanOut(shard -> shard.getJdbcTemplate().query(sql, UserRepositoryImpl.USER_ROW_MAPPER, from, to, max)),
+                BY_PHONE_DIGITS, max);
+    }
+
+    /**
+     * O mesmo SQL compilado roda em todos os shards, cada um com sua linha extra
+     * (query.limit() + 1): o merge mantém a linha extra que indica a próxima página.
+     */
+    @Override
+    public List<User> search(UserQuery query) {
+        UserQueryCompiler.SqlQuery sql = userQueryCompiler.compile(query);
+        Object[] parameters = sql.parameters().toArray();
+        return ShardMerge.merge(
+                fanOut(shard -> shard.getJdbcTemplate().query(sql.sql(), UserRepositoryImpl.USER_ROW_MAPPER, parameters)),
+                ShardMerge.users(query.order()), query.limit() + 1);
+    }
+
+    @Override
+    public List<Object[]> searchColumns(UserQuery query, UserFieldSet columns) {
+        UserQueryCompiler.SqlQuery sql = userQueryCompiler.compile(query, columns.selectColumns());
+        Object[] parameters = sql.parameters().toArray();
+        return ShardMerge.merge(
+                fanOut(shard -> shard.getJdbcTemplate().query(sql.sql(), (rs, rowNum) -> columns.readRow(rs), parameters)),
+                ShardMerge.rows(query.order()), query.limit() + 1);
+    }
+
+    @Override
+    public List<Object[]> findAllColumns(UserFieldSet columns) {
+        // O id é lido mesmo se não foi pedido: é a chave do merge (não é serializado)
+        UserFieldSet withId = columns.with(UserResponseField.ID);
+        String sql = "SELECT " + withId.selectColumns() + " FROM users ORDER BY id";
+        return ShardMerge.merge(
+                fanOut(shard -> shard.getJdbcTemplate().query(sql, (rs, rowNum) -> withId.readRow(rs))),
+                ShardMerge.rows(BY_ID), Integer.MAX_VALUE);
+    }
+
+    /**
+     * Sem ID: novo usuário (ID gerado, email reservado no diretório, INSERT no shard).
+     * Com ID: atualização no shard do ID; se o email mudou, o diretório troca a reserva.
+     *
+     * @throws DuplicateKeyException se o email já pertence a outro usuário
+     */
+    @Override
+    public <S extends User> S save(S user) {
+        LocalDateTime now = now();
+        if (user.getId() == null) {
+            insert(user, idGenerator.nextId(), now);
+        } else {
+            update(user, now);
+        }
+        return user;
+    }
+
+    @Override
+    public <S extends User> S saveAndFlush(S user) {
+        return save(user);
+    }
+
+    @Override
+    public <S extends User> List<S> saveAll(Iterable<S> users) {
+        List<S> saved = new ArrayList<>();
+        users.forEach(user -> saved.add(save(user)));
+        return saved;
+    }
+
+    @Override
+    public <S extends User> List<S> saveAllAndFlush(Iterable<S> users) {
+        return saveAll(users);
+    }
+
+    /**
+     * Escritas em shards são confirmadas comando a comando: não há nada pendente.
+     */
+    @Override
+    public void flush() {
+    }
+
+    @Override
+    public Upsert upsertByEmail(User user) {
+        try {
+            return upsert(user);
+        } catch (DuplicateKeyException e) {
+            // Outra requisição reservou o mesmo email entre a consulta ao diretório e o INSERT:
+            // a segunda tentativa encontra a reserva e vira atualização
+            return upsert(user);
+        }
+    }
+
+    /**
+     * Importação: IDs gerados em sequência, emails reservados com um único batch no diretório
+     * e um JDBC batch por shard, todos os shards em paralelo.
+     */
+    @Override
+    public void insertAll(List<User> users) {
+        if (users.isEmpty()) {
+            return;
+        }
+        Map<Integer, List<User>> usersByShard = new LinkedHashMap<>();
+        List<EmailDirectory.Entry> entries = new ArrayList<>();
+        for (User user : users) {
+            user.setId(idGenerator.nextId());
+            int index = shardSet.indexFor(user.getId());
+            usersByShard.computeIfAbsent(index, key -> new ArrayList<>()).add(user);
+            entries.add(new EmailDirectory.Entry(user.getEmail(), user.getId(), index));
+        }
+        emailDirectory.registerAll(entries);
+
+        fanOut(shard -> {
+            List<User> batch = usersByShard.getOrDefault(shard.getIndex(), List.of());
+            if (!batch.isEmpty()) {
+                insertBatch(shard.getJdbcTemplate(), batch);
+                onRollback(() -> shard.getJdbcTemplate().batchUpdate("DELETE FROM users WHERE id = ?",
+                        batch.stream().map(user -> new Object[]{user.getId()}).toList()));
+            }
+            return List.of();
+        });
+    }
+
+    /**
+     * Usuário que volta com o ID original (ex.: reidratado do arquivo): vai para o shard
+     * desse ID, com as datas que já tinha.
+     *
+     * @throws DuplicateKeyException se o email já pertence a outro usuário
+     */
+    @Override
+    public void insertWithId(User user) {
+        ShardSet.Shard shard = shardSet.shardFor(user.getId());
+        register(user, shard);
+    }
+
+    @Override
+    public void deleteById(Long id) {
+        ShardSet.Shard shard = shardSet.shardFor(id);
+        findOn(shard, id).ifPresent(previous -> {
+            shard.getJdbcTemplate().update("DELETE FROM users WHERE id = ?", id);
+            emailDirectory.remove(previous.getEmail());
+            onRollback(() -> insertBatch(shard.getJdbcTemplate(), List.of(previous)));
+        });
+    }
+
+    @Override
+    public void delete(User user) {
+        deleteById(user.getId());
+    }
+
+    @Override
+    public void deleteAllById(Iterable<? extends Long> ids) {
+        ids.forEach(this::deleteById);
+    }
+
+    @Override
+    public void deleteAll(Iterable<? extends User> users) {
+        users.forEach(this::delete);
+    }
+
+    @Override
+    public void deleteAll() {
+        deleteAll(findAll());
+    }
+
+    @Override
+    public void deleteAllInBatch(Iterable<User> users) {
+        deleteAll(users);
+    }
+
+    @Override
+    public void deleteAllByIdInBatch(Iterable<Long> ids) {
+        deleteAllById(ids);
+    }
+
+    @Override
+    public void deleteAllInBatch() {
+        deleteAll();
+    }
+
+    /**
+     * @throws IncorrectResultSizeDataAccessException se mais de um usuário corresponde ao exemplo
+     */
+    @Override
+    public <S extends User> Optional<S> findOne(Example<S> example) {
+        return ShardedFluentQuery.of(this, example).one();
+    }
+
+    @Override
+    public <S extends User> List<S> findAll(Example<S> example) {
+        return findAll(example, Sort.unsorted());
+    }
+
+    @Override
+    public <S extends User> List<S> findAll(Example<S> example, Sort sort) {
+        return cast(findAllMatching(example, sort, Integer.MAX_VALUE));
+    }
+
+    @Override
+    public <S extends User> Page<S> findAll(Example<S> example, Pageable pageable) {
+        return findPage(ExampleCondition.of(example), pageable).map(ShardedUserRepository::<S>cast);
+    }
+
+    @Override
+    public <S extends User> long count(Example<S> example) {
+        return count(ExampleCondition.of(example));
+    }
+
+    @Override
+    public <S extends User> boolean exists(Example<S> example) {
+        ExampleCondition where = ExampleCondition.of(example);
+        String sql = "SELECT 1 FROM users WHERE " + where.sql() + " LIMIT 1";
+        Object[] parameters = where.parameters().toArray();
+        return fanOut(shard -> shard.getJdbcTemplate().queryForList(sql, parameters)).stream()
+                .anyMatch(found -> !found.isEmpty());
+    }
+
+    @Override
+    public <S extends User, R> R findBy(Example<S> example, Function<FluentQuery.FetchableFluentQuery<S>, R> queryFunction) {
+        return queryFunction.apply(ShardedFluentQuery.of(this, example));
+    }
+
+    /**
+     * Usuários que correspondem ao exemplo, na ordem do Sort (sempre terminando no id);
+     * cada shard devolve no máximo limit linhas.
+     */
+    List<User> findAllMatching(Example<? extends User> example, Sort sort, int limit) {
+        return findAllWhere(ExampleCondition.of(example), sortKeys(sort), limit);
+    }
+
+    private Optional<User> findOn(ShardSet.Shard shard, long id) {
+        return shard.getJdbcTemplate().query(SELECT_SQL + " WHERE id = ?", UserRepositoryImpl.USER_ROW_MAPPER, id)
+                .stream().findFirst();
+    }
+
+    private Upsert upsert(User user) {
+        LocalDateTime now = now();
+        User target = new User(user.getName(), user.getEmail(), user.getAge(), user.getPhone());
+        Optional<EmailDirectory.Entry> entry = emailDirectory.find(user.getEmail());
+        if (entry.isPresent()) {
+            target.setId(entry.get().userId());
+            update(target, now);
+            return new Upsert(target, false);
+        }
+        insert(target, idGenerator.nextId(), now);
+        return new Upsert(target, true);
+    }
+
+    private void insert(User user, long id, LocalDateTime now) {
+        user.setId(id);
+        user.setCreatedAt(now);
+        user.setUpdatedAt(now);
+        register(user, shardSet.shardFor(id));
+    }
+
+    private void register(User user, ShardSet.Shard shard) {
+        // Primeiro a reserva do email: se ele já tem dono, nada foi gravado no shard
+        emailDirectory.register(new EmailDirectory.Entry(user.getEmail(), user.getId(), shard.getIndex()));
+        insertBatch(shard.getJdbcTemplate(), List.of(user));
+        onRollback(() -> shard.getJdbcTemplate().update("DELETE FROM users WHERE id = ?", user.getId()));
+    }
+
+    private void update(User user, LocalDateTime now) {
+        ShardSet.Shard shard = shardSet.shardFor(user.getId());
+        Optional<User> current = findOn(shard, user.getId());
+        if (current.isEmpty()) {
+            // Como o merge do JPA: um ID informado que ainda não existe é inserido
+            insert(user, user.getId(), now);
+            return;
+        }
+        User previous = current.get();
+        if (!previous.getEmail().equals(user.getEmail())) {
+            emailDirectory.register(new EmailDirectory.Entry(user.getEmail(), user.getId(), shard.getIndex()));
+            emailDirectory.remove(previous.getEmail());
+        }
+        user.setCreatedAt(previous.getCreatedAt());
+        user.setUpdatedAt(now);
+        write(shard.getJdbcTemplate(), user);
+        onRollback(() -> write(shard.getJdbcTemplate(), previous));
+    }
+
+    private static void write(JdbcTemplate shard, User user) {
+        shard.update(UPDATE_SQL, user.getName(), user.getEmail(), user.getAge(), user.getPhone(),
+                PhoneNumbers.normalize(user.getPhone()), user.getUpdatedAt(), user.getId());
+    }
+
+    static void insertBatch(JdbcTemplate shard, List<User> users) {
+        shard.batchUpdate(INSERT_SQL, users, users.size(), (ps, user) -> {
+            ps.setLong(1, user.getId());
+            ps.setString(2, user.getName());
+            ps.setString(3, user.getEmail());
+            ps.setObject(4, user.getAge());
+            ps.setString(5, user.getPhone());
+            ps.setString(6, PhoneNumbers.normalize(user.getPhone()));
+            ps.setObject(7, user.getCreatedAt());
+            ps.setObject(8, user.getUpdatedAt());
+        });
+    }
+
+    private List<User> findAllWhere(String condition, Object... parameters) {
+        return findAllWhere(new ExampleCondition(condition, List.of(parameters)), BY_ID, Integer.MAX_VALUE);
+    }
+
+    private List<User> findAllWhere(ExampleCondition where, List<SortKey> order, int limit) {
+        List<Object> parameters = new ArrayList<>(where.parameters());
+        String sql = SELECT_SQL + " WHERE " + where.sql() + " ORDER BY " + ShardMerge.orderBy(order);
+        if (limit < Integer.MAX_VALUE) {
+            sql += " LIMIT ?";
+            parameters.add(limit);
+        }
+        String query = sql;
+        Object[] values = parameters.toArray();
+        return ShardMerge.merge(
+                fanOut(shard -> shard.getJdbcTemplate().query(query, UserRepositoryImpl.USER_ROW_MAPPER, values)),
+                ShardMerge.users(order), limit);
+    }
+
+    /**
+     * Página de findAll(Pageable) ou de findAll(Example, Pageable); o total soma a contagem de cada shard.
+     */
+    private Page<User> findPage(ExampleCondition where, Pageable pageable) {
+        List<SortKey> order = sortKeys(pageable.getSort());
+        if (pageable.isUnpaged()) {
+            return new PageImpl<>(findAllWhere(where, order, Integer.MAX_VALUE));
+        }
+        int limit = Math.toIntExact(pageable.getOffset() + pageable.getPageSize());
+        List<User> merged = findAllWhere(where, order, limit);
+        List<User> content = merged.subList(Math.min((int) pageable.getOffset(), merged.size()), merged.size());
+        return new PageImpl<>(new ArrayList<>(content), pageable, count(where));
+    }
+
+    private long count(ExampleCondition where) {
+        String sql = "SELECT COUNT(*) FROM users WHERE " + where.sql();
+        Object[] parameters = where.parameters().toArray();
+        return fanOut(shard -> List.of(shard.getJdbcTemplate().queryForObject(sql, Long.class, parameters)))
+                .stream().mapToLong(counts -> counts.get(0)).sum();
+    }
+
+    /**
+     * Executa a consulta em todos os shards ao mesmo tempo e espera todas as respostas.
+     * Com um único shard, roda na própria thread.
+     */
+    private <T> List<List<T>> fanOut(Function<ShardSet.Shard, List<T>> query) {
+        if (shardSet.size() == 1) {
+            return List.of(query.apply(shardSet.get(0)));
+        }
+        List<CompletableFuture<List<T>>> futures = shardSet.shards().stream()
+                .map(shard -> CompletableFuture.supplyAsync(() -> query.apply(shard), shardExecutor))
+                .toList();
+        Optional<Deadline> deadline = Deadline.current();
+        if (deadline.isPresent()) {
+            awaitWithin(deadline.get(), futures);
+        }
+        try {
+            return futures.stream().map(CompletableFuture::join).toList();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Espera os shards só até o prazo da requisição (o ThreadLocal do prazo não chega
+     * às threads do shardExecutor). Vencido o prazo, os shards que faltam são abandonados.
+     */
+    private static void awaitWithin(Deadline deadline, List<? extends CompletableFuture<?>> futures) {
+        try {
+            CompletableFuture.allOf(futures.toArray(CompletableFuture[]::new))
+                    .get(deadline.remainingMillis(), TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            futures.forEach(future -> future.cancel(true));
+            throw deadline.expired("consulta aos shards");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw deadline.expired("consulta aos shards");
+        } catch (ExecutionException e) {
+            // A falha é relançada pelo join em fanOut
+        }
+    }
+
+    /**
+     * Registra uma compensação para o caso de a transação do service ser desfeita:
+     * o comando no shard já foi confirmado e não volta sozinho.
+     */
+    private static void onRollback(Runnable compensation) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status == STATUS_ROLLED_BACK) {
+                    try {
+                        compensation.run();
+                    } catch (RuntimeException e) {
+                        log.error("Falha ao desfazer escrita em shard após rollback: {}", e.getMessage());
+                    }
+                }
+            }
+        });
+    }
+
+    /**
+     * Chaves de ordenação de um Sort do Spring Data, sempre terminando no id
+     * (ordem total, igual em todos os shards).
+     *
+     * @throws IllegalArgumentException se a propriedade não estiver na whitelist de UserField
+     */
+    static List<SortKey> sortKeys(Sort sort) {
+        List<SortKey> order = new ArrayList<>();
+        for (Sort.Order property : sort) {
+            order.add(new SortKey(UserField.fromApiName(property.getProperty()), property.isDescending()));
+        }
+        if (order.stream().noneMatch(key -> key.field() == UserField.ID)) {
+            order.add(SortKey.asc(UserField.ID));
+        }
+        return order;
+    }
+
+    private static String placeholders(int count) {
+        return String.join(", ", Collections.nCopies(count, "?"));
+    }
+
+    private static LocalDateTime now() {
+        // Precisão de microssegundos, a mesma da coluna TIMESTAMP(6)
+        return LocalDateTime.now().truncatedTo(ChronoUnit.MICROS);
+    }
+
+    private static int max(Limit limit) {
+        return limit.isLimited() ? limit.max() : Integer.MAX_VALUE;
+    }
+
+    /**
+     * Os shards só guardam User; o tipo S do exemplo existe apenas na assinatura do Spring Data.
+     */
+    @SuppressWarnings("unchecked")
+    private static <S extends User> S cast(User user) {
+        return (S) user;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <S extends User> List<S> cast(List<User> users) {
+        return (List<S>) users;
+    }
+}
@@ -0,0 +1,54 @@
+package com.example.usersapi.sharding;
+
+import java.time.Instant;
+
+/**
+ * Gera IDs de usuário únicos sem consultar nenhum banco (no estilo Snowflake).
+ *
+ * Com vários shards, não existe mais uma coluna IDENTITY única que numere todos os usuários.
+ * Cada ID é montado com 63 bits:
+ * - 41 bits: milissegundos desde 2024-01-01 (suficiente para ~69 anos)
+ * - 10 bits: nodeId da instância (users.sharding.node-id)
+ * - 12 bits: sequência dentro do mesmo milissegundo (4096 IDs por ms por instância)
+ *
+ * Instâncias com nodeId diferentes nunca colidem; na mesma instância o gerador é sincronizado.
+ * Se o relógio voltar (ex.: ajuste de NTP), o gerador continua a partir do último instante usado,
+ * em vez de repetir IDs.
+ */
+public class UserIdGenerator {
+
+    static final long EPOCH = Instant.parse("2024-01-01T00:00:00Z").toEpochMilli();
+    static final int NODE_BITS = 10;
+    static final int SEQUENCE_BITS = 12;
+    static final long MAX_NODE = (1L << NODE_BITS) - 1;
+    static final long MAX_SEQUENCE = (1L << SEQUENCE_BITS) - 1;
+
+    private final long nodeId;
+    private long lastMillis = -1;
+    private long sequence;
+
+    public UserIdGenerator(int nodeId) {
+        if (nodeId < 0 || nodeId > MAX_NODE) {
+            throw new IllegalArgumentException("users.sharding.node-id deve estar entre 0 e " + MAX_NODE + ": " + nodeId);
+        }
+        this.nodeId = nodeId;
+    }
+
+    /**
+     * Próximo ID, sempre maior que o anterior desta instância.
+     */
+    public synchronized long nextId() {
+        long millis = Math.max(System.currentTimeMillis() - EPOCH, lastMillis);
+        if (millis == lastMillis) {
+            sequence = (sequence + 1) & MAX_SEQUENCE;
+            if (sequence == 0) {
+                // Sequência esgotada neste milissegundo: usa o próximo
+                millis++;
+            }
+        } else {
+            sequence = 0;
+        }
+        lastMillis = millis;
+        return (millis << (NODE_BITS + SEQUENCE_BITS)) | (nodeId << SEQUENCE_BITS) | sequence;
+    }
+}
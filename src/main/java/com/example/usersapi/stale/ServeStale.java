@@ -0,0 +1,19 @@
+package com.example.usersapi.stale;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Leitura do UserService que pode ser atendida com uma resposta antiga (StaleReadInterceptor).
+ *
+ * Só para leituras por ID: os IDs dos parâmetros (Long ou coleção de Long) identificam as
+ * respostas a descartar quando esses usuários mudam. Listagens e buscas não são marcadas.
+ */
+@Documented
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface ServeStale {
+}
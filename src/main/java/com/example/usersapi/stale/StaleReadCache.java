@@ -0,0 +1,130 @@
+package com.example.usersapi.stale;
+
+import com.example.usersapi.invalidation.InvalidationListener;
+import java.lang.reflect.Method;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Últimas respostas das leituras marcadas com @ServeStale.
+ *
+ * A invalidação é por ID de usuário e preguiçosa: invalidate() só anota, na faixa do ID
+ * (ID módulo 1024), o número da invalidação. Uma resposta guardada vale enquanto nenhuma
+ * faixa dos seus IDs tiver sido invalidada depois que a leitura começou. Isso cobre também
+ * a leitura lenta que termina depois de uma escrita concorrente: ela leu antes do commit
+ * e já nasce invalidada. Faixas compartilhadas só descartam respostas a mais.
+ *
+ * Com users.invalidation, as gravações de outras instâncias chegam pelo InvalidationBus.
+ */
+public class StaleReadCache implements InvalidationListener {
+
+    private static final int STRIPES = 1024;
+
+    /**
+     * Leitura guardada: método e argumentos.
+     */
+    public record Key(Method method, List<Object> arguments) {
+    }
+
+    /**
+     * Resposta guardada.
+     *
+     * @param storedAt instante (clock do interceptor) em que a resposta foi lida do banco
+     * @param sequence número de invalidações quando a leitura começou
+     */
+    public record Entry(Object value, long[] userIds, long storedAt, long sequence) {
+    }
+
+    private final Map<Key, Entry> entries;
+    private final AtomicLong sequence = new AtomicLong();
+    private final AtomicLongArray invalidatedAt = new AtomicLongArray(STRIPES);
+
+    public StaleReadCache(int maxEntries) {
+        // accessOrder = true: a leitura move a entrada para o fim; a mais antiga sai primeiro
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Key, Entry> eldest) {
+                return size() > maxEntries;
+            }
+        };
+    }
+
+    /**
+     * Número da última invalidação; guarde antes de ler do banco e passe para put().
+     */
+    public long sequence() {
+        return sequence.get();
+    }
+
+    /**
+     * Resposta guardada ainda válida, ou null.
+     */
+    public synchronized Entry get(Key key) {
+        Entry entry = entries.get(key);
+        if (entry != null && isInvalidated(entry)) {
+            entries.remove(key);
+            return null;
+        }
+        return entry;
+    }
+
+    /**
+     * Guarda a resposta de uma leitura iniciada quando sequence() era sequence.
+     */
+    public synchronized void put(Key key, long[] userIds, Object value, long storedAt, long sequence) {
+        Entry entry = new Entry(value, userIds, storedAt, sequence);
+        if (!isInvalidated(entry)) {
+            entries.put(key, entry);
+        }
+    }
+
+    public synchronized void remove(Key key) {
+        entries.remove(key);
+    }
+
+    /**
+     * Descarta as respostas que incluem algum dos usuários.
+     */
+    @Override
+    public void invalidate(Collection<Long> userIds) {
+        if (userIds.isEmpty()) {
+            return;
+        }
+        long invalidation = sequence.incrementAndGet();
+        for (Long id : userIds) {
+            invalidatedAt.accumulateAndGet(stripe(id), invalidation, Math::max);
+        }
+    }
+
+    /**
+     * Descarta todas as respostas (inclusive as de leituras ainda em andamento).
+     */
+    @Override
+    public void invalidateAll() {
+        long invalidation = sequence.incrementAndGet();
+        for (int stripe = 0; stripe < STRIPES; stripe++) {
+            invalidatedAt.accumulateAndGet(stripe, invalidation, Math::max);
+        }
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    private boolean isInvalidated(Entry entry) {
+        for (long id : entry.userIds()) {
+            if (invalidatedAt.get(stripe(id)) > entry.sequence()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static int stripe(long id) {
+        return (int) Math.floorMod(id, (long) STRIPES);
+    }
+}
@@ -0,0 +1,249 @@
+package com.example.usersapi.stale;
+
+import com.example.usersapi.config.StaleReadProperties;
+import com.example.usersapi.deadline.Deadline;
+import com.example.usersapi.deadline.DeadlineExceededException;
+import com.example.usersapi.dto.UpsertUserResult;
+import com.example.usersapi.dto.UserResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.springframework.aop.ProxyMethodInvocation;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.dao.DataAccessException;
+import org.springframework.transaction.TransactionException;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.lang.reflect.Method;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+/**
+ * Stale-while-revalidate e stale-if-error nas leituras do UserService marcadas com @ServeStale.
+ *
+ * Pela idade da resposta guardada (StaleReadCache):
+ * - até fresh-for: entregue sem consultar o banco
+ * - até fresh-for + stale-while-revalidate: entregue, e uma atualização roda em segundo plano
+ *   (no máximo uma por leitura ao mesmo tempo)
+ * - mais velha ou ausente: consulta o banco; se ele falhar ou estourar o prazo, entrega a
+ *   resposta guardada com até stale-if-error de idade
+ *
+ * Respostas antigas são marcadas para o StaleResponseHeaders (headers Age e Warning).
+ * "Usuário não encontrado" não é falha do banco e segue como erro.
+ *
+ * As escritas do UserService (métodos sem @Transactional(readOnly = true)) também passam
+ * por aqui: ao terminar, descartam as respostas dos usuários afetados. Escritas feitas em
+ * outras instâncias só aparecem depois de fresh-for.
+ *
+ * Aplicado pelo advisor do StaleReadConfig, por fora da transação: a atualização em segundo
+ * plano abre a própria transação, e a escrita descarta as respostas depois do commit.
+ */
+@Slf4j
+public class StaleReadInterceptor implements MethodInterceptor {
+
+    static final String WARNING_STALE = "110 - \"Response is Stale\"";
+    static final String WARNING_REVALIDATION_FAILED = "111 - \"Revalidation Failed\"";
+
+    private final StaleReadCache cache;
+    private final long freshForMillis;
+    private final long revalidateForMillis;
+    private final long staleIfErrorMillis;
+    private final Duration refreshTimeout;
+    private final Executor refreshExecutor;
+    private final LongSupplier clock;
+
+    private final Set<StaleReadCache.Key> refreshing = ConcurrentHashMap.newKeySet();
+    private final LongAdder fresh = new LongAdder();
+    private final LongAdder stale = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder servedOnError = new LongAdder();
+    private final LongAdder refreshes = new LongAdder();
+    private final LongAdder refreshFailures = new LongAdder();
+
+    /**
+     * @param refreshExecutor executa as atualizações em segundo plano
+     * @param clock instante atual em milissegundos
+     */
+    public StaleReadInterceptor(StaleReadCache cache, StaleReadProperties properties, Executor refreshExecutor,
+                                LongSupplier clock) {
+        this.cache = cache;
+        this.freshForMillis = properties.getFreshFor().toMillis();
+        this.revalidateForMillis = freshForMillis + properties.getStaleWhileRevalidate().toMillis();
+        this.staleIfErrorMillis = properties.getStaleIfError().toMillis();
+        this.refreshTimeout = properties.getRefreshTimeout();
+        this.refreshExecutor = refreshExecutor;
+        this.clock = clock;
+    }
+
+    /**
+     * Métodos interceptados: leituras com @ServeStale e escritas.
+     */
+    public static boolean intercepts(Method method) {
+        return method.isAnnotationPresent(ServeStale.class) || isWrite(method);
+    }
+
+    @Override
+    public Object invoke(MethodInvocation invocation) throws Throwable {
+        if (invocation.getMethod().isAnnotationPresent(ServeStale.class)) {
+            return read(invocation);
+        }
+        if (isWrite(invocation.getMethod())) {
+            return write(invocation);
+        }
+        return invocation.proceed();
+    }
+
+    private Object read(MethodInvocation invocation) throws Throwable {
+        StaleReadCache.Key key = new StaleReadCache.Key(invocation.getMethod(),
+                Arrays.asList(invocation.getArguments().clone()));
+        StaleReadCache.Entry entry = cache.get(key);
+        long age = entry == null ? -1 : clock.getAsLong() - entry.storedAt();
+
+        if (entry != null && age < freshForMillis) {
+            fresh.increment();
+            StaleResponseHeaders.mark(age, null);
+            return entry.value();
+        }
+        if (entry != null && age < revalidateForMillis) {
+            stale.increment();
+            refresh(key, entry.userIds(), invocation);
+            StaleResponseHeaders.mark(age, WARNING_STALE);
+            return entry.value();
+        }
+
+        misses.increment();
+        long sequence = cache.sequence();
+        try {
+            Object result = invocation.proceed();
+            cache.put(key, userIds(invocation.getArguments(), null), result, clock.getAsLong(), sequence);
+            return result;
+        } catch (Throwable e) {
+            if (entry == null || age >= staleIfErrorMillis || !isDatabaseFailure(e)) {
+                throw e;
+            }
+            servedOnError.increment();
+            log.warn("Falha do banco em {} ({}): entregando resposta de {} ms atrás",
+                    invocation.getMethod().getName(), e.getClass().getSimpleName(), age);
+            StaleResponseHeaders.mark(age, WARNING_REVALIDATION_FAILED);
+            return entry.value();
+        }
+    }
+
+    /**
+     * Atualiza a resposta em outra thread, com uma cópia da invocação (continua a partir
+     * do próximo interceptor: transação e UserService).
+     */
+    private void refresh(StaleReadCache.Key key, long[] userIds, MethodInvocation invocation) {
+        if (!refreshing.add(key)) {
+            return;  // Já há uma atualização desta leitura em andamento
+        }
+        MethodInvocation copy = ((ProxyMethodInvocation) invocation).invocableClone();
+        try {
+            refreshExecutor.execute(() -> {
+                Deadline.start(refreshTimeout);
+                long sequence = cache.sequence();
+                try {
+                    cache.put(key, userIds, copy.proceed(), clock.getAsLong(), sequence);
+                    refreshes.increment();
+                } catch (Throwable e) {
+                    refreshFailures.increment();
+                    if (!isDatabaseFailure(e)) {
+                        cache.remove(key);  // Ex.: o usuário foi removido por outra instância
+                    }
+                    log.warn("Falha ao atualizar {} em segundo plano: {}", key.method().getName(), e.getMessage());
+                } finally {
+                    Deadline.clear();
+                    refreshing.remove(key);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            refreshing.remove(key);  // Encerrando a aplicação
+        }
+    }
+
+    private Object write(MethodInvocation invocation) throws Throwable {
+        Object result = null;
+        try {
+            result = invocation.proceed();
+            return result;
+        } finally {
+            long[] ids = userIds(invocation.getArguments(), result);
+            if (ids.length > 0) {
+                cache.invalidate(Arrays.stream(ids).boxed().toList());
+            }
+        }
+    }
+
+    public long getFresh() {
+        return fresh.sum();
+    }
+
+    public long getStale() {
+        return stale.sum();
+    }
+
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    public long getServedOnError() {
+        return servedOnError.sum();
+    }
+
+    public long getRefreshes() {
+        return refreshes.sum();
+    }
+
+    public long getRefreshFailures() {
+        return refreshFailures.sum();
+    }
+
+    /**
+     * Escrita: sem @ServeStale e sem @Transactional(readOnly = true) no método.
+     */
+    private static boolean isWrite(Method method) {
+        if (method.isAnnotationPresent(ServeStale.class)) {
+            return false;
+        }
+        Transactional transactional = AnnotatedElementUtils.findMergedAnnotation(method, Transactional.class);
+        return transactional == null || !transactional.readOnly();
+    }
+
+    /**
+     * Falhas em que vale a pena entregar a resposta antiga: banco fora, sem conexão
+     * (inclusive pela raia do bulkhead), timeout de comando ou de transação, prazo vencido.
+     */
+    private static boolean isDatabaseFailure(Throwable e) {
+        return e instanceof DataAccessException || e instanceof TransactionException
+                || e instanceof DeadlineExceededException;
+    }
+
+    /**
+     * IDs de usuário dos argumentos (Long ou coleção de Long) e do resultado de uma escrita.
+     */
+    private static long[] userIds(Object[] arguments, Object result) {
+        List<Long> ids = new ArrayList<>();
+        for (Object argument : arguments) {
+            if (argument instanceof Long id) {
+                ids.add(id);
+            } else if (argument instanceof Collection<?> values) {
+                values.stream().filter(Long.class::isInstance).map(Long.class::cast).forEach(ids::add);
+            }
+        }
+        if (result instanceof UserResponse user && user.getId() != null) {
+            ids.add(user.getId());
+        } else if (result instanceof UpsertUserResult upsert && upsert.getUser() != null) {
+            ids.add(upsert.getUser().getId());
+        }
+        return ids.stream().mapToLong(Long::longValue).toArray();
+    }
+}
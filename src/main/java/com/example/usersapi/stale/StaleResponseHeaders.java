@@ -0,0 +1,68 @@
+package com.example.usersapi.stale;
+
+import org.springframework.core.MethodParameter;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.http.server.ServletServerHttpRequest;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyAdvice;
+
+/**
+ * Headers das respostas montadas com dados guardados pelo StaleReadInterceptor:
+ * - Age: idade dos dados, em segundos
+ * - Warning: 110 (antiga, atualização em andamento) ou 111 (o banco falhou)
+ *
+ * O interceptor marca a requisição atual em um atributo (nada fica para a próxima
+ * requisição da thread); fora de requisições HTTP, mark() não faz nada.
+ *
+ * @ControllerAdvice: aplicado às respostas de todos os controllers
+ */
+@ControllerAdvice
+public class StaleResponseHeaders implements ResponseBodyAdvice<Object> {
+
+    private static final String ATTRIBUTE = StaleResponseHeaders.class.getName();
+
+    private record Mark(long ageMillis, String warning) {
+    }
+
+    /**
+     * Marca a requisição atual: a resposta usa dados com essa idade.
+     *
+     * @param warning valor do header Warning, ou null se os dados ainda estão frescos
+     */
+    static void mark(long ageMillis, String warning) {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (attributes == null) {
+            return;
+        }
+        // Várias leituras na mesma requisição: vale a mais velha, e um Warning nunca é perdido
+        Mark previous = (Mark) attributes.getAttribute(ATTRIBUTE, RequestAttributes.SCOPE_REQUEST);
+        Mark mark = new Mark(Math.max(ageMillis, previous == null ? 0 : previous.ageMillis()),
+                warning != null || previous == null ? warning : previous.warning());
+        attributes.setAttribute(ATTRIBUTE, mark, RequestAttributes.SCOPE_REQUEST);
+    }
+
+    @Override
+    public boolean supports(MethodParameter returnType, Class<? extends HttpMessageConverter<?>> converterType) {
+        return true;
+    }
+
+    @Override
+    public Object beforeBodyWrite(Object body, MethodParameter returnType, MediaType selectedContentType,
+                                  Class<? extends HttpMessageConverter<?>> selectedConverterType,
+                                  ServerHttpRequest request, ServerHttpResponse response) {
+        if (request instanceof ServletServerHttpRequest servletRequest
+                && servletRequest.getServletRequest().getAttribute(ATTRIBUTE) instanceof Mark mark) {
+            response.getHeaders().set(HttpHeaders.AGE, String.valueOf(mark.ageMillis() / 1000));
+            if (mark.warning() != null) {
+                response.getHeaders().set(HttpHeaders.WARNING, mark.warning());
+            }
+        }
+        return body;
+    }
+}
@@ -0,0 +1,43 @@
+package com.example.usersapi.synthetic;
+
+import com.example.usersapi.config.SyntheticDataProperties;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+
+/**
+ * Carrega usuários sintéticos ao iniciar, para ver a aplicação com uma base de tamanho real.
+ *
+ * Se o primeiro usuário gerado já estiver no banco (ex.: banco em arquivo reaproveitado),
+ * a carga é pulada: a mesma semente geraria os mesmos emails.
+ *
+ * Criado em config.SyntheticDataConfig depois do esquema e dos dados iniciais.
+ *
+ * @PostConstruct: roda antes de o servidor web aceitar requisições
+ */
+@Slf4j
+public class SyntheticDataInitializer {
+
+    private final SyntheticDataProperties properties;
+    private final DataSource dataSource;
+
+    public SyntheticDataInitializer(SyntheticDataProperties properties, DataSource dataSource) {
+        this.properties = properties;
+        this.dataSource = dataSource;
+    }
+
+    @PostConstruct
+    public void load() {
+        SyntheticUserGenerator generator = new SyntheticUserGenerator(properties.getSeed());
+        Long existing = new JdbcTemplate(dataSource).queryForObject(
+                "SELECT COUNT(*) FROM users WHERE email = ?", Long.class, generator.user(0).email());
+        if (existing != null && existing > 0) {
+            log.info("Usuários sintéticos da semente {} já estão no banco, carga ignorada", properties.getSeed());
+            return;
+        }
+        log.info("Gerando {} usuários sintéticos (semente {})", properties.getUsers(), properties.getSeed());
+        new SyntheticUserLoader(dataSource, properties.getBatchSize()).load(generator, properties.getUsers());
+    }
+}
@@ -0,0 +1,26 @@
+package com.example.usersapi.synthetic;
+
+import com.example.usersapi.dto.CreateUserRequest;
+
+import java.time.LocalDateTime;
+
+/**
+ * Usuário gerado pelo SyntheticUserGenerator.
+ *
+ * @param name nome completo, com acentos
+ * @param email email único no conjunto gerado
+ * @param age idade (opcional, como na API)
+ * @param phone telefone no formato (DD) 9NNNN-NNNN (opcional)
+ * @param createdAt data de criação
+ * @param updatedAt data da última alteração (igual à de criação se nunca alterado)
+ */
+public record SyntheticUser(String name, String email, Integer age, String phone,
+                            LocalDateTime createdAt, LocalDateTime updatedAt) {
+
+    /**
+     * Campos aceitos pela importação em lote (as datas são atribuídas na importação).
+     */
+    public CreateUserRequest toCreateRequest() {
+        return new CreateUserRequest(name, email, age, phone);
+    }
+}
@@ -0,0 +1,64 @@
+package com.example.usersapi.synthetic;
+
+import com.example.usersapi.dto.CreateUserRequest;
+import com.example.usersapi.model.ImportFormat;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SequenceWriter;
+import com.fasterxml.jackson.dataformat.csv.CsvMapper;
+import com.fasterxml.jackson.dataformat.csv.CsvSchema;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Iterator;
+
+/**
+ * Grava usuários sintéticos em arquivo CSV ou NDJSON (pela extensão, como na importação).
+ *
+ * Os arquivos seguem o formato da importação em lote (name, email, age, phone): servem para
+ * POST /users/import, "java -jar users-api.jar import" e users.seed.snapshot (perfil prod).
+ * As datas geradas ficam de fora - a importação grava a hora em que cada linha entra.
+ */
+public final class SyntheticUserFiles {
+
+    private static final CsvMapper CSV_MAPPER = new CsvMapper();
+
+    private static final ObjectMapper JSON_MAPPER = new ObjectMapper();
+
+    private SyntheticUserFiles() {
+    }
+
+    /**
+     * Grava os usuários de índice 0 a count - 1, em streaming (sem guardar em memória).
+     *
+     * @param file arquivo .csv, .ndjson ou .jsonl (sobrescrito se existir)
+     * @return usuários gravados
+     * @throws IllegalArgumentException se a extensão não for reconhecida
+     */
+    public static long write(SyntheticUserGenerator generator, long count, Path file) {
+        ObjectWriter writer = switch (ImportFormat.fromFileName(file.getFileName().toString())) {
+            case CSV -> CSV_MAPPER.writer(CsvSchema.builder()
+                    .addColumn("name").addColumn("email").addColumn("age").addColumn("phone")
+                    .setUseHeader(true)
+                    .build());
+            case NDJSON -> JSON_MAPPER.writer().withRootValueSeparator("\n");
+        };
+
+        long written = 0;
+        try (Writer output = Files.newBufferedWriter(file, StandardCharsets.UTF_8);
+             SequenceWriter sequence = writer.forType(CreateUserRequest.class).writeValues(output)) {
+            Iterator<SyntheticUser> users = generator.users(count).iterator();
+            while (users.hasNext()) {
+                sequence.write(users.next().toCreateRequest());
+                written++;
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Falha ao gravar o arquivo " + file, e);
+        }
+        return written;
+    }
+}
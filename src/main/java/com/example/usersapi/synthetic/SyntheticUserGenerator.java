@@ -0,0 +1,158 @@
+package com.example.usersapi.synthetic;
+
+import java.text.Normalizer;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.SplittableRandom;
+import java.util.stream.LongStream;
+import java.util.stream.Stream;
+
+/**
+ * Gerador determinístico de usuários realistas para testes de escala.
+ *
+ * Cada usuário depende só da semente e do seu índice: o usuário 1.000.000 sai igual sem
+ * gerar os anteriores, e fatias diferentes podem ser geradas em paralelo.
+ *
+ * Distribuições:
+ * - nomes brasileiros com acentos; os primeiros das listas são mais frequentes (como na vida real)
+ * - emails únicos: nome sem acentos + índice, em provedores comuns
+ * - telefones celulares (DD) 9NNNN-NNNN, com DDDs pesados pela população (11 é o mais comum)
+ * - idade assimétrica: maioria entre 20 e 40, cauda longa até 90
+ * - criação espalhada por 5 anos, mais concentrada perto do fim (a base cresce com o tempo)
+ * - 7% sem telefone e 5% sem idade (campos opcionais na API)
+ */
+public class SyntheticUserGenerator {
+
+    /**
+     * Fim padrão do período das datas: fixo, para o resultado não depender do dia da geração.
+     */
+    public static final LocalDateTime DEFAULT_END = LocalDateTime.of(2025, 1, 1, 0, 0);
+
+    static final Duration SPAN = Duration.ofDays(5 * 365);
+
+    private static final long INDEX_MULTIPLIER = 0x9E3779B97F4A7C15L;
+
+    private static final List<String> FIRST_NAMES = List.of(
+            "Maria", "José", "Ana", "João", "Antônio", "Francisco", "Carlos", "Paulo", "Pedro", "Lucas",
+            "Luíza", "Júlia", "Márcia", "Luiz", "Gabriel", "Rafael", "Letícia", "Fábio", "Sérgio", "Vitória",
+            "Beatriz", "Cecília", "Conceição", "Mônica", "Patrícia", "Cláudia", "Vinícius", "Caio", "Mateus", "Heloísa",
+            "Otávio", "Débora", "Inês", "Lúcia", "Joaquim", "Sebastião", "Valéria", "Rúbia", "Flávio", "Marcelo",
+            "Isadora", "Lívia", "Tânia", "Júlio", "César", "Ângela", "Bárbara", "Raíssa", "Yasmin", "Érica",
+            "Thaís", "Glória", "Fátima", "Simão", "Estêvão", "Jônatas", "Íris", "Natália", "Aurélio", "Cauã");
+
+    private static final List<String> LAST_NAMES = List.of(
+            "Silva", "Santos", "Oliveira", "Souza", "Rodrigues", "Ferreira", "Alves", "Pereira", "Lima", "Gomes",
+            "Costa", "Ribeiro", "Martins", "Carvalho", "Araújo", "Gonçalves", "Almeida", "Lopes", "Soares", "Fernandes",
+            "Vieira", "Barbosa", "Rocha", "Dias", "Nascimento", "Andrade", "Moreira", "Nunes", "Marques", "Machado",
+            "Mendes", "Freitas", "Cardoso", "Ramos", "Barros", "Teixeira", "Conceição", "Magalhães", "Brandão", "Falcão",
+            "Guimarães", "Simões", "Assunção", "Damásio", "Romão", "Patrício", "Antunes", "Sá", "Câmara", "Albuquerque");
+
+    /**
+     * Nomes sem acentos e em minúsculas, para os emails (calculados uma vez, não por usuário).
+     */
+    private static final List<String> FIRST_NAMES_ASCII = FIRST_NAMES.stream().map(SyntheticUserGenerator::ascii).toList();
+    private static final List<String> LAST_NAMES_ASCII = LAST_NAMES.stream().map(SyntheticUserGenerator::ascii).toList();
+
+    private static final List<String> DOMAINS = List.of(
+            "gmail.com", "hotmail.com", "outlook.com", "yahoo.com.br", "uol.com.br", "bol.com.br", "terra.com.br");
+
+    /**
+     * DDDs e pesos aproximados pela população das regiões.
+     */
+    private static final int[] AREA_CODES = {11, 21, 31, 41, 51, 61, 71, 81, 85, 19, 27, 48, 62, 91, 92, 12, 13, 15, 16, 17};
+    private static final int[] AREA_CODE_WEIGHTS = {22, 9, 6, 4, 4, 4, 4, 3, 3, 4, 3, 3, 3, 2, 2, 2, 2, 2, 2, 2};
+    private static final int AREA_CODE_TOTAL = Arrays.stream(AREA_CODE_WEIGHTS).sum();
+
+    private final long seed;
+    private final LocalDateTime end;
+
+    public SyntheticUserGenerator(long seed) {
+        this(seed, DEFAULT_END);
+    }
+
+    /**
+     * @param seed semente: a mesma semente gera sempre os mesmos usuários
+     * @param end fim do período das datas de criação e alteração
+     */
+    public SyntheticUserGenerator(long seed, LocalDateTime end) {
+        this.seed = seed;
+        this.end = end;
+    }
+
+    /**
+     * Usuários de índice 0 a count - 1, gerados sob demanda (sem guardar em memória).
+     */
+    public Stream<SyntheticUser> users(long count) {
+        return LongStream.range(0, count).mapToObj(this::user);
+    }
+
+    /**
+     * Usuário de um índice (sempre o mesmo para a mesma semente).
+     */
+    public SyntheticUser user(long index) {
+        SplittableRandom random = new SplittableRandom(seed ^ (index * INDEX_MULTIPLIER));
+
+        int firstName = skewed(random, FIRST_NAMES.size());
+        int lastName = skewed(random, LAST_NAMES.size());
+        // Um terço com dois sobrenomes (ex.: Maria Santos Oliveira)
+        String lastNames = random.nextInt(3) == 0
+                ? LAST_NAMES.get(skewed(random, LAST_NAMES.size())) + " " + LAST_NAMES.get(lastName)
+                : LAST_NAMES.get(lastName);
+        String name = FIRST_NAMES.get(firstName) + " " + lastNames;
+
+        // O índice no fim garante a unicidade: a parte do nome nunca tem dígitos
+        String separator = switch (random.nextInt(3)) {
+            case 0 -> ".";
+            case 1 -> "_";
+            default -> "";
+        };
+        String email = FIRST_NAMES_ASCII.get(firstName) + separator + LAST_NAMES_ASCII.get(lastName) + index
+                + "@" + DOMAINS.get(random.nextInt(DOMAINS.size()));
+
+        Integer age = random.nextInt(100) < 5 ? null
+                : 18 + (int) Math.min(72, -Math.log(1 - random.nextDouble()) * 14);
+        String phone = random.nextInt(100) < 7 ? null
+                : String.format("(%d) 9%04d-%04d", areaCode(random), random.nextInt(10_000), random.nextInt(10_000));
+
+        double recency = random.nextDouble();
+        long createdAgo = (long) (SPAN.getSeconds() * recency * recency);
+        LocalDateTime createdAt = end.minusSeconds(createdAgo).minusNanos(random.nextInt(1000) * 1_000_000L);
+        LocalDateTime updatedAt = random.nextInt(100) < 30
+                ? createdAt.plusSeconds((long) (createdAgo * random.nextDouble())).truncatedTo(ChronoUnit.MILLIS)
+                : createdAt;
+        return new SyntheticUser(name, email, age, phone, createdAt, updatedAt);
+    }
+
+    /**
+     * Posição em uma lista, com viés para o começo (u²): o primeiro item de uma lista de 60
+     * sai ~15x mais que o último.
+     */
+    private static int skewed(SplittableRandom random, int size) {
+        double u = random.nextDouble();
+        return (int) (u * u * size);
+    }
+
+    private static int areaCode(SplittableRandom random) {
+        int pick = random.nextInt(AREA_CODE_TOTAL);
+        for (int i = 0; i < AREA_CODES.length; i++) {
+            pick -= AREA_CODE_WEIGHTS[i];
+            if (pick < 0) {
+                return AREA_CODES[i];
+            }
+        }
+        return AREA_CODES[0];
+    }
+
+    /**
+     * "Conceição" -> "conceicao".
+     */
+    private static String ascii(String value) {
+        return Normalizer.normalize(value, Normalizer.Form.NFD)
+                .replaceAll("\\p{M}", "")
+                .toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,93 @@
+package com.example.usersapi.synthetic;
+
+import com.example.usersapi.phone.PhoneNumbers;
+import lombok.extern.slf4j.Slf4j;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.util.Iterator;
+
+/**
+ * Grava usuários sintéticos direto na tabela users, sem JPA.
+ *
+ * Uma conexão, um PreparedStatement reaproveitado, JDBC batch e um commit a cada batchSize
+ * linhas: o H2 em memória passa de centenas de milhares de linhas por segundo. As datas
+ * geradas são gravadas como estão (a importação pela API usaria a hora da importação).
+ *
+ * Só depende de um DataSource: serve para a inicialização (SyntheticDataInitializer),
+ * testes e benchmarks. Grava na tabela users do DataSource recebido - com sharding, os
+ * usuários ficam nos shards e este carregamento não se aplica.
+ */
+@Slf4j
+public class SyntheticUserLoader {
+
+    private static final String INSERT_SQL = "INSERT INTO users (name, email, age, phone, phone_digits, created_at, updated_at)"
+            + " VALUES (?, ?, ?, ?, ?, ?, ?)";
+
+    private final DataSource dataSource;
+    private final int batchSize;
+
+    public SyntheticUserLoader(DataSource dataSource, int batchSize) {
+        if (batchSize < 1) {
+            throw new IllegalArgumentException("batchSize deve ser positivo: " + batchSize);
+        }
+        this.dataSource = dataSource;
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * Grava os usuários de índice 0 a count - 1 do gerador.
+     *
+     * @return usuários gravados
+     */
+    public long load(SyntheticUserGenerator generator, long count) {
+        long start = System.nanoTime();
+        long loaded = 0;
+        try (Connection connection = dataSource.getConnection()) {
+            boolean autoCommit = connection.getAutoCommit();
+            connection.setAutoCommit(false);
+            try (PreparedStatement insert = connection.prepareStatement(INSERT_SQL)) {
+                Iterator<SyntheticUser> users = generator.users(count).iterator();
+                while (users.hasNext()) {
+                    bind(insert, users.next());
+                    insert.addBatch();
+                    if (++loaded % batchSize == 0) {
+                        insert.executeBatch();
+                        connection.commit();
+                    }
+                }
+                insert.executeBatch();
+                connection.commit();
+            } catch (SQLException e) {
+                connection.rollback();
+                throw e;
+            } finally {
+                connection.setAutoCommit(autoCommit);
+            }
+        } catch (SQLException e) {
+            throw new IllegalStateException("Falha ao gravar usuários sintéticos (" + loaded + " de " + count + ")", e);
+        }
+
+        long millis = Math.max((System.nanoTime() - start) / 1_000_000, 1);
+        log.info("{} usuários sintéticos gravados em {} ms ({} por segundo)", loaded, millis, loaded * 1000 / millis);
+        return loaded;
+    }
+
+    private static void bind(PreparedStatement insert, SyntheticUser user) throws SQLException {
+        insert.setString(1, user.name());
+        insert.setString(2, user.email());
+        if (user.age() != null) {
+            insert.setInt(3, user.age());
+        } else {
+            insert.setNull(3, Types.INTEGER);
+        }
+        insert.setString(4, user.phone());
+        insert.setString(5, PhoneNumbers.normalize(user.phone()));
+        insert.setTimestamp(6, Timestamp.valueOf(user.createdAt()));
+        insert.setTimestamp(7, Timestamp.valueOf(user.updatedAt()));
+    }
+}
@@ -0,0 +1,57 @@
+package com.example.usersapi.warmup;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Latências de uma operação, uma por iteração, na ordem em que foram medidas.
+ *
+ * Não é thread-safe: só a thread do aquecimento escreve.
+ */
+class LatencySeries {
+
+    private long[] nanos;
+    private int size;
+
+    LatencySeries(int expected) {
+        this.nanos = new long[Math.max(expected, 16)];
+    }
+
+    void add(long elapsedNanos) {
+        if (size == nanos.length) {
+            nanos = Arrays.copyOf(nanos, size * 2);
+        }
+        nanos[size++] = elapsedNanos;
+    }
+
+    int size() {
+        return size;
+    }
+
+    /**
+     * Divide as medições em fatias consecutivas de (quase) mesmo tamanho.
+     * Com menos medições que fatias, cada medição é uma fatia.
+     */
+    List<WarmupReport.LatencySlice> slices(int count) {
+        List<WarmupReport.LatencySlice> slices = new ArrayList<>();
+        int sliceSize = Math.max(1, (size + count - 1) / count);
+        for (int from = 0; from < size; from += sliceSize) {
+            int to = Math.min(from + sliceSize, size);
+            long[] sorted = Arrays.copyOfRange(nanos, from, to);
+            Arrays.sort(sorted);
+            slices.add(new WarmupReport.LatencySlice(from + 1, to,
+                    micros(percentile(sorted, 0.50)), micros(percentile(sorted, 0.99))));
+        }
+        return slices;
+    }
+
+    private static long percentile(long[] sorted, double quantile) {
+        int index = (int) Math.ceil(quantile * sorted.length) - 1;
+        return sorted[Math.max(index, 0)];
+    }
+
+    private static double micros(long nanos) {
+        return Math.round(nanos / 100.0) / 10.0;
+    }
+}
@@ -0,0 +1,236 @@
+package com.example.usersapi.warmup;
+
+import com.example.usersapi.config.WarmupProperties;
+import com.example.usersapi.dto.CreateUserRequest;
+import com.example.usersapi.dto.UpdateUserRequest;
+import com.example.usersapi.dto.UserFieldSet;
+import com.example.usersapi.dto.UserResponse;
+import com.example.usersapi.query.UserQueryParser;
+import com.example.usersapi.repository.UserRepository;
+import com.example.usersapi.service.UserService;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import jakarta.validation.Validator;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.logging.LogLevel;
+import org.springframework.boot.logging.LoggerConfiguration;
+import org.springframework.boot.logging.LoggingSystem;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * Aquecimento da JVM antes de a aplicação receber tráfego.
+ *
+ * Logo depois de um deploy o código ainda é interpretado (o JIT C2 só compila os métodos
+ * quentes depois de milhares de chamadas) e o Hibernate ainda não montou os planos das
+ * consultas: o p99 dos primeiros minutos fica muito pior. Aqui os caminhos quentes de verdade
+ * são exercitados - validação do CreateUserRequest, UserService (criação, leituras, busca,
+ * alteração, remoção), finders do UserRepository e serialização do UserResponse pelo Jackson.
+ *
+ * Cada iteração usa um usuário provisório criado em uma transação que sempre termina em
+ * rollback: nada do aquecimento fica no banco nem no outbox (só os IDs consumidos).
+ *
+ * ApplicationRunner: roda depois que o servidor web já subiu (liveness ok) e antes de o
+ * Spring Boot publicar ReadinessState.ACCEPTING_TRAFFIC, que só acontece quando todos os
+ * runners terminam. O probe /actuator/health/readiness fica OUT_OF_SERVICE até lá.
+ */
+@Slf4j
+public class Warmup implements ApplicationRunner {
+
+    /**
+     * Estados do aquecimento.
+     */
+    public enum Status {
+        PENDING, RUNNING, COMPLETED, FAILED, DISABLED
+    }
+
+    /**
+     * Loggers silenciados durante o aquecimento: milhares de iterações não devem encher o log
+     * (UserService registra cada chamada; no perfil padrão o Hibernate registra cada SQL).
+     */
+    private static final List<String> QUIET_LOGGERS = List.of(
+            "com.example.usersapi.service", "org.hibernate.SQL", "org.hibernate.type.descriptor.sql.BasicBinder");
+
+    private final WarmupProperties properties;
+    private final UserService userService;
+    private final UserRepository userRepository;
+    private final UserQueryParser userQueryParser;
+    private final ObjectMapper objectMapper;
+    private final Validator validator;
+    private final TransactionTemplate transactionTemplate;
+    private final EntityManager entityManager;
+    private final LoggingSystem loggingSystem;
+
+    private volatile Status status = Status.PENDING;
+    private volatile WarmupReport report;
+
+    public Warmup(WarmupProperties properties, UserService userService, UserRepository userRepository,
+                  UserQueryParser userQueryParser, ObjectMapper objectMapper, Validator validator,
+                  TransactionTemplate transactionTemplate, EntityManager entityManager, LoggingSystem loggingSystem) {
+        this.properties = properties;
+        this.userService = userService;
+        this.userRepository = userRepository;
+        this.userQueryParser = userQueryParser;
+        this.objectMapper = objectMapper;
+        this.validator = validator;
+        this.transactionTemplate = transactionTemplate;
+        this.entityManager = entityManager;
+        this.loggingSystem = loggingSystem;
+    }
+
+    public Status getStatus() {
+        return status;
+    }
+
+    /**
+     * @return relatório do aquecimento, ou null se ele ainda não terminou
+     */
+    public WarmupReport getReport() {
+        return report;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if (!properties.isEnabled()) {
+            status = Status.DISABLED;
+            return;
+        }
+        status = Status.RUNNING;
+        log.info("Aquecimento iniciado: até {} iterações ou {}", properties.getIterations(), properties.getMaxDuration());
+
+        Map<WarmupOperation, LatencySeries> latencies = new EnumMap<>(WarmupOperation.class);
+        for (WarmupOperation operation : WarmupOperation.values()) {
+            latencies.put(operation, new LatencySeries(properties.getIterations()));
+        }
+        long start = System.nanoTime();
+        long end = start + properties.getMaxDuration().toNanos();
+        int iterations = 0;
+        String error = null;
+
+        Map<String, LogLevel> levels = quietLogs();
+        try {
+            while (iterations < properties.getIterations() && System.nanoTime() < end) {
+                iteration(iterations, latencies);
+                iterations++;
+            }
+        } catch (RuntimeException e) {
+            error = e.getMessage();
+            log.warn("Aquecimento interrompido na iteração {}: {}", iterations + 1, e.getMessage());
+        } finally {
+            levels.forEach(loggingSystem::setLogLevel);
+        }
+
+        Status finalStatus = error == null ? Status.COMPLETED : Status.FAILED;
+        report = new WarmupReport(finalStatus, iterations, (System.nanoTime() - start) / 1_000_000,
+                operationLatencies(latencies), error);
+        status = finalStatus;
+        logReport(report);
+    }
+
+    /**
+     * Uma iteração: o ciclo de vida completo de um usuário provisório, desfeito no fim.
+     *
+     * Idades de 200 a 249 (fora da faixa real): as consultas por idade só encontram
+     * usuários provisórios, mesmo com a tabela cheia.
+     */
+    private void iteration(int i, Map<WarmupOperation, LatencySeries> latencies) {
+        String email = "warmup-" + i + "@warmup.invalid";
+        int age = 200 + i % 50;
+        CreateUserRequest request = new CreateUserRequest("Aquecimento " + i, email, age, "(11) 90000-0000");
+
+        transactionTemplate.executeWithoutResult(transaction -> {
+            transaction.setRollbackOnly();
+
+            timed(latencies, WarmupOperation.VALIDATION, () -> validator.validate(request));
+            Long id = timed(latencies, WarmupOperation.CREATE, () -> userService.createUser(request)).getId();
+            // Sem o usuário no contexto de persistência, as leituras vão ao banco como em uma requisição
+            entityManager.clear();
+
+            timed(latencies, WarmupOperation.FIND_BY_ID, () -> userService.getUserById(id));
+            timed(latencies, WarmupOperation.FIND_BY_ID_SPARSE,
+                    () -> userService.getUserById(id, UserFieldSet.parse("id,name,email")));
+            timed(latencies, WarmupOperation.SEARCH,
+                    () -> userService.searchUsers(userQueryParser.parse("email=" + email, null, 10, null)));
+            timed(latencies, WarmupOperation.FIND_BY_EMAIL, () -> userRepository.findByEmail(email));
+            timed(latencies, WarmupOperation.EXISTS_BY_EMAIL, () -> userRepository.existsByEmail(email));
+            timed(latencies, WarmupOperation.FIND_BY_AGE, () -> userRepository.findByAge(age));
+            timed(latencies, WarmupOperation.FIND_BY_AGE_BETWEEN, () -> userRepository.findByAgeBetween(age, age + 5));
+            timed(latencies, WarmupOperation.FIND_BY_NAME,
+                    () -> userRepository.findByNameContainingIgnoreCase("aquecimento " + i));
+
+            UserResponse updated = timed(latencies, WarmupOperation.UPDATE, () -> userService.updateUser(id,
+                    new UpdateUserRequest("Aquecimento " + i + " alterado", email, age + 1, request.getPhone())));
+            timed(latencies, WarmupOperation.SERIALIZATION, () -> serialize(updated));
+            timed(latencies, WarmupOperation.DELETE, () -> {
+                userService.deleteUser(id);
+                return null;
+            });
+        });
+    }
+
+    private static <T> T timed(Map<WarmupOperation, LatencySeries> latencies, WarmupOperation operation,
+                               Supplier<T> call) {
+        long start = System.nanoTime();
+        T result = call.get();
+        latencies.get(operation).add(System.nanoTime() - start);
+        return result;
+    }
+
+    private byte[] serialize(UserResponse response) {
+        try {
+            return objectMapper.writeValueAsBytes(response);
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private List<WarmupReport.OperationLatency> operationLatencies(Map<WarmupOperation, LatencySeries> latencies) {
+        List<WarmupReport.OperationLatency> operations = new ArrayList<>();
+        latencies.forEach((operation, series) -> {
+            if (series.size() == 0) {
+                return;
+            }
+            List<WarmupReport.LatencySlice> slices = series.slices(properties.getSlices());
+            double first = slices.get(0).p99Micros();
+            double last = slices.get(slices.size() - 1).p99Micros();
+            boolean converged = slices.size() >= 2
+                    && last <= slices.get(slices.size() - 2).p99Micros() * (1 + properties.getTolerance());
+            double speedup = last > 0 ? Math.round(first / last * 10) / 10.0 : 1;
+            operations.add(new WarmupReport.OperationLatency(operation.getName(), slices, speedup, converged));
+        });
+        return operations;
+    }
+
+    /**
+     * Sobe os loggers barulhentos para WARN e devolve os níveis anteriores (null: herdado).
+     */
+    private Map<String, LogLevel> quietLogs() {
+        Map<String, LogLevel> previous = new LinkedHashMap<>();
+        for (String name : QUIET_LOGGERS) {
+            LoggerConfiguration configuration = loggingSystem.getLoggerConfiguration(name);
+            previous.put(name, configuration != null ? configuration.getConfiguredLevel() : null);
+            loggingSystem.setLogLevel(name, LogLevel.WARN);
+        }
+        return previous;
+    }
+
+    private void logReport(WarmupReport report) {
+        log.info("Aquecimento {} em {} ms ({} iterações)", report.status(), report.elapsedMillis(), report.iterations());
+        for (WarmupReport.OperationLatency operation : report.operations()) {
+            List<WarmupReport.LatencySlice> slices = operation.slices();
+            log.info("  {}: p99 {} µs -> {} µs ({}x){}", operation.operation(), slices.get(0).p99Micros(),
+                    slices.get(slices.size() - 1).p99Micros(), operation.speedup(),
+                    operation.converged() ? "" : ", ainda instável");
+        }
+    }
+}
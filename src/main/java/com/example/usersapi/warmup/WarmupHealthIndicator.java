@@ -0,0 +1,35 @@
+package com.example.usersapi.warmup;
+
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+
+/**
+ * Estado do aquecimento no health (componente "warmup", também no grupo readiness).
+ *
+ * OUT_OF_SERVICE enquanto o aquecimento não termina. Depois, UP com o relatório nos
+ * detalhes - mesmo se ele falhar: o aquecimento não deve impedir a aplicação de atender.
+ */
+public class WarmupHealthIndicator implements HealthIndicator {
+
+    private final Warmup warmup;
+
+    public WarmupHealthIndicator(Warmup warmup) {
+        this.warmup = warmup;
+    }
+
+    @Override
+    public Health health() {
+        Warmup.Status status = warmup.getStatus();
+        if (status == Warmup.Status.PENDING || status == Warmup.Status.RUNNING) {
+            return Health.outOfService().withDetail("status", status).build();
+        }
+        WarmupReport report = warmup.getReport();
+        if (report == null) {
+            return Health.up().withDetail("status", status).build();
+        }
+        return Health.up()
+                .withDetail("status", status)
+                .withDetail("report", report)
+                .build();
+    }
+}
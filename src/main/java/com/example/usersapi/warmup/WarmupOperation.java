@@ -0,0 +1,31 @@
+package com.example.usersapi.warmup;
+
+/**
+ * Operações exercitadas a cada iteração do aquecimento, na ordem em que são executadas.
+ */
+public enum WarmupOperation {
+
+    VALIDATION("validation"),
+    CREATE("create"),
+    FIND_BY_ID("find-by-id"),
+    FIND_BY_ID_SPARSE("find-by-id-sparse"),
+    SEARCH("search"),
+    FIND_BY_EMAIL("find-by-email"),
+    EXISTS_BY_EMAIL("exists-by-email"),
+    FIND_BY_AGE("find-by-age"),
+    FIND_BY_AGE_BETWEEN("find-by-age-between"),
+    FIND_BY_NAME("find-by-name"),
+    UPDATE("update"),
+    SERIALIZATION("serialization"),
+    DELETE("delete");
+
+    private final String name;
+
+    WarmupOperation(String name) {
+        this.name = name;
+    }
+
+    public String getName() {
+        return name;
+    }
+}
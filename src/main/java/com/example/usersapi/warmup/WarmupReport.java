@@ -0,0 +1,34 @@
+package com.example.usersapi.warmup;
+
+import java.util.List;
+
+/**
+ * Resultado do aquecimento: como a latência de cada operação evoluiu ao longo das iterações.
+ *
+ * @param status estado do aquecimento (ver Warmup.Status)
+ * @param iterations iterações completadas
+ * @param elapsedMillis duração total
+ * @param operations latência por operação, fatia a fatia
+ * @param error motivo da interrupção, se houve falha
+ */
+public record WarmupReport(Warmup.Status status, int iterations, long elapsedMillis,
+                           List<OperationLatency> operations, String error) {
+
+    /**
+     * @param operation nome da operação (ver WarmupOperation)
+     * @param slices latência em fatias consecutivas de iterações
+     * @param speedup p99 da primeira fatia dividido pelo p99 da última
+     * @param converged p99 da última fatia dentro da tolerância em relação à penúltima
+     */
+    public record OperationLatency(String operation, List<LatencySlice> slices, double speedup, boolean converged) {
+    }
+
+    /**
+     * @param fromIteration primeira iteração da fatia (a partir de 1)
+     * @param toIteration última iteração da fatia
+     * @param p50Micros mediana, em microssegundos
+     * @param p99Micros percentil 99, em microssegundos
+     */
+    public record LatencySlice(int fromIteration, int toIteration, double p50Micros, double p99Micros) {
+    }
+}
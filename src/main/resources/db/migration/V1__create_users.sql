@@ -0,0 +1,17 @@
+-- Tabela de usuários (mesmo modelo da entidade User)
+CREATE TABLE users (
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY,
+    name VARCHAR(100) NOT NULL,
+    email VARCHAR(150) NOT NULL,
+    age INTEGER,
+    phone VARCHAR(20),
+    created_at TIMESTAMP(6) NOT NULL,
+    updated_at TIMESTAMP(6) NOT NULL,
+    PRIMARY KEY (id),
+    CONSTRAINT uk_users_email UNIQUE (email)
+);
+
+-- Índices usados pela busca com filtro/ordenação (ver query.UserIndex)
+CREATE INDEX idx_users_name ON users (name, id);
+CREATE INDEX idx_users_age ON users (age, id);
+CREATE INDEX idx_users_created_at_name ON users (created_at DESC, name, id);
@@ -0,0 +1,15 @@
+-- Outbox transacional de eventos de usuários (entidade OutboxEvent)
+CREATE TABLE user_outbox (
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY,
+    user_id BIGINT NOT NULL,
+    event_type VARCHAR(20) NOT NULL CHECK (event_type IN ('USER_CREATED', 'USER_UPDATED', 'USER_DELETED')),
+    payload VARCHAR(4000),
+    status VARCHAR(10) NOT NULL CHECK (status IN ('PENDING', 'FAILED')),
+    attempts INTEGER NOT NULL,
+    next_attempt_at TIMESTAMP(6) NOT NULL,
+    last_error VARCHAR(500),
+    created_at TIMESTAMP(6) NOT NULL,
+    PRIMARY KEY (id)
+);
+
+CREATE INDEX idx_user_outbox_status_id ON user_outbox (status, id);
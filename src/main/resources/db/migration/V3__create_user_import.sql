@@ -0,0 +1,14 @@
+-- Progresso das importações em lote (entidade ImportJob)
+CREATE TABLE user_import (
+    id VARCHAR(64) NOT NULL,
+    format VARCHAR(10) NOT NULL CHECK (format IN ('CSV', 'NDJSON')),
+    status VARCHAR(10) NOT NULL CHECK (status IN ('RUNNING', 'COMPLETED', 'FAILED')),
+    lines_committed BIGINT NOT NULL,
+    imported BIGINT NOT NULL,
+    rejected BIGINT NOT NULL,
+    error_file VARCHAR(500) NOT NULL,
+    last_error VARCHAR(500),
+    created_at TIMESTAMP(6) NOT NULL,
+    updated_at TIMESTAMP(6) NOT NULL,
+    PRIMARY KEY (id)
+);
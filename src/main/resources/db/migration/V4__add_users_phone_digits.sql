@@ -0,0 +1,5 @@
+-- Telefone normalizado (só dígitos, com código do país) para a busca por telefone.
+-- As linhas existentes são preenchidas pela aplicação ao subir (ver phone.PhoneIndexLoader).
+ALTER TABLE users ADD COLUMN phone_digits VARCHAR(15);
+
+CREATE INDEX idx_users_phone_digits ON users (phone_digits, id);
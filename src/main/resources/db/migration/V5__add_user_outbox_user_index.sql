@@ -0,0 +1,2 @@
+-- Eventos pendentes de um usuário, para o dispatcher pular quem está em backoff
+CREATE INDEX idx_user_outbox_user_status_id ON user_outbox (user_id, status, id);
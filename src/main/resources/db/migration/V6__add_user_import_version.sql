@@ -0,0 +1,2 @@
+-- Versão da importação (controle otimista): só a chamada que reservou a importação grava o progresso
+ALTER TABLE user_import ADD COLUMN version BIGINT DEFAULT 0 NOT NULL;
@@ -0,0 +1,11 @@
+-- Linhas rejeitadas das importações (entidade ImportRejection), gravadas na transação de cada lote.
+-- Substituem o arquivo de erros no disco, que era escrito só depois do commit.
+CREATE TABLE user_import_rejection (
+    import_id VARCHAR(64) NOT NULL,
+    line_number BIGINT NOT NULL,
+    errors CHARACTER LARGE OBJECT NOT NULL,
+    raw_line CHARACTER LARGE OBJECT NOT NULL,
+    PRIMARY KEY (import_id, line_number)
+);
+
+ALTER TABLE user_import DROP COLUMN error_file;
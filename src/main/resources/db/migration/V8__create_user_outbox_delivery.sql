@@ -0,0 +1,8 @@
+-- Webhooks que já receberam cada evento do outbox (entidade OutboxDelivery).
+-- Uma nova tentativa do evento só chama os webhooks que ainda não confirmaram.
+CREATE TABLE user_outbox_delivery (
+    event_id BIGINT NOT NULL,
+    webhook VARCHAR(500) NOT NULL,
+    delivered_at TIMESTAMP(6) NOT NULL,
+    PRIMARY KEY (event_id, webhook)
+);
@@ -0,0 +1,136 @@
+package com.example.usersapi.archive;
+
+import com.example.usersapi.model.User;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Testes do arquivo em disco, sem Spring: formato dos segmentos, índices e lápides.
+ */
+class UserArchiveTest {
+
+    private static final LocalDateTime CREATED = LocalDateTime.of(2019, 3, 14, 15, 9, 26, 535_897_000);
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void findsEveryArchivedUserByIdAndEmail() {
+        UserArchive archive = UserArchive.open(directory, 64);
+        List<User> users = users(1, 10_000);
+        archive.append(users);
+
+        for (User user : users) {
+            assertEquals(Optional.of(user), archive.find(user.getId()), "ID " + user.getId());
+        }
+        assertEquals(Optional.of(users.get(4_321)), archive.findByEmail("user4322@archive.test"));
+        assertEquals(Optional.empty(), archive.find(0));
+        assertEquals(Optional.empty(), archive.find(10_001));
+        assertEquals(Optional.empty(), archive.findByEmail("nobody@archive.test"));
+    }
+
+    @Test
+    void keepsNullFieldsAndTimestampPrecision() {
+        UserArchive archive = UserArchive.open(directory, 64);
+        User user = new User(7L, "Sem Idade", "nulls@archive.test", null, null, CREATED, CREATED.plusNanos(1_000));
+        archive.append(List.of(user));
+
+        User found = archive.find(7).orElseThrow();
+        assertNull(found.getAge());
+        assertNull(found.getPhone());
+        assertEquals(CREATED, found.getCreatedAt());
+        assertEquals(CREATED.plusNanos(1_000), found.getUpdatedAt());
+    }
+
+    @Test
+    void compressesSegments() throws Exception {
+        UserArchive archive = UserArchive.open(directory, 64);
+        archive.append(users(1, 10_000));
+
+        // Cada usuário ocupa ~80 bytes descomprimido, mais 16 do índice de emails
+        long size = Files.size(directory.resolve("segment-00000001.useg"));
+        assertTrue(size < 10_000 * 60L, "Segmento com " + size + " bytes");
+    }
+
+    @Test
+    void tombstonesHideOlderCopiesAndSurviveReopening() {
+        UserArchive archive = UserArchive.open(directory, 16);
+        archive.append(users(1, 100));
+        archive.forget(10);
+        assertEquals(Optional.empty(), archive.find(10));
+        assertEquals(Optional.empty(), archive.findByEmail("user10@archive.test"));
+
+        UserArchive reopened = UserArchive.open(directory, 16);
+        assertEquals(1, reopened.segmentCount());
+        assertEquals(Optional.empty(), reopened.find(10));
+        assertTrue(reopened.find(11).isPresent());
+
+        // Arquivado de novo depois da lápide: a cópia nova vale
+        reopened.append(users(10, 10));
+        assertEquals("Usuário 10", reopened.find(10).orElseThrow().getName());
+    }
+
+    @Test
+    void newestCopyWins() {
+        UserArchive archive = UserArchive.open(directory, 64);
+        archive.append(users(1, 10));
+        User renamed = users(5, 5).get(0);
+        renamed.setName("Renomeado");
+        archive.append(List.of(renamed));
+
+        assertEquals("Renomeado", archive.find(5).orElseThrow().getName());
+        assertEquals("Usuário 6", archive.find(6).orElseThrow().getName());
+    }
+
+    @Test
+    void disabledArchiveIsEmpty() {
+        UserArchive archive = UserArchive.disabled();
+
+        assertFalse(archive.isEnabled());
+        assertEquals(Optional.empty(), archive.find(1));
+        archive.forget(1);
+        assertThrows(IllegalStateException.class, () -> archive.append(users(1, 1)));
+    }
+
+    @Test
+    void lookupsTakeLessThanAMillisecond() {
+        UserArchive archive = UserArchive.open(directory, 64);
+        for (int segment = 0; segment < 5; segment++) {
+            archive.append(users(segment * 20_000L + 1, (segment + 1) * 20_000L));
+        }
+        for (int i = 0; i < 20_000; i++) {  // aquecimento (JIT)
+            archive.find(1 + (i * 7_919L) % 100_000);
+        }
+
+        int lookups = 10_000;
+        long start = System.nanoTime();
+        for (int i = 0; i < lookups; i++) {
+            assertTrue(archive.find(1 + (i * 104_729L) % 100_000).isPresent());
+        }
+        double micros = (System.nanoTime() - start) / 1e3 / lookups;
+
+        System.out.printf("Busca no arquivo: %.1f µs por ID (5 segmentos, 100000 usuários)%n", micros);
+        assertTrue(micros < 1_000, "Busca média de " + micros + " µs");
+    }
+
+    private static List<User> users(long firstId, long lastId) {
+        List<User> users = new ArrayList<>();
+        for (long id = firstId; id <= lastId; id++) {
+            LocalDateTime updated = CREATED.plusMinutes(id).truncatedTo(ChronoUnit.MICROS);
+            users.add(new User(id, "Usuário " + id, "user" + id + "@archive.test",
+                    id % 3 == 0 ? null : (int) (18 + id % 60), id % 2 == 0 ? "+55 11 9" + (10_000_000 + id) : null,
+                    CREATED, updated));
+        }
+        return users;
+    }
+}
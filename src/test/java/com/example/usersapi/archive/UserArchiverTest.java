@@ -0,0 +1,157 @@
+package com.example.usersapi.archive;
+
+import com.example.usersapi.dto.CreateUserRequest;
+import com.example.usersapi.service.UserService;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.nio.file.Path;
+
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.hasItem;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * Testes do arquivamento com a aplicação real: usuários inativos saem da tabela e continuam
+ * acessíveis por ID, com o email reservado, e voltam para a tabela ao serem alterados.
+ *
+ * Cada teste cria e "envelhece" o próprio usuário antes de arquivar.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:archivetest",
+        "users.archive.enabled=true",
+        "users.archive.block-size=4"
+})
+@AutoConfigureMockMvc
+class UserArchiverTest {
+
+    @TempDir
+    static Path directory;
+
+    @DynamicPropertySource
+    static void archiveDirectory(DynamicPropertyRegistry registry) {
+        registry.add("users.archive.directory", () -> directory.toString());
+    }
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private UserArchiver userArchiver;
+
+    @Autowired
+    private UserArchive userArchive;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void archivedUserIsStillReadableById() throws Exception {
+        long id = archivedUser("Leitura", "leitura@archive.test");
+        assertFalse(inTable(id));
+
+        mockMvc.perform(get("/users/{id}", id))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.name").value("Leitura"))
+                .andExpect(jsonPath("$.email").value("leitura@archive.test"));
+        mockMvc.perform(get("/users/{id}", id).param("fields", "id,email"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.email").value("leitura@archive.test"))
+                .andExpect(jsonPath("$.name").doesNotExist());
+        mockMvc.perform(get("/users/batch").param("ids", "1," + id))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[1].name").value("Leitura"));
+
+        // A listagem cobre só a tabela
+        mockMvc.perform(get("/users"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[*].id", not(hasItem((int) id))));
+    }
+
+    @Test
+    void archivedEmailStaysTaken() throws Exception {
+        archivedUser("Email", "email@archive.test");
+
+        mockMvc.perform(post("/users")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"name\":\"Outro\",\"email\":\"email@archive.test\"}"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void updateBringsUserBackToTheTable() throws Exception {
+        long id = archivedUser("Antes", "rehydrate@archive.test");
+
+        mockMvc.perform(put("/users/{id}", id)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"name\":\"Depois\",\"email\":\"rehydrate@archive.test\",\"age\":50}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.id").value(id))
+                .andExpect(jsonPath("$.name").value("Depois"));
+
+        assertTrue(inTable(id));
+        assertTrue(userArchive.find(id).isEmpty());
+        mockMvc.perform(get("/users/{id}", id))
+                .andExpect(jsonPath("$.age").value(50));
+        // Alterado agora: não é mais inativo
+        userArchiver.archiveInactive();
+        assertTrue(inTable(id));
+    }
+
+    @Test
+    void upsertUpdatesArchivedUserInPlace() throws Exception {
+        long id = archivedUser("Upsert", "upsert@archive.test");
+
+        mockMvc.perform(put("/users/by-email/{email}", "upsert@archive.test")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"name\":\"Upsert Novo\"}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.id").value(id));
+
+        assertTrue(inTable(id));
+        assertTrue(userArchive.find(id).isEmpty());
+    }
+
+    @Test
+    void deleteForgetsArchivedUser() throws Exception {
+        long id = archivedUser("Removido", "removido@archive.test");
+
+        mockMvc.perform(delete("/users/{id}", id))
+                .andExpect(status().isNoContent());
+
+        mockMvc.perform(get("/users/{id}", id))
+                .andExpect(status().isNotFound());
+        mockMvc.perform(post("/users")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"name\":\"Novo\",\"email\":\"removido@archive.test\"}"))
+                .andExpect(status().isCreated());
+    }
+
+    /**
+     * Cria o usuário, atrasa o updatedAt em três anos e roda o arquivamento.
+     */
+    private long archivedUser(String name, String email) {
+        long id = userService.createUser(new CreateUserRequest(name, email, 30, null)).getId();
+        jdbcTemplate.update("UPDATE users SET updated_at = DATEADD('YEAR', -3, updated_at) WHERE id = ?", id);
+
+        assertTrue(userArchiver.archiveInactive() >= 1);
+        return id;
+    }
+
+    private boolean inTable(long id) {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM users WHERE id = ?", Integer.class, id) == 1;
+    }
+}
@@ -0,0 +1,119 @@
+package com.example.usersapi.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark do tempo de inicialização: do lançamento da JVM até o primeiro GET /users com 200.
+ *
+ * Cada modo sobe a aplicação em um processo novo, a partir dos artefatos de mvn -Pstartup package:
+ * - dev: perfil padrão (ddl-auto create-drop, data.sql, SpringDoc)
+ * - prod: perfil prod (Flyway, snapshot CSV, sem SpringDoc)
+ * - prod-aot: prod com o contexto pré-processado pelo Spring AOT
+ * - prod-aot-cds: prod-aot com o arquivo AppCDS da execução de treino
+ *
+ * Execução:
+ * mvn -Pstartup package -DskipTests
+ * mvn -Pbenchmark test-compile exec:exec -Dbenchmark=StartupTimeBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 1)
+@Measurement(iterations = 5)
+@Fork(1)
+public class StartupTimeBenchmark {
+
+    private static final Path STARTUP_DIR = Path.of("target", "startup");
+    private static final Duration TIMEOUT = Duration.ofSeconds(120);
+
+    @Param({"dev", "prod", "prod-aot", "prod-aot-cds"})
+    public String mode;
+
+    private HttpClient httpClient;
+    private Path jar;
+    private Process process;
+    private int port;
+
+    @Setup(Level.Trial)
+    public void locateArtifacts() throws IOException {
+        try (var files = Files.list(STARTUP_DIR)) {
+            jar = files.filter(file -> file.getFileName().toString().endsWith("-startup.jar"))
+                    .findFirst()
+                    .orElseThrow(() -> new IllegalStateException("Execute antes: mvn -Pstartup package -DskipTests"));
+        }
+        httpClient = HttpClient.newBuilder().connectTimeout(Duration.ofMillis(200)).build();
+    }
+
+    @Setup(Level.Invocation)
+    public void choosePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            port = socket.getLocalPort();
+        }
+    }
+
+    @Benchmark
+    public int timeToFirstGetUsers() throws Exception {
+        process = new ProcessBuilder(command())
+                .redirectErrorStream(true)
+                .redirectOutput(ProcessBuilder.Redirect.DISCARD)
+                .start();
+
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/users")).GET().build();
+        long deadline = System.nanoTime() + TIMEOUT.toNanos();
+        while (System.nanoTime() < deadline) {
+            if (!process.isAlive()) {
+                throw new IllegalStateException("Aplicação encerrou com código " + process.exitValue() + " no modo " + mode);
+            }
+            try {
+                HttpResponse<String> response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+                if (response.statusCode() == 200) {
+                    return response.body().length();
+                }
+            } catch (IOException e) {
+                // Servidor ainda não está aceitando conexões
+            }
+            Thread.sleep(5);
+        }
+        throw new IllegalStateException("GET /users não respondeu em " + TIMEOUT + " no modo " + mode);
+    }
+
+    @TearDown(Level.Invocation)
+    public void stopApplication() throws InterruptedException {
+        if (process != null) {
+            process.destroy();
+            process.waitFor(30, TimeUnit.SECONDS);
+            process = null;
+        }
+    }
+
+    private List<String> command() {
+        List<String> command = new ArrayList<>();
+        command.add(Path.of(System.getProperty("java.home"), "bin", "java").toString());
+        if (mode.endsWith("cds")) {
+            command.add("-XX:SharedArchiveFile=" + STARTUP_DIR.resolve("application.jsa"));
+        }
+        if (mode.contains("aot")) {
+            command.add("-Dspring.aot.enabled=true");
+        }
+        command.add("-jar");
+        command.add(jar.toString());
+        command.add("--server.port=" + port);
+        if (mode.startsWith("prod")) {
+            command.add("--spring.profiles.active=prod");
+        }
+        return command;
+    }
+}
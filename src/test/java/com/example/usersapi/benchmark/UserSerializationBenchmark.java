@@ -0,0 +1,92 @@
+package com.example.usersapi.benchmark;
+
+import com.example.usersapi.config.BinaryFormatsConfig;
+import com.example.usersapi.dto.UserResponse;
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark de codificação e decodificação de UserResponse em JSON, CBOR e Smile.
+ * 
+ * Mede um usuário isolado e uma página de 10 mil usuários, com os mesmos
+ * ObjectMappers usados pelos conversores HTTP. O tamanho de cada payload
+ * é impresso no setup, já que o JMH mede apenas tempo.
+ * 
+ * Execução: mvn -Pbenchmark test-compile exec:exec -Dbenchmark=UserSerializationBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class UserSerializationBenchmark {
+
+    static final int PAGE_SIZE = 10_000;
+
+    @Param({"json", "cbor", "smile"})
+    public String format;
+
+    private ObjectMapper mapper;
+    private JavaType pageType;
+    private UserResponse user;
+    private List<UserResponse> page;
+    private byte[] encodedUser;
+    private byte[] encodedPage;
+
+    @Setup
+    public void setUp() throws IOException {
+        mapper = switch (format) {
+            case "cbor" -> BinaryFormatsConfig.binaryMapper(Jackson2ObjectMapperBuilder.json(), new CBORFactory());
+            case "smile" -> BinaryFormatsConfig.binaryMapper(Jackson2ObjectMapperBuilder.json(), new SmileFactory());
+            default -> Jackson2ObjectMapperBuilder.json().build();
+        };
+        pageType = mapper.getTypeFactory().constructCollectionType(List.class, UserResponse.class);
+
+        LocalDateTime base = LocalDateTime.of(2024, 1, 15, 10, 0);
+        page = new ArrayList<>(PAGE_SIZE);
+        for (int i = 1; i <= PAGE_SIZE; i++) {
+            page.add(new UserResponse((long) i, "Usuário Benchmark " + i, "usuario" + i + "@email.com",
+                    18 + i % 60, "(11) 9" + String.format("%04d", i % 10_000) + "-0000",
+                    base.plusMinutes(i), base.plusMinutes(i).plusSeconds(30)));
+        }
+        user = page.get(0);
+
+        encodedUser = mapper.writeValueAsBytes(user);
+        encodedPage = mapper.writeValueAsBytes(page);
+        System.out.printf("%n[%s] payload: 1 usuário = %d bytes, %d usuários = %d bytes%n",
+                format, encodedUser.length, PAGE_SIZE, encodedPage.length);
+    }
+
+    @Benchmark
+    public byte[] encodeUser() throws IOException {
+        return mapper.writeValueAsBytes(user);
+    }
+
+    @Benchmark
+    public UserResponse decodeUser() throws IOException {
+        return mapper.readValue(encodedUser, UserResponse.class);
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public byte[] encodePage() throws IOException {
+        return mapper.writeValueAsBytes(page);
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public List<UserResponse> decodePage() throws IOException {
+        return mapper.readValue(encodedPage, pageType);
+    }
+}
@@ -0,0 +1,226 @@
+package com.example.usersapi.benchmark;
+
+import com.example.usersapi.UsersApiApplication;
+import com.example.usersapi.reactive.ReactiveUsersApiApplication;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compara a API Spring MVC + JPA (Tomcat) com a variante reativa WebFlux + R2DBC (Netty).
+ *
+ * Cada pilha sobe em um processo próprio, com o mesmo heap e os mesmos usuários sintéticos:
+ * - getUserById, searchPage: vazão com 64 clientes simultâneos
+ * - slowStreamingClients: CONNECTIONS clientes pedem GET /users (a lista inteira) e não leem
+ *   a resposta. O Tomcat prende uma thread e a lista carregada por conexão; o WebFlux para de
+ *   ler o banco quando o socket enche (backpressure). Os contadores heapBytesPerConnection e
+ *   threadsPerConnection são a diferença, após um GC, entre as conexões abertas e o repouso.
+ *
+ * Execução (com -Dbenchmark=WebStackBenchmark.getUserById para só um deles):
+ * mvn -Pbenchmark test-compile exec:exec -Dbenchmark=WebStackBenchmark
+ */
+@State(Scope.Benchmark)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class WebStackBenchmark {
+
+    private static final int USERS = 20_000;
+    private static final int CONNECTIONS = 100;  // Abaixo do limite de threads do Tomcat (200)
+    private static final Duration TIMEOUT = Duration.ofSeconds(180);
+
+    @Param({"mvc", "reactive"})
+    public String stack;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private HttpClient httpClient;
+    private Process process;
+    private int port;
+
+    @Setup(Level.Trial)
+    public void startApplication() throws Exception {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            port = socket.getLocalPort();
+        }
+        process = new ProcessBuilder(command())
+                .redirectErrorStream(true)
+                .redirectOutput(ProcessBuilder.Redirect.DISCARD)
+                .start();
+        httpClient = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+
+        // Pronta só depois da carga dos usuários sintéticos
+        long deadline = System.nanoTime() + TIMEOUT.toNanos();
+        while (System.nanoTime() < deadline) {
+            if (!process.isAlive()) {
+                throw new IllegalStateException("Aplicação encerrou com código " + process.exitValue() + " (" + stack + ")");
+            }
+            try {
+                if (get("/actuator/health/readiness").statusCode() == 200) {
+                    return;
+                }
+            } catch (IOException e) {
+                // Servidor ainda não está aceitando conexões
+            }
+            Thread.sleep(100);
+        }
+        throw new IllegalStateException("Aplicação não ficou pronta em " + TIMEOUT + " (" + stack + ")");
+    }
+
+    @TearDown(Level.Trial)
+    public void stopApplication() throws InterruptedException {
+        if (process != null) {
+            process.destroy();
+            process.waitFor(30, TimeUnit.SECONDS);
+        }
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    @Threads(64)
+    public int getUserById() throws Exception {
+        long id = ThreadLocalRandom.current().nextLong(1, USERS + 1);
+        return ok(get("/users/" + id)).length();
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    @Threads(64)
+    public int searchPage() throws Exception {
+        int age = ThreadLocalRandom.current().nextInt(18, 80);
+        return ok(get("/users?filter=age%3E%3D" + age + "&sort=age&limit=20")).length();
+    }
+
+    /**
+     * Contadores da rodada de slowStreamingClients, reportados pelo JMH ao lado do tempo.
+     *
+     * @AuxCounters(EVENTS): os campos públicos viram resultados secundários, somados por rodada
+     */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class ConnectionFootprint {
+        public long heapBytesPerConnection;
+        public double threadsPerConnection;
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @Warmup(iterations = 1)
+    @Measurement(iterations = 3)
+    public void slowStreamingClients(ConnectionFootprint footprint) throws Exception {
+        long heapBefore = heapUsedAfterGc();
+        long threadsBefore = metric("jvm.threads.live", null);
+
+        List<Socket> sockets = new ArrayList<>();
+        try {
+            for (int i = 0; i < CONNECTIONS; i++) {
+                sockets.add(openSlowClient());
+            }
+            Thread.sleep(2_000);
+            footprint.heapBytesPerConnection = (heapUsedAfterGc() - heapBefore) / CONNECTIONS;
+            footprint.threadsPerConnection = (metric("jvm.threads.live", null) - threadsBefore) / (double) CONNECTIONS;
+        } finally {
+            for (Socket socket : sockets) {
+                socket.close();
+            }
+        }
+        Thread.sleep(1_000);  // Servidor libera as requisições abortadas antes da próxima rodada
+    }
+
+    /**
+     * Pede a lista inteira com uma janela de recepção mínima e lê só o começo da resposta.
+     */
+    private Socket openSlowClient() throws IOException {
+        Socket socket = new Socket();
+        socket.setReceiveBufferSize(4096);
+        socket.connect(new InetSocketAddress("localhost", port));
+        OutputStream out = socket.getOutputStream();
+        out.write(("GET /users HTTP/1.1\r\nHost: localhost\r\nAccept: application/json\r\n\r\n")
+                .getBytes(StandardCharsets.US_ASCII));
+        out.flush();
+        InputStream in = socket.getInputStream();
+        if (in.read(new byte[1024]) < 0) {
+            throw new IllegalStateException("Conexão encerrada antes da resposta (" + stack + ")");
+        }
+        return socket;
+    }
+
+    private long heapUsedAfterGc() throws Exception {
+        Process jcmd = new ProcessBuilder(Path.of(System.getProperty("java.home"), "bin", "jcmd").toString(),
+                String.valueOf(process.pid()), "GC.run")
+                .redirectErrorStream(true)
+                .redirectOutput(ProcessBuilder.Redirect.DISCARD)
+                .start();
+        jcmd.waitFor(30, TimeUnit.SECONDS);
+        return metric("jvm.memory.used", "area:heap");
+    }
+
+    private long metric(String name, String tag) throws Exception {
+        String query = tag == null ? "" : "?tag=" + tag;
+        HttpResponse<String> response = get("/actuator/metrics/" + name + query);
+        JsonNode measurement = objectMapper.readTree(response.body()).path("measurements").path(0);
+        return measurement.path("value").asLong();
+    }
+
+    private String ok(HttpResponse<String> response) {
+        if (response.statusCode() != 200) {
+            throw new IllegalStateException(response.request().uri() + " respondeu " + response.statusCode() + " (" + stack + ")");
+        }
+        return response.body();
+    }
+
+    private HttpResponse<String> get(String path) throws IOException, InterruptedException {
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + path))
+                .timeout(Duration.ofSeconds(30))
+                .GET()
+                .build();
+        return httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+    }
+
+    /**
+     * O exec:exec do perfil benchmark roda com o classpath de teste, que já tem as duas aplicações.
+     * O limitador de concorrência e os bulkheads (só na API Spring MVC) ficam desligados e
+     * os prazos das requisições (padrão e por endpoint) passam do timeout do cliente: a comparação
+     * é entre as pilhas, não entre as proteções contra sobrecarga.
+     */
+    private List<String> command() {
+        Class<?> mainClass = stack.equals("reactive") ? ReactiveUsersApiApplication.class : UsersApiApplication.class;
+        List<String> command = new ArrayList<>();
+        command.add(Path.of(System.getProperty("java.home"), "bin", "java").toString());
+        command.add("-Xmx2g");
+        command.add("-classpath");
+        command.add(System.getProperty("java.class.path"));
+        command.add(mainClass.getName());
+        command.add("--server.port=" + port);
+        command.add("--spring.profiles.active=synthetic");
+        command.add("--users.synthetic.users=" + USERS);
+        command.add("--users.limiter.enabled=false");
+        command.add("--users.bulkhead.enabled=false");
+        for (String deadline : List.of("default-timeout", "max-timeout", "endpoints.[GET /users]", "endpoints.[GET /users/{id}]")) {
+            command.add("--users.deadline." + deadline + "=PT60S");
+        }
+        command.add("--logging.level.root=WARN");
+        return command;
+    }
+}
@@ -0,0 +1,178 @@
+package com.example.usersapi.budget;
+
+import com.example.usersapi.dto.CreateUserRequest;
+import com.example.usersapi.service.UserService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.RequestBuilder;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.mvc.method.RequestMappingInfo;
+import org.springframework.web.servlet.mvc.method.annotation.RequestMappingHandlerMapping;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.function.IntFunction;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Orçamento de custo por endpoint, contra a aplicação real (H2, JPA, cache de segundo nível).
+ *
+ * Cada endpoint roda algumas vezes para aquecer (JIT, caches, primeiro acesso ao Hibernate)
+ * e depois é medido: comandos SQL e idas ao banco (máximo entre as execuções), memória
+ * alocada e tempo (medianas). Passar do orçamento quebra o build - um N+1 ou um
+ * existsById a mais aparecem aqui, não em produção.
+ *
+ * Endpoint novo nos controllers sem orçamento também quebra: declare-o em budgets().
+ * Os limites de comandos são exatos; os de memória e tempo têm folga para ruído.
+ */
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:budgettest")
+@AutoConfigureMockMvc
+class EndpointBudgetTest {
+
+    private static final int WARMUP_RUNS = 3;
+    private static final int MEASURED_RUNS = 7;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    @Qualifier("requestMappingHandlerMapping")
+    private RequestMappingHandlerMapping handlerMapping;
+
+    private List<RequestBudget> budgets() {
+        String importId = importId();
+        return List.of(
+                budget("GET /users", "primeira página", run -> get("/users"),
+                        1, 1, 512, 250),
+                budget("GET /users", "filtro, ordenação e limite", run -> get("/users")
+                                .param("filter", "age>=18").param("sort", "-age").param("limit", "2"),
+                        1, 1, 512, 250),
+                budget("GET /users", "fieldset esparso", run -> get("/users").param("fields", "id,name"),
+                        1, 1, 512, 250),
+                budget("GET /users/batch", "três IDs em um IN", run -> get("/users/batch").param("ids", "1,2,3"),
+                        1, 1, 512, 250),
+                budget("GET /users/by-phone", "número exato pelo índice em memória", run -> get("/users/by-phone")
+                                .param("phone", "(11) 77777-7777"),
+                        1, 1, 512, 250),
+                budget("GET /users/by-phone", "prefixo (DDD)", run -> get("/users/by-phone")
+                                .param("phone", "11").param("match", "prefix"),
+                        1, 1, 512, 250),
+                // Sai do cache de segundo nível (0 comandos); o orçamento cobre também o cache frio
+                budget("GET /users/{id}", "cache de segundo nível", run -> get("/users/{id}", 1),
+                        1, 1, 512, 250),
+                budget("GET /users/{id}", "fieldset esparso", run -> get("/users/{id}", 1).param("fields", "id,name"),
+                        1, 1, 512, 250),
+                budget("POST /users", "cria com evento no outbox", run -> post("/users")
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .content("{\"name\":\"Orçamento\",\"email\":\"orcamento" + run + "@budget.test\",\"age\":30}"),
+                        2, 2, 768, 250),
+                budget("PUT /users/{id}", "altera com evento no outbox", run -> put("/users/{id}", 5)
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .content("{\"name\":\"Carlos Mendes\",\"email\":\"carlos@email.com\",\"age\":" + (40 + run) + "}"),
+                        2, 2, 768, 250),
+                budget("PUT /users/by-email/{email}", "upsert em um MERGE", run -> put("/users/by-email/{email}", "upsert@budget.test")
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .content("{\"name\":\"Upsert\",\"age\":" + (20 + run) + "}"),
+                        1, 1, 768, 250),
+                budget("DELETE /users/{id}", "remove com evento no outbox", run -> delete("/users/{id}", userService.createUser(
+                                new CreateUserRequest("Removido", "remove" + run + "@budget.test", null, null)).getId()),
+                        3, 3, 768, 250),
+                budget("POST /users/import", "CSV com duas linhas", run -> post("/users/import")
+                                .contentType("text/csv")
+                                .content("name,email,age,phone\nImport A,import-a" + run + "@budget.test,20,\n"
+                                        + "Import B,import-b" + run + "@budget.test,,\n"),
+                        10, 9, 1536, 500),
+                budget("GET /users/import/{importId}", "progresso", run -> get("/users/import/{importId}", importId),
+                        1, 1, 512, 250),
+                budget("GET /users/import/{importId}/rejections", "página de rejeições por keyset",
+                        run -> get("/users/import/{importId}/rejections", importId).param("limit", "10"),
+                        2, 2, 512, 250));
+    }
+
+    @Test
+    void endpointsStayWithinBudget() throws Exception {
+        List<String> report = new ArrayList<>();
+        List<String> failures = new ArrayList<>();
+        long statements = 0;
+        for (RequestBudget budget : budgets()) {
+            for (int run = 0; run < WARMUP_RUNS; run++) {
+                perform(budget, -1 - run);
+            }
+            List<RequestCost> costs = new ArrayList<>();
+            for (int run = 0; run < MEASURED_RUNS; run++) {
+                costs.add(perform(budget, run));
+            }
+            RequestCost cost = RequestCost.summarize(costs);
+            statements += cost.statements();
+
+            report.add(String.format("%-30s %-28s %3d SQL %3d idas %7d KB %5.1f ms", budget.endpoint(),
+                    budget.description(), cost.statements(), cost.roundTrips(), cost.allocatedBytes() / 1024,
+                    cost.nanos() / 1e6));
+            List<String> violations = budget.violations(cost);
+            if (!violations.isEmpty()) {
+                failures.add(budget.endpoint() + " (" + budget.description() + "): " + String.join(", ", violations));
+            }
+        }
+        System.out.println("Custo por requisição:\n" + String.join("\n", report));
+
+        // Nenhum comando contado: o datasource-proxy não está instalado (users.jfr.enabled=false?)
+        assertTrue(statements > 0, "Nenhum comando SQL contado");
+
+        assertTrue(failures.isEmpty(), "Orçamento estourado:\n" + String.join("\n", failures));
+    }
+
+    @Test
+    void everyEndpointHasABudget() {
+        Set<String> budgeted = budgets().stream().map(RequestBudget::endpoint).collect(Collectors.toSet());
+        Set<String> missing = new TreeSet<>();
+        for (Map.Entry<RequestMappingInfo, HandlerMethod> entry : handlerMapping.getHandlerMethods().entrySet()) {
+            if (!entry.getValue().getBeanType().getPackageName().equals("com.example.usersapi.controller")) {
+                continue;
+            }
+            RequestMappingInfo info = entry.getKey();
+            info.getMethodsCondition().getMethods().forEach(method -> info.getPatternValues()
+                    .forEach(pattern -> missing.add(method + " " + pattern)));
+        }
+        missing.removeAll(budgeted);
+
+        assertTrue(missing.isEmpty(), "Endpoints sem orçamento em EndpointBudgetTest: " + missing);
+    }
+
+    private RequestCost perform(RequestBudget budget, int run) throws Exception {
+        RequestBuilder request = budget.request().apply(run);
+        return RequestCost.measure(() -> mockMvc.perform(request).andExpect(status().is2xxSuccessful()));
+    }
+
+    private String importId() {
+        try {
+            mockMvc.perform(post("/users/import").param("importId", "orcamento")
+                            .contentType("text/csv")
+                            .content("name,email,age,phone\nProgresso,progresso@budget.test,,\nRejeitado,email-invalido,,\n"))
+                    .andExpect(status().isOk());
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+        return "orcamento";
+    }
+
+    private static RequestBudget budget(String endpoint, String description, IntFunction<RequestBuilder> request,
+                                        long maxStatements, long maxRoundTrips, long maxAllocatedKb, long maxMillis) {
+        return new RequestBudget(endpoint, description, request, maxStatements, maxRoundTrips,
+                maxAllocatedKb * 1024, maxMillis);
+    }
+}
@@ -0,0 +1,41 @@
+package com.example.usersapi.budget;
+
+import org.springframework.test.web.servlet.RequestBuilder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.IntFunction;
+
+/**
+ * Orçamento de um endpoint: o máximo de comandos SQL, idas ao banco, memória alocada
+ * e tempo mediano por requisição.
+ *
+ * request recebe o número da execução (para emails únicos, por exemplo) e monta a
+ * requisição; o que ele fizer antes de devolvê-la (criar o usuário que será removido...)
+ * não entra na medição.
+ *
+ * @param endpoint "MÉTODO /padrão", como no mapeamento do controller (ex.: "GET /users/{id}")
+ */
+record RequestBudget(String endpoint, String description, IntFunction<RequestBuilder> request,
+                     long maxStatements, long maxRoundTrips, long maxAllocatedBytes, long maxMillis) {
+
+    /**
+     * Estouros do orçamento (vazio se o custo couber).
+     */
+    List<String> violations(RequestCost cost) {
+        List<String> violations = new ArrayList<>();
+        if (cost.statements() > maxStatements) {
+            violations.add(cost.statements() + " comandos SQL (máximo " + maxStatements + ")");
+        }
+        if (cost.roundTrips() > maxRoundTrips) {
+            violations.add(cost.roundTrips() + " idas ao banco (máximo " + maxRoundTrips + ")");
+        }
+        if (cost.allocatedBytes() > maxAllocatedBytes) {
+            violations.add(cost.allocatedBytes() / 1024 + " KB alocados (máximo " + maxAllocatedBytes / 1024 + " KB)");
+        }
+        if (cost.nanos() > maxMillis * 1_000_000) {
+            violations.add(cost.nanos() / 1_000_000 + " ms (máximo " + maxMillis + " ms)");
+        }
+        return violations;
+    }
+}
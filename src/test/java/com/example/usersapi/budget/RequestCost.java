@@ -0,0 +1,58 @@
+package com.example.usersapi.budget;
+
+import com.example.usersapi.jfr.SqlStatementCounter;
+
+import java.lang.management.ManagementFactory;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Custo de uma requisição medido na thread que a executa (o MockMvc roda o controller
+ * na própria thread do teste).
+ *
+ * - statements e roundTrips: SqlStatementCounter, alimentado pelo datasource-proxy (config.JfrConfig)
+ * - allocatedBytes: memória alocada pela thread (com.sun.management.ThreadMXBean)
+ * - nanos: tempo de parede
+ */
+record RequestCost(long statements, long roundTrips, long allocatedBytes, long nanos) {
+
+    private static final com.sun.management.ThreadMXBean THREADS =
+            (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+    @FunctionalInterface
+    interface Call {
+        void run() throws Exception;
+    }
+
+    static RequestCost measure(Call call) throws Exception {
+        SqlStatementCounter sql = SqlStatementCounter.current();
+        long thread = Thread.currentThread().threadId();
+        long statements = sql.getStatements();
+        long roundTrips = sql.getCount();
+        long allocated = THREADS.getThreadAllocatedBytes(thread);
+        long start = System.nanoTime();
+
+        call.run();
+
+        long nanos = System.nanoTime() - start;
+        return new RequestCost(sql.getStatements() - statements, sql.getCount() - roundTrips,
+                THREADS.getThreadAllocatedBytes(thread) - allocated, nanos);
+    }
+
+    /**
+     * Resume várias medições: o maior número de comandos (não deveria variar) e a mediana
+     * de alocação e tempo (que variam com JIT, GC e caches).
+     */
+    static RequestCost summarize(List<RequestCost> costs) {
+        return new RequestCost(
+                costs.stream().mapToLong(RequestCost::statements).max().orElse(0),
+                costs.stream().mapToLong(RequestCost::roundTrips).max().orElse(0),
+                median(costs.stream().mapToLong(RequestCost::allocatedBytes).toArray()),
+                median(costs.stream().mapToLong(RequestCost::nanos).toArray()));
+    }
+
+    private static long median(long[] values) {
+        Arrays.sort(values);
+        return values.length == 0 ? 0 : values[values.length / 2];
+    }
+}
@@ -0,0 +1,94 @@
+package com.example.usersapi.bulkhead;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.web.servlet.MockMvc;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * Testes das raias nos endpoints: uma raia esgotada não afeta as outras.
+ *
+ * A raia scan tem 2 vagas, sem fila, e 1 conexão: o próprio teste ocupa vagas e conexão
+ * pelo Bulkhead, como faria uma varredura longa.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:bulkheadtest",
+        "users.bulkhead.scan.max-concurrent=2",
+        "users.bulkhead.scan.max-queue=0",
+        "users.bulkhead.scan.max-connections=1",
+        "users.bulkhead.scan.connection-timeout=PT0.1S"
+})
+@AutoConfigureMockMvc
+class BulkheadRoutingTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    @Qualifier("scanBulkhead")
+    private Bulkhead scanBulkhead;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Test
+    void fullScanLaneRejectsScansButNotPointReads() throws Exception {
+        assertTrue(scanBulkhead.enter());
+        assertTrue(scanBulkhead.enter());
+        try {
+            mockMvc.perform(get("/users"))
+                    .andExpect(status().isServiceUnavailable())
+                    .andExpect(header().string(HttpHeaders.RETRY_AFTER, "1"));
+            mockMvc.perform(get("/users/1"))
+                    .andExpect(status().isOk());
+        } finally {
+            scanBulkhead.exit();
+            scanBulkhead.exit();
+        }
+        mockMvc.perform(get("/users")).andExpect(status().isOk());
+
+        assertEquals(1.0, meterRegistry.get("users.bulkhead.requests")
+                .tags("lane", "scan", "outcome", "rejected").functionCounter().count());
+        assertTrue(meterRegistry.get("users.bulkhead.requests")
+                .tags("lane", "point-read", "outcome", "accepted").functionCounter().count() >= 1);
+    }
+
+    @Test
+    void scanLaneOutOfConnectionsAnswers503WhilePointReadsKeepTheirs() throws Exception {
+        assertInstanceOf(LanePartitionedDataSource.class, dataSource);
+
+        assertTrue(scanBulkhead.enter());
+        try (Connection held = dataSource.getConnection()) {
+            assertEquals(1, scanBulkhead.getConnectionsInUse());
+            mockMvc.perform(get("/users"))
+                    .andExpect(status().isServiceUnavailable())
+                    .andExpect(header().exists(HttpHeaders.RETRY_AFTER));
+            mockMvc.perform(get("/users/2").param("fields", "name"))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.name").value("Maria Santos"));
+        } finally {
+            scanBulkhead.exit();
+        }
+        assertEquals(0, scanBulkhead.getConnectionsInUse());
+        mockMvc.perform(get("/users")).andExpect(status().isOk());
+
+        assertTrue(meterRegistry.get("users.bulkhead.connections.rejected")
+                .tag("lane", "scan").functionCounter().count() >= 1);
+        // O Hikari continua publicando as métricas do pool por trás do DataSource dividido
+        assertNotNull(meterRegistry.find("hikaricp.connections.max").gauge());
+    }
+}
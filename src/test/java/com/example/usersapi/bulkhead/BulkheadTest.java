@@ -0,0 +1,91 @@
+package com.example.usersapi.bulkhead;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import java.sql.Connection;
+import java.sql.SQLTransientConnectionException;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Testes das vagas, da fila e das conexões de um compartimento.
+ */
+class BulkheadTest {
+
+    @Test
+    void queuedRequestTakesTheFreedSlotAndFullQueueIsRejected() throws Exception {
+        Bulkhead bulkhead = new Bulkhead(Lane.SCAN, 1, 1, Duration.ofSeconds(5), 1, Duration.ofMillis(50));
+        assertTrue(bulkhead.enter());
+
+        CountDownLatch waiting = new CountDownLatch(1);
+        CompletableFuture<Boolean> queued = CompletableFuture.supplyAsync(() -> {
+            waiting.countDown();
+            boolean admitted = bulkhead.enter();
+            if (admitted) {
+                bulkhead.exit();
+            }
+            return admitted;
+        });
+        waiting.await();
+        while (bulkhead.getQueued() == 0) {
+            Thread.onSpinWait();
+        }
+
+        // Fila de uma posição já ocupada: recusa imediata
+        assertFalse(bulkhead.enter());
+        bulkhead.exit();
+        assertTrue(queued.get(5, TimeUnit.SECONDS));
+        assertEquals(2, bulkhead.getAccepted());
+        assertEquals(1, bulkhead.getRejected());
+        assertEquals(0, bulkhead.getActive());
+    }
+
+    @Test
+    void waitInQueueEndsAtQueueTimeout() {
+        Bulkhead bulkhead = new Bulkhead(Lane.WRITE, 1, 5, Duration.ofMillis(50), 1, Duration.ofMillis(50));
+        assertTrue(bulkhead.enter());
+        try {
+            long start = System.nanoTime();
+            assertFalse(CompletableFuture.supplyAsync(bulkhead::enter).join());
+            assertTrue(System.nanoTime() - start >= TimeUnit.MILLISECONDS.toNanos(50));
+            assertEquals(0, bulkhead.getQueued());
+        } finally {
+            bulkhead.exit();
+        }
+        assertTrue(Bulkhead.current().isEmpty());
+    }
+
+    @Test
+    void laneUsesAtMostItsConnectionsAndReleasesThemOnClose() throws Exception {
+        LanePartitionedDataSource dataSource = new LanePartitionedDataSource(
+                new DriverManagerDataSource("jdbc:h2:mem:bulkheadunit", "sa", ""), Duration.ofSeconds(1));
+        Bulkhead bulkhead = new Bulkhead(Lane.SCAN, 5, 0, Duration.ZERO, 1, Duration.ofMillis(50));
+
+        assertTrue(bulkhead.enter());
+        try {
+            Connection first = dataSource.getConnection();
+            assertEquals(1, bulkhead.getConnectionsInUse());
+            assertThrows(SQLTransientConnectionException.class, dataSource::getConnection);
+            assertEquals(1, bulkhead.getConnectionsRejected());
+
+            first.close();
+            first.close();
+            assertEquals(0, bulkhead.getConnectionsInUse());
+            try (Connection second = dataSource.getConnection()) {
+                assertTrue(second.isValid(1));
+            }
+        } finally {
+            bulkhead.exit();
+        }
+
+        // Fora de uma raia, sem limite
+        try (Connection a = dataSource.getConnection(); Connection b = dataSource.getConnection()) {
+            assertNotSame(a, b);
+        }
+    }
+}
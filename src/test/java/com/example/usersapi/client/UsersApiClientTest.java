@@ -0,0 +1,179 @@
+package com.example.usersapi.client;
+
+import com.example.usersapi.dto.CreateUserRequest;
+import com.example.usersapi.dto.UserETag;
+import com.example.usersapi.dto.UserResponse;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.dataformat.yaml.YAMLMapper;
+import com.github.tomakehurst.wiremock.WireMockServer;
+import com.github.tomakehurst.wiremock.http.Fault;
+import com.github.tomakehurst.wiremock.stubbing.Scenario;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.*;
+import static com.github.tomakehurst.wiremock.core.WireMockConfiguration.options;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Comportamento do UsersApiClient contra stubs do WireMock (sem subir a aplicação):
+ * agrupamento em lote, revalidação com ETag, hedging com latência e falhas injetadas.
+ */
+class UsersApiClientTest {
+
+    private static final String MARIA = """
+            {"id":2,"name":"Maria Santos","email":"maria@email.com","age":25,"phone":"(11) 88888-8888",
+             "createdAt":"2024-01-15T11:00:00","updatedAt":"2024-01-15T11:00:00.123456"}""";
+
+    private static final String PEDRO = """
+            {"id":3,"name":"Pedro Oliveira","email":"pedro@email.com","age":35,"phone":null,
+             "createdAt":"2024-01-15T12:00:00","updatedAt":"2024-01-15T12:00:00"}""";
+
+    private WireMockServer wireMock;
+
+    @BeforeEach
+    void setUp() {
+        wireMock = new WireMockServer(options().dynamicPort().bindAddress("localhost"));
+        wireMock.start();
+    }
+
+    @AfterEach
+    void tearDown() {
+        wireMock.stop();
+    }
+
+    private UsersApiClient.Builder client() {
+        return UsersApiClient.builder(wireMock.baseUrl());
+    }
+
+    @Test
+    void operationsMatchOpenApiDocument() throws Exception {
+        JsonNode paths = new YAMLMapper().readTree(Path.of("docs", "openapi.yaml").toFile()).path("paths");
+
+        for (UsersApiOperation operation : UsersApiOperation.values()) {
+            JsonNode documented = paths.path(operation.path()).path(operation.method().toLowerCase());
+            assertFalse(documented.isMissingNode(), operation + " não está em docs/openapi.yaml");
+            assertEquals(operation.operationId(), documented.path("operationId").asText(), operation.toString());
+        }
+    }
+
+    @Test
+    void concurrentGetsAreCoalescedIntoOneBatch() {
+        wireMock.stubFor(get(urlPathEqualTo("/users/batch"))
+                .willReturn(okJson("[" + MARIA + "," + PEDRO + "]")));
+
+        try (UsersApiClient client = client().batchWindow(Duration.ofMillis(100)).hedgeDelay(null).build()) {
+            CompletableFuture<Optional<UserResponse>> maria = client.getUserAsync(2);
+            CompletableFuture<Optional<UserResponse>> pedro = client.getUserAsync(3);
+            CompletableFuture<Optional<UserResponse>> missing = client.getUserAsync(99);
+            CompletableFuture<Optional<UserResponse>> mariaAgain = client.getUserAsync(2);
+
+            assertEquals("Maria Santos", maria.join().orElseThrow().getName());
+            assertEquals("Pedro Oliveira", pedro.join().orElseThrow().getName());
+            assertTrue(missing.join().isEmpty());
+            assertEquals("Maria Santos", mariaAgain.join().orElseThrow().getName());
+
+            wireMock.verify(1, getRequestedFor(urlPathEqualTo("/users/batch")).withQueryParam("ids", equalTo("2,3,99")));
+            assertEquals(1, client.stats().batches());
+            assertEquals(1, client.stats().requests());
+        }
+    }
+
+    @Test
+    void cachedUserIsRevalidatedWithIfNoneMatch() {
+        String etag = UserETag.of(2L, LocalDateTime.parse("2024-01-15T11:00:00.123456"));
+        wireMock.stubFor(get(urlPathEqualTo("/users/batch")).willReturn(okJson("[" + MARIA + "]")));
+        wireMock.stubFor(get(urlEqualTo("/users/2")).withHeader("If-None-Match", equalTo(etag))
+                .willReturn(aResponse().withStatus(304).withHeader("ETag", etag)));
+
+        try (UsersApiClient client = client().batchWindow(Duration.ofMillis(1)).hedgeDelay(null).build()) {
+            assertEquals(List.of(2L), client.getUsers(List.of(2L)).stream().map(UserResponse::getId).toList());
+
+            UserResponse revalidated = client.getUser(2).orElseThrow();
+
+            assertEquals("maria@email.com", revalidated.getEmail());
+            assertEquals(1, client.stats().notModified());
+            wireMock.verify(1, getRequestedFor(urlEqualTo("/users/2")).withHeader("If-None-Match", equalTo(etag)));
+        }
+    }
+
+    @Test
+    void slowResponseIsHedged() {
+        wireMock.stubFor(get(urlEqualTo("/users/2")).inScenario("lento")
+                .whenScenarioStateIs(Scenario.STARTED).willSetStateTo("hedge")
+                .willReturn(okJson(MARIA).withFixedDelay(3000)));
+        wireMock.stubFor(get(urlEqualTo("/users/2")).inScenario("lento")
+                .whenScenarioStateIs("hedge")
+                .willReturn(okJson(MARIA).withHeader("ETag", "W/\"2-x\"")));
+
+        try (UsersApiClient client = client().batchWindow(null).hedgeDelay(Duration.ofMillis(100)).build()) {
+            long start = System.nanoTime();
+            UserResponse user = client.getUser(2).orElseThrow();
+            long millis = (System.nanoTime() - start) / 1_000_000;
+
+            assertEquals("Maria Santos", user.getName());
+            assertTrue(millis < 2000, "o hedge deveria responder antes da tentativa lenta: " + millis + " ms");
+            assertEquals(1, client.stats().hedges());
+            assertEquals(2, client.stats().requests());
+        }
+    }
+
+    @Test
+    void connectionResetIsRecoveredByHedge() {
+        wireMock.stubFor(get(urlEqualTo("/users/3")).inScenario("reset")
+                .whenScenarioStateIs(Scenario.STARTED).willSetStateTo("ok")
+                .willReturn(aResponse().withFault(Fault.CONNECTION_RESET_BY_PEER)));
+        wireMock.stubFor(get(urlEqualTo("/users/3")).inScenario("reset")
+                .whenScenarioStateIs("ok")
+                .willReturn(okJson(PEDRO)));
+
+        try (UsersApiClient client = client().batchWindow(null).hedgeDelay(Duration.ofSeconds(10)).build()) {
+            assertEquals("Pedro Oliveira", client.getUser(3).orElseThrow().getName());
+            assertEquals(1, client.stats().hedges());
+        }
+    }
+
+    @Test
+    void persistentServerErrorFailsWithStatus() {
+        wireMock.stubFor(get(urlEqualTo("/users/2"))
+                .willReturn(aResponse().withStatus(503).withHeader("Content-Type", "application/json")
+                        .withBody("{\"status\":503,\"message\":\"Serviço indisponível\"}")));
+
+        try (UsersApiClient client = client().batchWindow(null).hedgeDelay(Duration.ofMillis(50)).build()) {
+            UsersApiException error = assertThrows(UsersApiException.class, () -> client.getUser(2));
+
+            assertEquals(503, error.getStatus());
+            assertEquals("Serviço indisponível", error.getMessage());
+            wireMock.verify(2, getRequestedFor(urlEqualTo("/users/2")));
+        }
+    }
+
+    @Test
+    void notFoundIsEmptyAndClientErrorsAreNotRetried() {
+        wireMock.stubFor(get(urlEqualTo("/users/99")).willReturn(aResponse().withStatus(404)));
+        wireMock.stubFor(post(urlEqualTo("/users")).willReturn(aResponse().withStatus(400)
+                .withHeader("Content-Type", "application/json")
+                .withBody("{\"status\":400,\"message\":\"Email já cadastrado: maria@email.com\"}")));
+
+        try (UsersApiClient client = client().batchWindow(null).build()) {
+            assertTrue(client.getUser(99).isEmpty());
+
+            UsersApiException error = assertThrows(UsersApiException.class, () -> client.createUser(
+                    new CreateUserRequest("Maria", "maria@email.com", 25, null)));
+
+            assertEquals(400, error.getStatus());
+            assertTrue(error.getMessage().contains("maria@email.com"));
+            wireMock.verify(1, postRequestedFor(urlEqualTo("/users"))
+                    .withRequestBody(matchingJsonPath("$.email", equalTo("maria@email.com"))));
+            assertEquals(0, client.stats().hedges());
+        }
+    }
+}
@@ -0,0 +1,101 @@
+package com.example.usersapi.config;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.yaml.YAMLMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Gera a especificação OpenAPI a partir dos controllers (SpringDoc) durante o build
+ * e confere se docs/openapi.yaml, que é servido estaticamente, continua igual a ela.
+ *
+ * A comparação é feita por operação (método + path): códigos de resposta, parâmetros
+ * e tipos do corpo. Textos e exemplos ficam livres no arquivo estático.
+ * A especificação gerada fica em target/openapi/openapi-generated.json para consulta.
+ */
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:openapitest")
+@AutoConfigureMockMvc
+class OpenApiDocumentTest {
+
+    private static final Path STATIC_SPEC = Path.of("docs", "openapi.yaml");
+    private static final Path GENERATED_SPEC = Path.of("target", "openapi", "openapi-generated.json");
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Test
+    void staticSpecMatchesControllers() throws Exception {
+        String generated = mockMvc.perform(get("/v3/api-docs"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        Files.createDirectories(GENERATED_SPEC.getParent());
+        Files.writeString(GENERATED_SPEC, generated);
+
+        JsonNode runtime = objectMapper.readTree(generated);
+        JsonNode documented = readStaticSpec();
+
+        assertEquals(operations(runtime), operations(documented),
+                "docs/openapi.yaml diverge dos controllers (ver " + GENERATED_SPEC + ")");
+
+        Set<String> documentedSchemas = names(documented.path("components").path("schemas"));
+        for (String schema : names(runtime.path("components").path("schemas"))) {
+            assertTrue(documentedSchemas.contains(schema), "Schema ausente em docs/openapi.yaml: " + schema);
+        }
+        assertEquals(runtime.path("info").path("version"), documented.path("info").path("version"));
+    }
+
+    private JsonNode readStaticSpec() throws IOException {
+        return new YAMLMapper().readTree(STATIC_SPEC.toFile());
+    }
+
+    /**
+     * Resumo de cada operação: "GET /users" -> {parameters, requestBody, responses}.
+     */
+    private Map<String, Map<String, Set<String>>> operations(JsonNode spec) {
+        Map<String, Map<String, Set<String>>> operations = new TreeMap<>();
+        spec.path("paths").fields().forEachRemaining(path -> path.getValue().fields().forEachRemaining(method -> {
+            JsonNode operation = method.getValue();
+            Map<String, Set<String>> summary = new TreeMap<>();
+
+            Set<String> parameters = new TreeSet<>();
+            operation.path("parameters").forEach(parameter ->
+                    parameters.add(parameter.path("in").asText() + ":" + parameter.path("name").asText()
+                            + (parameter.path("required").asBoolean() ? "*" : "")));
+            summary.put("parameters", parameters);
+            summary.put("requestBody", names(operation.path("requestBody").path("content")));
+
+            Set<String> responses = new TreeSet<>();
+            operation.path("responses").fields().forEachRemaining(response ->
+                    responses.add(response.getKey() + " " + names(response.getValue().path("content"))));
+            summary.put("responses", responses);
+
+            operations.put(method.getKey().toUpperCase() + " " + path.getKey(), summary);
+        }));
+        return operations;
+    }
+
+    private static Set<String> names(JsonNode node) {
+        Set<String> names = new TreeSet<>();
+        node.fieldNames().forEachRemaining(names::add);
+        return names;
+    }
+}
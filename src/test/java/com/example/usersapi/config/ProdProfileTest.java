@@ -0,0 +1,78 @@
+package com.example.usersapi.config;
+
+import org.junit.jupiter.api.Test;
+import org.springdoc.webmvc.api.OpenApiWebMvcResource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationContext;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * Testes do perfil prod: esquema das migrations do Flyway e dados do snapshot CSV.
+ *
+ * ddl-auto=validate faz o Hibernate conferir as migrations contra as entidades.
+ * Sem o aquecimento do perfil: ele consome IDs, e o teste confere o ID seguinte ao snapshot.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:prodtest",
+        "spring.jpa.hibernate.ddl-auto=validate",
+        "users.warmup.enabled=false"
+})
+@ActiveProfiles("prod")
+@AutoConfigureMockMvc
+class ProdProfileTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ApplicationContext applicationContext;
+
+    @Test
+    void appliesMigrationsAndLoadsSnapshot() throws Exception {
+        assertEquals(8, jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM \"flyway_schema_history\" WHERE \"type\" = 'SQL' AND \"success\"", Integer.class));
+
+        mockMvc.perform(get("/users"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[4].id").value(5))
+                .andExpect(jsonPath("$[0].name").value("João Silva"))
+                .andExpect(jsonPath("$[4].phone").value("(11) 55555-5555"));
+    }
+
+    @Test
+    void createsUsersAfterSnapshotIds() throws Exception {
+        mockMvc.perform(post("/users")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"name\":\"Usuário Prod\",\"email\":\"prod@email.com\"}"))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.id").value(6));
+    }
+
+    @Test
+    void servesPrecompressedStaticOpenApiSpec() throws Exception {
+        mockMvc.perform(get("/openapi/openapi.yaml").header(HttpHeaders.ACCEPT_ENCODING, "gzip"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CONTENT_ENCODING, "gzip"))
+                .andExpect(content().contentTypeCompatibleWith("application/yaml"))
+                .andExpect(header().string(HttpHeaders.CACHE_CONTROL, "max-age=3600, public"));
+    }
+
+    @Test
+    void disablesSpringDocScanning() {
+        assertEquals(0, applicationContext.getBeanNamesForType(OpenApiWebMvcResource.class).length);
+    }
+}
@@ -0,0 +1,77 @@
+package com.example.usersapi.controller;
+
+import com.example.usersapi.config.BinaryFormatsConfig;
+import com.example.usersapi.config.EpochMillisModule;
+import com.example.usersapi.dto.UserResponse;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Testes da negociação de formatos binários (CBOR e Smile) pelo header Accept.
+ */
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:binarytest")
+@AutoConfigureMockMvc
+class BinaryContentNegotiationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper jsonMapper;
+
+    @Test
+    void returnsCborWithEpochTimestamps() throws Exception {
+        byte[] cbor = mockMvc.perform(get("/users/1").accept(MediaType.APPLICATION_CBOR))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_CBOR))
+                .andReturn().getResponse().getContentAsByteArray();
+        byte[] json = mockMvc.perform(get("/users/1").accept(MediaType.APPLICATION_JSON))
+                .andReturn().getResponse().getContentAsByteArray();
+
+        JsonNode tree = new ObjectMapper(new CBORFactory()).readTree(cbor);
+        assertEquals("João Silva", tree.get("name").asText());
+        assertTrue(tree.get("createdAt").isIntegralNumber(), "createdAt deve ser epoch numérico");
+        assertTrue(cbor.length < json.length, "CBOR (" + cbor.length + ") deve ser menor que JSON (" + json.length + ")");
+    }
+
+    @Test
+    void smileRoundTripMatchesJson() throws Exception {
+        byte[] smile = mockMvc.perform(get("/users/2").accept(BinaryFormatsConfig.APPLICATION_SMILE))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(BinaryFormatsConfig.APPLICATION_SMILE))
+                .andReturn().getResponse().getContentAsByteArray();
+        byte[] json = mockMvc.perform(get("/users/2")).andReturn().getResponse().getContentAsByteArray();
+
+        ObjectMapper smileMapper = new ObjectMapper(new SmileFactory()).registerModule(new EpochMillisModule());
+        UserResponse fromSmile = smileMapper.readValue(smile, UserResponse.class);
+        UserResponse fromJson = jsonMapper.readValue(json, UserResponse.class);
+
+        assertEquals(fromJson.getEmail(), fromSmile.getEmail());
+        assertEquals(EpochMillisModule.toEpochMillis(fromJson.getCreatedAt()),
+                EpochMillisModule.toEpochMillis(fromSmile.getCreatedAt()));
+    }
+
+    @Test
+    void sparseFieldsetUsesEpochInCbor() throws Exception {
+        byte[] cbor = mockMvc.perform(get("/users").param("fields", "id,createdAt").accept(MediaType.APPLICATION_CBOR))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsByteArray();
+
+        JsonNode first = new ObjectMapper(new CBORFactory()).readTree(cbor).get(0);
+        assertEquals(2, first.size());
+        assertTrue(first.get("createdAt").isIntegralNumber());
+    }
+}
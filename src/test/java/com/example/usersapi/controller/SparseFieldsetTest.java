@@ -0,0 +1,79 @@
+package com.example.usersapi.controller;
+
+import com.example.usersapi.dto.SparseUserResponse;
+import com.example.usersapi.dto.UserFieldSet;
+import com.example.usersapi.dto.UserResponse;
+import com.example.usersapi.service.UserService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * Testes de ?fields= (respostas parciais) nos endpoints de leitura.
+ */
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:fieldstest")
+@AutoConfigureMockMvc
+class SparseFieldsetTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Test
+    void listReturnsOnlyRequestedFields() throws Exception {
+        mockMvc.perform(get("/users").param("fields", "id,name"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(5)))
+                .andExpect(jsonPath("$[0].id").value(1))
+                .andExpect(jsonPath("$[0].name").value("João Silva"))
+                .andExpect(jsonPath("$[0]", aMapWithSize(2)));
+    }
+
+    @Test
+    void searchKeepsCursorWhenSortColumnIsNotRequested() throws Exception {
+        String cursor = mockMvc.perform(get("/users")
+                        .param("sort", "name").param("limit", "2").param("fields", "email"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0]", aMapWithSize(1)))
+                .andExpect(jsonPath("$[0].email").value("ana@email.com"))
+                .andReturn().getResponse().getHeader(UserController.NEXT_CURSOR_HEADER);
+
+        mockMvc.perform(get("/users")
+                        .param("sort", "name").param("limit", "2").param("fields", "email").param("cursor", cursor))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].email").value("joao@email.com"));
+    }
+
+    @Test
+    void getByIdReturnsOnlyRequestedFields() throws Exception {
+        mockMvc.perform(get("/users/2").param("fields", "email,age"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", aMapWithSize(2)))
+                .andExpect(jsonPath("$.email").value("maria@email.com"))
+                .andExpect(jsonPath("$.age").value(25));
+
+        mockMvc.perform(get("/users/999").param("fields", "id")).andExpect(status().isNotFound());
+        mockMvc.perform(get("/users/1").param("fields", "password")).andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void allFieldsSerializeLikeUserResponse() throws Exception {
+        UserResponse full = userService.getUserById(3L);
+        SparseUserResponse sparse = userService.getUserById(3L, UserFieldSet.ALL);
+
+        assertEquals(objectMapper.writeValueAsString(full), objectMapper.writeValueAsString(sparse));
+    }
+}
@@ -0,0 +1,71 @@
+package com.example.usersapi.controller;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * Testes de GET /users/batch e do ETag / If-None-Match de GET /users/{id}.
+ */
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:batchetagtest")
+@AutoConfigureMockMvc
+class UserBatchAndETagTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Test
+    void batchKeepsRequestOrderAndSkipsMissingAndRepeatedIds() throws Exception {
+        mockMvc.perform(get("/users/batch").param("ids", "3,999,1,3"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(2))
+                .andExpect(jsonPath("$[0].name").value("Pedro Oliveira"))
+                .andExpect(jsonPath("$[1].name").value("João Silva"));
+    }
+
+    @Test
+    void batchRejectsEmptyAndOversizedLists() throws Exception {
+        mockMvc.perform(get("/users/batch"))
+                .andExpect(status().isBadRequest());
+
+        String ids = LongStream.rangeClosed(1, 101).mapToObj(String::valueOf).collect(Collectors.joining(","));
+        mockMvc.perform(get("/users/batch").param("ids", ids))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void ifNoneMatchReturnsNotModifiedUntilUserChanges() throws Exception {
+        String etag = mockMvc.perform(get("/users/{id}", 4))
+                .andExpect(status().isOk())
+                .andExpect(header().exists(HttpHeaders.ETAG))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        assertTrue(etag.startsWith("W/\"4-"), etag);
+
+        mockMvc.perform(get("/users/{id}", 4).header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+
+        mockMvc.perform(put("/users/{id}", 4)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"name\":\"Ana Costa\",\"email\":\"ana@email.com\",\"age\":41}"))
+                .andExpect(status().isOk());
+
+        String changed = mockMvc.perform(get("/users/{id}", 4).header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.age").value(41))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        assertNotEquals(etag, changed);
+    }
+}
@@ -0,0 +1,83 @@
+package com.example.usersapi.controller;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import static org.hamcrest.Matchers.hasSize;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * Testes da busca com filtro/ordenação em GET /users contra o H2 real (data.sql).
+ */
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:searchtest")
+@AutoConfigureMockMvc
+class UserSearchTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Test
+    void filtersAndPagesWithKeysetCursor() throws Exception {
+        // Usuários com 28 anos ou mais, pelo índice (age, id): Pedro 28, João 30, Ana 32, Carlos 45
+        MvcResult firstPage = mockMvc.perform(get("/users")
+                        .param("filter", "age>=28")
+                        .param("sort", "age")
+                        .param("limit", "2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(2)))
+                .andExpect(jsonPath("$[0].name").value("Pedro Oliveira"))
+                .andExpect(jsonPath("$[1].name").value("João Silva"))
+                .andExpect(header().exists(UserController.NEXT_CURSOR_HEADER))
+                .andReturn();
+
+        String cursor = firstPage.getResponse().getHeader(UserController.NEXT_CURSOR_HEADER);
+        MvcResult lastPage = mockMvc.perform(get("/users")
+                        .param("filter", "age>=28")
+                        .param("sort", "age")
+                        .param("limit", "2")
+                        .param("cursor", cursor))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(2)))
+                .andExpect(jsonPath("$[0].name").value("Ana Costa"))
+                .andExpect(jsonPath("$[1].name").value("Carlos Mendes"))
+                .andReturn();
+
+        assertNull(lastPage.getResponse().getHeader(UserController.NEXT_CURSOR_HEADER));
+    }
+
+    @Test
+    void combinesIndexedRangeWithContainsFilter() throws Exception {
+        mockMvc.perform(get("/users").param("filter", "age>=18;name~SIL"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(jsonPath("$[0].email").value("joao@email.com"));
+    }
+
+    @Test
+    void rejectsFilterThatWouldScanTheTable() throws Exception {
+        mockMvc.perform(get("/users").param("filter", "name~sil"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").exists());
+    }
+
+    @Test
+    void rejectsFilterNotServedBySortIndex() throws Exception {
+        // O índice de name não percorre uma faixa de age
+        mockMvc.perform(get("/users").param("filter", "age>=18").param("sort", "name"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").exists());
+    }
+
+    @Test
+    void keepsListingEverythingWithoutParameters() throws Exception {
+        mockMvc.perform(get("/users"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(5)));
+    }
+}
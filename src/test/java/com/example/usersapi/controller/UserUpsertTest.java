@@ -0,0 +1,144 @@
+package com.example.usersapi.controller;
+
+import com.example.usersapi.dto.UpsertUserRequest;
+import com.example.usersapi.dto.UpsertUserResult;
+import com.example.usersapi.repository.UserRepository;
+import com.example.usersapi.service.UserService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * Testes de PUT /users/by-email/{email} (upsert em um único MERGE).
+ */
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:upserttest")
+@AutoConfigureMockMvc
+class UserUpsertTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Test
+    void createsUnknownEmailAndUpdatesItAfterwards() throws Exception {
+        mockMvc.perform(put("/users/by-email/{email}", "novo.upsert@email.com")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"name\":\"Novo Upsert\",\"age\":33}"))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.email").value("novo.upsert@email.com"))
+                .andExpect(jsonPath("$.age").value(33));
+
+        Long id = userRepository.findByEmail("novo.upsert@email.com").orElseThrow().getId();
+
+        mockMvc.perform(put("/users/by-email/{email}", "novo.upsert@email.com")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"name\":\"Novo Upsert 2\",\"age\":34,\"phone\":\"(11) 90000-0000\"}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.id").value(id))
+                .andExpect(jsonPath("$.name").value("Novo Upsert 2"))
+                .andExpect(jsonPath("$.phone").value("(11) 90000-0000"));
+    }
+
+    @Test
+    void keepsCreatedAtOfExistingUser() {
+        UpsertUserResult result = userService.upsertUserByEmail("maria@email.com",
+                new UpsertUserRequest("Maria Santos", 26, null));
+
+        assertFalse(result.isCreated());
+        assertEquals(2L, result.getUser().getId());
+        assertTrue(result.getUser().getUpdatedAt().isAfter(result.getUser().getCreatedAt()));
+    }
+
+    @Test
+    void rejectsInvalidEmailOrBody() throws Exception {
+        mockMvc.perform(put("/users/by-email/{email}", "sem-arroba")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"name\":\"Email Invalido\"}"))
+                .andExpect(status().isBadRequest());
+
+        mockMvc.perform(put("/users/by-email/{email}", "valido@email.com")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"age\":20}"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void concurrentCallersCreateExactlyOneUser() throws Exception {
+        int callers = 8;
+        ExecutorService executor = Executors.newFixedThreadPool(callers);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            List<Callable<UpsertUserResult>> tasks = IntStream.range(0, callers)
+                    .<Callable<UpsertUserResult>>mapToObj(i -> () -> {
+                        start.await();
+                        return userService.upsertUserByEmail("concorrente@email.com",
+                                new UpsertUserRequest("Concorrente " + i, 20 + i, null));
+                    })
+                    .toList();
+            List<Future<UpsertUserResult>> futures = tasks.stream().map(executor::submit).toList();
+            start.countDown();
+
+            long created = 0;
+            Long id = null;
+            for (Future<UpsertUserResult> future : futures) {
+                UpsertUserResult result = future.get();
+                created += result.isCreated() ? 1 : 0;
+                id = id == null ? result.getUser().getId() : id;
+                assertEquals(id, result.getUser().getId());
+            }
+            assertEquals(1, created);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void concurrentHttpCallersGetExactlyOneCreated() throws Exception {
+        int callers = 8;
+        ExecutorService executor = Executors.newFixedThreadPool(callers);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            // Chamadas no mesmo microssegundo não podem fazer um UPDATE parecer inserção
+            List<Future<Integer>> statuses = IntStream.range(0, callers)
+                    .mapToObj(i -> executor.submit(() -> {
+                        start.await();
+                        return mockMvc.perform(put("/users/by-email/{email}", "concorrente.http@email.com")
+                                        .contentType(MediaType.APPLICATION_JSON)
+                                        .content("{\"name\":\"Concorrente Http " + i + "\"}"))
+                                .andReturn().getResponse().getStatus();
+                    }))
+                    .toList();
+            start.countDown();
+
+            List<Integer> codes = new ArrayList<>();
+            for (Future<Integer> status : statuses) {
+                codes.add(status.get());
+            }
+            assertEquals(1, codes.stream().filter(code -> code == 201).count(), "Status: " + codes);
+            assertEquals(callers - 1, codes.stream().filter(code -> code == 200).count(), "Status: " + codes);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
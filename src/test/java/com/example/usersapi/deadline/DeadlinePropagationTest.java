@@ -0,0 +1,84 @@
+package com.example.usersapi.deadline;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * Testes da propagação do prazo da requisição até o timeout JDBC.
+ */
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:deadlinetest")
+@AutoConfigureMockMvc
+class DeadlinePropagationTest {
+
+    /**
+     * Consulta que leva vários segundos no H2 (soma de um bilhão de linhas geradas).
+     */
+    private static final String SLOW_QUERY = "SELECT SUM(X) FROM SYSTEM_RANGE(1, 1000000000)";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @AfterEach
+    void tearDown() {
+        Deadline.clear();
+    }
+
+    @Test
+    void expiredDeadlineFailsFastWith504AndIsCounted() throws Exception {
+        mockMvc.perform(get("/users").header(Deadline.HEADER, "0"))
+                .andExpect(status().isGatewayTimeout())
+                .andExpect(jsonPath("$.status").value(504));
+        // Nos endpoints que tratam RuntimeException, o prazo vencido não vira 404
+        mockMvc.perform(delete("/users/1").header(Deadline.HEADER, "0ms"))
+                .andExpect(status().isGatewayTimeout());
+
+        assertEquals(1.0, meterRegistry.get("users.deadline.cancelled")
+                .tags("reason", Deadline.EXPIRED, "uri", "/users").counter().count());
+        mockMvc.perform(get("/users/1")).andExpect(status().isOk());
+    }
+
+    @Test
+    void invalidHeaderFallsBackToEndpointDefault() throws Exception {
+        mockMvc.perform(get("/users").header(Deadline.HEADER, "logo"))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void remainingBudgetBecomesTheJdbcQueryTimeout() {
+        Deadline.start(Duration.ofMillis(300));
+
+        long start = System.nanoTime();
+        assertThrows(QueryTimeoutException.class, () -> transactionTemplate.executeWithoutResult(
+                status -> jdbcTemplate.queryForObject(SLOW_QUERY, Long.class)));
+        long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+
+        // setQueryTimeout só aceita segundos inteiros: 300 ms restantes viram 1 s
+        assertTrue(elapsedMillis < 3000, "consulta deveria ser cancelada pelo timeout, levou " + elapsedMillis + " ms");
+        assertThrows(DeadlineExceededException.class, () -> transactionTemplate.executeWithoutResult(status -> {
+        }));
+    }
+}
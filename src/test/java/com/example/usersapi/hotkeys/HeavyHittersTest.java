@@ -0,0 +1,83 @@
+package com.example.usersapi.hotkeys;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Testes do top-K com sketch, com fluxos de chaves gerados e relógio controlado.
+ */
+class HeavyHittersTest {
+
+    @Test
+    void findsHeavyKeysInLongTailOfRareKeys() {
+        AtomicLong clock = new AtomicLong();
+        HeavyHitters heavyHitters = new HeavyHitters(3, 4, 256, Duration.ofMinutes(1), clock::get);
+        Random random = new Random(42);
+
+        // 3 chaves quentes (20%, 10% e 5% do tráfego) no meio de 50 mil chaves raras
+        for (int i = 0; i < 100_000; i++) {
+            int draw = random.nextInt(100);
+            String key = draw < 20 ? "quente-1" : draw < 30 ? "quente-2" : draw < 35 ? "quente-3"
+                    : "rara-" + random.nextInt(50_000);
+            heavyHitters.record(key);
+        }
+        clock.set(10_000);
+
+        HotKeyWindow window = heavyHitters.current();
+        assertEquals(List.of("quente-1", "quente-2", "quente-3"), window.top().stream().map(HotKey::key).toList());
+        HotKey first = window.top().get(0);
+        // O sketch nunca subestima; com 256 contadores por linha o erro fica em poucos %
+        assertTrue(first.count() >= 19_000 && first.count() < 22_000, "estimativa: " + first.count());
+        assertEquals(first.count() / 10.0, first.rate(), 1e-9);
+        assertEquals(100_000, window.total());
+        assertTrue(window.topShare() > 0.3);
+    }
+
+    @Test
+    void windowsRotateAndPreviousKeepsTheClosedWindow() {
+        AtomicLong clock = new AtomicLong();
+        HeavyHitters heavyHitters = new HeavyHitters(2, 4, 64, Duration.ofSeconds(60), clock::get);
+        IntStream.range(0, 120).forEach(i -> heavyHitters.record("1"));
+        IntStream.range(0, 60).forEach(i -> heavyHitters.record("2"));
+        assertTrue(heavyHitters.previous().top().isEmpty());
+
+        clock.set(61_000);
+        heavyHitters.record("3");
+
+        HotKeyWindow previous = heavyHitters.previous();
+        assertEquals(List.of(new HotKey("1", 120, 2.0), new HotKey("2", 60, 1.0)), previous.top());
+        assertEquals(60.0, previous.seconds());
+        assertEquals(List.of("3"), heavyHitters.current().top().stream().map(HotKey::key).toList());
+    }
+
+    @Test
+    void sketchNeverUnderestimates() {
+        CountMinSketch sketch = new CountMinSketch(3, 16, 7);
+        for (int key = 0; key < 200; key++) {
+            for (int i = 0; i <= key % 5; i++) {
+                sketch.add("k" + key);
+            }
+        }
+        for (int key = 0; key < 200; key++) {
+            assertTrue(sketch.estimate("k" + key) >= key % 5 + 1);
+        }
+    }
+
+    @Test
+    void keysWithEqualHashCodeDoNotShareCounters() {
+        assertEquals("Aa".hashCode(), "BB".hashCode());
+        CountMinSketch sketch = new CountMinSketch(4, 1024, 7);
+        IntStream.range(0, 1_000).forEach(i -> sketch.add("Aa"));
+
+        assertEquals(1_000, sketch.estimate("Aa"));
+        assertEquals(0, sketch.estimate("BB"));
+        assertNotEquals(CountMinSketch.hash64("Aa".getBytes(), 7), CountMinSketch.hash64("Aa".getBytes(), 8));
+    }
+}
@@ -0,0 +1,51 @@
+package com.example.usersapi.hotkeys;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * Testes do registro das chaves no UserController e do endpoint /actuator/hotkeys.
+ */
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:hotkeystest")
+@AutoConfigureMockMvc
+class HotKeysEndpointTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Test
+    void lookupsShowUpInTopKByDimension() throws Exception {
+        for (int i = 0; i < 5; i++) {
+            mockMvc.perform(get("/users/3")).andExpect(status().isOk());
+        }
+        mockMvc.perform(get("/users/1")).andExpect(status().isOk());
+        mockMvc.perform(get("/users/999")).andExpect(status().isNotFound());
+        mockMvc.perform(get("/users").param("filter", "email=maria@email.com;age>=18")).andExpect(status().isOk());
+
+        mockMvc.perform(get("/actuator/hotkeys/id"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.lookups").value(7))
+                .andExpect(jsonPath("$.current.top[0].key").value("3"))
+                .andExpect(jsonPath("$.current.top[0].count").value(5))
+                .andExpect(jsonPath("$.current.total").value(7));
+        mockMvc.perform(get("/actuator/hotkeys"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.email.current.top[0].key").value("maria@email.com"))
+                .andExpect(jsonPath("$.search.current.top[0].key").value("age>=18"));
+        mockMvc.perform(get("/actuator/hotkeys/desconhecido")).andExpect(status().isNotFound());
+
+        assertEquals(7.0, meterRegistry.get("users.hotkeys.lookups").tag("dimension", "id").functionCounter().count());
+        assertNotNull(meterRegistry.get("users.hotkeys.rate").tags("dimension", "id", "rank", "10").gauge());
+    }
+}
@@ -0,0 +1,112 @@
+package com.example.usersapi.invalidation;
+
+import com.example.usersapi.UsersApiApplication;
+import com.example.usersapi.dto.CreateUserRequest;
+import com.example.usersapi.dto.UpdateUserRequest;
+import com.example.usersapi.dto.UserResponse;
+import com.example.usersapi.service.UserService;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Duas instâncias da aplicação na mesma JVM, com o mesmo banco H2 e o transporte LOOPBACK.
+ *
+ * Cada uma tem seus caches locais (segundo nível e users.stale com fresh-for de 1 hora):
+ * sem o barramento, uma gravação na instância A nunca apareceria nas leituras da B.
+ * As mensagens só saem em flush() (flush-interval zero) e o heartbeat vence a cada flush.
+ */
+class ClusterInvalidationTest {
+
+    private static ConfigurableApplicationContext nodeA;
+    private static ConfigurableApplicationContext nodeB;
+
+    @BeforeAll
+    static void startNodes() {
+        String network = UUID.randomUUID().toString();
+        // A cria o esquema e os dados; B usa o mesmo banco como está
+        nodeA = start(network);
+        nodeB = start(network, "--spring.jpa.hibernate.ddl-auto=none", "--spring.sql.init.mode=never");
+    }
+
+    @AfterAll
+    static void stopNodes() {
+        if (nodeB != null) {
+            nodeB.close();
+        }
+        if (nodeA != null) {
+            nodeA.close();
+        }
+    }
+
+    @Test
+    void updateOnOneNodeReachesTheOtherNodesCaches() {
+        UserService a = nodeA.getBean(UserService.class);
+        UserService b = nodeB.getBean(UserService.class);
+        assertEquals("Maria Santos", b.getUserById(2L).getName());
+
+        a.updateUser(2L, new UpdateUserRequest("Maria Souza", "maria@email.com", 25, "(11) 88888-8888"));
+        assertEquals("Maria Santos", b.getUserById(2L).getName());  // Aviso ainda não enviado
+
+        nodeA.getBean(InvalidationBus.class).flush();
+        assertEquals("Maria Souza", b.getUserById(2L).getName());
+        assertEquals("Maria Souza", b.getUsersByIds(List.of(2L)).get(0).getName());
+    }
+
+    @Test
+    void lostMessageIsDetectedByTheNextHeartbeat() {
+        UserService a = nodeA.getBean(UserService.class);
+        UserService b = nodeB.getBean(UserService.class);
+        InvalidationBus busA = nodeA.getBean(InvalidationBus.class);
+        InvalidationBus busB = nodeB.getBean(InvalidationBus.class);
+        busA.flush();
+        assertEquals("Ana Costa", b.getUserById(4L).getName());
+        long gaps = busB.getGaps();
+
+        ((LoopbackTransport) nodeA.getBean(InvalidationTransport.class)).dropNext(1);
+        a.updateUser(4L, new UpdateUserRequest("Ana Lima", "ana@email.com", 32, "(11) 66666-6666"));
+        busA.flush();
+        assertEquals("Ana Costa", b.getUserById(4L).getName());
+
+        busA.flush();  // Heartbeat com a sequência da mensagem perdida: B descarta os caches
+        assertEquals("Ana Lima", b.getUserById(4L).getName());
+        assertEquals(gaps + 1, busB.getGaps());
+    }
+
+    @Test
+    void phoneIndexFollowsUsersCreatedOnOtherNodes() {
+        UserService a = nodeA.getBean(UserService.class);
+        UserService b = nodeB.getBean(UserService.class);
+
+        UserResponse created = a.createUser(new CreateUserRequest("Cluster", "cluster@invalidation.test", null, "(51) 3222-1111"));
+        assertTrue(b.getUsersByPhone("(51) 3222-1111", false, 10).isEmpty());
+
+        nodeA.getBean(InvalidationBus.class).flush();
+        assertEquals(List.of(created.getId()),
+                b.getUsersByPhone("(51) 3222-1111", false, 10).stream().map(UserResponse::getId).toList());
+    }
+
+    private static ConfigurableApplicationContext start(String network, String... extra) {
+        List<String> args = new java.util.ArrayList<>(List.of(
+                "--spring.datasource.url=jdbc:h2:mem:clustertest",
+                "--users.invalidation.enabled=true",
+                "--users.invalidation.transport=loopback",
+                "--users.invalidation.loopback-network=" + network,
+                "--users.invalidation.flush-interval=PT0S",
+                "--users.invalidation.heartbeat=PT0S",
+                "--users.stale.enabled=true",
+                "--users.stale.fresh-for=PT1H"));
+        args.addAll(List.of(extra));
+        return new SpringApplicationBuilder(UsersApiApplication.class)
+                .web(WebApplicationType.NONE)
+                .run(args.toArray(String[]::new));
+    }
+}
@@ -0,0 +1,160 @@
+package com.example.usersapi.invalidation;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Testes do barramento de invalidação: dois nós, com envio só em flush() (flush-interval zero).
+ */
+class InvalidationBusTest {
+
+    /**
+     * Avisos recebidos; null marca um invalidateAll.
+     */
+    private static final class RecordingListener implements InvalidationListener {
+
+        final List<List<Long>> received = new CopyOnWriteArrayList<>();
+
+        @Override
+        public void invalidate(Collection<Long> ids) {
+            received.add(List.copyOf(ids));
+        }
+
+        @Override
+        public void invalidateAll() {
+            received.add(null);
+        }
+    }
+
+    private final List<InvalidationBus> buses = new ArrayList<>();
+    private final RecordingListener listener = new RecordingListener();
+
+    @AfterEach
+    void closeBuses() {
+        buses.forEach(InvalidationBus::close);
+    }
+
+    @Test
+    void writesInTheSameIntervalAreCoalesced() {
+        String network = UUID.randomUUID().toString();
+        InvalidationBus sender = bus(new LoopbackTransport(network), new RecordingListener(), Duration.ofHours(1));
+        bus(new LoopbackTransport(network), listener, Duration.ofHours(1));
+
+        sender.publish(List.of(7L), 100);
+        sender.publish(List.of(3L, 7L), 200);
+        sender.publish(List.of(7L), 150);
+        sender.flush();
+        sender.flush();  // Nada anotado e heartbeat ainda não venceu: não envia
+
+        assertEquals(List.of(List.of(3L, 7L)), listener.received);
+        assertEquals(2, sender.getCoalesced());
+        assertEquals(1, sender.getMessagesSent());
+        assertEquals(0, sender.getHeartbeatsSent());
+    }
+
+    @Test
+    void lostMessageInvalidatesEverythingOnNextMessageOrHeartbeat() {
+        String network = UUID.randomUUID().toString();
+        LoopbackTransport transport = new LoopbackTransport(network);
+        InvalidationBus sender = bus(transport, new RecordingListener(), Duration.ZERO);
+        InvalidationBus receiver = bus(new LoopbackTransport(network), listener, Duration.ofHours(1));
+
+        sender.publish(List.of(1L), 100);
+        sender.flush();
+        transport.dropNext(1);
+        sender.publish(List.of(2L), 200);
+        sender.flush();
+        assertEquals(List.of(List.of(1L)), listener.received);
+
+        sender.flush();  // Heartbeat com a sequência 2: a mensagem 2 não chegou
+        assertEquals(2, listener.received.size());
+        assertNull(listener.received.get(1));
+
+        transport.dropNext(1);
+        sender.publish(List.of(3L), 300);
+        sender.flush();
+        sender.publish(List.of(4L), 400);
+        sender.flush();  // Sequência 4 depois da 2
+        assertNull(listener.received.get(2));
+        assertEquals(2, receiver.getGaps());
+    }
+
+    @Test
+    void repeatedMessagesOnlyApplyNewerVersions() {
+        InvalidationBus receiver = bus(new LoopbackTransport(UUID.randomUUID().toString()), listener, Duration.ofHours(1));
+        ByteBuffer first = ByteBuffer.allocate(1024);
+        InvalidationMessage.encode(42, 1, new long[]{5, 9}, new long[]{100, 100}, 100, 0, first);
+        first.flip();
+        ByteBuffer second = ByteBuffer.allocate(1024);
+        InvalidationMessage.encode(42, 2, new long[]{9}, new long[]{300}, 300, 0, second);
+        second.flip();
+        ByteBuffer late = ByteBuffer.allocate(1024);
+        InvalidationMessage.encode(42, 1, new long[]{5, 9}, new long[]{150, 200}, 150, 0, late);
+        late.flip();
+
+        receiver.receive(first.duplicate());
+        receiver.receive(second.duplicate());
+        receiver.receive(first.duplicate());
+        // Sequência já vista: só vale o ID 5, com versão maior que a aplicada (o 9 já está na 300)
+        receiver.receive(late);
+
+        assertEquals(List.of(List.of(5L, 9L), List.of(9L), List.of(5L)), listener.received);
+        assertEquals(1, receiver.getDuplicates());
+        assertEquals(0, receiver.getGaps());
+    }
+
+    @Test
+    void udpMessagesAreCompact() throws Exception {
+        UdpTransport receiving = new UdpTransport(new InetSocketAddress("127.0.0.1", 0), List.of());
+        bus(receiving, listener, Duration.ofHours(1));
+        InvalidationBus sender = bus(new UdpTransport(new InetSocketAddress("127.0.0.1", 0),
+                List.of(receiving.localAddress())), new RecordingListener(), Duration.ofHours(1));
+
+        List<Long> ids = LongStream.rangeClosed(1_000, 2_199).boxed().toList();
+        sender.publish(ids, 1_700_000_000_000_000L);
+        sender.flush();
+
+        // 1200 pares de 16 bytes precisariam de 14 datagramas; em varint, cada par aqui ocupa 2 bytes
+        assertTrue(sender.getMessagesSent() <= 2, "mensagens: " + sender.getMessagesSent());
+        long deadline = System.nanoTime() + Duration.ofSeconds(5).toNanos();
+        while (listener.received.stream().mapToInt(List::size).sum() < ids.size() && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        assertEquals(ids, listener.received.stream().flatMap(List::stream).toList());
+    }
+
+    @Test
+    void messageRoundTrip() {
+        long[] ids = {1, 2, 1_000_000, Long.MAX_VALUE / 2};
+        long[] versions = {500, 1_000, 500, 9_000_000_000L};
+        ByteBuffer buffer = ByteBuffer.allocate(UdpTransport.MAX_DATAGRAM_BYTES);
+        assertEquals(ids.length, InvalidationMessage.encode(3, 8, ids, versions, 500, 0, buffer));
+
+        InvalidationMessage message = InvalidationMessage.decode(buffer.flip());
+        assertEquals(3, message.sender());
+        assertEquals(8, message.sequence());
+        assertFalse(message.heartbeat());
+        assertArrayEquals(ids, message.ids());
+        assertArrayEquals(versions, message.versions());
+        assertThrows(IllegalArgumentException.class, () -> InvalidationMessage.decode(ByteBuffer.wrap(new byte[]{1, 0, 0})));
+    }
+
+    private InvalidationBus bus(InvalidationTransport transport, InvalidationListener listener, Duration heartbeat) {
+        InvalidationBus bus = new InvalidationBus(buses.size() + 1, transport, () -> List.of(listener), heartbeat)
+                .start(Duration.ZERO);
+        buses.add(bus);
+        return bus;
+    }
+}
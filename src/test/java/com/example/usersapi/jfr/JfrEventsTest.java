@@ -0,0 +1,128 @@
+package com.example.usersapi.jfr;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * Testes dos eventos JFR da aplicação e do endpoint /actuator/jfr.
+ */
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:jfrtest")
+@AutoConfigureMockMvc
+class JfrEventsTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Test
+    void recordsRequestServiceRepositoryAndSqlEventsOfOneRequest() throws Exception {
+        List<RecordedEvent> events;
+        Path file = Files.createTempFile("jfrtest", ".jfr");
+        Map<String, String> settings = new HashMap<>(JfrEndpoint.settings("default"));
+        // No perfil só comandos acima de 1 ms são gravados; aqui, todos
+        settings.put("com.example.usersapi.SqlStatement#threshold", "0 ms");
+        try (Recording recording = new Recording(settings)) {
+            recording.start();
+            mockMvc.perform(get("/users/4").header(JfrRequestInterceptor.REQUEST_ID_HEADER, "teste-1"))
+                    .andExpect(status().isOk());
+            mockMvc.perform(get("/users/4").header(JfrRequestInterceptor.REQUEST_ID_HEADER, "teste-2"))
+                    .andExpect(status().isOk());
+            mockMvc.perform(get("/users").param("filter", "age>=18").param("limit", "2")
+                            .header(JfrRequestInterceptor.REQUEST_ID_HEADER, "teste-3"))
+                    .andExpect(status().isOk());
+            recording.stop();
+            recording.dump(file);
+            events = RecordingFile.readAllEvents(file);
+        } finally {
+            Files.deleteIfExists(file);
+        }
+
+        RecordedEvent request = single(events, "com.example.usersapi.HttpRequest", "teste-1");
+        assertEquals("GET", request.getString("method"));
+        assertEquals("/users/{id}", request.getString("endpoint"));
+        assertEquals(4, request.getLong("userId"));
+        assertEquals(200, request.getInt("status"));
+
+        // Primeira busca vai ao banco; a segunda sai do cache de segundo nível, sem SQL
+        RecordedEvent miss = single(events, "com.example.usersapi.ServiceCall", "teste-1");
+        assertEquals("UserService.getUserById", miss.getString("method"));
+        assertEquals("miss", miss.getString("cache"));
+        assertTrue(miss.getInt("sqlStatements") > 0);
+        RecordedEvent hit = single(events, "com.example.usersapi.ServiceCall", "teste-2");
+        assertEquals("hit", hit.getString("cache"));
+        assertEquals(0, hit.getInt("sqlStatements"));
+        assertTrue(events.stream().anyMatch(event -> event.getEventType().getName().equals("com.example.usersapi.SqlStatement")
+                && "teste-1".equals(event.getString("requestId"))
+                && event.getString("sql").toLowerCase().contains("from users")));
+
+        RecordedEvent search = single(events, "com.example.usersapi.RepositoryCall", "teste-3");
+        assertEquals("UserRepository.search", search.getString("method"));
+        assertTrue(search.getString("shape").startsWith("age>=;"));
+        assertEquals(3, search.getInt("rows"));
+    }
+
+    @Test
+    void endpointStartsDumpsAndClosesRecordings() throws Exception {
+        JsonNode started = objectMapper.readTree(mockMvc.perform(post("/actuator/jfr")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"name\":\"teste-endpoint\",\"maxAge\":\"PT5M\"}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.state").value("RUNNING"))
+                .andReturn().getResponse().getContentAsString());
+        long id = started.get("id").asLong();
+        try {
+            mockMvc.perform(get("/users/1")).andExpect(status().isOk());
+            mockMvc.perform(get("/actuator/jfr"))
+                    .andExpect(jsonPath("$[?(@.id == " + id + ")].name").value("teste-endpoint"));
+
+            mockMvc.perform(post("/actuator/jfr/{id}", id))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.state").value("STOPPED"));
+            byte[] dump = mockMvc.perform(get("/actuator/jfr/{id}", id))
+                    .andExpect(status().isOk())
+                    .andReturn().getResponse().getContentAsByteArray();
+            // Arquivos JFR começam com o número mágico "FLR\0"
+            assertArrayEquals("FLR\0".getBytes(StandardCharsets.US_ASCII), Arrays.copyOf(dump, 4));
+
+            mockMvc.perform(post("/actuator/jfr")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content("{\"base\":\"inexistente\"}"))
+                    .andExpect(status().isBadRequest());
+        } finally {
+            mockMvc.perform(delete("/actuator/jfr/{id}", id)).andExpect(status().isOk());
+        }
+        mockMvc.perform(get("/actuator/jfr/{id}", id)).andExpect(status().isNotFound());
+    }
+
+    private static RecordedEvent single(List<RecordedEvent> events, String type, String requestId) {
+        List<RecordedEvent> matching = events.stream()
+                .filter(event -> event.getEventType().getName().equals(type))
+                .filter(event -> requestId.equals(event.getString("requestId")))
+                .toList();
+        assertEquals(1, matching.size(), type + " da requisição " + requestId + ": " + matching);
+        return matching.get(0);
+    }
+}
@@ -0,0 +1,81 @@
+package com.example.usersapi.limiter;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Testes do algoritmo do limite adaptativo, com latências simuladas.
+ */
+class AdaptiveConcurrencyLimiterTest {
+
+    private static final long FAST = 10_000_000L;
+    private static final long SLOW = 100_000_000L;
+
+    @Test
+    void limitFollowsObservedLatency() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter("read", 20, 5, 200, 0.2);
+
+        runRounds(limiter, 50, FAST);
+        int grown = limiter.getLimit();
+        assertTrue(grown > 20, "latência estável deveria aumentar o limite: " + grown);
+
+        runRounds(limiter, 30, SLOW);
+        int shrunk = limiter.getLimit();
+        assertTrue(shrunk < grown / 2, "latência alta deveria reduzir o limite: " + grown + " -> " + shrunk);
+
+        runRounds(limiter, 50, FAST);
+        assertTrue(limiter.getLimit() > shrunk, "latência normalizada deveria recuperar o limite");
+    }
+
+    @Test
+    void rejectsWithoutQueueingAndKeepsReservedShareForPriority() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter("read", 10, 10, 10, 0.2);
+
+        List<AdaptiveConcurrencyLimiter.Permit> permits = new ArrayList<>();
+        Optional<AdaptiveConcurrencyLimiter.Permit> permit;
+        while ((permit = limiter.tryAcquire(false)).isPresent()) {
+            permits.add(permit.get());
+        }
+        assertEquals(8, permits.size());
+
+        assertTrue(limiter.tryAcquire(true).isPresent());
+        assertTrue(limiter.tryAcquire(true).isPresent());
+        assertTrue(limiter.tryAcquire(true).isEmpty());
+        assertEquals(10, limiter.getAccepted());
+        assertEquals(2, limiter.getRejected());
+
+        // Liberar duas vezes a mesma vaga não abre vagas extras
+        permits.get(0).ignore();
+        permits.get(0).ignore();
+        assertEquals(9, limiter.getInflight());
+    }
+
+    @Test
+    void droppedRequestsBackOffUntilMinimum() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter("write", 20, 2, 100, 0.2);
+
+        for (int i = 0; i < 100; i++) {
+            limiter.tryAcquire(false).orElseThrow().dropped();
+        }
+        assertEquals(2, limiter.getLimit());
+    }
+
+    /**
+     * Cada rodada ocupa todas as vagas e as libera com a mesma latência (carga saturada).
+     */
+    private static void runRounds(AdaptiveConcurrencyLimiter limiter, int rounds, long rttNanos) {
+        for (int round = 0; round < rounds; round++) {
+            List<AdaptiveConcurrencyLimiter.Permit> permits = new ArrayList<>();
+            Optional<AdaptiveConcurrencyLimiter.Permit> permit;
+            while ((permit = limiter.tryAcquire(true)).isPresent()) {
+                permits.add(permit.get());
+            }
+            permits.forEach(p -> p.success(rttNanos));
+        }
+    }
+}
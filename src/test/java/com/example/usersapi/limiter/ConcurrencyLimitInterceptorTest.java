@@ -0,0 +1,71 @@
+package com.example.usersapi.limiter;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * Testes da recusa por sobrecarga no UserController (limites fixos em 5 para o teste).
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:limitertest",
+        "users.limiter.read.initial-limit=5",
+        "users.limiter.read.min-limit=5",
+        "users.limiter.read.max-limit=5",
+        "users.limiter.retry-after=PT2S"
+})
+@AutoConfigureMockMvc
+class ConcurrencyLimitInterceptorTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    @Qualifier("readLimiter")
+    private AdaptiveConcurrencyLimiter readLimiter;
+
+    @Test
+    void rejectsWith503WhenReadLimitIsTakenButServesCachedReads() throws Exception {
+        // 4 de 5 vagas ocupadas: só resta a vaga reservada (priority-share 0.2)
+        List<AdaptiveConcurrencyLimiter.Permit> held = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            held.add(readLimiter.tryAcquire(false).orElseThrow());
+        }
+        try {
+            mockMvc.perform(get("/users"))
+                    .andExpect(status().isServiceUnavailable())
+                    .andExpect(header().string(HttpHeaders.RETRY_AFTER, "2"))
+                    .andExpect(jsonPath("$.status").value(503));
+            mockMvc.perform(get("/users/1").param("fields", "name"))
+                    .andExpect(status().isServiceUnavailable());
+
+            mockMvc.perform(get("/users/1"))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.name").value("João Silva"));
+
+            // Escritas têm limite próprio
+            mockMvc.perform(post("/users")
+                            .contentType("application/json")
+                            .content("{\"name\":\"Com Vaga\",\"email\":\"vaga@email.com\"}"))
+                    .andExpect(status().isCreated());
+            // As duas recusas acima, na métrica (o actuator não passa pelo limite)
+            mockMvc.perform(get("/actuator/metrics/users.limiter.requests").param("tag", "outcome:rejected"))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.measurements[0].value").value(2.0));
+        } finally {
+            held.forEach(AdaptiveConcurrencyLimiter.Permit::ignore);
+        }
+        mockMvc.perform(get("/users")).andExpect(status().isOk());
+    }
+}
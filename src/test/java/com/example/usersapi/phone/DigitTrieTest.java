@@ -0,0 +1,116 @@
+package com.example.usersapi.phone;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Testes da trie de dígitos e do PhoneIndex.
+ */
+class DigitTrieTest {
+
+    @Test
+    void exactMatchReturnsAllIdsOfTheNumber() {
+        DigitTrie trie = new DigitTrie();
+        trie.put("5511999999999", 7);
+        trie.put("5511999999999", 3);
+        trie.put("551199999999", 5);  // Prefixo do primeiro: outro número
+
+        assertArrayEquals(new long[]{3, 7}, trie.find("5511999999999", false, 10));
+        assertArrayEquals(new long[]{5}, trie.find("551199999999", false, 10));
+        assertArrayEquals(new long[]{3}, trie.find("5511999999999", false, 1));
+        assertArrayEquals(new long[0], trie.find("55119999", false, 10));
+        assertArrayEquals(new long[0], trie.find("5511999999998", false, 10));
+        assertFalse(trie.put("5511999999999", 3));
+        assertEquals(3, trie.size());
+    }
+
+    @Test
+    void prefixMatchIsOrderedByNumberAndStopsAtLimit() {
+        DigitTrie trie = new DigitTrie();
+        trie.put("5521912345678", 1);
+        trie.put("5511988887777", 2);
+        trie.put("5511911112222", 3);
+        trie.put("551133334444", 4);
+
+        assertArrayEquals(new long[]{4, 3, 2}, trie.find("5511", true, 10));
+        assertArrayEquals(new long[]{4, 3}, trie.find("5511", true, 2));
+        assertArrayEquals(new long[]{3, 2}, trie.find("55119", true, 10));  // Termina no meio de uma aresta
+        assertArrayEquals(new long[]{4, 3, 2, 1}, trie.find("55", true, 10));
+        assertArrayEquals(new long[0], trie.find("5531", true, 10));
+    }
+
+    @Test
+    void removeMergesNodesBack() {
+        DigitTrie trie = new DigitTrie();
+        trie.put("5511999999999", 1);
+        int nodes = trie.nodeCount();
+        trie.put("5511988887777", 2);
+        assertTrue(trie.nodeCount() > nodes);
+
+        assertTrue(trie.remove("5511988887777", 2));
+        assertFalse(trie.remove("5511988887777", 2));
+        assertFalse(trie.remove("5511999999999", 9));
+        assertEquals(nodes, trie.nodeCount());
+        assertArrayEquals(new long[]{1}, trie.find("55119", true, 10));
+
+        assertTrue(trie.remove("5511999999999", 1));
+        assertEquals(1, trie.nodeCount());
+        assertEquals(0, trie.size());
+    }
+
+    @Test
+    void matchesSortedMapUnderRandomChanges() {
+        Random random = new Random(48);
+        DigitTrie trie = new DigitTrie();
+        TreeMap<String, TreeSet<Long>> expected = new TreeMap<>();
+        List<String> numbers = new ArrayList<>();
+        for (int i = 0; i < 20_000; i++) {
+            String number = i > 0 && random.nextInt(4) == 0
+                    ? numbers.get(random.nextInt(numbers.size()))
+                    : "55" + (11 + random.nextInt(3)) + (random.nextBoolean() ? "9" : "") + (10_000_000 + random.nextInt(300));
+            numbers.add(number);
+            long id = random.nextInt(50);
+            if (random.nextInt(3) == 0) {
+                TreeSet<Long> ids = expected.get(number);
+                boolean present = ids != null && ids.remove(id);
+                assertEquals(present, trie.remove(number, id));
+                if (ids != null && ids.isEmpty()) {
+                    expected.remove(number);
+                }
+            } else {
+                assertEquals(expected.computeIfAbsent(number, n -> new TreeSet<>()).add(id), trie.put(number, id));
+            }
+        }
+
+        for (String prefix : List.of("55", "5511", "55129", "551310000", "5514")) {
+            List<Long> ids = new ArrayList<>();
+            expected.subMap(prefix, prefix + ":").values().forEach(ids::addAll);
+            List<Long> top = ids.subList(0, Math.min(25, ids.size()));
+            assertArrayEquals(top.stream().mapToLong(Long::longValue).toArray(), trie.find(prefix, true, 25), prefix);
+        }
+        for (String number : numbers.subList(0, 100)) {
+            long[] ids = expected.getOrDefault(number, new TreeSet<>()).stream().mapToLong(Long::longValue).toArray();
+            assertArrayEquals(ids, trie.find(number, false, 100), number);
+        }
+        assertEquals(expected.values().stream().mapToInt(TreeSet::size).sum(), trie.size());
+    }
+
+    @Test
+    void indexAnswersOnlyAfterLoading() {
+        PhoneIndex index = PhoneIndex.create();
+        index.add(1L, "(11) 99999-9999");
+        assertTrue(index.find("5511999999999", false, 10).isEmpty());
+
+        index.markLoaded();
+        assertArrayEquals(new long[]{1}, index.find("5511999999999", false, 10).orElseThrow());
+        index.remove(1L, "+55 11 99999-9999");
+        assertArrayEquals(new long[0], index.find("5511", true, 10).orElseThrow());
+    }
+}
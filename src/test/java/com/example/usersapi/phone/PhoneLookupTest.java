@@ -0,0 +1,131 @@
+package com.example.usersapi.phone;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.hamcrest.Matchers.contains;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * Testes de GET /users/by-phone contra a aplicação real: índice carregado na inicialização
+ * e mantido pelas escritas.
+ */
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:phonetest")
+@AutoConfigureMockMvc
+class PhoneLookupTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PhoneIndex phoneIndex;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Test
+    void seedUsersAreBackfilledAndIndexedOnStartup() throws Exception {
+        assertTrue(phoneIndex.isLoaded());
+        assertEquals("5511777777777",
+                jdbcTemplate.queryForObject("SELECT phone_digits FROM users WHERE id = 3", String.class));
+
+        // Qualquer formato do mesmo número encontra o usuário
+        for (String phone : new String[]{"(11) 77777-7777", "11777777777", "+55 11 77777 7777", "011 7777 77777"}) {
+            mockMvc.perform(get("/users/by-phone").param("phone", phone))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$[*].id").value(contains(3)));
+        }
+        mockMvc.perform(get("/users/by-phone").param("phone", "(11) 77777-7778"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(0));
+    }
+
+    @Test
+    void prefixMatchIsOrderedByNumberAndLimited() throws Exception {
+        mockMvc.perform(get("/users/by-phone").param("phone", "(11) 5").param("match", "prefix"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[*].id").value(contains(5)));
+        mockMvc.perform(get("/users/by-phone").param("phone", "11").param("match", "prefix").param("limit", "2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[*].id").value(contains(5, 4)));
+    }
+
+    @Test
+    void writesKeepTheIndexInSync() throws Exception {
+        JsonNode created = objectMapper.readTree(mockMvc.perform(post("/users")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"name\":\"Telefone\",\"email\":\"telefone@phone.test\",\"phone\":\"(31) 3333-4444\"}"))
+                .andExpect(status().isCreated())
+                .andReturn().getResponse().getContentAsString());
+        long id = created.get("id").asLong();
+        expectIds("(31) 3333-4444", id);
+
+        mockMvc.perform(put("/users/{id}", id)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"name\":\"Telefone\",\"email\":\"telefone@phone.test\",\"phone\":\"+55 31 98888-0000\"}"))
+                .andExpect(status().isOk());
+        expectIds("(31) 3333-4444");
+        expectIds("31988880000", id);
+        assertEquals("5531988880000",
+                jdbcTemplate.queryForObject("SELECT phone_digits FROM users WHERE id = ?", String.class, id));
+
+        // O upsert não sabe o telefone anterior: a entrada antiga fica no índice, mas não é entregue
+        mockMvc.perform(put("/users/by-email/{email}", "telefone@phone.test")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"name\":\"Telefone\",\"phone\":\"(31) 97777-0000\"}"))
+                .andExpect(status().isOk());
+        expectIds("31988880000");
+        expectIds("31977770000", id);
+
+        mockMvc.perform(delete("/users/{id}", id)).andExpect(status().isNoContent());
+        expectIds("31977770000");
+    }
+
+    @Test
+    void importedUsersAreIndexed() throws Exception {
+        mockMvc.perform(post("/users/import")
+                        .contentType("text/csv")
+                        .content("name,email,age,phone\nImportado,importado@phone.test,,(41) 98765-4321\n"))
+                .andExpect(status().isOk());
+
+        Long id = jdbcTemplate.queryForObject("SELECT id FROM users WHERE email = 'importado@phone.test'", Long.class);
+        expectIds("41 98765 4321", id);
+    }
+
+    @Test
+    void invalidRequestsReturnBadRequest() throws Exception {
+        mockMvc.perform(get("/users/by-phone").param("phone", "sem dígitos"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/users/by-phone"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/users/by-phone").param("phone", "11").param("match", "fuzzy"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/users/by-phone").param("phone", "11").param("limit", "101"))
+                .andExpect(status().isBadRequest());
+    }
+
+    private void expectIds(String phone, long... ids) throws Exception {
+        String body = mockMvc.perform(get("/users/by-phone").param("phone", phone))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        List<Long> found = new ArrayList<>();
+        objectMapper.readTree(body).forEach(user -> found.add(user.get("id").asLong()));
+        assertEquals(Arrays.stream(ids).boxed().toList(), found, phone);
+    }
+}
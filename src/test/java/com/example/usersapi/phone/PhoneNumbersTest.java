@@ -0,0 +1,42 @@
+package com.example.usersapi.phone;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Testes da normalização de telefones.
+ */
+class PhoneNumbersTest {
+
+    @Test
+    void nationalNumbersGetCountryCode() {
+        assertEquals("5511999999999", PhoneNumbers.normalize("(11) 99999-9999"));
+        assertEquals("551133334444", PhoneNumbers.normalize("11 3333-4444"));
+        assertEquals("5511999999999", PhoneNumbers.normalize("011 99999 9999"));  // 0 de longa distância
+    }
+
+    @Test
+    void internationalNumbersKeepTheirCountryCode() {
+        assertEquals("5511999999999", PhoneNumbers.normalize("+55 (11) 99999-9999"));
+        assertEquals("14155552671", PhoneNumbers.normalize("+1 415 555 2671"));
+        assertEquals("14155552671", PhoneNumbers.normalize("00 1 415 555 2671"));
+    }
+
+    @Test
+    void otherFormatsKeepOnlyDigits() {
+        assertEquals("99999999", PhoneNumbers.normalize("9999-9999"));  // sem DDD
+        assertEquals("123456789012345", PhoneNumbers.normalize("+123 4567 8901 2345 678"));
+        assertNull(PhoneNumbers.normalize(null));
+        assertNull(PhoneNumbers.normalize("sem telefone"));
+    }
+
+    @Test
+    void prefixIsNationalUnlessInternational() {
+        assertEquals("5511", PhoneNumbers.prefix("(11)"));
+        assertEquals("5521", PhoneNumbers.prefix("021"));
+        assertEquals("1415", PhoneNumbers.prefix("+1 415"));
+        assertThrows(IllegalArgumentException.class, () -> PhoneNumbers.prefix("  "));
+        assertThrows(IllegalArgumentException.class, () -> PhoneNumbers.exact("-"));
+    }
+}
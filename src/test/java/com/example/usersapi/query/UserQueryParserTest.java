@@ -0,0 +1,107 @@
+package com.example.usersapi.query;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Testes unitários do parser e do compilador da linguagem de filtro/ordenação.
+ */
+class UserQueryParserTest {
+
+    private final UserQueryParser parser = new UserQueryParser();
+    private final UserQueryCompiler compiler = new UserQueryCompiler();
+
+    @Test
+    void parsesFilterAndResolvesOrderThroughIndex() {
+        UserQuery query = parser.parse("createdAt<2024-06-01T00:00:00;name~sil", "-createdAt,name", 10, null);
+
+        assertEquals(List.of(
+                new FilterCondition(UserField.CREATED_AT, FilterOperator.LESS, LocalDateTime.parse("2024-06-01T00:00:00")),
+                new FilterCondition(UserField.NAME, FilterOperator.CONTAINS, "sil")), query.filters());
+        // O índice (created_at DESC, name, id) completa a ordem com o ID para não haver empates
+        assertEquals(List.of(SortKey.desc(UserField.CREATED_AT), SortKey.asc(UserField.NAME),
+                SortKey.asc(UserField.ID)), query.order());
+        assertEquals(10, query.limit());
+    }
+
+    @Test
+    void acceptsReversedIndexOrder() {
+        UserQuery query = parser.parse(null, "createdAt", null, null);
+
+        assertEquals(List.of(SortKey.asc(UserField.CREATED_AT), SortKey.desc(UserField.NAME),
+                SortKey.desc(UserField.ID)), query.order());
+        assertEquals(UserQueryParser.DEFAULT_LIMIT, query.limit());
+    }
+
+    @Test
+    void rejectsQueriesThatWouldScanTheTable() {
+        // Só predicados não indexáveis
+        assertThrows(IllegalArgumentException.class, () -> parser.parse("name~sil", null, null, null));
+        assertThrows(IllegalArgumentException.class, () -> parser.parse("updatedAt>2024-01-01T00:00:00", null, null, null));
+        // Ordenação sem índice correspondente
+        assertThrows(IllegalArgumentException.class, () -> parser.parse(null, "createdAt,name", null, null));
+        assertThrows(IllegalArgumentException.class, () -> parser.parse(null, "age", null, null));
+    }
+
+    @Test
+    void requiresFilterOnTheLeadingColumnOfTheSortIndex() {
+        // age>=18 não ajuda a percorrer o índice (name, id): seria preciso ler todos os nomes
+        assertThrows(IllegalArgumentException.class, () -> parser.parse("age>=18", "name", null, null));
+        assertThrows(IllegalArgumentException.class, () -> parser.parse("name=Ana", "-createdAt", null, null));
+        assertThrows(IllegalArgumentException.class, () -> parser.parse("age>=18;name~sil", "-createdAt,name", null, null));
+
+        // Faixa na primeira coluna do índice, ou um único usuário por igualdade em coluna única
+        assertEquals(List.of(SortKey.asc(UserField.AGE), SortKey.asc(UserField.ID)),
+                parser.parse("age>=18", "age", null, null).order());
+        assertEquals(List.of(SortKey.desc(UserField.NAME), SortKey.desc(UserField.ID)),
+                parser.parse("name^A;age>=18", "-name", null, null).order());
+        parser.parse("email=ana@email.com;age>=18", "name", null, null);
+
+        // Sem sort: a ordem do índice da coluna filtrada
+        assertEquals(List.of(SortKey.asc(UserField.AGE), SortKey.asc(UserField.ID)),
+                parser.parse("age>=18;name~sil", null, null, null).order());
+        assertEquals(List.of(SortKey.asc(UserField.ID)),
+                parser.parse("email=ana@email.com", null, null, null).order());
+    }
+
+    @Test
+    void rejectsFieldsAndOperatorsOutsideTheWhitelist() {
+        assertThrows(IllegalArgumentException.class, () -> parser.parse("phone=123", null, null, null));
+        assertThrows(IllegalArgumentException.class, () -> parser.parse("age~1", null, null, null));
+        assertThrows(IllegalArgumentException.class, () -> parser.parse("age>=abc", null, null, null));
+        assertThrows(IllegalArgumentException.class, () -> parser.parse(null, null, 0, null));
+    }
+
+    @Test
+    void compilesParameterisedKeysetSqlAndCachesByShape() {
+        List<SortKey> order = UserIndex.resolveOrder(List.of(SortKey.desc(UserField.CREATED_AT))).orElseThrow();
+        String cursor = KeysetCursor.encode(order, List.of(LocalDateTime.parse("2024-01-15T10:00:00"), "Ana; Costa", 4L));
+
+        UserQuery first = parser.parse("createdAt<2024-06-01T00:00:00", "-createdAt", 5, cursor);
+        UserQuery second = parser.parse("createdAt<2024-07-01T00:00:00", "-createdAt", 20, cursor);
+        UserQueryCompiler.SqlQuery sql = compiler.compile(first);
+        compiler.compile(second);
+
+        assertEquals("SELECT id, name, email, age, phone, created_at, updated_at FROM users"
+                + " WHERE created_at < ? AND created_at <= ? AND ((created_at < ?)"
+                + " OR (created_at = ? AND name > ?)"
+                + " OR (created_at = ? AND name = ? AND id > ?))"
+                + " ORDER BY created_at DESC, name ASC, id ASC LIMIT ?", sql.sql());
+        assertEquals("Ana; Costa", sql.parameters().get(4));
+        assertEquals(6, sql.parameters().get(sql.parameters().size() - 1));
+        // Valores diferentes, mesmo formato: um único SQL em cache
+        assertEquals(1, compiler.cachedShapes());
+    }
+
+    @Test
+    void rejectsCursorFromAnotherOrder() {
+        List<SortKey> order = UserIndex.resolveOrder(List.of()).orElseThrow();
+        String cursor = KeysetCursor.encode(order, List.of(3L));
+
+        assertThrows(IllegalArgumentException.class, () -> parser.parse(null, "name", null, cursor));
+    }
+}
@@ -0,0 +1,217 @@
+package com.example.usersapi.reactive;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.dataformat.yaml.YAMLMapper;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.core.DefaultParameterNameDiscoverer;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.reactive.server.EntityExchangeResult;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.reactive.result.method.RequestMappingInfo;
+import org.springframework.web.reactive.result.method.annotation.RequestMappingHandlerMapping;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Confere a variante reativa contra docs/openapi.yaml, o contrato da API Spring MVC.
+ *
+ * O SpringDoc (config.OpenApiDocumentTest) só conhece os controllers Spring MVC; aqui a
+ * comparação é feita com os mapeamentos do WebFlux (método, path e parâmetros) e com
+ * respostas reais: cada status e Content-Type devolvido tem de estar documentado na operação.
+ * A importação (/users/import) fica fora: só existe na API Spring MVC.
+ */
+@SpringBootTest(classes = ReactiveUsersApiApplication.class, webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = {
+                "spring.main.web-application-type=reactive",
+                "spring.r2dbc.url=r2dbc:h2:mem:///reactivecontracttest?options=DB_CLOSE_DELAY=-1"
+        })
+@ActiveProfiles(ReactiveUsersApiApplication.PROFILE)
+class ReactiveOpenApiContractTest {
+
+    private static final Path STATIC_SPEC = Path.of("docs", "openapi.yaml");
+    private static final MediaType CBOR = MediaType.APPLICATION_CBOR;
+    private static final MediaType SMILE = new MediaType("application", "x-jackson-smile");
+
+    private static JsonNode spec;
+
+    @Autowired
+    private WebTestClient webTestClient;
+
+    /**
+     * @Qualifier: o WebFlux registra outros HandlerMappings (router functions, recursos estáticos)
+     */
+    @Autowired
+    @Qualifier("requestMappingHandlerMapping")
+    private RequestMappingHandlerMapping handlerMapping;
+
+    @BeforeAll
+    static void readStaticSpec() throws IOException {
+        spec = new YAMLMapper().readTree(STATIC_SPEC.toFile());
+    }
+
+    @Test
+    void mappingsMatchDocumentedOperations() {
+        Map<String, Set<String>> documented = new TreeMap<>();
+        spec.path("paths").fields().forEachRemaining(path -> {
+            if (path.getKey().startsWith("/users/import")) {
+                return;
+            }
+            path.getValue().fields().forEachRemaining(method -> {
+                Set<String> parameters = new TreeSet<>();
+                method.getValue().path("parameters").forEach(parameter -> {
+                    String in = parameter.path("in").asText();
+                    if (in.equals("query") || in.equals("path")) {
+                        parameters.add(in + ":" + parameter.path("name").asText());
+                    }
+                });
+                documented.put(method.getKey().toUpperCase() + " " + path.getKey(), parameters);
+            });
+        });
+
+        Map<String, Set<String>> mapped = new TreeMap<>();
+        for (Map.Entry<RequestMappingInfo, HandlerMethod> entry : handlerMapping.getHandlerMethods().entrySet()) {
+            if (!entry.getValue().getBeanType().equals(ReactiveUserController.class)) {
+                continue;
+            }
+            Set<String> parameters = new TreeSet<>();
+            for (MethodParameter parameter : entry.getValue().getMethodParameters()) {
+                parameter.initParameterNameDiscovery(new DefaultParameterNameDiscoverer());
+                RequestParam query = parameter.getParameterAnnotation(RequestParam.class);
+                PathVariable path = parameter.getParameterAnnotation(PathVariable.class);
+                if (query != null) {
+                    parameters.add("query:" + (query.name().isEmpty() ? parameter.getParameterName() : query.name()));
+                } else if (path != null) {
+                    parameters.add("path:" + (path.name().isEmpty() ? parameter.getParameterName() : path.name()));
+                }
+            }
+            entry.getKey().getMethodsCondition().getMethods().forEach(method ->
+                    entry.getKey().getPatternsCondition().getPatterns().forEach(pattern ->
+                            mapped.put(method.name() + " " + pattern.getPatternString(), parameters)));
+        }
+
+        assertEquals(documented, mapped, "ReactiveUserController diverge de docs/openapi.yaml");
+    }
+
+    @Test
+    void responsesAreDocumented() {
+        Set<String> exercised = new TreeSet<>();
+
+        exercised.add(check(HttpMethod.GET, "/users", "/users", null, MediaType.APPLICATION_JSON, 200));
+        check(HttpMethod.GET, "/users?filter=age>=28&sort=age&limit=2", "/users", null, MediaType.APPLICATION_JSON, 200);
+        check(HttpMethod.GET, "/users", "/users", null, CBOR, 200);
+        check(HttpMethod.GET, "/users", "/users", null, SMILE, 200);
+        check(HttpMethod.GET, "/users?filter=phone=1", "/users", null, MediaType.APPLICATION_JSON, 400);
+
+        exercised.add(check(HttpMethod.POST, "/users", "/users",
+                "{\"name\":\"Contrato\",\"email\":\"contrato@reactive.test\",\"age\":33}", MediaType.APPLICATION_JSON, 201));
+        check(HttpMethod.POST, "/users", "/users", "{\"name\":\"\"}", MediaType.APPLICATION_JSON, 400);
+
+        exercised.add(check(HttpMethod.GET, "/users/batch?ids=1,2", "/users/batch", null, MediaType.APPLICATION_JSON, 200));
+        check(HttpMethod.GET, "/users/batch", "/users/batch", null, MediaType.APPLICATION_JSON, 400);
+
+        exercised.add(check(HttpMethod.GET, "/users/by-phone?phone=11&match=prefix", "/users/by-phone", null,
+                MediaType.APPLICATION_JSON, 200));
+        check(HttpMethod.GET, "/users/by-phone", "/users/by-phone", null, MediaType.APPLICATION_JSON, 400);
+
+        exercised.add(check(HttpMethod.GET, "/users/1", "/users/{id}", null, MediaType.APPLICATION_JSON, 200));
+        check(HttpMethod.GET, "/users/1", "/users/{id}", null, CBOR, 200);
+        check(HttpMethod.GET, "/users/999", "/users/{id}", null, MediaType.APPLICATION_JSON, 404);
+        String etag = webTestClient.get().uri("/users/1").exchange().returnResult(String.class)
+                .getResponseHeaders().getETag();
+        EntityExchangeResult<byte[]> notModified = webTestClient.get().uri("/users/1")
+                .header(HttpHeaders.IF_NONE_MATCH, etag)
+                .exchange()
+                .expectStatus().isNotModified()
+                .expectBody().returnResult();
+        assertDocumented("GET", "/users/{id}", notModified);
+
+        exercised.add(check(HttpMethod.PUT, "/users/2", "/users/{id}",
+                "{\"name\":\"Maria Santos\",\"email\":\"maria@email.com\",\"age\":25}", MediaType.APPLICATION_JSON, 200));
+        check(HttpMethod.PUT, "/users/2", "/users/{id}", "{\"name\":\"Maria Santos\",\"email\":\"joao@email.com\"}",
+                MediaType.APPLICATION_JSON, 400);
+        check(HttpMethod.PUT, "/users/999", "/users/{id}", "{\"name\":\"Ninguém\",\"email\":\"ninguem@reactive.test\"}",
+                MediaType.APPLICATION_JSON, 404);
+
+        exercised.add(check(HttpMethod.PUT, "/users/by-email/contrato-upsert@reactive.test", "/users/by-email/{email}",
+                "{\"name\":\"Upsert\"}", MediaType.APPLICATION_JSON, 201));
+        check(HttpMethod.PUT, "/users/by-email/contrato-upsert@reactive.test", "/users/by-email/{email}",
+                "{\"name\":\"Upsert\"}", MediaType.APPLICATION_JSON, 200);
+        check(HttpMethod.PUT, "/users/by-email/invalido", "/users/by-email/{email}",
+                "{\"name\":\"Upsert\"}", MediaType.APPLICATION_JSON, 400);
+
+        exercised.add(check(HttpMethod.DELETE, "/users/5", "/users/{id}", null, MediaType.APPLICATION_JSON, 204));
+        check(HttpMethod.DELETE, "/users/5", "/users/{id}", null, MediaType.APPLICATION_JSON, 404);
+
+        Set<String> documented = new TreeSet<>();
+        spec.path("paths").fields().forEachRemaining(path -> {
+            if (!path.getKey().startsWith("/users/import")) {
+                path.getValue().fieldNames().forEachRemaining(method -> documented.add(method.toUpperCase() + " " + path.getKey()));
+            }
+        });
+        assertEquals(documented, exercised, "Operação documentada sem exemplo neste teste");
+    }
+
+    @Test
+    void userBodiesOnlyUseDocumentedProperties() {
+        Set<String> documented = new TreeSet<>();
+        spec.path("components").path("schemas").path("UserResponse").path("properties").fieldNames()
+                .forEachRemaining(documented::add);
+
+        JsonNode users = webTestClient.get().uri("/users").exchange()
+                .expectStatus().isOk()
+                .expectBody(JsonNode.class).returnResult().getResponseBody();
+        assertFalse(users.isEmpty());
+        users.forEach(user -> user.fieldNames().forEachRemaining(field ->
+                assertTrue(documented.contains(field), "Propriedade fora de UserResponse: " + field)));
+    }
+
+    /**
+     * Executa a requisição, confere o status esperado e se ele (e o Content-Type) está
+     * documentado para a operação. Devolve a operação ("PUT /users/{id}").
+     */
+    private String check(HttpMethod method, String uri, String documentedPath, String body, MediaType accept, int status) {
+        WebTestClient.RequestBodySpec request = webTestClient.method(method).uri(uri).accept(accept);
+        if (body != null) {
+            request.contentType(MediaType.APPLICATION_JSON).bodyValue(body);
+        }
+        EntityExchangeResult<byte[]> result = request.exchange()
+                .expectStatus().isEqualTo(status)
+                .expectBody().returnResult();
+        assertDocumented(method.name(), documentedPath, result);
+        return method.name() + " " + documentedPath;
+    }
+
+    private void assertDocumented(String method, String path, EntityExchangeResult<byte[]> result) {
+        String operation = method + " " + path;
+        JsonNode response = spec.path("paths").path(path).path(method.toLowerCase())
+                .path("responses").path(String.valueOf(result.getStatus().value()));
+        assertFalse(response.isMissingNode(), operation + ": status não documentado " + result.getStatus());
+
+        MediaType contentType = result.getResponseHeaders().getContentType();
+        if (result.getResponseBody() == null || result.getResponseBody().length == 0) {
+            return;
+        }
+        assertNotNull(contentType, operation + ": resposta sem Content-Type");
+        String type = contentType.getType() + "/" + contentType.getSubtype();
+        assertTrue(response.path("content").has(type),
+                operation + " " + result.getStatus() + ": Content-Type não documentado " + type);
+    }
+}
@@ -0,0 +1,262 @@
+package com.example.usersapi.reactive;
+
+import com.example.usersapi.dto.UserResponse;
+import com.example.usersapi.model.User;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import reactor.core.publisher.Flux;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.hamcrest.Matchers.contains;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Testes da variante reativa (WebFlux + R2DBC) contra o servidor Netty real.
+ *
+ * spring.main.web-application-type: sem ele, o teste deduziria uma aplicação servlet
+ * (o Spring MVC também está no classpath).
+ */
+@SpringBootTest(classes = ReactiveUsersApiApplication.class, webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = {
+                "spring.main.web-application-type=reactive",
+                "spring.r2dbc.url=r2dbc:h2:mem:///reactivetest?options=DB_CLOSE_DELAY=-1"
+        })
+@ActiveProfiles(ReactiveUsersApiApplication.PROFILE)
+class ReactiveUsersApiTest {
+
+    @Autowired
+    private WebTestClient webTestClient;
+
+    @Autowired
+    private ReactiveUserRepository userRepository;
+
+    @Test
+    void listIsStreamedAsJsonArrayOrNdjson() {
+        webTestClient.get().uri("/users").exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$[0].id").isEqualTo(1)
+                .jsonPath("$[0].name").isEqualTo("João Silva")
+                .jsonPath("$[4].id").isEqualTo(5);
+
+        List<UserResponse> lines = webTestClient.get().uri("/users")
+                .accept(MediaType.APPLICATION_NDJSON)
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON)
+                .returnResult(UserResponse.class)
+                .getResponseBody()
+                .take(5)
+                .collectList()
+                .block(Duration.ofSeconds(10));
+        assertEquals(List.of(1L, 2L, 3L, 4L, 5L), lines.stream().map(UserResponse::getId).toList());
+    }
+
+    @Test
+    void repositoryOnlyEmitsWhatIsRequested() {
+        // Sem demanda, nenhuma linha; depois, exatamente o que foi pedido
+        StepVerifier.create(userRepository.findAll(), 0)
+                .expectSubscription()
+                .expectNoEvent(Duration.ofMillis(200))
+                .thenRequest(2)
+                .expectNextCount(2)
+                .expectNoEvent(Duration.ofMillis(200))
+                .thenCancel()
+                .verify(Duration.ofSeconds(10));
+    }
+
+    @Test
+    void listReadsTheTableAcrossScanPages() {
+        int count = 2 * ReactiveUserRepository.SCAN_PAGE_SIZE + 1;
+        LocalDateTime now = LocalDateTime.now();
+        Flux<User> users = Flux.range(0, count).map(i -> {
+            User user = new User("Página " + i, "pagina-" + i + "@scan.test", 20, null);
+            user.setCreatedAt(now);
+            user.setUpdatedAt(now);
+            return user;
+        });
+        StepVerifier.create(userRepository.insertAll(users, 100))
+                .expectNext((long) count)
+                .verifyComplete();
+
+        List<Long> ids = userRepository.findAll()
+                .filter(user -> user.getEmail().endsWith("@scan.test"))
+                .map(User::getId)
+                .collectList()
+                .block(Duration.ofSeconds(10));
+        assertEquals(count, ids.size());
+        assertEquals(ids.stream().sorted().distinct().toList(), ids, "IDs em ordem, sem repetição entre páginas");
+
+        webTestClient.get().uri("/users?fields=name").exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$[0].name").isEqualTo("João Silva")
+                .jsonPath("$[0].id").doesNotExist();
+    }
+
+    @Test
+    void searchPagesWithKeysetCursor() {
+        String cursor = webTestClient.get().uri("/users?filter=age>=28&sort=age&limit=2").exchange()
+                .expectStatus().isOk()
+                .expectHeader().exists(ReactiveUserController.NEXT_CURSOR_HEADER)
+                .expectBody()
+                .jsonPath("$[*].name").value(contains("Pedro Oliveira", "João Silva"))
+                .returnResult()
+                .getResponseHeaders().getFirst(ReactiveUserController.NEXT_CURSOR_HEADER);
+
+        webTestClient.get().uri(builder -> builder.path("/users")
+                        .queryParam("filter", "age>=28")
+                        .queryParam("sort", "age")
+                        .queryParam("limit", 2)
+                        .queryParam("cursor", cursor)
+                        .build())
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().doesNotExist(ReactiveUserController.NEXT_CURSOR_HEADER)
+                .expectBody()
+                .jsonPath("$[*].name").value(contains("Ana Costa", "Carlos Mendes"));
+
+        webTestClient.get().uri("/users?filter=phone=1").exchange()
+                .expectStatus().isBadRequest();
+    }
+
+    @Test
+    void getByIdSupportsETagAndSparseFields() {
+        String etag = webTestClient.get().uri("/users/2").exchange()
+                .expectStatus().isOk()
+                .expectHeader().exists(HttpHeaders.ETAG)
+                .expectBody()
+                .jsonPath("$.email").isEqualTo("maria@email.com")
+                .returnResult()
+                .getResponseHeaders().getETag();
+
+        webTestClient.get().uri("/users/2").header(HttpHeaders.IF_NONE_MATCH, etag).exchange()
+                .expectStatus().isNotModified()
+                .expectBody().isEmpty();
+
+        webTestClient.get().uri("/users/2?fields=id,name").exchange()
+                .expectStatus().isOk()
+                .expectHeader().doesNotExist(HttpHeaders.ETAG)
+                .expectBody()
+                .jsonPath("$.name").isEqualTo("Maria Santos")
+                .jsonPath("$.email").doesNotExist();
+
+        webTestClient.get().uri("/users/999999").exchange().expectStatus().isNotFound();
+    }
+
+    @Test
+    void writesFollowTheSameStatusCodes() {
+        UserResponse created = webTestClient.post().uri("/users")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue("{\"name\":\"Reativo\",\"email\":\"reativo@reactive.test\",\"age\":40,\"phone\":\"(21) 3333-4444\"}")
+                .exchange()
+                .expectStatus().isCreated()
+                .expectBody(UserResponse.class)
+                .returnResult().getResponseBody();
+        assertNotNull(created.getId());
+        assertEquals(created.getCreatedAt(), created.getUpdatedAt());
+
+        webTestClient.post().uri("/users")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue("{\"name\":\"Outro\",\"email\":\"reativo@reactive.test\"}")
+                .exchange()
+                .expectStatus().isBadRequest();
+        webTestClient.post().uri("/users")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue("{\"name\":\"\",\"email\":\"invalido\"}")
+                .exchange()
+                .expectStatus().isBadRequest()
+                .expectBody()
+                .jsonPath("$.errors.name").exists()
+                .jsonPath("$.errors.email").isEqualTo("Email deve ter um formato válido");
+
+        webTestClient.put().uri("/users/{id}", created.getId())
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue("{\"name\":\"Reativo Alterado\",\"email\":\"reativo@reactive.test\",\"phone\":\"(21) 3333-5555\"}")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.name").isEqualTo("Reativo Alterado")
+                .jsonPath("$.age").doesNotExist();
+        webTestClient.put().uri("/users/{id}", created.getId())
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue("{\"name\":\"Reativo\",\"email\":\"joao@email.com\"}")
+                .exchange()
+                .expectStatus().isBadRequest();
+        webTestClient.put().uri("/users/999999")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue("{\"name\":\"Ninguém\",\"email\":\"ninguem@reactive.test\"}")
+                .exchange()
+                .expectStatus().isNotFound();
+
+        webTestClient.delete().uri("/users/{id}", created.getId()).exchange().expectStatus().isNoContent();
+        webTestClient.delete().uri("/users/{id}", created.getId()).exchange().expectStatus().isNotFound();
+    }
+
+    @Test
+    void upsertByEmailCreatesThenUpdates() {
+        webTestClient.put().uri("/users/by-email/{email}", "upsert@reactive.test")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue("{\"name\":\"Upsert\",\"age\":20}")
+                .exchange()
+                .expectStatus().isCreated();
+        webTestClient.put().uri("/users/by-email/{email}", "upsert@reactive.test")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue("{\"name\":\"Upsert Alterado\",\"age\":21}")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.name").isEqualTo("Upsert Alterado")
+                .jsonPath("$.age").isEqualTo(21);
+        webTestClient.put().uri("/users/by-email/{email}", "sem-arroba")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue("{\"name\":\"Upsert\"}")
+                .exchange()
+                .expectStatus().isBadRequest();
+    }
+
+    @Test
+    void batchAndPhoneLookups() {
+        webTestClient.get().uri("/users/batch?ids=3,1,999999,3").exchange()
+                .expectStatus().isOk()
+                .expectBody().jsonPath("$[*].id").value(contains(3, 1));
+        webTestClient.get().uri("/users/batch").exchange().expectStatus().isBadRequest();
+
+        // phone_digits do data.sql preenchido na inicialização (ReactiveDataInitializer)
+        webTestClient.get().uri("/users/by-phone?phone={phone}", "+55 11 77777-7777").exchange()
+                .expectStatus().isOk()
+                .expectBody().jsonPath("$[*].id").value(contains(3));
+        webTestClient.get().uri("/users/by-phone?phone=11&match=prefix&limit=2").exchange()
+                .expectStatus().isOk()
+                .expectBody().jsonPath("$[*].id").value(contains(5, 4));
+        webTestClient.get().uri("/users/by-phone?phone=11&match=fuzzy").exchange()
+                .expectStatus().isBadRequest();
+    }
+
+    @Test
+    void binaryFormatsAreNegotiated() throws Exception {
+        byte[] cbor = webTestClient.get().uri("/users").accept(MediaType.parseMediaType("application/cbor")).exchange()
+                .expectStatus().isOk()
+                .expectHeader().contentTypeCompatibleWith("application/cbor")
+                .expectBody().returnResult().getResponseBody();
+        JsonNode users = new ObjectMapper(new CBORFactory()).readTree(cbor);
+        assertTrue(users.size() >= 5);
+        assertTrue(users.get(0).get("createdAt").isNumber(), "datas em epoch, como na API Spring MVC");
+
+        webTestClient.get().uri("/users/1").accept(MediaType.parseMediaType("application/x-jackson-smile")).exchange()
+                .expectStatus().isOk()
+                .expectHeader().contentTypeCompatibleWith("application/x-jackson-smile");
+    }
+}
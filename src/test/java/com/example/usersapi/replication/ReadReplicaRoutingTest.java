@@ -0,0 +1,134 @@
+package com.example.usersapi.replication;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * Testes do roteamento leitura/escrita com duas réplicas H2 locais.
+ *
+ * O ciclo agendado fica praticamente desligado (poll-interval de 1 hora) e os testes
+ * chamam sync() diretamente: entre uma escrita e o sync() as réplicas estão atrasadas.
+ * As leituras usam ?fields= (SQL direto), que não passa pelo cache de segundo nível.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:replicationtest",
+        "users.replication.enabled=true",
+        "users.replication.replica-urls[0]=jdbc:h2:mem:replicationtest-r1",
+        "users.replication.replica-urls[1]=jdbc:h2:mem:replicationtest-r2",
+        "users.replication.poll-interval=PT1H"
+})
+@AutoConfigureMockMvc
+class ReadReplicaRoutingTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ReplicaSet replicaSet;
+
+    @Autowired
+    private ReplicaSynchronizer replicaSynchronizer;
+
+    @Autowired
+    private ReplicationLog replicationLog;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void setUp() {
+        replicaSynchronizer.sync();
+    }
+
+    @Test
+    void copiesSchemaAndDataToReplicasOnStartup() {
+        long primaryUsers = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM users", Long.class);
+        for (JdbcTemplate replica : replicas()) {
+            assertEquals(primaryUsers, replica.queryForObject("SELECT COUNT(*) FROM users", Long.class));
+        }
+        replicaSet.replicas().forEach(replica -> assertEquals(replicationLog.currentVersion(), replica.getAppliedVersion()));
+    }
+
+    @Test
+    void readOnlyRequestsAreServedByReplicasUnlessTheyAreBehindTheToken() throws Exception {
+        // Linha que só existe nas réplicas: se a leitura a encontra, veio de uma réplica
+        replicas().forEach(replica -> replica.update("INSERT INTO users (id, name, email, created_at, updated_at) "
+                + "VALUES (900, 'Somente Replica', 'replica@email.com', LOCALTIMESTAMP, LOCALTIMESTAMP)"));
+        try {
+            for (int i = 0; i < 2; i++) {
+                mockMvc.perform(get("/users/900").param("fields", "id,name"))
+                        .andExpect(status().isOk())
+                        .andExpect(jsonPath("$.name").value("Somente Replica"));
+            }
+
+            // Nenhuma réplica aplicou a versão pedida: a leitura vai ao principal
+            mockMvc.perform(get("/users/900").param("fields", "id,name")
+                            .header(ConsistencyToken.HEADER, replicationLog.currentVersion() + 1))
+                    .andExpect(status().isNotFound());
+            mockMvc.perform(get("/users/900").param("fields", "id,name")
+                            .header(ConsistencyToken.HEADER, "invalido"))
+                    .andExpect(status().isNotFound());
+        } finally {
+            replicas().forEach(replica -> replica.update("DELETE FROM users WHERE id = 900"));
+        }
+    }
+
+    @Test
+    void writeReturnsTokenThatGivesReadYourWrites() throws Exception {
+        String token = mockMvc.perform(post("/users")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"name\":\"Leitura Propria\",\"email\":\"propria@email.com\",\"age\":31}"))
+                .andExpect(status().isCreated())
+                .andExpect(header().exists(ConsistencyToken.HEADER))
+                .andReturn().getResponse().getHeader(ConsistencyToken.HEADER);
+        Long id = jdbcTemplate.queryForObject("SELECT id FROM users WHERE email = 'propria@email.com'", Long.class);
+
+        // Sem o token: réplica ainda atrasada. Com o token: principal
+        mockMvc.perform(get("/users/{id}", id).param("fields", "id,name"))
+                .andExpect(status().isNotFound());
+        mockMvc.perform(get("/users/{id}", id).param("fields", "id,name").header(ConsistencyToken.HEADER, token))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.name").value("Leitura Propria"));
+
+        replicaSynchronizer.sync();
+
+        replicaSet.replicas().forEach(replica -> assertTrue(replica.getAppliedVersion() >= Long.parseLong(token)));
+        for (int i = 0; i < 2; i++) {
+            mockMvc.perform(get("/users/{id}", id).param("fields", "id,name").header(ConsistencyToken.HEADER, token))
+                    .andExpect(status().isOk());
+        }
+    }
+
+    @Test
+    void updatesAndDeletesReachReplicas() throws Exception {
+        mockMvc.perform(put("/users/2")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"name\":\"Maria Replicada\",\"email\":\"maria@email.com\",\"age\":25}"))
+                .andExpect(status().isOk());
+        mockMvc.perform(delete("/users/5")).andExpect(status().isNoContent());
+
+        replicaSynchronizer.sync();
+
+        for (JdbcTemplate replica : replicas()) {
+            assertEquals("Maria Replicada", replica.queryForObject("SELECT name FROM users WHERE id = 2", String.class));
+            assertEquals(0, replica.queryForObject("SELECT COUNT(*) FROM users WHERE id = 5", Long.class));
+        }
+        assertEquals(0, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM replication_changelog", Long.class));
+    }
+
+    private List<JdbcTemplate> replicas() {
+        return replicaSet.replicas().stream().map(replica -> new JdbcTemplate(replica.getDataSource())).toList();
+    }
+}
@@ -0,0 +1,140 @@
+package com.example.usersapi.repository;
+
+import com.example.usersapi.dto.UpdateUserRequest;
+import com.example.usersapi.dto.UpsertUserRequest;
+import com.example.usersapi.model.ImportFormat;
+import com.example.usersapi.model.User;
+import com.example.usersapi.service.UserImportService;
+import com.example.usersapi.service.UserService;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Testes do cache de segundo nível: leituras repetidas não vão ao banco e toda forma
+ * de escrita (JPA, JPQL em lote, SQL direto do upsert e da importação) invalida o cache.
+ *
+ * O número de instruções preparadas (estatísticas do Hibernate) mostra se a leitura
+ * foi ao banco.
+ */
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:cachetest")
+class UserSecondLevelCacheTest {
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private UserImportService userImportService;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private Statistics statistics;
+
+    @Autowired
+    void statistics(EntityManagerFactory entityManagerFactory) {
+        this.statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @BeforeEach
+    void setUp() {
+        entityManager.getEntityManagerFactory().getCache().evictAll();
+        statistics.clear();
+    }
+
+    @Test
+    void repeatedLookupsAreServedFromMemory() {
+        assertTrue(userRepository.findById(1L).isPresent());
+        assertEquals(1, userRepository.findByEmail("joao@email.com").map(User::getId).orElseThrow());
+        assertTrue(userRepository.existsById(1L));
+        assertEquals(1, userRepository.findByAge(30).size());
+        long statements = statistics.getPrepareStatementCount();
+
+        for (int i = 0; i < 3; i++) {
+            assertEquals("João Silva", userRepository.findById(1L).orElseThrow().getName());
+            assertEquals(1, userRepository.findByEmail("joao@email.com").map(User::getId).orElseThrow());
+            assertTrue(userRepository.existsById(1L));
+            assertEquals(1, userRepository.findByAge(30).size());
+        }
+
+        assertEquals(statements, statistics.getPrepareStatementCount());
+        assertTrue(statistics.getDomainDataRegionStatistics(User.CACHE_REGION).getHitCount() >= 3);
+        assertEquals(9, statistics.getQueryCacheHitCount());
+        assertTrue(gauge("entity") > 0.5);
+        assertTrue(gauge("query") > 0.5);
+    }
+
+    @Test
+    void jpaUpdateInvalidatesEntityAndQueries() {
+        assertEquals(1, userRepository.findByAge(25).size());
+        assertEquals("Maria Santos", userRepository.findById(2L).orElseThrow().getName());
+
+        userService.updateUser(2L, new UpdateUserRequest("Maria Cache", "maria@email.com", 26, null));
+
+        assertEquals("Maria Cache", userRepository.findById(2L).orElseThrow().getName());
+        assertEquals(0, userRepository.findByAge(25).size());
+        assertEquals("Maria Cache", userRepository.findByAge(26).get(0).getName());
+    }
+
+    @Test
+    void bulkJpqlUpdateInvalidatesEntityAndQueries() {
+        assertNotEquals("11999990000", userRepository.findById(3L).orElseThrow().getPhone());
+        assertEquals(0, userRepository.findByAgeBetween(90, 99).size());
+
+        transactionTemplate.executeWithoutResult(status -> entityManager
+                .createQuery("UPDATE User u SET u.phone = '11999990000', u.age = 95 WHERE u.id = 3")
+                .executeUpdate());
+
+        assertEquals("11999990000", userRepository.findById(3L).orElseThrow().getPhone());
+        assertEquals(3L, userRepository.findByAgeBetween(90, 99).get(0).getId());
+    }
+
+    @Test
+    void sqlWritesOutsideJpaInvalidateEntityAndQueries() {
+        double upserts = invalidations("upsert");
+        assertEquals("Ana Costa", userRepository.findById(4L).orElseThrow().getName());
+        assertFalse(userRepository.existsByEmail("cache.upsert@email.com"));
+        assertFalse(userRepository.existsByEmail("cache.import@email.com"));
+
+        userService.upsertUserByEmail("ana@email.com", new UpsertUserRequest("Ana Upsert", 33, null));
+        userService.upsertUserByEmail("cache.upsert@email.com", new UpsertUserRequest("Novo Upsert", 20, null));
+        userImportService.importUsers("cache-import", ImportFormat.NDJSON, new ByteArrayInputStream(
+                "{\"name\":\"Novo Import\",\"email\":\"cache.import@email.com\"}\n".getBytes(StandardCharsets.UTF_8)));
+
+        assertEquals("Ana Upsert", userRepository.findById(4L).orElseThrow().getName());
+        assertTrue(userRepository.existsByEmail("cache.upsert@email.com"));
+        assertTrue(userRepository.existsByEmail("cache.import@email.com"));
+        assertEquals(upserts + 2, invalidations("upsert"));
+        assertTrue(invalidations("import") >= 1);
+    }
+
+    private double gauge(String region) {
+        return meterRegistry.get("users.cache.hit.ratio").tag("region", region).gauge().value();
+    }
+
+    private double invalidations(String source) {
+        var counter = meterRegistry.find("users.cache.invalidations").tag("source", source).counter();
+        return counter == null ? 0 : counter.count();
+    }
+}
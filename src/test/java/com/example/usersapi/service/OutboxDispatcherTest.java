@@ -0,0 +1,304 @@
+package com.example.usersapi.service;
+
+import com.example.usersapi.dto.CreateUserRequest;
+import com.example.usersapi.dto.UpdateUserRequest;
+import com.example.usersapi.dto.UserResponse;
+import com.example.usersapi.model.OutboxEvent;
+import com.example.usersapi.repository.OutboxDeliveryRepository;
+import com.example.usersapi.repository.OutboxEventRepository;
+import com.github.tomakehurst.wiremock.WireMockServer;
+import com.github.tomakehurst.wiremock.http.Fault;
+import com.github.tomakehurst.wiremock.stubbing.Scenario;
+import com.github.tomakehurst.wiremock.verification.LoggedRequest;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Limit;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.*;
+import static com.github.tomakehurst.wiremock.core.WireMockConfiguration.options;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Testes do outbox transacional usando WireMock como assinante dos webhooks
+ * (/hooks/users e /hooks/audit, este sempre respondendo 204 salvo quando o teste muda).
+ *
+ * O ciclo agendado fica praticamente desligado (poll-interval de 1 hora)
+ * e cada teste chama drain() diretamente para controlar o momento da entrega.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:outboxtest",
+        "users.outbox.enabled=true",
+        "users.outbox.poll-interval=PT1H",
+        "users.outbox.concurrency=4",
+        "users.outbox.initial-backoff=PT0S",
+        "users.outbox.max-attempts=3"
+})
+@AutoConfigureMockMvc
+class OutboxDispatcherTest {
+
+    private static final WireMockServer subscriber = startSubscriber();
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private OutboxDispatcher outboxDispatcher;
+
+    @Autowired
+    private OutboxEventRepository outboxEventRepository;
+
+    @Autowired
+    private OutboxDeliveryRepository outboxDeliveryRepository;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    private static WireMockServer startSubscriber() {
+        WireMockServer server = new WireMockServer(options().dynamicPort().bindAddress("localhost"));
+        server.start();
+        return server;
+    }
+
+    /**
+     * Aponta os webhooks para o servidor WireMock (porta dinâmica).
+     */
+    @DynamicPropertySource
+    static void webhookProperties(DynamicPropertyRegistry registry) {
+        registry.add("users.outbox.webhooks[0]", () -> subscriber.baseUrl() + "/hooks/users");
+        registry.add("users.outbox.webhooks[1]", () -> subscriber.baseUrl() + "/hooks/audit");
+    }
+
+    @AfterAll
+    static void stopSubscriber() {
+        subscriber.stop();
+    }
+
+    @BeforeEach
+    void setUp() {
+        subscriber.resetAll();
+        subscriber.stubFor(post("/hooks/audit").willReturn(aResponse().withStatus(204)));
+        outboxDeliveryRepository.deleteAll();
+        outboxEventRepository.deleteAll();
+    }
+
+    @Test
+    void deliversEventsOfTheSameUserInOrder() {
+        subscriber.stubFor(post("/hooks/users").willReturn(aResponse().withStatus(204)));
+
+        UserResponse user = userService.createUser(
+                new CreateUserRequest("Evento Ordem", "ordem@email.com", 40, null));
+        userService.updateUser(user.getId(),
+                new UpdateUserRequest("Evento Ordem 2", "ordem@email.com", 41, null));
+        userService.deleteUser(user.getId());
+
+        assertEquals(3, outboxDispatcher.drain());
+        assertEquals(0, outboxEventRepository.count());
+
+        List<String> types = receivedEventTypes();
+        assertEquals(List.of("USER_CREATED", "USER_UPDATED", "USER_DELETED"), types);
+
+        LoggedRequest created = subscriber.findAll(postRequestedFor(urlEqualTo("/hooks/users"))).get(0);
+        assertTrue(created.getBodyAsString().contains("\"email\":\"ordem@email.com\""));
+        assertNotNull(created.getHeader("X-Event-Id"));
+    }
+
+    @Test
+    void retriesFailedEventAndHoldsLaterEventsOfTheSameUser() {
+        // Primeira chamada falha com 500, as seguintes respondem 200
+        subscriber.stubFor(post("/hooks/users").inScenario("falha")
+                .whenScenarioStateIs(Scenario.STARTED)
+                .willReturn(aResponse().withStatus(500))
+                .willSetStateTo("recuperado"));
+        subscriber.stubFor(post("/hooks/users").inScenario("falha")
+                .whenScenarioStateIs("recuperado")
+                .willReturn(aResponse().withStatus(200)));
+
+        UserResponse user = userService.createUser(
+                new CreateUserRequest("Evento Retry", "retry@email.com", 22, null));
+        userService.updateUser(user.getId(),
+                new UpdateUserRequest("Evento Retry 2", "retry@email.com", 23, null));
+
+        // O primeiro evento falha e o segundo não é enviado antes dele
+        assertEquals(0, outboxDispatcher.drain());
+        subscriber.verify(1, postRequestedFor(urlEqualTo("/hooks/users")));
+        OutboxEvent failed = outboxEventRepository
+                .findByStatusOrderByIdAsc(OutboxEvent.Status.PENDING, Limit.of(1)).get(0);
+        assertEquals(1, failed.getAttempts());
+        assertTrue(failed.getLastError().contains("500"));
+
+        // Nova tentativa entrega os dois, na ordem original
+        assertEquals(2, outboxDispatcher.drain());
+        assertEquals(List.of("USER_CREATED", "USER_CREATED", "USER_UPDATED"), receivedEventTypes());
+    }
+
+    @Test
+    void marksEventAsFailedAfterMaxAttempts() {
+        subscriber.stubFor(post("/hooks/users")
+                .willReturn(aResponse().withFault(Fault.CONNECTION_RESET_BY_PEER)));
+
+        userService.createUser(new CreateUserRequest("Evento Falho", "falho@email.com", 30, null));
+
+        for (int i = 0; i < 3; i++) {
+            outboxDispatcher.drain();
+        }
+
+        assertEquals(0, outboxEventRepository.countByStatus(OutboxEvent.Status.PENDING));
+        assertEquals(1, outboxEventRepository.countByStatus(OutboxEvent.Status.FAILED));
+    }
+
+    @Test
+    void deliversDifferentUsersConcurrently() {
+        subscriber.stubFor(post("/hooks/users")
+                .willReturn(aResponse().withStatus(200).withFixedDelay(300)));
+
+        for (int i = 0; i < 4; i++) {
+            userService.createUser(new CreateUserRequest("Evento Lento " + i, "lento" + i + "@email.com", 20 + i, null));
+        }
+
+        long start = System.nanoTime();
+        assertEquals(4, outboxDispatcher.drain());
+        long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+
+        // Em sequência seriam ao menos 1200 ms; com 4 entregas simultâneas fica perto de 300 ms
+        assertTrue(elapsedMillis < 1000, "Entrega levou " + elapsedMillis + " ms");
+    }
+
+    @Test
+    void usersInBackoffDoNotBlockOtherUsers() {
+        subscriber.stubFor(post("/hooks/users").willReturn(aResponse().withStatus(200)));
+
+        UserResponse blocked = userService.createUser(
+                new CreateUserRequest("Evento Bloqueado", "bloqueado@email.com", 50, null));
+        userService.updateUser(blocked.getId(),
+                new UpdateUserRequest("Evento Bloqueado 2", "bloqueado@email.com", 51, null));
+        UserResponse other = userService.createUser(
+                new CreateUserRequest("Evento Livre", "livre@email.com", 52, null));
+
+        // O primeiro evento do usuário bloqueado está em backoff; o segundo espera por ele
+        OutboxEvent inBackoff = outboxEventRepository
+                .findByStatusOrderByIdAsc(OutboxEvent.Status.PENDING, Limit.of(1)).get(0);
+        inBackoff.setNextAttemptAt(LocalDateTime.now().plusHours(1));
+        outboxEventRepository.save(inBackoff);
+
+        // Mesmo com lote de 1, o lote não é ocupado pelos eventos bloqueados, mais antigos
+        List<OutboxEvent> batch = outboxEventRepository.findDeliverable(
+                OutboxEvent.Status.PENDING, OutboxEvent.Status.FAILED, LocalDateTime.now(), Limit.of(1));
+        assertEquals(List.of(other.getId()), batch.stream().map(OutboxEvent::getUserId).toList());
+
+        assertEquals(1, outboxDispatcher.drain());
+        assertEquals(List.of("USER_CREATED"), receivedEventTypes());
+        assertEquals(2, outboxEventRepository.countByStatus(OutboxEvent.Status.PENDING));
+    }
+
+    @Test
+    void deadLetterHoldsLaterEventsOfTheUserUntilReplayed() throws Exception {
+        subscriber.stubFor(post("/hooks/users").willReturn(aResponse().withStatus(503)));
+
+        UserResponse user = userService.createUser(
+                new CreateUserRequest("Evento Dead Letter", "deadletter@email.com", 33, null));
+        for (int i = 0; i < 3; i++) {
+            outboxDispatcher.drain();
+        }
+        OutboxEvent failed = outboxEventRepository
+                .findByStatusOrderByIdAsc(OutboxEvent.Status.FAILED, Limit.of(1)).get(0);
+
+        // O assinante volta, mas a atualização não passa na frente da criação em dead letter
+        subscriber.stubFor(post("/hooks/users").willReturn(aResponse().withStatus(204)));
+        userService.updateUser(user.getId(),
+                new UpdateUserRequest("Evento Dead Letter 2", "deadletter@email.com", 34, null));
+        assertEquals(0, outboxDispatcher.drain());
+        assertEquals(List.of("USER_CREATED", "USER_CREATED", "USER_CREATED"), receivedEventTypes());
+
+        mockMvc.perform(MockMvcRequestBuilders.get("/actuator/outbox"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].id").value(failed.getId()))
+                .andExpect(jsonPath("$[0].type").value("USER_CREATED"))
+                .andExpect(jsonPath("$[0].attempts").value(3));
+
+        mockMvc.perform(MockMvcRequestBuilders.post("/actuator/outbox/{id}", failed.getId()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.status").value("PENDING"));
+
+        // Depois do replay os dois são entregues, na ordem original
+        assertEquals(2, outboxDispatcher.drain());
+        assertEquals(List.of("USER_CREATED", "USER_CREATED", "USER_CREATED", "USER_CREATED", "USER_UPDATED"),
+                receivedEventTypes());
+        assertEquals(0, outboxEventRepository.count());
+
+        // Sem evento FAILED com esse ID: 404
+        mockMvc.perform(MockMvcRequestBuilders.post("/actuator/outbox/{id}", failed.getId()))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void acknowledgedDeadLetterReleasesLaterEventsOfTheUser() throws Exception {
+        subscriber.stubFor(post("/hooks/users").willReturn(aResponse().withStatus(503)));
+
+        UserResponse user = userService.createUser(
+                new CreateUserRequest("Evento Descartado", "descartado@email.com", 35, null));
+        for (int i = 0; i < 3; i++) {
+            outboxDispatcher.drain();
+        }
+        OutboxEvent failed = outboxEventRepository
+                .findByStatusOrderByIdAsc(OutboxEvent.Status.FAILED, Limit.of(1)).get(0);
+
+        subscriber.stubFor(post("/hooks/users").willReturn(aResponse().withStatus(204)));
+        userService.deleteUser(user.getId());
+        assertEquals(0, outboxDispatcher.drain());
+
+        mockMvc.perform(MockMvcRequestBuilders.delete("/actuator/outbox/{id}", failed.getId()))
+                .andExpect(status().isOk());
+
+        // A criação foi descartada; a exclusão, que esperava por ela, é entregue
+        assertEquals(1, outboxDispatcher.drain());
+        assertEquals("USER_DELETED", receivedEventTypes().get(receivedEventTypes().size() - 1));
+        assertEquals(0, outboxEventRepository.count());
+    }
+
+    @Test
+    void retryOnlyCallsWebhooksThatHaveNotConfirmed() {
+        subscriber.stubFor(post("/hooks/users").willReturn(aResponse().withStatus(204)));
+        // O webhook de auditoria falha na primeira chamada e responde nas seguintes
+        subscriber.stubFor(post("/hooks/audit").inScenario("auditoria")
+                .whenScenarioStateIs(Scenario.STARTED)
+                .willReturn(aResponse().withStatus(500))
+                .willSetStateTo("recuperado"));
+        subscriber.stubFor(post("/hooks/audit").inScenario("auditoria")
+                .whenScenarioStateIs("recuperado")
+                .willReturn(aResponse().withStatus(204)));
+
+        userService.createUser(new CreateUserRequest("Evento Parcial", "parcial@email.com", 36, null));
+
+        assertEquals(0, outboxDispatcher.drain());
+        assertEquals(1, outboxDeliveryRepository.count());
+
+        // A nova tentativa chama só a auditoria: /hooks/users recebeu o evento uma única vez
+        assertEquals(1, outboxDispatcher.drain());
+        subscriber.verify(1, postRequestedFor(urlEqualTo("/hooks/users")));
+        subscriber.verify(2, postRequestedFor(urlEqualTo("/hooks/audit")));
+        assertEquals(0, outboxDeliveryRepository.count());
+        assertEquals(0, outboxEventRepository.count());
+    }
+
+    /**
+     * Tipos dos eventos recebidos pelo assinante, em ordem de chegada.
+     */
+    private List<String> receivedEventTypes() {
+        return subscriber.findAll(postRequestedFor(urlEqualTo("/hooks/users"))).stream()
+                .map(request -> request.getHeader("X-Event-Type"))
+                .toList();
+    }
+}
@@ -0,0 +1,238 @@
+package com.example.usersapi.service;
+
+import com.example.usersapi.dto.ImportRejectionResponse;
+import com.example.usersapi.dto.ImportReport;
+import com.example.usersapi.model.ImportFormat;
+import com.example.usersapi.repository.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.io.ByteArrayInputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * Testes da importação em lote (lotes pequenos para exercitar vários commits).
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:importtest",
+        "users.import.batch-size=3",
+        "users.import.validation-threads=2"
+})
+@AutoConfigureMockMvc
+class UserImportServiceTest {
+
+    @Autowired
+    private UserImportService userImportService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void importsValidCsvRowsAndReportsRejects() throws Exception {
+        String csv = """
+                email,name,age,phone
+                csv1@email.com,Importado Um,20,
+                csv1@email.com,Repetido No Arquivo,40,
+                email-invalido,Importado Tres,22,
+                joao@email.com,Email Existente,30,
+                csv2@email.com,"Importado, Dois",,(11) 90000-0001
+                csv6@email.com,Idade Invalida,abc,
+                csv7@email.com,Importado Sete,27,
+                """;
+
+        ImportReport report = userImportService.importUsers("csv-import", ImportFormat.CSV, stream(csv));
+
+        assertEquals("COMPLETED", report.getStatus());
+        assertEquals(3, report.getImported());
+        assertEquals(4, report.getRejected());
+        assertEquals(8, report.getLinesCommitted());
+        assertEquals("Importado, Dois", userRepository.findByEmail("csv2@email.com").orElseThrow().getName());
+        assertNull(userRepository.findByEmail("csv2@email.com").orElseThrow().getAge());
+
+        assertEquals("/users/import/csv-import/rejections", report.getRejectionsUrl());
+        List<ImportRejectionResponse> rejections = userImportService.getRejections("csv-import", 0, 100);
+        assertEquals(4, rejections.size());
+        assertEquals(3, rejections.get(0).getLine());
+        assertTrue(rejections.get(0).getErrors().get(0).contains("Email repetido no arquivo"));
+        assertEquals("csv1@email.com,Repetido No Arquivo,40,", rejections.get(0).getRaw());
+        assertTrue(rejections.get(1).getErrors().get(0).contains("Email deve ter um formato válido"));
+        assertTrue(rejections.get(2).getErrors().get(0).contains("Email já está em uso"));
+        assertTrue(rejections.get(3).getErrors().get(0).contains("linha inválida"));
+
+        // Segunda página pela URL do relatório, a partir da última linha recebida
+        mockMvc.perform(get(report.getRejectionsUrl()).param("afterLine", "4").param("limit", "2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(2))
+                .andExpect(jsonPath("$[0].line").value(5))
+                .andExpect(jsonPath("$[1].line").value(7));
+        mockMvc.perform(get(report.getRejectionsUrl()).param("limit", "0"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/users/import/{importId}/rejections", "no-such-import"))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void resumesFromLastCommittedBatchAfterInterruption() {
+        StringBuilder ndjson = new StringBuilder();
+        for (int i = 1; i <= 10; i++) {
+            ndjson.append("{\"name\":\"Retomado ").append(i).append("\",\"email\":\"retomado").append(i)
+                    .append("@email.com\",\"age\":").append(20 + i).append("}\n");
+        }
+        byte[] content = ndjson.toString().getBytes(StandardCharsets.UTF_8);
+
+        // Conexão cai no meio da 6ª linha: só o primeiro lote (3 linhas) é confirmado
+        int cut = ndjson.indexOf("retomado6");
+        ImportReport interrupted = userImportService.importUsers("resume-import", ImportFormat.NDJSON,
+                failingAfter(content, cut));
+        assertEquals("FAILED", interrupted.getStatus());
+        assertEquals(3, interrupted.getLinesCommitted());
+        assertEquals(3, interrupted.getImported());
+
+        ImportReport resumed = userImportService.importUsers("resume-import", ImportFormat.NDJSON,
+                new ByteArrayInputStream(content));
+        assertEquals("COMPLETED", resumed.getStatus());
+        assertEquals(10, resumed.getLinesCommitted());
+        assertEquals(10, resumed.getImported());
+        assertEquals(0, resumed.getRejected());
+        assertTrue(userRepository.existsByEmail("retomado10@email.com"));
+
+        // Concluída: reenviar não importa de novo
+        ImportReport again = userImportService.importUsers("resume-import", ImportFormat.NDJSON,
+                new ByteArrayInputStream(content));
+        assertEquals(10, again.getImported());
+    }
+
+    @Test
+    void importsNdjsonOverHttp() throws Exception {
+        String ndjson = """
+                {"name":"Http Um","email":"http1@email.com","age":31}
+                {"name":"H","email":"http2@email.com"}
+                """;
+
+        mockMvc.perform(post("/users/import").param("importId", "http-import")
+                        .contentType("application/x-ndjson")
+                        .content(ndjson))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.status").value("COMPLETED"))
+                .andExpect(jsonPath("$.imported").value(1))
+                .andExpect(jsonPath("$.rejected").value(1));
+
+        mockMvc.perform(get("/users/import/{importId}", "http-import"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.linesCommitted").value(2));
+
+        mockMvc.perform(post("/users/import").contentType("text/csv").content("nome,email\n"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void databaseFailureMarksImportFailedWithServerError() throws Exception {
+        String ndjson = """
+                {"name":"Banco Um","email":"banco1@email.com"}
+                {"name":"Banco Dois","email":"banco2@email.com"}
+                {"name":"Banco Tres","email":"banco3@email.com"}
+                {"name":"Falha Banco","email":"banco4@email.com"}
+                """;
+        // O banco recusa a 4ª linha (2º lote) depois que a validação a aceitou
+        jdbcTemplate.execute("ALTER TABLE users ADD CONSTRAINT chk_import_test CHECK (name <> 'Falha Banco')");
+        try {
+            mockMvc.perform(post("/users/import").param("importId", "db-failure-import")
+                            .contentType("application/x-ndjson")
+                            .content(ndjson))
+                    .andExpect(status().isInternalServerError())
+                    .andExpect(jsonPath("$.message").value(containsString("depois da linha 3")));
+        } finally {
+            jdbcTemplate.execute("ALTER TABLE users DROP CONSTRAINT chk_import_test");
+        }
+        assertEquals("FAILED", userImportService.getImport("db-failure-import").getStatus());
+        assertNotNull(jdbcTemplate.queryForObject("SELECT last_error FROM user_import WHERE id = 'db-failure-import'",
+                String.class));
+        assertFalse(userRepository.existsByEmail("banco4@email.com"));
+
+        ImportReport resumed = userImportService.importUsers("db-failure-import", ImportFormat.NDJSON, stream(ndjson));
+        assertEquals("COMPLETED", resumed.getStatus());
+        assertEquals(4, resumed.getImported());
+    }
+
+    @Test
+    void concurrentCallWithSameImportIdIsRefused() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        InputStream blocked = new FilterInputStream(stream("{\"name\":\"Concorrente\",\"email\":\"concorrente@email.com\"}\n")) {
+            @Override
+            public int read(byte[] buffer, int offset, int length) throws IOException {
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    throw new IOException(e);
+                }
+                return super.read(buffer, offset, length);
+            }
+        };
+        CompletableFuture<ImportReport> first = CompletableFuture.supplyAsync(
+                () -> userImportService.importUsers("concurrent-import", ImportFormat.NDJSON, blocked));
+        try {
+            while (!importExists("concurrent-import")) {
+                Thread.sleep(10);
+            }
+            assertThrows(ImportInProgressException.class,
+                    () -> userImportService.importUsers("concurrent-import", ImportFormat.NDJSON, stream("")));
+            mockMvc.perform(post("/users/import").param("importId", "concurrent-import")
+                            .contentType("application/x-ndjson")
+                            .content(""))
+                    .andExpect(status().isConflict());
+        } finally {
+            release.countDown();
+        }
+
+        ImportReport report = first.get(30, TimeUnit.SECONDS);
+        assertEquals("COMPLETED", report.getStatus());
+        assertEquals(1, report.getImported());
+    }
+
+    private boolean importExists(String importId) {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM user_import WHERE id = ?", Long.class, importId) > 0;
+    }
+
+    private static InputStream stream(String content) {
+        return new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Stream que entrega os primeiros bytes e depois falha, como uma conexão interrompida.
+     */
+    private static InputStream failingAfter(byte[] content, int bytes) {
+        return new FilterInputStream(new ByteArrayInputStream(content, 0, bytes)) {
+            @Override
+            public int read(byte[] buffer, int offset, int length) throws IOException {
+                int read = super.read(buffer, offset, length);
+                if (read < 0) {
+                    throw new IOException("Conexão interrompida");
+                }
+                return read;
+            }
+        };
+    }
+}
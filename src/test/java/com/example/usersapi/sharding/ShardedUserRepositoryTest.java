@@ -0,0 +1,263 @@
+package com.example.usersapi.sharding;
+
+import com.example.usersapi.model.User;
+import com.example.usersapi.repository.UserRepository;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.dao.IncorrectResultSizeDataAccessException;
+import org.springframework.data.domain.Example;
+import org.springframework.data.domain.ExampleMatcher;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+import static org.hamcrest.Matchers.contains;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * Testes do particionamento de usuários em três bancos H2 em memória.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:shardtest",
+        "users.sharding.enabled=true",
+        "users.sharding.shard-urls[0]=jdbc:h2:mem:shardtest-0",
+        "users.sharding.shard-urls[1]=jdbc:h2:mem:shardtest-1",
+        "users.sharding.shard-urls[2]=jdbc:h2:mem:shardtest-2"
+})
+@AutoConfigureMockMvc
+class ShardedUserRepositoryTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ShardSet shardSet;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Test
+    void seedUsersAreDistributedByIdHash() throws Exception {
+        assertInstanceOf(ShardedUserRepository.class, userRepository);
+        for (long id = 1; id <= 5; id++) {
+            assertEquals(List.of(shardSet.indexFor(id)), shardsHolding(id));
+        }
+        assertEquals(5, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM " + EmailDirectory.TABLE
+                + " WHERE user_id <= 5", Long.class));
+
+        mockMvc.perform(get("/users/3"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.name").value("Pedro Oliveira"));
+        mockMvc.perform(get("/users/3").param("fields", "name"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.name").value("Pedro Oliveira"));
+
+        // Índice de telefones carregado a partir de todos os shards
+        mockMvc.perform(get("/users/by-phone").param("phone", "+55 11 77777-7777"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].id").value(3));
+        mockMvc.perform(get("/users/by-phone").param("phone", "11").param("match", "prefix").param("limit", "2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[*].name").value(contains("Carlos Mendes", "Ana Costa")));
+    }
+
+    @Test
+    void writesGoToOneShardAndEmailsAreUniqueAcrossShards() throws Exception {
+        MvcResult created = mockMvc.perform(post("/users")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"name\":\"Sharded Um\",\"email\":\"sharded1@email.com\",\"age\":40}"))
+                .andExpect(status().isCreated())
+                .andReturn();
+        long id = objectMapper.readTree(created.getResponse().getContentAsString()).get("id").asLong();
+        assertTrue(id > 5);
+        assertEquals(List.of(shardSet.indexFor(id)), shardsHolding(id));
+
+        // O email já existe em algum shard (talvez outro): recusado pelo diretório
+        mockMvc.perform(post("/users")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"name\":\"Duplicado\",\"email\":\"maria@email.com\"}"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(put("/users/{id}", id)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"name\":\"Sharded Um\",\"email\":\"pedro@email.com\",\"age\":40}"))
+                .andExpect(status().isBadRequest());
+
+        mockMvc.perform(put("/users/{id}", id)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"name\":\"Sharded Um\",\"email\":\"sharded1-novo@email.com\",\"age\":41}"))
+                .andExpect(status().isOk());
+        assertFalse(userRepository.existsByEmail("sharded1@email.com"));
+        assertEquals(id, userRepository.findByEmail("sharded1-novo@email.com").orElseThrow().getId());
+
+        mockMvc.perform(delete("/users/{id}", id)).andExpect(status().isNoContent());
+        assertEquals(List.of(), shardsHolding(id));
+        assertFalse(userRepository.existsByEmail("sharded1-novo@email.com"));
+    }
+
+    @Test
+    void listingsAndSearchesMergeAllShardsInOrder() throws Exception {
+        List<User> saved = new ArrayList<>();
+        for (int i = 0; i < 12; i++) {
+            saved.add(userRepository.save(new User("Merge " + (char) ('A' + (i * 7) % 12), "merge" + i + "@email.com", 60 + i % 3, null)));
+        }
+        try {
+            List<String> expected = saved.stream().map(User::getName).sorted().toList();
+            List<String> paged = new ArrayList<>();
+            String cursor = null;
+            do {
+                var request = get("/users").param("filter", "name^Merge").param("sort", "name").param("limit", "5");
+                MvcResult page = mockMvc.perform(cursor == null ? request : request.param("cursor", cursor))
+                        .andExpect(status().isOk())
+                        .andReturn();
+                objectMapper.readTree(page.getResponse().getContentAsString())
+                        .forEach(user -> paged.add(user.get("name").asText()));
+                cursor = page.getResponse().getHeader("X-Next-Cursor");
+            } while (cursor != null);
+            assertEquals(expected, paged);
+
+            JsonNode all = objectMapper.readTree(mockMvc.perform(get("/users"))
+                    .andExpect(status().isOk()).andReturn().getResponse().getContentAsString());
+            List<Long> ids = new ArrayList<>();
+            all.forEach(user -> ids.add(user.get("id").asLong()));
+            assertEquals(17, ids.size());
+            assertEquals(ids.stream().sorted().toList(), ids);
+
+            assertEquals(4, userRepository.findByAge(61).size());
+            assertEquals(12, userRepository.findByAgeBetween(60, 62).size());
+            Page<User> second = userRepository.findAll(PageRequest.of(1, 4, Sort.by(Sort.Order.desc("name"))));
+            assertEquals(17, second.getTotalElements());
+            assertEquals(userRepository.findAll().stream().map(User::getName).sorted(Comparator.reverseOrder())
+                            .skip(4).limit(4).toList(),
+                    second.getContent().stream().map(User::getName).toList());
+        } finally {
+            userRepository.deleteAll(saved);
+        }
+    }
+
+    @Test
+    void explicitIdsAndPhoneLookupsAreRoutedAcrossShards() {
+        LocalDateTime createdAt = LocalDateTime.of(2020, 1, 2, 3, 4, 5);
+        List<User> saved = new ArrayList<>();
+        for (int i = 0; i < 6; i++) {
+            User user = new User("Fone " + i, "fone" + i + "@email.com", 30, "+55 11 98888-000" + i % 3);
+            user.setId(900L + i);
+            user.setCreatedAt(createdAt);
+            user.setUpdatedAt(createdAt);
+            userRepository.insertWithId(user);
+            saved.add(user);
+        }
+        try {
+            assertEquals(List.of(shardSet.indexFor(903L)), shardsHolding(903L));
+            assertEquals(createdAt, userRepository.findById(903L).orElseThrow().getCreatedAt());
+            assertEquals(903L, userRepository.findByEmail("fone3@email.com").orElseThrow().getId());
+            User duplicated = new User("Outro", "fone3@email.com", null, null);
+            duplicated.setId(999L);
+            assertThrows(DuplicateKeyException.class, () -> userRepository.insertWithId(duplicated));
+
+            assertEquals(List.of(901L, 904L), userRepository.findByPhoneDigitsOrderByIdAsc("5511988880001", Limit.of(5))
+                    .stream().map(User::getId).toList());
+            // Faixa do prefixo: ordem (phone_digits, id) juntando os três shards
+            assertEquals(List.of(900L, 903L, 901L, 904L), userRepository
+                    .findByPhoneDigitsRange("551198888", "551198888:", Limit.of(4))
+                    .stream().map(User::getId).toList());
+        } finally {
+            userRepository.deleteAll(saved);
+        }
+    }
+
+    @Test
+    void exampleQueriesMergeAllShards() {
+        List<User> saved = new ArrayList<>();
+        for (int i = 0; i < 9; i++) {
+            saved.add(userRepository.save(new User("Exemplo " + (char) ('A' + i), "exemplo" + i + "@email.com", 70 + i % 2, null)));
+        }
+        try {
+            ExampleMatcher byName = ExampleMatcher.matching()
+                    .withIgnorePaths("age")
+                    .withMatcher("name", matcher -> matcher.startsWith().ignoreCase());
+            Example<User> example = Example.of(new User("exemplo", null, null, null), byName);
+            assertEquals(9, userRepository.count(example));
+            assertEquals(saved.stream().map(User::getId).toList(),
+                    userRepository.findAll(example).stream().map(User::getId).toList());
+            assertTrue(userRepository.exists(Example.of(new User(null, "exemplo4@email.com", null, null))));
+            assertEquals(5, userRepository.findAll(Example.of(new User("Exemplo", null, 70, null),
+                    ExampleMatcher.matching().withMatcher("name", matcher -> matcher.startsWith()))).size());
+
+            Page<User> second = userRepository.findAll(example, PageRequest.of(1, 4, Sort.by(Sort.Order.desc("name"))));
+            assertEquals(9, second.getTotalElements());
+            assertEquals(List.of("Exemplo E", "Exemplo D", "Exemplo C", "Exemplo B"),
+                    second.getContent().stream().map(User::getName).toList());
+            assertThrows(IncorrectResultSizeDataAccessException.class, () -> userRepository.findOne(example));
+            assertEquals(saved.get(2).getId(), userRepository.findOne(Example.of(new User(null, "exemplo2@email.com", null, null)))
+                    .orElseThrow().getId());
+
+            interface NameOnly {
+                String getName();
+            }
+            List<String> names = userRepository.findBy(example, query -> query.sortBy(Sort.by(Sort.Order.desc("name")))
+                    .limit(3).as(NameOnly.class).all()).stream().map(NameOnly::getName).toList();
+            assertEquals(List.of("Exemplo I", "Exemplo H", "Exemplo G"), names);
+
+            List<String> scrolled = new ArrayList<>();
+            Window<User> window = userRepository.findBy(example, query -> query.sortBy(Sort.by("name")).limit(4)
+                    .scroll(ScrollPosition.keyset()));
+            window.forEach(user -> scrolled.add(user.getName()));
+            while (window.hasNext()) {
+                ScrollPosition next = window.positionAt(window.size() - 1);
+                window = userRepository.findBy(example, query -> query.sortBy(Sort.by("name")).limit(4).scroll(next));
+                window.forEach(user -> scrolled.add(user.getName()));
+            }
+            assertEquals(saved.stream().map(User::getName).toList(), scrolled);
+        } finally {
+            userRepository.deleteAll(saved);
+        }
+    }
+
+    @Test
+    void shardWriteIsUndoneWhenTheTransactionRollsBack() {
+        List<Long> created = new ArrayList<>();
+        assertThrows(IllegalStateException.class, () -> transactionTemplate.executeWithoutResult(status -> {
+            created.add(userRepository.save(new User("Desfeito", "desfeito@email.com", 20, null)).getId());
+            throw new IllegalStateException("falha depois da escrita");
+        }));
+
+        assertEquals(List.of(), shardsHolding(created.get(0)));
+        assertFalse(userRepository.existsByEmail("desfeito@email.com"));
+    }
+
+    private List<Integer> shardsHolding(long id) {
+        return shardSet.shards().stream()
+                .filter(shard -> !shard.getJdbcTemplate().queryForList("SELECT 1 FROM users WHERE id = ?", id).isEmpty())
+                .map(ShardSet.Shard::getIndex)
+                .toList();
+    }
+}
@@ -0,0 +1,167 @@
+package com.example.usersapi.stale;
+
+import com.example.usersapi.config.StaleReadProperties;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.framework.ProxyFactory;
+import org.springframework.dao.DataAccessResourceFailureException;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Testes da política de idade do StaleReadInterceptor, com relógio e executor controlados.
+ * fresh-for 1 s, stale-while-revalidate 10 s, stale-if-error 60 s.
+ */
+class StaleReadInterceptorTest {
+
+    interface Directory {
+
+        @ServeStale
+        String name(Long id);
+
+        void rename(Long id, String name);
+    }
+
+    /**
+     * "Banco" em memória: conta as leituras e pode falhar.
+     */
+    static class InMemoryDirectory implements Directory {
+
+        final Map<Long, String> names = new ConcurrentHashMap<>();
+        final AtomicInteger reads = new AtomicInteger();
+        volatile RuntimeException failure;
+
+        @Override
+        public String name(Long id) {
+            reads.incrementAndGet();
+            if (failure != null) {
+                throw failure;
+            }
+            String name = names.get(id);
+            if (name == null) {
+                throw new RuntimeException("Usuário não encontrado com ID: " + id);
+            }
+            return name;
+        }
+
+        @Override
+        public void rename(Long id, String name) {
+            names.put(id, name);
+        }
+    }
+
+    private final AtomicLong now = new AtomicLong(1_000_000);
+    private final List<Runnable> pendingRefreshes = new ArrayList<>();
+    private final InMemoryDirectory database = new InMemoryDirectory();
+    private StaleReadInterceptor interceptor;
+    private Directory directory;
+
+    @BeforeEach
+    void setUp() {
+        StaleReadProperties properties = new StaleReadProperties();
+        properties.setFreshFor(Duration.ofSeconds(1));
+        properties.setStaleWhileRevalidate(Duration.ofSeconds(10));
+        properties.setStaleIfError(Duration.ofSeconds(60));
+        interceptor = new StaleReadInterceptor(new StaleReadCache(100), properties, pendingRefreshes::add, now::get);
+
+        ProxyFactory proxyFactory = new ProxyFactory(database);
+        proxyFactory.addInterface(Directory.class);
+        proxyFactory.addAdvice(interceptor);
+        directory = (Directory) proxyFactory.getProxy();
+        database.names.put(1L, "Ana");
+    }
+
+    @Test
+    void freshResponseSkipsTheDatabase() {
+        assertEquals("Ana", directory.name(1L));
+        now.addAndGet(999);
+
+        assertEquals("Ana", directory.name(1L));
+        assertEquals(1, database.reads.get());
+        assertEquals(1, interceptor.getFresh());
+    }
+
+    @Test
+    void staleResponseIsServedWhileOneRefreshRuns() {
+        directory.name(1L);
+        database.names.put(1L, "Ana Maria");  // Alterada por outra instância
+        now.addAndGet(5_000);
+
+        assertEquals("Ana", directory.name(1L));
+        assertEquals("Ana", directory.name(1L));
+        assertEquals(1, pendingRefreshes.size(), "Uma atualização por leitura");
+        assertEquals(1, database.reads.get());
+
+        pendingRefreshes.remove(0).run();
+        assertEquals("Ana Maria", directory.name(1L));
+        assertEquals(2, database.reads.get());
+        assertEquals(1, interceptor.getRefreshes());
+    }
+
+    @Test
+    void databaseFailureServesStaleResponseUntilStaleIfError() {
+        directory.name(1L);
+        database.failure = new DataAccessResourceFailureException("Banco fora do ar");
+        now.addAndGet(30_000);
+
+        assertEquals("Ana", directory.name(1L));
+        assertEquals(1, interceptor.getServedOnError());
+
+        now.addAndGet(31_000);
+        assertThrows(DataAccessResourceFailureException.class, () -> directory.name(1L));
+    }
+
+    @Test
+    void missingUserIsNotHiddenByStaleResponse() {
+        directory.name(1L);
+        database.names.remove(1L);
+        now.addAndGet(30_000);
+
+        RuntimeException e = assertThrows(RuntimeException.class, () -> directory.name(1L));
+        assertTrue(e.getMessage().contains("não encontrado"));
+    }
+
+    @Test
+    void failedRefreshOfRemovedUserDropsTheResponse() {
+        directory.name(1L);
+        database.names.remove(1L);
+        now.addAndGet(5_000);
+
+        directory.name(1L);
+        pendingRefreshes.remove(0).run();
+
+        assertThrows(RuntimeException.class, () -> directory.name(1L));
+        assertEquals(1, interceptor.getRefreshFailures());
+    }
+
+    @Test
+    void writeDiscardsResponsesOfTheUser() {
+        directory.name(1L);
+
+        directory.rename(1L, "Ana Paula");
+
+        assertEquals("Ana Paula", directory.name(1L));
+        assertEquals(2, database.reads.get());
+    }
+
+    @Test
+    void readOverlappingAWriteIsNotKept() throws Exception {
+        StaleReadCache cache = new StaleReadCache(100);
+        StaleReadCache.Key key = new StaleReadCache.Key(Directory.class.getMethod("name", Long.class), List.of(1L));
+
+        long sequence = cache.sequence();  // Leitura começa
+        cache.invalidate(List.of(1L));      // Escrita confirmada no meio dela
+        cache.put(key, new long[]{1L}, "Ana", now.get(), sequence);
+
+        assertNull(cache.get(key));
+        assertEquals(0, cache.size());
+    }
+}
@@ -0,0 +1,93 @@
+package com.example.usersapi.stale;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * Testes das leituras com resposta antiga contra a aplicação real: sem fresh-for nem
+ * stale-while-revalidate, toda leitura vai ao banco e a resposta guardada só aparece se ele falhar.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:staletest",
+        "users.stale.enabled=true",
+        "users.stale.fresh-for=PT0S",
+        "users.stale.stale-while-revalidate=PT0S",
+        "users.stale.stale-if-error=PT1H"
+})
+@AutoConfigureMockMvc
+class StaleReadTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Test
+    void databaseFailureServesLastResponseWithWarning() throws Exception {
+        mockMvc.perform(get("/users/{id}", 2))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist(HttpHeaders.WARNING));
+        mockMvc.perform(get("/users/batch").param("ids", "2,1"))
+                .andExpect(status().isOk());
+
+        // "Derruba" a tabela; sem o cache de segundo nível, a leitura precisa do banco
+        jdbcTemplate.execute("ALTER TABLE users RENAME TO users_down");
+        entityManagerFactory.getCache().evictAll();
+        try {
+            mockMvc.perform(get("/users/{id}", 2))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.name").value("Maria Santos"))
+                    .andExpect(header().string(HttpHeaders.WARNING, "111 - \"Revalidation Failed\""))
+                    .andExpect(header().exists(HttpHeaders.AGE));
+            mockMvc.perform(get("/users/batch").param("ids", "2,1"))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.length()").value(2))
+                    .andExpect(header().exists(HttpHeaders.WARNING));
+
+            // Nunca lido antes: não há o que entregar
+            mockMvc.perform(get("/users/{id}", 5))
+                    .andExpect(header().doesNotExist(HttpHeaders.WARNING))
+                    .andExpect(result -> assertNotEquals(200, result.getResponse().getStatus()));
+        } finally {
+            jdbcTemplate.execute("ALTER TABLE users_down RENAME TO users");
+        }
+
+        assertEquals(2, meterRegistry.get("users.stale.served.on.error").functionCounter().count());
+    }
+
+    @Test
+    void updateIsVisibleImmediately() throws Exception {
+        mockMvc.perform(get("/users/{id}", 3))
+                .andExpect(jsonPath("$.age").isNotEmpty());
+
+        mockMvc.perform(put("/users/{id}", 3)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"name\":\"Pedro Oliveira\",\"email\":\"pedro@email.com\",\"age\":77}"))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(get("/users/{id}", 3))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.age").value(77))
+                .andExpect(header().doesNotExist(HttpHeaders.WARNING));
+    }
+}
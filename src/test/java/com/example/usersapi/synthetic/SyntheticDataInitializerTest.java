@@ -0,0 +1,56 @@
+package com.example.usersapi.synthetic;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.sql.Timestamp;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * Teste da carga de usuários sintéticos na inicialização (users.synthetic).
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:synthetictest",
+        "users.synthetic.enabled=true",
+        "users.synthetic.users=20000",
+        "users.synthetic.seed=3",
+        "users.synthetic.batch-size=1500"
+})
+@AutoConfigureMockMvc
+class SyntheticDataInitializerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private SyntheticDataInitializer initializer;
+
+    @Test
+    void loadsGeneratedUsersAfterTheSeedDataWithTheirTimestamps() throws Exception {
+        assertEquals(20_005, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM users", Long.class));
+
+        SyntheticUser last = new SyntheticUserGenerator(3).user(19_999);
+        assertEquals(Timestamp.valueOf(last.createdAt()), jdbcTemplate.queryForObject(
+                "SELECT created_at FROM users WHERE id = 20005", Timestamp.class));
+        mockMvc.perform(get("/users/20005"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.name").value(last.name()))
+                .andExpect(jsonPath("$.email").value(last.email()));
+        mockMvc.perform(get("/users/2"))
+                .andExpect(jsonPath("$.name").value("Maria Santos"));
+
+        // Mesma semente de novo: os usuários já estão lá
+        initializer.load();
+        assertEquals(20_005, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM users", Long.class));
+    }
+}
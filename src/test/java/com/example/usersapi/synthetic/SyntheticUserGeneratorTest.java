@@ -0,0 +1,122 @@
+package com.example.usersapi.synthetic;
+
+import com.example.usersapi.dto.CreateUserRequest;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.csv.CsvMapper;
+import com.fasterxml.jackson.dataformat.csv.CsvParser;
+import com.fasterxml.jackson.dataformat.csv.CsvSchema;
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.text.Normalizer;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Testes do gerador de usuários sintéticos: determinismo, unicidade e distribuições.
+ */
+class SyntheticUserGeneratorTest {
+
+    private static final CsvMapper CSV_MAPPER = CsvMapper.builder()
+            .enable(CsvParser.Feature.EMPTY_STRING_AS_NULL)
+            .build();
+
+    private static final Pattern PHONE = Pattern.compile("\\(\\d{2}\\) 9\\d{4}-\\d{4}");
+
+    @Test
+    void sameSeedGeneratesSameUsersInAnyOrder() {
+        SyntheticUserGenerator generator = new SyntheticUserGenerator(7);
+        List<SyntheticUser> users = generator.users(1000).toList();
+
+        assertEquals(users, new SyntheticUserGenerator(7).users(1000).toList());
+        assertEquals(users.get(999), new SyntheticUserGenerator(7).user(999));
+        assertNotEquals(users, new SyntheticUserGenerator(8).users(1000).toList());
+    }
+
+    @Test
+    void usersAreValidUniqueAndRealisticallyDistributed() {
+        Validator validator = Validation.buildDefaultValidatorFactory().getValidator();
+        Set<String> emails = new HashSet<>();
+        int count = 100_000;
+        int accented = 0;
+        int withoutAge = 0;
+        int withoutPhone = 0;
+        int young = 0;
+        int areaCode11 = 0;
+        long recent = 0;
+
+        for (SyntheticUser user : new SyntheticUserGenerator(42).users(count).toList()) {
+            assertTrue(emails.add(user.email()), "email repetido: " + user.email());
+            CreateUserRequest request = user.toCreateRequest();
+            if (emails.size() <= 2000) {
+                assertEquals(Set.of(), validator.validate(request), user.toString());
+            }
+            if (!user.name().equals(Normalizer.normalize(user.name(), Normalizer.Form.NFD))) {
+                accented++;
+            }
+            if (user.age() == null) {
+                withoutAge++;
+            } else {
+                assertTrue(user.age() >= 18 && user.age() <= 90, user.toString());
+                young += user.age() < 40 ? 1 : 0;
+            }
+            if (user.phone() == null) {
+                withoutPhone++;
+            } else {
+                assertTrue(PHONE.matcher(user.phone()).matches(), user.phone());
+                areaCode11 += user.phone().startsWith("(11)") ? 1 : 0;
+            }
+            assertFalse(user.createdAt().isAfter(SyntheticUserGenerator.DEFAULT_END));
+            assertFalse(user.createdAt().isBefore(SyntheticUserGenerator.DEFAULT_END.minus(SyntheticUserGenerator.SPAN)));
+            assertFalse(user.updatedAt().isBefore(user.createdAt()));
+            recent += user.createdAt().isAfter(SyntheticUserGenerator.DEFAULT_END.minusYears(1)) ? 1 : 0;
+        }
+
+        assertTrue(accented > count / 3, "nomes com acento: " + accented);
+        assertEquals(0.05, withoutAge / (double) count, 0.01);
+        assertEquals(0.07, withoutPhone / (double) count, 0.01);
+        // Idade assimétrica: a maioria abaixo dos 40
+        assertTrue(young > 0.7 * (count - withoutAge), "abaixo de 40: " + young);
+        assertTrue(areaCode11 > 0.15 * (count - withoutPhone), "DDD 11: " + areaCode11);
+        // Mais usuários recentes: o último ano (20% do período) tem bem mais de 20% das criações
+        assertTrue(recent > 0.35 * count, "criados no último ano: " + recent);
+    }
+
+    @Test
+    void writesFilesInTheImportFormat(@TempDir Path directory) throws IOException {
+        SyntheticUserGenerator generator = new SyntheticUserGenerator(1);
+        Path csv = directory.resolve("users.csv");
+        Path ndjson = directory.resolve("users.ndjson");
+
+        assertEquals(500, SyntheticUserFiles.write(generator, 500, csv));
+        assertEquals(500, SyntheticUserFiles.write(generator, 500, ndjson));
+
+        // Lidos de volta como a importação lê: cabeçalho CSV e um objeto JSON por linha
+        List<CreateUserRequest> expected = generator.users(500).map(SyntheticUser::toCreateRequest).toList();
+        assertEquals("name,email,age,phone", Files.readAllLines(csv, StandardCharsets.UTF_8).get(0));
+        try (MappingIterator<CreateUserRequest> rows = CSV_MAPPER.readerFor(CreateUserRequest.class)
+                .with(CsvSchema.emptySchema().withHeader())
+                .readValues(csv.toFile())) {
+            assertEquals(expected, rows.readAll());
+        }
+        List<String> ndjsonLines = Files.readAllLines(ndjson, StandardCharsets.UTF_8);
+        assertEquals(500, ndjsonLines.size());
+        ObjectMapper objectMapper = new ObjectMapper();
+        for (int i = 0; i < ndjsonLines.size(); i++) {
+            assertEquals(expected.get(i), objectMapper.readValue(ndjsonLines.get(i), CreateUserRequest.class));
+        }
+
+        assertThrows(IllegalArgumentException.class, () -> SyntheticUserFiles.write(generator, 1, directory.resolve("users.txt")));
+    }
+}
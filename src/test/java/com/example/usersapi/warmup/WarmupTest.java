@@ -0,0 +1,97 @@
+package com.example.usersapi.warmup;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.availability.AvailabilityChangeEvent;
+import org.springframework.boot.availability.ReadinessState;
+import org.springframework.boot.logging.LogLevel;
+import org.springframework.boot.logging.LoggingSystem;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.ApplicationListener;
+import org.springframework.context.annotation.Bean;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * Testes do aquecimento na inicialização: readiness só depois dele, relatório e nenhum resíduo no banco.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:warmuptest",
+        "users.warmup.enabled=true",
+        "users.warmup.iterations=50",
+        "users.warmup.slices=5"
+})
+@AutoConfigureMockMvc
+class WarmupTest {
+
+    /**
+     * Estado do aquecimento no momento em que o Spring Boot publicou ACCEPTING_TRAFFIC.
+     */
+    private static final AtomicReference<Warmup.Status> STATUS_WHEN_READY = new AtomicReference<>();
+
+    @TestConfiguration
+    static class ReadinessRecorder {
+
+        @Bean
+        ApplicationListener<AvailabilityChangeEvent<?>> readinessRecorder(Warmup warmup) {
+            return event -> {
+                if (event.getState() == ReadinessState.ACCEPTING_TRAFFIC) {
+                    STATUS_WHEN_READY.set(warmup.getStatus());
+                }
+            };
+        }
+    }
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private Warmup warmup;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private LoggingSystem loggingSystem;
+
+    @Test
+    void readinessFlipsOnlyAfterWarmupWithLatencyReport() throws Exception {
+        assertEquals(Warmup.Status.COMPLETED, STATUS_WHEN_READY.get());
+
+        WarmupReport report = warmup.getReport();
+        assertEquals(Warmup.Status.COMPLETED, report.status());
+        assertEquals(50, report.iterations());
+        assertEquals(WarmupOperation.values().length, report.operations().size());
+        for (WarmupReport.OperationLatency operation : report.operations()) {
+            assertEquals(5, operation.slices().size());
+            assertEquals(1, operation.slices().get(0).fromIteration());
+            assertEquals(50, operation.slices().get(4).toIteration());
+            operation.slices().forEach(slice -> assertTrue(slice.p99Micros() >= slice.p50Micros()));
+        }
+
+        mockMvc.perform(get("/actuator/health/readiness"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.status").value("UP"))
+                .andExpect(jsonPath("$.components.warmup.details.status").value("COMPLETED"))
+                .andExpect(jsonPath("$.components.warmup.details.report.operations[0].operation").value("validation"));
+    }
+
+    @Test
+    void leavesNoScratchUsersAndRestoresLogLevels() {
+        assertEquals(5, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM users", Long.class));
+        assertEquals(0, jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM users WHERE email LIKE '%@warmup.invalid'", Long.class));
+        assertEquals(0, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM user_outbox", Long.class));
+
+        assertEquals(LogLevel.DEBUG, loggingSystem.getLoggerConfiguration("org.hibernate.SQL").getConfiguredLevel());
+        assertNull(loggingSystem.getLoggerConfiguration("com.example.usersapi.service").getConfiguredLevel());
+    }
+}